@@ -45,4 +45,25 @@ public class CompositeExecutionInstrumentation implements ExecutionInstrumentati
       exec.executionFailed(agent, cause, elapsedMs);
     }
   }
+
+  @Override
+  public void executionScheduled(Agent agent, long lagMs) {
+    for (ExecutionInstrumentation exec : instrumentations) {
+      exec.executionScheduled(agent, lagMs);
+    }
+  }
+
+  @Override
+  public void executionDeferred(Agent agent, long lagMs) {
+    for (ExecutionInstrumentation exec : instrumentations) {
+      exec.executionDeferred(agent, lagMs);
+    }
+  }
+
+  @Override
+  public void executionDropped(Agent agent) {
+    for (ExecutionInstrumentation exec : instrumentations) {
+      exec.executionDropped(agent);
+    }
+  }
 }
@@ -102,6 +102,25 @@ public class CompositeCache implements Cache {
     return identifiers;
   }
 
+  @Override
+  public Map<String, Collection<CacheData>> getAllByType(
+      Map<String, ? extends Collection<String>> identifiersByType,
+      Map<String, CacheFilter> cacheFilters) {
+    Map<String, Map<String, CacheData>> allItems = new HashMap<>();
+    for (Cache cache : caches) {
+      for (Map.Entry<String, Collection<CacheData>> entry :
+          cache.getAllByType(identifiersByType, cacheFilters).entrySet()) {
+        allItems.put(entry.getKey(), merge(allItems.get(entry.getKey()), entry.getValue()));
+      }
+    }
+    Map<String, Collection<CacheData>> response = new HashMap<>(identifiersByType.size());
+    for (String type : identifiersByType.keySet()) {
+      Map<String, CacheData> items = allItems.get(type);
+      response.put(type, items == null ? new ArrayList<>() : items.values());
+    }
+    return response;
+  }
+
   @Override
   public Collection<CacheData> getAll(String type, Collection<String> identifiers) {
     return getAll(type, identifiers, null);
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+/**
+ * Encodes the values a cache backend stores for a cache record, i.e. its attributes and each of its
+ * relationships, to and from bytes.
+ */
+public interface CacheDataCodec {
+
+  /** @return a short, stable name for this format, e.g. for configuration and metric tags */
+  String getName();
+
+  byte[] encode(Object value);
+
+  <T> T decode(byte[] encoded, TypeReference<T> type);
+
+  /** @return true if {@code encoded} looks like it was produced by this codec */
+  boolean canDecode(byte[] encoded);
+}
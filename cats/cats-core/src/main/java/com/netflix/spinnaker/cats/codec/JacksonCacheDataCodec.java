@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Writes and reads values with the given {@link ObjectMapper} through generators and parsers of
+ * another {@link JsonFactory}, so the mapper's modules and inclusion settings apply to every
+ * format.
+ */
+abstract class JacksonCacheDataCodec implements CacheDataCodec {
+
+  private final ObjectMapper objectMapper;
+  private final JsonFactory factory;
+
+  JacksonCacheDataCodec(ObjectMapper objectMapper, JsonFactory factory) {
+    this.objectMapper = objectMapper;
+    this.factory = factory;
+  }
+
+  @Override
+  public byte[] encode(Object value) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (JsonGenerator generator = factory.createGenerator(out)) {
+      objectMapper.writeValue(generator, value);
+    } catch (IOException e) {
+      throw new CacheDataCodecException("Failed to encode value as " + getName(), e);
+    }
+    return out.toByteArray();
+  }
+
+  @Override
+  public <T> T decode(byte[] encoded, TypeReference<T> type) {
+    try (JsonParser parser = factory.createParser(encoded)) {
+      return objectMapper.readValue(parser, type);
+    } catch (IOException e) {
+      throw new CacheDataCodecException("Failed to decode " + getName() + " value", e);
+    }
+  }
+}
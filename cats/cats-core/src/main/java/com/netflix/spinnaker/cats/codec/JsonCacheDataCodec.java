@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/** UTF-8 JSON, byte for byte what {@link ObjectMapper#writeValueAsString(Object)} produces. */
+public class JsonCacheDataCodec extends JacksonCacheDataCodec {
+
+  public static final String NAME = "json";
+
+  public JsonCacheDataCodec(ObjectMapper objectMapper) {
+    super(objectMapper, objectMapper.getFactory());
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public boolean canDecode(byte[] encoded) {
+    for (byte b : encoded) {
+      if (!Character.isWhitespace(b)) {
+        return b == '{' || b == '[';
+      }
+    }
+    return false;
+  }
+}
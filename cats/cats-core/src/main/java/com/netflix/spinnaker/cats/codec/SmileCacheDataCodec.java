@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileConstants;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+/**
+ * Binary Smile. Repeated property names (attribute keys, relationship type names) and short string
+ * values are written once per value and back-referenced after that, and property names are
+ * interned on read.
+ */
+public class SmileCacheDataCodec extends JacksonCacheDataCodec {
+
+  public static final String NAME = "smile";
+
+  public SmileCacheDataCodec(ObjectMapper objectMapper) {
+    super(objectMapper, smileFactory());
+  }
+
+  private static SmileFactory smileFactory() {
+    SmileFactory factory = new SmileFactory();
+    factory.enable(SmileGenerator.Feature.WRITE_HEADER);
+    factory.enable(SmileGenerator.Feature.CHECK_SHARED_NAMES);
+    factory.enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES);
+    factory.enable(JsonFactory.Feature.INTERN_FIELD_NAMES);
+    return factory;
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public boolean canDecode(byte[] encoded) {
+    // the upper nibble of the fourth header byte holds the format version
+    return encoded.length >= 4
+        && encoded[0] == SmileConstants.HEADER_BYTE_1
+        && encoded[1] == SmileConstants.HEADER_BYTE_2
+        && encoded[2] == SmileConstants.HEADER_BYTE_3
+        && ((encoded[3] >> 4) & 0x0F) == SmileConstants.HEADER_VERSION_0;
+  }
+}
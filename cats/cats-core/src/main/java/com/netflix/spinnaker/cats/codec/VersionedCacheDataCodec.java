@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes one format and reads any of the registered ones, picking the codec from the header of
+ * each value, so a backend can switch formats while values written in the previous one are still
+ * stored.
+ */
+public class VersionedCacheDataCodec implements CacheDataCodec {
+
+  private final CacheDataCodec writeCodec;
+  private final List<CacheDataCodec> readCodecs;
+
+  public VersionedCacheDataCodec(CacheDataCodec writeCodec, List<CacheDataCodec> readable) {
+    this.writeCodec = writeCodec;
+    this.readCodecs = new ArrayList<>(readable.size() + 1);
+    this.readCodecs.add(writeCodec);
+    for (CacheDataCodec codec : readable) {
+      if (!codec.getName().equals(writeCodec.getName())) {
+        this.readCodecs.add(codec);
+      }
+    }
+  }
+
+  @Override
+  public String getName() {
+    return writeCodec.getName();
+  }
+
+  @Override
+  public byte[] encode(Object value) {
+    return writeCodec.encode(value);
+  }
+
+  @Override
+  public <T> T decode(byte[] encoded, TypeReference<T> type) {
+    return codecFor(encoded).decode(encoded, type);
+  }
+
+  @Override
+  public boolean canDecode(byte[] encoded) {
+    return readCodecs.stream().anyMatch(it -> it.canDecode(encoded));
+  }
+
+  /** @return the codec that produced {@code encoded} */
+  public CacheDataCodec codecFor(byte[] encoded) {
+    for (CacheDataCodec codec : readCodecs) {
+      if (codec.canDecode(encoded)) {
+        return codec;
+      }
+    }
+    throw new IllegalArgumentException(
+        "Unrecognized cache value format (expected one of "
+            + readCodecs.stream().map(CacheDataCodec::getName).collect(Collectors.joining(", "))
+            + ")");
+  }
+}
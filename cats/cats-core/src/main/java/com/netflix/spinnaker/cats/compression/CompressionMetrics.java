@@ -0,0 +1,29 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.compression;
+
+/** Receives per-type compression statistics from a {@link CompressionStrategy}. */
+public interface CompressionMetrics {
+  default void compressed(String type, int rawBytes, int storedBytes, long cpuTimeNanos) {
+    // noop
+  }
+
+  default void decompressed(String type, int storedBytes, int rawBytes, long cpuTimeNanos) {
+    // noop
+  }
+
+  class NOOP implements CompressionMetrics {}
+}
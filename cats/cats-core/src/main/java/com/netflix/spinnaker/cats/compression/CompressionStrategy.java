@@ -19,4 +19,25 @@ public interface CompressionStrategy {
   String compress(final String str);
 
   String decompress(final String compressed);
+
+  /**
+   * Compresses a value for a backend that can store raw bytes, avoiding the text encoding that
+   * {@link #compress(String)} has to apply.
+   *
+   * @param type the cache type the value belongs to, which implementations may use to select a
+   *     compression dictionary; may be null
+   * @return the stored representation, which may be {@code raw} itself if it wasn't worth
+   *     compressing
+   */
+  default byte[] compressBytes(final String type, final byte[] raw) {
+    return raw;
+  }
+
+  /**
+   * Reverses {@link #compressBytes(String, byte[])}. Values that were stored uncompressed are
+   * returned as-is.
+   */
+  default byte[] decompressBytes(final String type, final byte[] stored) {
+    return stored;
+  }
 }
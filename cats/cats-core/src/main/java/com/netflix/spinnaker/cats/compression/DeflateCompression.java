@@ -0,0 +1,265 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.compression;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Raw DEFLATE compression with optional per-type preset dictionaries.
+ *
+ * <p>Cache records of a given type share most of their structure (attribute names, relationship
+ * key prefixes, account and region names), so a dictionary built from representative records lets
+ * even small values compress well. Compressed values are framed as:
+ *
+ * <pre>
+ *   magic (2 bytes) | dictionary id (4 bytes, Adler-32 of the dictionary, 0 if none)
+ *                   | uncompressed length (4 bytes) | deflate stream
+ * </pre>
+ *
+ * The dictionary id lets values written with a previous dictionary be read as long as that
+ * dictionary is still registered, and the uncompressed length allows decompression straight into
+ * an exactly sized array. Values below the size threshold are stored as-is; anything not carrying
+ * the magic prefix is treated as uncompressed on read.
+ *
+ * <p>{@link Deflater}, {@link Inflater} and scratch buffers are pooled per thread.
+ */
+public class DeflateCompression implements CompressionStrategy {
+
+  private static final Logger log = LoggerFactory.getLogger(DeflateCompression.class);
+
+  private static final byte MAGIC_1 = (byte) 0xCA;
+  private static final byte MAGIC_2 = (byte) 0xD1;
+  private static final int HEADER_SIZE = 10;
+  private static final int NO_DICTIONARY = 0;
+  private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+  private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+  private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+  private final long thresholdBytesSize;
+  private final boolean enabled;
+  private final Map<String, byte[]> dictionariesByType;
+  private final Map<String, Integer> dictionaryIdsByType;
+  private final Map<Integer, byte[]> dictionariesById;
+  private final CompressionMetrics metrics;
+
+  private final ThreadLocal<Deflater> deflaters;
+  private final ThreadLocal<Inflater> inflaters;
+  private final ThreadLocal<byte[]> buffers =
+      ThreadLocal.withInitial(() -> new byte[INITIAL_BUFFER_SIZE]);
+
+  public DeflateCompression(long thresholdBytesSize, boolean enabled) {
+    this(thresholdBytesSize, enabled, Deflater.DEFAULT_COMPRESSION, Collections.emptyMap(), null);
+  }
+
+  /**
+   * @param level the {@link Deflater} compression level
+   * @param dictionaries preset dictionaries keyed by cache type; later entries for the same type
+   *     should be added alongside, not in place of, dictionaries that existing values were written
+   *     with (register them under any other key to keep them readable)
+   */
+  public DeflateCompression(
+      long thresholdBytesSize,
+      boolean enabled,
+      int level,
+      Map<String, byte[]> dictionaries,
+      CompressionMetrics metrics) {
+    log.info(
+        "Cats using deflate compression: {} bytes threshold, compress enabled: {}, "
+            + "dictionaries for types: {}",
+        thresholdBytesSize,
+        enabled,
+        dictionaries.keySet());
+    this.thresholdBytesSize = thresholdBytesSize;
+    this.enabled = enabled;
+    this.dictionariesByType = new HashMap<>(dictionaries);
+    this.dictionaryIdsByType = new HashMap<>();
+    this.dictionariesById = new HashMap<>();
+    for (Map.Entry<String, byte[]> dictionary : dictionaries.entrySet()) {
+      int id = dictionaryId(dictionary.getValue());
+      dictionaryIdsByType.put(dictionary.getKey(), id);
+      dictionariesById.put(id, dictionary.getValue());
+    }
+    this.metrics = metrics == null ? new CompressionMetrics.NOOP() : metrics;
+    this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level, true));
+    this.inflaters = ThreadLocal.withInitial(() -> new Inflater(true));
+  }
+
+  @Override
+  public String compress(final String str) {
+    if (str == null) {
+      return null;
+    }
+
+    byte[] raw = str.getBytes(StandardCharsets.UTF_8);
+    byte[] stored = compressBytes(null, raw);
+    if (stored == raw) {
+      return str;
+    }
+    return Base64.getEncoder().encodeToString(stored);
+  }
+
+  @Override
+  public String decompress(final String compressed) {
+    if (compressed == null) {
+      return null;
+    }
+
+    byte[] stored;
+    try {
+      stored = Base64.getDecoder().decode(compressed);
+    } catch (IllegalArgumentException e) {
+      return compressed;
+    }
+
+    if (!isCompressed(stored)) {
+      return compressed;
+    }
+    return new String(decompressBytes(null, stored), StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public byte[] compressBytes(final String type, final byte[] raw) {
+    if (raw == null || !enabled || raw.length < thresholdBytesSize) {
+      return raw;
+    }
+
+    long startCpu = cpuTime();
+    byte[] dictionary = type == null ? null : dictionariesByType.get(type);
+
+    Deflater deflater = deflaters.get();
+    deflater.reset();
+    if (dictionary != null) {
+      deflater.setDictionary(dictionary);
+    }
+    deflater.setInput(raw);
+    deflater.finish();
+
+    byte[] buffer = buffers.get();
+    int length = 0;
+    while (!deflater.finished()) {
+      if (length == buffer.length) {
+        buffer = grow(buffer);
+      }
+      length += deflater.deflate(buffer, length, buffer.length - length);
+    }
+
+    if (length + HEADER_SIZE >= raw.length) {
+      // incompressible, not worth the decompression cost on read
+      metrics.compressed(typeTag(type), raw.length, raw.length, cpuTime() - startCpu);
+      return raw;
+    }
+
+    byte[] stored = new byte[HEADER_SIZE + length];
+    ByteBuffer.wrap(stored)
+        .put(MAGIC_1)
+        .put(MAGIC_2)
+        .putInt(dictionary == null ? NO_DICTIONARY : dictionaryIdsByType.get(type))
+        .putInt(raw.length)
+        .put(buffer, 0, length);
+
+    metrics.compressed(typeTag(type), raw.length, stored.length, cpuTime() - startCpu);
+    return stored;
+  }
+
+  @Override
+  public byte[] decompressBytes(final String type, final byte[] stored) {
+    if (stored == null || !isCompressed(stored)) {
+      return stored;
+    }
+
+    long startCpu = cpuTime();
+    ByteBuffer header = ByteBuffer.wrap(stored, 2, HEADER_SIZE - 2);
+    int dictionaryId = header.getInt();
+    int rawLength = header.getInt();
+
+    Inflater inflater = inflaters.get();
+    inflater.reset();
+    if (dictionaryId != NO_DICTIONARY) {
+      byte[] dictionary = dictionariesById.get(dictionaryId);
+      if (dictionary == null) {
+        throw new IllegalStateException(
+            "Value was compressed with an unknown dictionary (id: " + dictionaryId + ")");
+      }
+      inflater.setDictionary(dictionary);
+    }
+    inflater.setInput(stored, HEADER_SIZE, stored.length - HEADER_SIZE);
+
+    byte[] raw = new byte[rawLength];
+    try {
+      int length = 0;
+      while (length < rawLength && !inflater.finished()) {
+        int inflated = inflater.inflate(raw, length, rawLength - length);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        length += inflated;
+      }
+      if (length != rawLength) {
+        throw new IllegalStateException(
+            "Expected " + rawLength + " bytes but decompressed " + length);
+      }
+    } catch (DataFormatException e) {
+      throw new IllegalStateException("Failed to decompress value", e);
+    }
+
+    metrics.decompressed(typeTag(type), stored.length, rawLength, cpuTime() - startCpu);
+    return raw;
+  }
+
+  private byte[] grow(byte[] buffer) {
+    byte[] grown = Arrays.copyOf(buffer, buffer.length * 2);
+    if (grown.length <= MAX_RETAINED_BUFFER_SIZE) {
+      buffers.set(grown);
+    }
+    return grown;
+  }
+
+  private static boolean isCompressed(byte[] stored) {
+    return stored.length > HEADER_SIZE && stored[0] == MAGIC_1 && stored[1] == MAGIC_2;
+  }
+
+  private static int dictionaryId(byte[] dictionary) {
+    Adler32 adler32 = new Adler32();
+    adler32.update(dictionary);
+    int id = (int) adler32.getValue();
+    return id == NO_DICTIONARY ? 1 : id;
+  }
+
+  private static String typeTag(String type) {
+    return type == null ? "unknown" : type;
+  }
+
+  private static long cpuTime() {
+    return threadMXBean.isCurrentThreadCpuTimeSupported()
+        ? threadMXBean.getCurrentThreadCpuTime()
+        : System.nanoTime();
+  }
+}
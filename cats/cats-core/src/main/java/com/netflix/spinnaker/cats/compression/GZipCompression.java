@@ -15,11 +15,9 @@
  */
 package com.netflix.spinnaker.cats.compression;
 
-import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 import java.util.Base64;
 import java.util.zip.GZIPInputStream;
@@ -99,21 +97,12 @@ public class GZipCompression implements CompressionStrategy {
       return compressed;
     }
 
-    final StringBuilder outStr = new StringBuilder();
-    try {
-      final GZIPInputStream gis = new GZIPInputStream(new ByteArrayInputStream(bytes));
-      final BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(gis, CHARSET));
-
-      String line;
-      while ((line = bufferedReader.readLine()) != null) {
-        outStr.append(line);
-      }
+    try (GZIPInputStream gis = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return new String(gis.readAllBytes(), CHARSET);
     } catch (IOException e) {
       log.error("Failed to decompress string: {}", compressed, e);
       return compressed;
     }
-
-    return outStr.toString();
   }
 
   private static boolean isCompressed(final byte[] compressed) {
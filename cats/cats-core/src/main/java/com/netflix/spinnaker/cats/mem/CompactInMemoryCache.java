@@ -0,0 +1,264 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.mem;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.netflix.spinnaker.cats.cache.CacheData;
+import com.netflix.spinnaker.cats.cache.CacheFilter;
+import com.netflix.spinnaker.cats.cache.WriteableCache;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * A WriteableCache that stores immutable records in an in-memory map.
+ *
+ * <p>Compared with {@link InMemoryCache}, each item is a single frozen record rather than a pair of
+ * concurrent maps, ids, attribute keys and relationship names/ids are interned in a pool shared by
+ * all instances, and reads hand out the stored records directly instead of copying them. Merges
+ * build a new record and swap it in atomically, so readers never observe a partial update and need
+ * no locking.
+ *
+ * <p>Records returned from reads are immutable; callers that need to modify them must copy first.
+ * Only the top level of a record is frozen: attribute values that are themselves maps or lists are
+ * stored as written and shared between readers, so they must not be modified either.
+ */
+public class CompactInMemoryCache implements WriteableCache {
+
+  private static final Interner<String> STRINGS = Interners.newWeakInterner();
+
+  private final ConcurrentMap<String, ConcurrentMap<String, Record>> typeMap =
+      new ConcurrentHashMap<>();
+
+  @Override
+  public void merge(String type, CacheData cacheData) {
+    getTypeMap(type)
+        .compute(
+            intern(cacheData.getId()),
+            (id, existing) -> Record.merge(id, existing, cacheData));
+  }
+
+  @Override
+  public void mergeAll(String type, Collection<CacheData> items) {
+    for (CacheData item : items) {
+      merge(type, item);
+    }
+  }
+
+  @Override
+  public void evict(String type, String id) {
+    getTypeMap(type).remove(id);
+  }
+
+  @Override
+  public void evictAll(String type, Collection<String> ids) {
+    ConcurrentMap<String, Record> map = getTypeMap(type);
+    for (String id : ids) {
+      map.remove(id);
+    }
+  }
+
+  @Override
+  public CacheData get(String type, String id) {
+    return get(type, id, null);
+  }
+
+  @Override
+  public CacheData get(String type, String id, CacheFilter cacheFilter) {
+    return filter(getTypeMap(type).get(id), cacheFilter);
+  }
+
+  @Override
+  public Collection<CacheData> getAll(String type) {
+    return getAll(type, (CacheFilter) null);
+  }
+
+  @Override
+  public Collection<CacheData> getAll(String type, CacheFilter cacheFilter) {
+    ConcurrentMap<String, Record> map = getTypeMap(type);
+    Collection<CacheData> values = new ArrayList<>(map.size());
+    for (Record record : map.values()) {
+      CacheData toReturn = filter(record, cacheFilter);
+      if (toReturn != null) {
+        values.add(toReturn);
+      }
+    }
+    return values;
+  }
+
+  @Override
+  public Collection<CacheData> getAll(String type, Collection<String> identifiers) {
+    return getAll(type, identifiers, null);
+  }
+
+  @Override
+  public Collection<CacheData> getAll(
+      String type, Collection<String> identifiers, CacheFilter cacheFilter) {
+    ConcurrentMap<String, Record> map = getTypeMap(type);
+    Collection<CacheData> values = new ArrayList<>(identifiers.size());
+    for (String id : identifiers) {
+      CacheData toReturn = filter(map.get(id), cacheFilter);
+      if (toReturn != null) {
+        values.add(toReturn);
+      }
+    }
+    return values;
+  }
+
+  @Override
+  public Collection<CacheData> getAll(String type, String... identifiers) {
+    return getAll(type, Arrays.asList(identifiers));
+  }
+
+  @Override
+  public Collection<String> existingIdentifiers(String type, Collection<String> ids) {
+    Set<String> existing = new HashSet<>(ids);
+    existing.retainAll(getTypeMap(type).keySet());
+    return existing;
+  }
+
+  @Override
+  public Collection<String> getIdentifiers(String type) {
+    return new HashSet<>(getTypeMap(type).keySet());
+  }
+
+  @Override
+  public Collection<String> filterIdentifiers(String type, String glob) {
+    final Pattern pattern = new InMemoryCache.Glob(glob).toPattern();
+    final HashSet<String> matches = new HashSet<>();
+    for (String key : getTypeMap(type).keySet()) {
+      if (pattern.matcher(key).matches()) {
+        matches.add(key);
+      }
+    }
+    return matches;
+  }
+
+  private ConcurrentMap<String, Record> getTypeMap(String type) {
+    return typeMap.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
+  }
+
+  private static CacheData filter(Record record, CacheFilter cacheFilter) {
+    if (record == null || record.attributes.isEmpty()) {
+      return null;
+    }
+
+    if (cacheFilter == null || record.relationships.isEmpty()) {
+      return record;
+    }
+
+    Collection<String> allowed =
+        cacheFilter.filter(CacheFilter.Type.RELATIONSHIP, record.relationships.keySet());
+    if (allowed.size() == record.relationships.size()) {
+      return record;
+    }
+
+    ImmutableMap.Builder<String, Collection<String>> relationships = ImmutableMap.builder();
+    for (String relationship : allowed) {
+      Collection<String> ids = record.relationships.get(relationship);
+      if (ids != null) {
+        relationships.put(relationship, ids);
+      }
+    }
+    return new Record(record.id, record.attributes, relationships.build());
+  }
+
+  private static String intern(String value) {
+    return value == null ? null : STRINGS.intern(value);
+  }
+
+  private static final class Record implements CacheData {
+    private final String id;
+    private final ImmutableMap<String, Object> attributes;
+    private final ImmutableMap<String, Collection<String>> relationships;
+
+    Record(
+        String id,
+        ImmutableMap<String, Object> attributes,
+        ImmutableMap<String, Collection<String>> relationships) {
+      this.id = id;
+      this.attributes = attributes;
+      this.relationships = relationships;
+    }
+
+    /**
+     * Attributes are replaced wholesale by the update, whereas relationships are merged by type;
+     * in both cases null values remove the corresponding key.
+     */
+    static Record merge(String id, Record existing, CacheData update) {
+      ImmutableMap.Builder<String, Object> attributes =
+          ImmutableMap.builderWithExpectedSize(update.getAttributes().size());
+      for (Map.Entry<String, Object> attribute : update.getAttributes().entrySet()) {
+        if (attribute.getValue() != null) {
+          attributes.put(intern(attribute.getKey()), attribute.getValue());
+        }
+      }
+
+      Map<String, Collection<String>> relationships =
+          existing == null ? new LinkedHashMap<>() : new LinkedHashMap<>(existing.relationships);
+      for (Map.Entry<String, Collection<String>> relationship :
+          update.getRelationships().entrySet()) {
+        if (relationship.getValue() == null) {
+          relationships.remove(relationship.getKey());
+        } else {
+          relationships.put(intern(relationship.getKey()), internAll(relationship.getValue()));
+        }
+      }
+
+      return new Record(id, attributes.build(), ImmutableMap.copyOf(relationships));
+    }
+
+    private static Collection<String> internAll(Collection<String> ids) {
+      ImmutableList.Builder<String> interned = ImmutableList.builderWithExpectedSize(ids.size());
+      for (String id : ids) {
+        if (id != null) {
+          interned.add(intern(id));
+        }
+      }
+      return interned.build();
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public int getTtlSeconds() {
+      return -1;
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+      return attributes;
+    }
+
+    @Override
+    public Map<String, Collection<String>> getRelationships() {
+      return relationships;
+    }
+  }
+}
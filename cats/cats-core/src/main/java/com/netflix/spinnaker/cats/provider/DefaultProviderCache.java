@@ -103,6 +103,20 @@ public class DefaultProviderCache implements ProviderCache {
     return getAll(type, Arrays.asList(identifiers));
   }
 
+  @Override
+  public Map<String, Collection<CacheData>> getAllByType(
+      Map<String, ? extends Collection<String>> identifiersByType,
+      Map<String, CacheFilter> cacheFilters) {
+    validateTypes(identifiersByType.keySet());
+    Map<String, Collection<CacheData>> byType =
+        backingStore.getAllByType(identifiersByType, cacheFilters);
+    Map<String, Collection<CacheData>> response = new HashMap<>(byType.size());
+    for (Map.Entry<String, Collection<CacheData>> entry : byType.entrySet()) {
+      response.put(entry.getKey(), buildResponse(entry.getValue()));
+    }
+    return response;
+  }
+
   @Override
   public Collection<String> existingIdentifiers(String type, Collection<String> identifiers) {
     Set<String> existing = new HashSet<>(backingStore.existingIdentifiers(type, identifiers));
@@ -220,7 +234,8 @@ public class DefaultProviderCache implements ProviderCache {
     if (relationship == null) {
       return new HashSet<>();
     }
-    return relationship;
+    // the caller removes and adds identifiers, and some backing stores return immutable collections
+    return new HashSet<>(relationship);
   }
 
   private void cacheDataType(String type, String sourceAgentType, Collection<CacheData> items) {
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.codec
+
+import com.fasterxml.jackson.core.type.TypeReference
+import com.fasterxml.jackson.databind.ObjectMapper
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class CacheDataCodecSpec extends Specification {
+
+  static final TypeReference<Map<String, Object>> ATTRIBUTES = new TypeReference<Map<String, Object>>() {}
+  static final TypeReference<List<String>> RELATIONSHIPS = new TypeReference<List<String>>() {}
+
+  @Shared
+  def mapper = new ObjectMapper()
+
+  @Shared
+  def json = new JsonCacheDataCodec(mapper)
+
+  @Shared
+  def smile = new SmileCacheDataCodec(mapper)
+
+  @Unroll
+  def 'should round trip attributes and relationships with #codec.name'() {
+    given:
+    def attributes = serverGroupAttributes(3)
+    def relationships = instanceKeys(3)
+
+    expect:
+    codec.canDecode(codec.encode(attributes))
+    codec.decode(codec.encode(attributes), ATTRIBUTES) == attributes
+    codec.canDecode(codec.encode(relationships))
+    codec.decode(codec.encode(relationships), RELATIONSHIPS) == relationships
+
+    where:
+    codec << [json, smile]
+  }
+
+  def 'json codec writes what the object mapper writes'() {
+    given:
+    def attributes = serverGroupAttributes(1)
+
+    expect:
+    new String(json.encode(attributes), 'UTF-8') == mapper.writeValueAsString(attributes)
+  }
+
+  def 'should only recognize its own format'() {
+    given:
+    def attributes = serverGroupAttributes(1)
+
+    expect:
+    json.canDecode(json.encode(attributes))
+    !json.canDecode(smile.encode(attributes))
+    smile.canDecode(smile.encode(attributes))
+    !smile.canDecode(json.encode(attributes))
+  }
+
+  def 'versioned codec writes the preferred format and reads either'() {
+    given:
+    def subject = new VersionedCacheDataCodec(smile, [json])
+    def legacy = json.encode(serverGroupAttributes(1))
+
+    expect:
+    subject.name == 'smile'
+    smile.canDecode(subject.encode(serverGroupAttributes(1)))
+    subject.codecFor(legacy).name == 'json'
+    subject.decode(legacy, ATTRIBUTES) == serverGroupAttributes(1)
+
+    when:
+    subject.decode('not cache data'.bytes, ATTRIBUTES)
+
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def 'binary encoding is smaller than json for typical records'() {
+    given:
+    def attributes = serverGroupAttributes(200)
+
+    expect:
+    smile.encode(attributes).length < json.encode(attributes).length
+  }
+
+  private static List<String> instanceKeys(int instanceCount) {
+    return (1..instanceCount).collect {
+      "aws:instances:prod:us-west-2:i-${String.format('%017x', it)}".toString()
+    }
+  }
+
+  private static Map<String, Object> serverGroupAttributes(int instanceCount) {
+    return [
+      name        : 'app-stack-detail-v001',
+      application : 'app',
+      region      : 'us-west-2',
+      launchConfig: [
+        imageId            : 'ami-0123456789abcdef0',
+        instanceType       : 'm5.large',
+        securityGroups     : ['sg-1', 'sg-2'],
+        blockDeviceMappings: (1..2).collect { [deviceName: "/dev/sd$it".toString(), ebs: [volumeSize: 40, volumeType: 'gp3']] }
+      ],
+      asg         : [
+        minSize          : 1,
+        maxSize          : instanceCount,
+        desiredCapacity  : instanceCount,
+        availabilityZones: ['us-west-2a', 'us-west-2b', 'us-west-2c'],
+        instances        : instanceKeys(instanceCount).collect { [instanceId: it.split(':').last(), lifecycleState: 'InService', healthStatus: 'Healthy'] }
+      ]
+    ]
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.compression
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.charset.StandardCharsets
+import java.util.zip.Deflater
+
+class DeflateCompressionSpec extends Specification {
+
+  def metrics = Mock(CompressionMetrics)
+
+  @Unroll
+  def 'should compress and decompress values'() {
+    given:
+    def subject = new DeflateCompression(16, true)
+
+    when:
+    def result = subject.compress(data)
+
+    then:
+    (result != data) == shouldCompress
+    subject.decompress(result) == data
+
+    where:
+    data                                        || shouldCompress
+    'hello world hello world hello world'       || true
+    'line one\nline two\nline three\n' * 4     || true
+    'a'                                         || false
+  }
+
+  def 'should store raw bytes using the dictionary for the type'() {
+    given:
+    def record = '{"id":"aws:instances:prod:us-west-2:i-1","attributes":{"instanceId":"i-1","state":"running"}}'
+    def dictionary = ('{"id":"aws:instances:prod:us-west-2:i-","attributes":{"instanceId":"i-","state":"running"}}' * 2)
+      .getBytes(StandardCharsets.UTF_8)
+    def withDictionary = new DeflateCompression(16, true, Deflater.DEFAULT_COMPRESSION, [instances: dictionary], metrics)
+    def withoutDictionary = new DeflateCompression(16, true)
+    def raw = record.getBytes(StandardCharsets.UTF_8)
+
+    when:
+    def stored = withDictionary.compressBytes('instances', raw)
+
+    then:
+    1 * metrics.compressed('instances', raw.length, { it < raw.length }, _)
+    stored.length < withoutDictionary.compressBytes('instances', raw).length
+
+    when:
+    def decompressed = withDictionary.decompressBytes('instances', stored)
+
+    then:
+    1 * metrics.decompressed('instances', stored.length, raw.length, _)
+    decompressed == raw
+  }
+
+  def 'should pass through values that were not compressed'() {
+    given:
+    def subject = new DeflateCompression(16, true)
+    def raw = '{"id":"foo"}'.getBytes(StandardCharsets.UTF_8)
+
+    expect:
+    subject.decompressBytes('instances', raw).is(raw)
+    subject.decompress('{"id":"foo"}') == '{"id":"foo"}'
+  }
+
+  def 'should fail to read values compressed with an unknown dictionary'() {
+    given:
+    def raw = ('x' * 10 + 'y' * 10 + 'z' * 10).getBytes(StandardCharsets.UTF_8)
+    def writer = new DeflateCompression(16, true, Deflater.DEFAULT_COMPRESSION, [instances: 'xyz'.bytes], null)
+    def reader = new DeflateCompression(16, true)
+
+    when:
+    reader.decompressBytes('instances', writer.compressBytes('instances', raw))
+
+    then:
+    thrown(IllegalStateException)
+  }
+}
@@ -39,5 +39,6 @@ class GZipCompressionStrategySpec extends Specification {
     'hello world' || true
     'foo bar baz' || true
     'a'           || false
+    'line one\nline two\r\n' || true
   }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.mem
+
+import com.netflix.spinnaker.cats.cache.CacheData
+import com.netflix.spinnaker.cats.cache.WriteableCacheSpec
+
+class CompactInMemoryCacheSpec extends WriteableCacheSpec {
+
+  @Override
+  CompactInMemoryCache getSubject() {
+    new CompactInMemoryCache()
+  }
+
+  def 'mergeAll with two items that have the same id uses the second item'() {
+    given: 'one item in the cache'
+    String id = 'bar'
+    def itemOneAttributes = [att1: 'val1']
+    CacheData itemOne = createData(id, itemOneAttributes)
+    def itemTwoAttributes = [att2: 'val2']
+    CacheData itemTwo = createData(id, itemTwoAttributes)
+    String type = 'foo'
+    cache.mergeAll(type, [itemOne])
+    assert itemOneAttributes.equals(cache.get(type, id).attributes)
+
+    when: 'adding both items'
+    cache.mergeAll(type, [itemOne, itemTwo])
+
+    then: 'itemTwo is in the cache'
+    itemTwoAttributes.equals(cache.get(type, id).attributes)
+  }
+
+  def 'relationships are merged by type'() {
+    given:
+    cache.merge('foo', createData('bar', [a: 'b'], [rel1: ['abc'], rel2: ['def']]))
+
+    when:
+    cache.merge('foo', createData('bar', [a: 'c'], [rel2: ['ghi'], rel1: null]))
+    def bar = cache.get('foo', 'bar')
+
+    then:
+    bar.attributes == [a: 'c']
+    bar.relationships == [rel2: ['ghi']]
+  }
+
+  def 'reads return the stored record without copying'() {
+    given:
+    cache.merge('foo', createData('bar', [a: 'b'], [rel1: ['abc']]))
+
+    expect:
+    cache.get('foo', 'bar').is(cache.get('foo', 'bar'))
+    cache.getAll('foo').first().is(cache.get('foo', 'bar'))
+
+    when:
+    cache.get('foo', 'bar').attributes.put('c', 'd')
+
+    then:
+    thrown(UnsupportedOperationException)
+  }
+
+  def 'relationship ids are shared between records'() {
+    given:
+    cache.merge('foo', createData('bar', [a: 'b'], [rel1: [new String('shared')]]))
+    cache.merge('foo', createData('baz', [a: 'b'], [rel1: [new String('shared')]]))
+
+    expect:
+    cache.get('foo', 'bar').relationships.rel1.first().is(cache.get('foo', 'baz').relationships.rel1.first())
+  }
+}
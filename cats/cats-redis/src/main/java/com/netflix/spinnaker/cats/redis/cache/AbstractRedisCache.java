@@ -154,14 +154,8 @@ public abstract class AbstractRedisCache implements WriteableCache {
       return new ArrayList<>();
     }
     Collection<String> ids = new LinkedHashSet<>(identifiers);
-    final List<String> knownRels;
-    Set<String> allRelationships = scanMembers(allRelationshipsId(type));
-    if (cacheFilter == null) {
-      knownRels = new ArrayList<>(allRelationships);
-    } else {
-      knownRels =
-          new ArrayList<>(cacheFilter.filter(CacheFilter.Type.RELATIONSHIP, allRelationships));
-    }
+    final List<String> knownRels =
+        knownRelationships(scanMembers(allRelationshipsId(type)), cacheFilter);
 
     Collection<CacheData> result = new ArrayList<>(ids.size());
 
@@ -172,6 +166,81 @@ public abstract class AbstractRedisCache implements WriteableCache {
     return result;
   }
 
+  /**
+   * Reads the relationship names of every requested type in one pipeline, then hands all types to
+   * {@link #getItems(Map, Map)} so implementations can fetch them together. Falls back to a lookup
+   * per type when multi-key pipelines are not supported (e.g. Redis Cluster).
+   */
+  @Override
+  public Map<String, Collection<CacheData>> getAllByType(
+      Map<String, ? extends Collection<String>> identifiersByType,
+      Map<String, CacheFilter> cacheFilters) {
+    if (!redisClientDelegate.supportsMultiKeyPipelines()) {
+      return WriteableCache.super.getAllByType(identifiersByType, cacheFilters);
+    }
+
+    final Map<String, Collection<CacheData>> result = new HashMap<>(identifiersByType.size());
+    final Map<String, List<String>> idsByType = new LinkedHashMap<>();
+    for (Map.Entry<String, ? extends Collection<String>> entry : identifiersByType.entrySet()) {
+      result.put(entry.getKey(), new ArrayList<>());
+      if (!entry.getValue().isEmpty()) {
+        idsByType.put(entry.getKey(), new ArrayList<>(new LinkedHashSet<>(entry.getValue())));
+      }
+    }
+    if (idsByType.isEmpty()) {
+      return result;
+    }
+
+    final Map<String, Response<Set<String>>> relationshipResponses = new HashMap<>();
+    redisClientDelegate.withMultiKeyPipeline(
+        pipeline -> {
+          for (String type : idsByType.keySet()) {
+            relationshipResponses.put(type, pipeline.smembers(allRelationshipsId(type)));
+          }
+          pipeline.sync();
+        });
+
+    final Map<String, List<String>> knownRelsByType = new HashMap<>(idsByType.size());
+    for (String type : idsByType.keySet()) {
+      CacheFilter cacheFilter = cacheFilters == null ? null : cacheFilters.get(type);
+      knownRelsByType.put(
+          type, knownRelationships(relationshipResponses.get(type).get(), cacheFilter));
+    }
+
+    result.putAll(getItems(idsByType, knownRelsByType));
+    return result;
+  }
+
+  /**
+   * Retrieves the items for several types. The default implementation fetches each type in turn;
+   * implementations may override it to batch the reads for all types together.
+   *
+   * @param idsByType the (distinct) ids to fetch, keyed by type
+   * @param knownRelsByType the relationships to fetch, keyed by type
+   * @return the items found, keyed by type
+   */
+  protected Map<String, Collection<CacheData>> getItems(
+      Map<String, List<String>> idsByType, Map<String, List<String>> knownRelsByType) {
+    final Map<String, Collection<CacheData>> result = new HashMap<>(idsByType.size());
+    for (Map.Entry<String, List<String>> entry : idsByType.entrySet()) {
+      Collection<CacheData> items = new ArrayList<>(entry.getValue().size());
+      for (List<String> idPart :
+          Iterables.partition(entry.getValue(), options.getMaxGetBatchSize())) {
+        items.addAll(getItems(entry.getKey(), idPart, knownRelsByType.get(entry.getKey())));
+      }
+      result.put(entry.getKey(), items);
+    }
+    return result;
+  }
+
+  private static List<String> knownRelationships(
+      Set<String> allRelationships, CacheFilter cacheFilter) {
+    if (cacheFilter == null) {
+      return new ArrayList<>(allRelationships);
+    }
+    return new ArrayList<>(cacheFilter.filter(CacheFilter.Type.RELATIONSHIP, allRelationships));
+  }
+
   @Override
   public Collection<String> getIdentifiers(String type) {
     return scanMembers(allOfTypeId(type));
@@ -15,15 +15,20 @@
  */
 package com.netflix.spinnaker.cats.redis.cache;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.hash.Hashing;
 import com.netflix.spinnaker.cats.cache.CacheData;
 import com.netflix.spinnaker.cats.cache.DefaultCacheData;
+import com.netflix.spinnaker.cats.codec.CacheDataCodec;
+import com.netflix.spinnaker.cats.codec.JsonCacheDataCodec;
+import com.netflix.spinnaker.cats.codec.SmileCacheDataCodec;
+import com.netflix.spinnaker.cats.codec.VersionedCacheDataCodec;
+import com.netflix.spinnaker.cats.compression.CompressionStrategy;
+import com.netflix.spinnaker.cats.compression.NoopCompression;
 import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -31,6 +36,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -39,6 +45,7 @@ import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import redis.clients.jedis.Response;
 
 public class RedisCache extends AbstractRedisCache {
 
@@ -82,10 +89,22 @@ public class RedisCache extends AbstractRedisCache {
       // noop
     }
 
+    default void getAllByType(
+        String prefix,
+        int typeCount,
+        int itemCount,
+        int mgetOperations,
+        int roundTrips,
+        int roundTripsSaved) {
+      // noop
+    }
+
     class NOOP implements CacheMetrics {}
   }
 
   private final CacheMetrics cacheMetrics;
+  private final CacheDataCodec codec;
+  private final CompressionStrategy compression;
 
   public RedisCache(
       String prefix,
@@ -93,8 +112,36 @@ public class RedisCache extends AbstractRedisCache {
       ObjectMapper objectMapper,
       RedisCacheOptions options,
       CacheMetrics cacheMetrics) {
+    this(prefix, redisClientDelegate, objectMapper, options, cacheMetrics, null);
+  }
+
+  /**
+   * @param compression applied to the encoded values, as raw bytes; values are read back through
+   *     {@link CompressionStrategy#decompressBytes(String, byte[])} whether or not they were
+   *     compressed
+   */
+  public RedisCache(
+      String prefix,
+      RedisClientDelegate redisClientDelegate,
+      ObjectMapper objectMapper,
+      RedisCacheOptions options,
+      CacheMetrics cacheMetrics,
+      CompressionStrategy compression) {
     super(prefix, redisClientDelegate, objectMapper, options);
     this.cacheMetrics = cacheMetrics == null ? new CacheMetrics.NOOP() : cacheMetrics;
+    this.codec = codec(objectMapper, options.getCodec());
+    this.compression = compression == null ? new NoopCompression() : compression;
+  }
+
+  /**
+   * Values are written in the configured format and read in whichever format they were written
+   * in, so the format can be changed without flushing the cache.
+   */
+  private static CacheDataCodec codec(ObjectMapper objectMapper, String name) {
+    CacheDataCodec json = new JsonCacheDataCodec(objectMapper);
+    CacheDataCodec smile = new SmileCacheDataCodec(objectMapper);
+    return new VersionedCacheDataCodec(
+        SmileCacheDataCodec.NAME.equals(name) ? smile : json, Arrays.asList(json, smile));
   }
 
   @Override
@@ -103,7 +150,7 @@ public class RedisCache extends AbstractRedisCache {
       return;
     }
     final Set<String> relationshipNames = new HashSet<>();
-    final List<String> keysToSet = new LinkedList<>();
+    final List<byte[]> keysToSet = new LinkedList<>();
     final Set<String> idSet = new HashSet<>();
 
     final Map<String, Integer> ttlSecondsByKey = new HashMap<>();
@@ -122,8 +169,9 @@ public class RedisCache extends AbstractRedisCache {
       skippedWrites += op.skippedWrites;
 
       if (item.getTtlSeconds() > 0) {
-        for (String key : op.keysToSet) {
-          ttlSecondsByKey.put(key, item.getTtlSeconds());
+        for (int i = 0; i < op.keysToSet.size(); i += 2) {
+          ttlSecondsByKey.put(
+              new String(op.keysToSet.get(i), StandardCharsets.UTF_8), item.getTtlSeconds());
         }
       }
     }
@@ -142,8 +190,8 @@ public class RedisCache extends AbstractRedisCache {
               saddOperations.incrementAndGet();
             }
 
-            for (List<String> keys : Lists.partition(keysToSet, options.getMaxMsetSize())) {
-              pipeline.mset(keys.toArray(new String[keys.size()]));
+            for (List<byte[]> keys : Lists.partition(keysToSet, options.getMaxMsetSize())) {
+              pipeline.mset(keys.toArray(new byte[keys.size()][]));
               msetOperations.incrementAndGet();
             }
 
@@ -245,88 +293,191 @@ public class RedisCache extends AbstractRedisCache {
 
   @Override
   protected Collection<CacheData> getItems(String type, List<String> ids, List<String> knownRels) {
-    final int singleResultSize = knownRels.size() + 1;
+    final List<String> keysToGet = keysToGet(type, ids, knownRels);
+    final List<Response<List<byte[]>>> responses = new ArrayList<>();
+
+    // values are binary, and the multi-key client only exposes the String commands
+    redisClientDelegate.withMultiKeyPipeline(
+        pipeline -> {
+          for (List<String> part : Lists.partition(keysToGet, options.getMaxMgetSize())) {
+            responses.add(pipeline.mget(toBytes(part)));
+          }
+          pipeline.sync();
+        });
+
+    final List<byte[]> keyResult = new ArrayList<>(keysToGet.size());
+    for (Response<List<byte[]>> response : responses) {
+      keyResult.addAll(response.get());
+    }
+    int mgetOperations = responses.size();
+
+    Collection<CacheData> results = extractItems(type, ids, knownRels, keysToGet, keyResult);
+
+    cacheMetrics.get(
+        prefix,
+        type,
+        results.size(),
+        ids.size(),
+        keysToGet.size(),
+        knownRels.size(),
+        mgetOperations);
+    return results;
+  }
+
+  /**
+   * Queues the MGETs for every requested type onto a single pipeline, syncing every {@link
+   * RedisCacheOptions#getMaxPipelineSize()} commands, instead of issuing them one type and one
+   * partition at a time.
+   */
+  @Override
+  protected Map<String, Collection<CacheData>> getItems(
+      Map<String, List<String>> idsByType, Map<String, List<String>> knownRelsByType) {
+    final Map<String, List<String>> keysByType = new LinkedHashMap<>();
+    final Map<String, List<Response<List<byte[]>>>> responsesByType = new HashMap<>();
+    for (Map.Entry<String, List<String>> entry : idsByType.entrySet()) {
+      keysByType.put(
+          entry.getKey(),
+          keysToGet(entry.getKey(), entry.getValue(), knownRelsByType.get(entry.getKey())));
+      responsesByType.put(entry.getKey(), new ArrayList<>());
+    }
 
-    final List<String> keysToGet = new ArrayList<>(singleResultSize * ids.size());
+    final AtomicInteger mgetOperations = new AtomicInteger();
+    final AtomicInteger pipelineOperations = new AtomicInteger();
+    redisClientDelegate.withMultiKeyPipeline(
+        pipeline -> {
+          int queued = 0;
+          for (Map.Entry<String, List<String>> entry : keysByType.entrySet()) {
+            for (List<String> part : Lists.partition(entry.getValue(), options.getMaxMgetSize())) {
+              responsesByType.get(entry.getKey()).add(pipeline.mget(toBytes(part)));
+              mgetOperations.incrementAndGet();
+              if (++queued == options.getMaxPipelineSize()) {
+                pipeline.sync();
+                pipelineOperations.incrementAndGet();
+                queued = 0;
+              }
+            }
+          }
+          if (queued > 0) {
+            pipeline.sync();
+            pipelineOperations.incrementAndGet();
+          }
+        });
+
+    final Map<String, Collection<CacheData>> result = new HashMap<>(idsByType.size());
+    int itemCount = 0;
+    for (Map.Entry<String, List<String>> entry : idsByType.entrySet()) {
+      final String type = entry.getKey();
+      final List<String> knownRels = knownRelsByType.get(type);
+      final List<String> keysToGet = keysByType.get(type);
+      final List<byte[]> keyResult = new ArrayList<>(keysToGet.size());
+      for (Response<List<byte[]>> response : responsesByType.get(type)) {
+        keyResult.addAll(response.get());
+      }
+
+      Collection<CacheData> items =
+          extractItems(type, entry.getValue(), knownRels, keysToGet, keyResult);
+      result.put(type, items);
+      itemCount += items.size();
+
+      cacheMetrics.get(
+          prefix,
+          type,
+          items.size(),
+          entry.getValue().size(),
+          keysToGet.size(),
+          knownRels.size(),
+          responsesByType.get(type).size());
+    }
+
+    // Looked up one type at a time, each type costs a relationship scan plus its own MGETs; here
+    // the relationship names were read in one pipeline and the MGETs share the pipelines above.
+    int sequentialRoundTrips = idsByType.size() + mgetOperations.get();
+    int roundTrips = 1 + pipelineOperations.get();
+    cacheMetrics.getAllByType(
+        prefix,
+        idsByType.size(),
+        itemCount,
+        mgetOperations.get(),
+        roundTrips,
+        Math.max(0, sequentialRoundTrips - roundTrips));
+
+    return result;
+  }
+
+  private List<String> keysToGet(String type, List<String> ids, List<String> knownRels) {
+    final List<String> keysToGet = new ArrayList<>((knownRels.size() + 1) * ids.size());
     for (String id : ids) {
       keysToGet.add(attributesId(type, id));
       for (String rel : knownRels) {
         keysToGet.add(relationshipId(type, id, rel));
       }
     }
+    return keysToGet;
+  }
 
-    final List<String> keyResult = new ArrayList<>(keysToGet.size());
-
-    int mgetOperations =
-        redisClientDelegate.withMultiClient(
-            c -> {
-              int ops = 0;
-              for (List<String> part : Lists.partition(keysToGet, options.getMaxMgetSize())) {
-                ops++;
-                keyResult.addAll(c.mget(part.toArray(new String[part.size()])));
-              }
-              return ops;
-            });
+  private static byte[][] toBytes(List<String> keys) {
+    final byte[][] bytes = new byte[keys.size()][];
+    for (int i = 0; i < keys.size(); i++) {
+      bytes[i] = keys.get(i).getBytes(StandardCharsets.UTF_8);
+    }
+    return bytes;
+  }
 
+  private Collection<CacheData> extractItems(
+      String type,
+      List<String> ids,
+      List<String> knownRels,
+      List<String> keysToGet,
+      List<byte[]> keyResult) {
     if (keyResult.size() != keysToGet.size()) {
       throw new RuntimeException("Expected same size result as request");
     }
 
+    final int singleResultSize = knownRels.size() + 1;
     Collection<CacheData> results = new ArrayList<>(ids.size());
     Iterator<String> idIterator = ids.iterator();
     for (int ofs = 0; ofs < keyResult.size(); ofs += singleResultSize) {
       CacheData item =
-          extractItem(idIterator.next(), keyResult.subList(ofs, ofs + singleResultSize), knownRels);
+          extractItem(
+              type, idIterator.next(), keyResult.subList(ofs, ofs + singleResultSize), knownRels);
       if (item != null) {
         results.add(item);
       }
     }
-
-    cacheMetrics.get(
-        prefix,
-        type,
-        results.size(),
-        ids.size(),
-        keysToGet.size(),
-        knownRels.size(),
-        mgetOperations);
     return results;
   }
 
-  private CacheData extractItem(String id, List<String> keyResult, List<String> knownRels) {
+  private CacheData extractItem(
+      String type, String id, List<byte[]> keyResult, List<String> knownRels) {
     if (keyResult.get(0) == null) {
       return null;
     }
 
-    try {
-      final Map<String, Object> attributes = objectMapper.readValue(keyResult.get(0), ATTRIBUTES);
-      final Map<String, Collection<String>> relationships = new HashMap<>(keyResult.size() - 1);
-      for (int relIdx = 1; relIdx < keyResult.size(); relIdx++) {
-        String rel = keyResult.get(relIdx);
-        if (rel != null) {
-          String relType = knownRels.get(relIdx - 1);
-          Collection<String> deserializedRel =
-              objectMapper.readValue(rel, getRelationshipsTypeReference());
-          relationships.put(relType, deserializedRel);
-        }
+    final Map<String, Object> attributes =
+        codec.decode(compression.decompressBytes(type, keyResult.get(0)), ATTRIBUTES);
+    final Map<String, Collection<String>> relationships = new HashMap<>(keyResult.size() - 1);
+    for (int relIdx = 1; relIdx < keyResult.size(); relIdx++) {
+      byte[] rel = keyResult.get(relIdx);
+      if (rel != null) {
+        String relType = knownRels.get(relIdx - 1);
+        Collection<String> deserializedRel =
+            codec.decode(compression.decompressBytes(type, rel), getRelationshipsTypeReference());
+        relationships.put(relType, deserializedRel);
       }
-
-      return new DefaultCacheData(id, attributes, relationships);
-
-    } catch (IOException deserializationException) {
-      throw new RuntimeException("Deserialization failed", deserializationException);
     }
+
+    return new DefaultCacheData(id, attributes, relationships);
   }
 
   private static class MergeOp {
     public final Set<String> relNames;
-    public final List<String> keysToSet;
+    public final List<byte[]> keysToSet;
     public final Map<String, String> hashesToSet;
     public final int skippedWrites;
 
     MergeOp(
         Set<String> relNames,
-        List<String> keysToSet,
+        List<byte[]> keysToSet,
         Map<String, String> hashesToSet,
         int skippedWrites) {
       this.relNames = relNames;
@@ -338,22 +489,15 @@ public class RedisCache extends AbstractRedisCache {
 
   private MergeOp buildMergeOp(String type, CacheData cacheData, Map<String, String> hashes) {
     int skippedWrites = 0;
-    final String serializedAttributes;
     boolean hasTtl = cacheData.getTtlSeconds() > 0;
-    try {
-      if (cacheData.getAttributes().isEmpty()) {
-        serializedAttributes = null;
-      } else {
-        serializedAttributes = objectMapper.writeValueAsString(cacheData.getAttributes());
-      }
-    } catch (JsonProcessingException serializationException) {
-      throw new RuntimeException("Attribute serialization failed", serializationException);
-    }
+    final byte[] serializedAttributes =
+        cacheData.getAttributes().isEmpty() ? null : codec.encode(cacheData.getAttributes());
 
     final Map<String, String> hashesToSet = new HashMap<>();
-    final List<String> keysToSet = new ArrayList<>((cacheData.getRelationships().size() + 1) * 2);
+    final List<byte[]> keysToSet = new ArrayList<>((cacheData.getRelationships().size() + 1) * 2);
     if (serializedAttributes != null
         && hashCheck(
+            type,
             hashes,
             attributesId(type, cacheData.getId()),
             serializedAttributes,
@@ -366,14 +510,9 @@ public class RedisCache extends AbstractRedisCache {
     if (!cacheData.getRelationships().isEmpty()) {
       for (Map.Entry<String, Collection<String>> relationship :
           cacheData.getRelationships().entrySet()) {
-        final String relationshipValue;
-        try {
-          relationshipValue =
-              objectMapper.writeValueAsString(new LinkedHashSet<>(relationship.getValue()));
-        } catch (JsonProcessingException serializationException) {
-          throw new RuntimeException("Relationship serialization failed", serializationException);
-        }
+        final byte[] relationshipValue = codec.encode(new LinkedHashSet<>(relationship.getValue()));
         if (hashCheck(
+            type,
             hashes,
             relationshipId(type, cacheData.getId(), relationship.getKey()),
             relationshipValue,
@@ -418,9 +557,11 @@ public class RedisCache extends AbstractRedisCache {
   }
 
   /**
-   * Compares the hash of serializedValue against an existing hash, if they do not match adds
-   * serializedValue to keys and the new hash to updatedHashes.
+   * Compares the hash of serializedValue against an existing hash, if they do not match adds the
+   * compressed serializedValue to keys and the new hash to updatedHashes. Only values that are
+   * written get compressed.
    *
+   * @param type the type of the item, passed to the compression strategy
    * @param hashes the existing hash values
    * @param id the id of the item
    * @param serializedValue the serialized value
@@ -432,15 +573,15 @@ public class RedisCache extends AbstractRedisCache {
    * @return true if the hash matched, false otherwise
    */
   private boolean hashCheck(
+      String type,
       Map<String, String> hashes,
       String id,
-      String serializedValue,
-      List<String> keys,
+      byte[] serializedValue,
+      List<byte[]> keys,
       Map<String, String> updatedHashes,
       boolean hasTtl) {
     if (options.isHashingEnabled() && !hasTtl) {
-      final String hash =
-          Hashing.sha1().newHasher().putUnencodedChars(serializedValue).hash().toString();
+      final String hash = Hashing.sha1().hashBytes(serializedValue).toString();
       final String existingHash = hashes.get(id);
       if (hash.equals(existingHash)) {
         return true;
@@ -448,8 +589,8 @@ public class RedisCache extends AbstractRedisCache {
       updatedHashes.put(id, hash);
     }
 
-    keys.add(id);
-    keys.add(serializedValue);
+    keys.add(id.getBytes(StandardCharsets.UTF_8));
+    keys.add(compression.compressBytes(type, serializedValue));
     return false;
   }
 
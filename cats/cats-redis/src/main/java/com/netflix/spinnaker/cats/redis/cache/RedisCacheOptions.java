@@ -17,6 +17,10 @@
 package com.netflix.spinnaker.cats.redis.cache;
 
 import com.google.common.base.Preconditions;
+import com.netflix.spinnaker.cats.codec.JsonCacheDataCodec;
+import com.netflix.spinnaker.cats.codec.SmileCacheDataCodec;
+import java.util.Arrays;
+import java.util.List;
 
 public class RedisCacheOptions {
   public static Builder builder() {
@@ -36,6 +40,10 @@ public class RedisCacheOptions {
   private final int maxGetBatchSize;
   private final boolean hashingEnabled;
   private final boolean treatRelationshipsAsSet;
+  private final String codec;
+
+  private static final List<String> CODECS =
+      Arrays.asList(JsonCacheDataCodec.NAME, SmileCacheDataCodec.NAME);
 
   private static int posInt(String name, int value) {
     Preconditions.checkArgument(value > 0, "%s must be a positive integer (%s)", name, value);
@@ -62,6 +70,38 @@ public class RedisCacheOptions {
       int maxGetBatchSize,
       boolean hashingEnabled,
       boolean treatRelationshipsAsSet) {
+    this(
+        maxMsetSize,
+        maxMgetSize,
+        maxHmgetSize,
+        maxHmsetSize,
+        maxSaddSize,
+        maxDelSize,
+        maxPipelineSize,
+        scanSize,
+        maxMergeBatchSize,
+        maxEvictBatchSize,
+        maxGetBatchSize,
+        hashingEnabled,
+        treatRelationshipsAsSet,
+        JsonCacheDataCodec.NAME);
+  }
+
+  public RedisCacheOptions(
+      int maxMsetSize,
+      int maxMgetSize,
+      int maxHmgetSize,
+      int maxHmsetSize,
+      int maxSaddSize,
+      int maxDelSize,
+      int maxPipelineSize,
+      int scanSize,
+      int maxMergeBatchSize,
+      int maxEvictBatchSize,
+      int maxGetBatchSize,
+      boolean hashingEnabled,
+      boolean treatRelationshipsAsSet,
+      String codec) {
     this.maxMsetSize = posEven("maxMsetSize", maxMsetSize);
     this.maxMgetSize = posInt("maxMgetSize", maxMgetSize);
     this.maxHmgetSize = posInt("maxHmgetSize", maxHmgetSize);
@@ -75,6 +115,9 @@ public class RedisCacheOptions {
     this.maxGetBatchSize = posInt("maxGetBatchSize", maxGetBatchSize);
     this.hashingEnabled = hashingEnabled;
     this.treatRelationshipsAsSet = treatRelationshipsAsSet;
+    Preconditions.checkArgument(
+        CODECS.contains(codec), "codec must be one of %s (%s)", CODECS, codec);
+    this.codec = codec;
   }
 
   public int getMaxMsetSize() {
@@ -129,6 +172,14 @@ public class RedisCacheOptions {
     return treatRelationshipsAsSet;
   }
 
+  /**
+   * @return the name of the format values are written in; values written in any supported format
+   *     are read regardless
+   */
+  public String getCodec() {
+    return codec;
+  }
+
   public static class Builder {
     public static final int DEFAULT_MULTI_OP_SIZE = 200;
     public static final int DEFAULT_BATCH_SIZE = 200;
@@ -136,6 +187,7 @@ public class RedisCacheOptions {
     public static final int DEFAULT_MAX_PIPELINE_SIZE = 200;
     public static final boolean DEFAULT_HASHING_ENABLED = true;
     public static final boolean DEFAULT_TREAT_RELATIONSHIPS_AS_SET_DISABLED = false;
+    public static final String DEFAULT_CODEC = JsonCacheDataCodec.NAME;
 
     int maxMsetSize;
     int maxMgetSize;
@@ -150,6 +202,7 @@ public class RedisCacheOptions {
     int maxGetBatchSize;
     boolean hashingEnabled;
     boolean treatRelationshipsAsSet;
+    String codec;
 
     public Builder() {
       batchSize(DEFAULT_BATCH_SIZE);
@@ -158,6 +211,7 @@ public class RedisCacheOptions {
       maxPipeline(DEFAULT_MAX_PIPELINE_SIZE);
       hashing(DEFAULT_HASHING_ENABLED);
       treatRelationshipsAsSet(DEFAULT_TREAT_RELATIONSHIPS_AS_SET_DISABLED);
+      codec(DEFAULT_CODEC);
     }
 
     public Builder maxMergeBatch(int maxMergeBatch) {
@@ -241,6 +295,11 @@ public class RedisCacheOptions {
       return this;
     }
 
+    public Builder codec(String codec) {
+      this.codec = codec;
+      return this;
+    }
+
     public RedisCacheOptions build() {
       return new RedisCacheOptions(
           maxMsetSize,
@@ -255,7 +314,8 @@ public class RedisCacheOptions {
           maxEvictBatchSize,
           maxGetBatchSize,
           hashingEnabled,
-          treatRelationshipsAsSet);
+          treatRelationshipsAsSet,
+          codec);
     }
 
     public void setBatchSize(int batchSize) {
@@ -369,5 +429,13 @@ public class RedisCacheOptions {
     public void setTreatRelationshipsAsSet(boolean treatRelationshipsAsSet) {
       this.treatRelationshipsAsSet = treatRelationshipsAsSet;
     }
+
+    public String getCodec() {
+      return codec;
+    }
+
+    public void setCodec(String codec) {
+      this.codec = codec;
+    }
   }
 }
@@ -19,6 +19,7 @@ package com.netflix.spinnaker.cats.redis.cache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.netflix.spinnaker.cats.cache.NamedCacheFactory;
 import com.netflix.spinnaker.cats.cache.WriteableCache;
+import com.netflix.spinnaker.cats.compression.CompressionStrategy;
 import com.netflix.spinnaker.cats.redis.cache.RedisCache.CacheMetrics;
 import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
 
@@ -28,20 +29,32 @@ public class RedisNamedCacheFactory implements NamedCacheFactory {
   private final ObjectMapper objectMapper;
   private final RedisCacheOptions options;
   private final CacheMetrics cacheMetrics;
+  private final CompressionStrategy compression;
 
   public RedisNamedCacheFactory(
       RedisClientDelegate redisClientDelegate,
       ObjectMapper objectMapper,
       RedisCacheOptions options,
       CacheMetrics cacheMetrics) {
+    this(redisClientDelegate, objectMapper, options, cacheMetrics, null);
+  }
+
+  public RedisNamedCacheFactory(
+      RedisClientDelegate redisClientDelegate,
+      ObjectMapper objectMapper,
+      RedisCacheOptions options,
+      CacheMetrics cacheMetrics,
+      CompressionStrategy compression) {
     this.redisClientDelegate = redisClientDelegate;
     this.objectMapper = objectMapper;
     this.options = options;
     this.cacheMetrics = cacheMetrics;
+    this.compression = compression;
   }
 
   @Override
   public WriteableCache getCache(String name) {
-    return new RedisCache(name, redisClientDelegate, objectMapper, options, cacheMetrics);
+    return new RedisCache(
+        name, redisClientDelegate, objectMapper, options, cacheMetrics, compression);
   }
 }
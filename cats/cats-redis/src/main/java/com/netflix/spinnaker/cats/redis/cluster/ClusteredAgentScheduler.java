@@ -70,6 +70,12 @@ public class ClusteredAgentScheduler extends CatsModuleAware
   @Getter // visible for tests
   private final Map<String, NextAttempt> activeAgents = new ConcurrentHashMap<>();
 
+  /**
+   * Next execution times of agents that completed while locks are handled in bulk, their locks are
+   * released or extended together on the next lock polling pass.
+   */
+  private final Map<String, Long> pendingReleases = new ConcurrentHashMap<>();
+
   private final NodeStatusProvider nodeStatusProvider;
   private final DynamicConfigService dynamicConfigService;
   private final ShardingFilter shardingFilter;
@@ -88,6 +94,22 @@ public class ClusteredAgentScheduler extends CatsModuleAware
   private static final String TTL_LOCK_KEY =
       "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('set', KEYS[1], ARGV[1], 'PX', ARGV[2], 'XX') else return nil end";
 
+  /**
+   * Tries to lock each of KEYS in order for ARGV[1] (the node identity) with the timeout in
+   * ARGV[i + 2], stopping once ARGV[2] locks were acquired, and returns the acquired keys.
+   */
+  @Getter // visible for tests
+  private static final String ACQUIRE_LOCKS =
+      "local acquired = {} "
+          + "local max = tonumber(ARGV[2]) "
+          + "for i, key in ipairs(KEYS) do "
+          + "  if #acquired >= max then break end "
+          + "  if redis.call('set', key, ARGV[1], 'NX', 'PX', ARGV[i + 2]) then "
+          + "    acquired[#acquired + 1] = key "
+          + "  end "
+          + "end "
+          + "return acquired";
+
   public ClusteredAgentScheduler(
       RedisClientDelegate redisClientDelegate,
       NodeIdentity nodeIdentity,
@@ -159,6 +181,9 @@ public class ClusteredAgentScheduler extends CatsModuleAware
     List<Map.Entry<String, AgentExecutionAction>> agentsEntrySet =
         new ArrayList<>(agents.entrySet());
     Collections.shuffle(agentsEntrySet);
+    if (isBulkLocking()) {
+      return acquireBulk(agentsEntrySet, skip, availableAgents);
+    }
     for (Map.Entry<String, AgentExecutionAction> agent : agentsEntrySet) {
       if (shardingFilter.filter(agent.getValue().getAgent()) && !skip.contains(agent.getKey())) {
         final String agentType = agent.getKey();
@@ -181,6 +206,61 @@ public class ClusteredAgentScheduler extends CatsModuleAware
     return acquired;
   }
 
+  /**
+   * Acquires the locks of all candidate agents with a single script evaluation, so that a polling
+   * pass costs one round trip regardless of the number of agents.
+   */
+  private Map<String, NextAttempt> acquireBulk(
+      List<Map.Entry<String, AgentExecutionAction>> agentsEntrySet,
+      Set<String> skip,
+      int availableAgents) {
+    Map<String, AgentIntervalProvider.Interval> intervals = new LinkedHashMap<>();
+    for (Map.Entry<String, AgentExecutionAction> agent : agentsEntrySet) {
+      if (shardingFilter.filter(agent.getValue().getAgent()) && !skip.contains(agent.getKey())) {
+        intervals.put(agent.getKey(), intervalProvider.getInterval(agent.getValue().getAgent()));
+      }
+    }
+    if (intervals.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    List<String> args = new ArrayList<>(intervals.size() + 2);
+    args.add(nodeIdentity.getNodeIdentity());
+    args.add(Integer.toString(availableAgents));
+    intervals.values().forEach(interval -> args.add(Long.toString(interval.getTimeout())));
+
+    Object response =
+        redisClientDelegate.withScriptingClient(
+            client -> client.eval(ACQUIRE_LOCKS, new ArrayList<>(intervals.keySet()), args));
+
+    Map<String, NextAttempt> acquired = new HashMap<>();
+    if (response instanceof List) {
+      long currentTime = System.currentTimeMillis();
+      for (Object agentType : (List<?>) response) {
+        AgentIntervalProvider.Interval interval = intervals.get(String.valueOf(agentType));
+        if (interval != null) {
+          acquired.put(
+              String.valueOf(agentType),
+              new NextAttempt(
+                  currentTime,
+                  interval.getInterval(),
+                  interval.getErrorInterval(),
+                  interval.getTimeout()));
+        }
+      }
+    }
+    return acquired;
+  }
+
+  /**
+   * Bulk locking evaluates one script over many keys, so it is only used when the redis client can
+   * run multi-key operations (i.e. not against a redis cluster).
+   */
+  private boolean isBulkLocking() {
+    return dynamicConfigService.isEnabled("redis.agent.bulk-locks", false)
+        && redisClientDelegate.supportsMultiKeyPipelines();
+  }
+
   @Override
   public void run() {
     if (!nodeStatusProvider.isNodeEnabled()) {
@@ -188,6 +268,7 @@ public class ClusteredAgentScheduler extends CatsModuleAware
     }
     try {
       pruneActiveAgents();
+      flushReleases();
       runAgents();
     } catch (Throwable t) {
       logger.error("Unable to run agents", t);
@@ -303,9 +384,43 @@ public class ClusteredAgentScheduler extends CatsModuleAware
     }
   }
 
+  /**
+   * Releases or extends the locks of all agents that completed since the last pass in a single
+   * pipeline.
+   */
+  private void flushReleases() {
+    if (pendingReleases.isEmpty()) {
+      return;
+    }
+
+    Map<String, Long> releases = new HashMap<>(pendingReleases);
+    releases.forEach(pendingReleases::remove);
+    final long currentTime = System.currentTimeMillis();
+    final String owner = nodeIdentity.getNodeIdentity();
+    redisClientDelegate.withMultiKeyPipeline(
+        pipeline -> {
+          releases.forEach(
+              (agentType, when) -> {
+                long newTtl = when - currentTime;
+                if (newTtl < MIN_TTL_THRESHOLD) {
+                  pipeline.eval(DELETE_LOCK_KEY, List.of(agentType), List.of(owner));
+                } else {
+                  pipeline.eval(
+                      TTL_LOCK_KEY, List.of(agentType), List.of(owner, Long.toString(newTtl)));
+                }
+              });
+          pipeline.sync();
+        });
+    logger.debug("Released the locks of {} agents in one pipeline", releases.size());
+  }
+
   private void agentCompleted(String agentType, long nextExecutionTime) {
     try {
-      releaseRunKey(agentType, nextExecutionTime);
+      if (isBulkLocking()) {
+        pendingReleases.put(agentType, nextExecutionTime);
+      } else {
+        releaseRunKey(agentType, nextExecutionTime);
+      }
     } finally {
       activeAgents.remove(agentType);
     }
@@ -355,6 +470,7 @@ public class ClusteredAgentScheduler extends CatsModuleAware
    */
   @Override
   public void unschedule(Agent agent) {
+    pendingReleases.remove(agent.getAgentType());
     try {
       releaseRunKey(agent.getAgentType(), 0); // Delete lock key now.
     } finally {
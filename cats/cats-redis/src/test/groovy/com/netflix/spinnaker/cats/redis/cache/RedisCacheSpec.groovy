@@ -21,8 +21,10 @@ import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.cats.cache.Cache
 import com.netflix.spinnaker.cats.cache.CacheData
 import com.netflix.spinnaker.cats.cache.DefaultCacheData
+import com.netflix.spinnaker.cats.cache.RelationshipCacheFilter
 import com.netflix.spinnaker.cats.cache.WriteableCache
 import com.netflix.spinnaker.cats.cache.WriteableCacheSpec
+import com.netflix.spinnaker.cats.compression.DeflateCompression
 import com.netflix.spinnaker.cats.redis.cache.RedisCache.CacheMetrics
 import com.netflix.spinnaker.kork.jedis.EmbeddedRedis
 import com.netflix.spinnaker.kork.jedis.JedisClientDelegate
@@ -141,6 +143,51 @@ class RedisCacheSpec extends WriteableCacheSpec {
     thrown(IllegalArgumentException)
   }
 
+  def 'should fail if the codec is not supported'() {
+    when:
+    RedisCacheOptions.builder().codec('cbor').build()
+
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def 'reads values written in either codec'() {
+    setup:
+    def mapper = new ObjectMapper()
+    def jsonCache = new RedisCache('test', new JedisClientDelegate(pool), mapper, RedisCacheOptions.builder().build(), cacheMetrics)
+    def smileCache = new RedisCache('test', new JedisClientDelegate(pool), mapper, RedisCacheOptions.builder().codec('smile').build(), cacheMetrics)
+
+    when:
+    jsonCache.merge('foo', createData('written-as-json', [a: 'b'], [bar: ['bar1']]))
+    smileCache.merge('foo', createData('written-as-smile', [a: 'c'], [bar: ['bar2']]))
+
+    then:
+    pool.resource.withCloseable { Jedis j -> j.get('test:foo:attributes:written-as-json') } == '{"a":"b"}'
+    pool.resource.withCloseable { Jedis j -> new String(j.get('test:foo:attributes:written-as-smile'.bytes), 0, 2, 'UTF-8') } == ':)'
+
+    smileCache.getAll('foo', ['written-as-json', 'written-as-smile']).collectEntries { [it.id, it.attributes.a] } ==
+      ['written-as-json': 'b', 'written-as-smile': 'c']
+    jsonCache.get('foo', 'written-as-smile').relationships.bar == ['bar2']
+    smileCache.get('foo', 'written-as-json').relationships.bar == ['bar1']
+  }
+
+  def 'stores values compressed as raw bytes and reads them once compression is disabled'() {
+    setup:
+    def mapper = new ObjectMapper()
+    def attributes = [description: 'compressible ' * 20]
+    def compressing = new RedisCache('test', new JedisClientDelegate(pool), mapper, RedisCacheOptions.builder().build(), cacheMetrics, new DeflateCompression(16, true))
+    def notCompressing = new RedisCache('test', new JedisClientDelegate(pool), mapper, RedisCacheOptions.builder().build(), cacheMetrics, new DeflateCompression(16, false))
+
+    when:
+    compressing.merge('foo', createData('compressed', attributes))
+    def stored = pool.resource.withCloseable { Jedis j -> j.get('test:foo:attributes:compressed'.bytes) }
+
+    then:
+    stored[0] == (byte) 0xCA
+    stored.length < mapper.writeValueAsBytes(attributes).length
+    notCompressing.get('foo', 'compressed').attributes == attributes
+  }
+
   def 'should ignore hashes if hashes disabled'() {
     setup:
     def data = createData('blerp', [a: 'b'])
@@ -233,6 +280,28 @@ class RedisCacheSpec extends WriteableCacheSpec {
       itemTwoAttributes.equals(cache.get(type, id).attributes)
   }
 
+  def 'getAllByType reads several types in one batch'() {
+    setup:
+    cache.merge('foo', createData('foo1', [a: 'b'], [bar: ['bar1']]))
+    cache.merge('foo', createData('foo2', [a: 'c'], [bar: ['bar2']]))
+    cache.merge('bar', createData('bar1', [a: 'd'], [foo: ['foo1']]))
+
+    when:
+    def result = cache.getAllByType([foo: ['foo1', 'foo2', 'foo3'], bar: ['bar1'], baz: []], [bar: RelationshipCacheFilter.none()])
+
+    then:
+    result.keySet() == ['foo', 'bar', 'baz'] as Set
+    result.foo*.id as Set == ['foo1', 'foo2'] as Set
+    result.foo.find { it.id == 'foo1' }.relationships.bar == ['bar1']
+    result.bar*.id == ['bar1']
+    result.bar[0].attributes == [a: 'd']
+    result.bar[0].relationships.isEmpty()
+    result.baz.isEmpty()
+    1 * cacheMetrics.get('test', 'foo', 2, 3, 6, 1, 1)
+    1 * cacheMetrics.get('test', 'bar', 1, 1, 1, 0, 1)
+    1 * cacheMetrics.getAllByType('test', 2, 3, 2, 2, 2)
+  }
+
   private static class Bean {
     String key
     Integer key2
@@ -31,6 +31,7 @@ import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService
 import com.netflix.spinnaker.kork.jedis.JedisClientDelegate
 import redis.clients.jedis.Jedis
 import redis.clients.jedis.JedisPool
+import redis.clients.jedis.Pipeline
 import redis.clients.jedis.params.SetParams
 import spock.lang.Specification
 import spock.lang.Subject
@@ -123,6 +124,51 @@ class ClusteredAgentSchedulerSpec extends Specification {
         0 * _
     }
 
+    def 'bulk locking acquires agents with one script and releases them in one pipeline'() {
+        given:
+        def bulkDcs = Stub(DynamicConfigService) {
+          getConfig(Integer, _ as String, 1000) >> 1000
+          isEnabled('redis.agent.bulk-locks', false) >> true
+        }
+        def pipeline = Mock(Pipeline)
+        scheduler = new ClusteredAgentScheduler(
+          new JedisClientDelegate(jedisPool),
+          new DefaultNodeIdentity(),
+          new DefaultAgentIntervalProvider(6000000),
+          new DefaultNodeStatusProvider(),
+          lockPollingScheduler,
+          agentExecutionScheduler,
+          ".*",
+          null,
+          bulkDcs,
+          new NoopShardingFilter()
+        )
+
+        when:
+        scheduler.schedule(agent, exec, inst)
+        lockPollingScheduler.runAll()
+        agentExecutionScheduler.runAll()
+
+        then:
+        1 * jedis.eval(scheduler.ACQUIRE_LOCKS, [agent.agentType], _ as List) >> [agent.agentType]
+        1 * inst.executionStarted(agent)
+        1 * exec.executeAgent(agent)
+        1 * inst.executionCompleted(agent, _)
+        1 * jedis.close()
+        0 * _
+
+        when:
+        lockPollingScheduler.runAll()
+
+        then:
+        1 * jedis.pipelined() >> pipeline
+        1 * pipeline.eval(scheduler.TTL_LOCK_KEY, [agent.agentType], _ as List)
+        1 * pipeline.sync()
+        1 * jedis.eval(scheduler.ACQUIRE_LOCKS, [agent.agentType], _ as List) >> []
+        0 * jedis.set(_ as String, _ as String, _ as SetParams)
+        0 * jedis.eval(_ as String, _ as List, _ as List)
+    }
+
     def 'test agent addition and removal from the agents and activeAgents maps in the schedule() -> run -> unschedule() flow'() {
       when:
       scheduler.schedule(agent, exec, inst)
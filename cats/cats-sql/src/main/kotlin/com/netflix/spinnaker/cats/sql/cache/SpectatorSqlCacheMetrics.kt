@@ -76,6 +76,23 @@ class SpectatorSqlCacheMetrics(
     registry.counter(id("cats.sqlCache.get", "selectOperations", tags)).increment(selectOperations.toLong())
   }
 
+  override fun hashCacheLookup(
+    prefix: String,
+    type: String,
+    hit: Boolean
+  ) {
+    val tags = listOf(BasicTag("prefix", prefix), BasicTag("type", type), BasicTag("hit", hit.toString()))
+    registry.counter(id("cats.sqlCache.hashCache", "lookups", tags)).increment()
+  }
+
+  override fun hashCacheSize(
+    bytesHeld: Long,
+    entries: Long
+  ) {
+    registry.gauge("cats.sqlCache.hashCache.bytesHeld").set(bytesHeld.toDouble())
+    registry.gauge("cats.sqlCache.hashCache.entries").set(entries.toDouble())
+  }
+
   private fun id(metricGroup: String, metric: String, tags: Iterable<Tag>) =
     registry.createId("$metricGroup.$metric", tags)
 
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.sql.cache
+
+import com.google.common.cache.CacheBuilder
+import com.google.common.cache.RemovalListener
+import java.util.concurrent.atomic.AtomicLong
+import org.slf4j.LoggerFactory
+
+/**
+ * An in-process cache of the `id -> body_hash` pairs last written by a caching agent for a given type, allowing
+ * [SqlCache] to skip the `SELECT body_hash, id` that otherwise precedes every authoritative store.
+ *
+ * Entries are only trustworthy while this node is the sole writer for an agent. The cache is updated after fully
+ * successful writes, and must be invalidated whenever an agent may have been run elsewhere (see
+ * [com.netflix.spinnaker.cats.sql.cluster.SqlClusteredAgentScheduler]) or when this node evicts rows. Rows evicted
+ * by other nodes can't be heard of here, so [SqlCache] checks that an agent still owns as many rows as its entry
+ * covers before relying on it.
+ *
+ * Memory is bounded by [maxBytes] using an estimate of the retained size of each entry; least recently used entries
+ * are evicted first.
+ */
+class SqlBodyHashCache(
+  private val maxBytes: Long,
+  private val cacheMetrics: SqlCacheMetrics
+) {
+
+  companion object {
+    private val log = LoggerFactory.getLogger(SqlBodyHashCache::class.java)
+
+    // Rough per-object overheads for a compact-string JVM: String header + backing array, and a HashMap node.
+    private const val STRING_OVERHEAD_BYTES = 56
+    private const val MAP_ENTRY_OVERHEAD_BYTES = 48
+    private const val HASH_LENGTH = 64
+  }
+
+  private val bytesHeld = AtomicLong(0)
+
+  private val entries = CacheBuilder.newBuilder()
+    .maximumWeight(maxBytes)
+    .weigher<AgentTypeKey, HashEntry> { _, value -> value.weight }
+    .removalListener(
+      RemovalListener<AgentTypeKey, HashEntry> { notification ->
+        notification.value?.let { bytesHeld.addAndGet(-it.weight.toLong()) }
+      }
+    )
+    .build<AgentTypeKey, HashEntry>()
+
+  init {
+    log.info("Configured SQL body hash cache with a budget of $maxBytes bytes")
+  }
+
+  /**
+   * @return the `id -> body_hash` pairs last written by [agent] for [type], or null if unknown
+   */
+  fun get(type: String, agent: String): Map<String, String>? =
+    entries.getIfPresent(AgentTypeKey(type, agent))?.hashes
+
+  fun put(type: String, agent: String, hashes: Map<String, String>) {
+    val entry = HashEntry(hashes, estimateWeight(hashes))
+    if (entry.weight.toLong() > maxBytes) {
+      // would be evicted immediately; don't displace everything else to hold it
+      invalidate(type, agent)
+      return
+    }
+    bytesHeld.addAndGet(entry.weight.toLong())
+    entries.put(AgentTypeKey(type, agent), entry)
+    reportSize()
+  }
+
+  fun invalidate(type: String, agent: String) {
+    entries.invalidate(AgentTypeKey(type, agent))
+    reportSize()
+  }
+
+  /**
+   * Drops every entry written by [agent], regardless of type.
+   */
+  fun invalidateAgent(agent: String) {
+    entries.asMap().keys.removeIf { it.agent == agent }
+    reportSize()
+  }
+
+  fun invalidateType(type: String) {
+    entries.asMap().keys.removeIf { it.type == type }
+    reportSize()
+  }
+
+  /**
+   * Removes [ids] from every entry of [type]. Used when rows are evicted by id, which affects all agents.
+   */
+  fun evictIds(type: String, ids: Collection<String>) {
+    if (ids.isEmpty()) {
+      return
+    }
+    entries.asMap().entries
+      .filter { it.key.type == type && ids.any { id -> it.value.hashes.containsKey(id) } }
+      .forEach { put(it.key.type, it.key.agent, it.value.hashes - ids) }
+  }
+
+  fun invalidateAll() {
+    entries.invalidateAll()
+    reportSize()
+  }
+
+  fun bytesHeld(): Long = bytesHeld.get()
+
+  private fun reportSize() {
+    entries.cleanUp()
+    cacheMetrics.hashCacheSize(bytesHeld.get(), entries.size())
+  }
+
+  private fun estimateWeight(hashes: Map<String, String>): Int {
+    var bytes = 0L
+    hashes.keys.forEach {
+      bytes += it.length + HASH_LENGTH + 2 * STRING_OVERHEAD_BYTES + MAP_ENTRY_OVERHEAD_BYTES
+    }
+    return bytes.coerceAtMost(Int.MAX_VALUE.toLong()).toInt()
+  }
+
+  private data class AgentTypeKey(
+    val type: String,
+    val agent: String
+  )
+
+  private class HashEntry(
+    val hashes: Map<String, String>,
+    val weight: Int
+  )
+}
@@ -17,6 +17,7 @@ import de.huxhorn.sulky.ulid.ULID
 import io.github.resilience4j.retry.Retry
 import io.github.resilience4j.retry.RetryConfig
 import io.vavr.control.Try
+import java.io.ByteArrayOutputStream
 import java.security.MessageDigest
 import java.sql.ResultSet
 import java.sql.SQLException
@@ -60,7 +61,8 @@ class SqlCache(
   private val cacheMetrics: SqlCacheMetrics,
   private val dynamicConfigService: DynamicConfigService,
   private val sqlConstraints: SqlConstraints,
-  private val providerCacheConfiguration: ProviderCacheConfiguration
+  private val providerCacheConfiguration: ProviderCacheConfiguration,
+  private val bodyHashCache: SqlBodyHashCache? = null
 ) : WriteableCache {
 
   companion object {
@@ -73,6 +75,9 @@ class SqlCache(
       """\.+\*""".toRegex()
 
     private val log = LoggerFactory.getLogger(SqlCache::class.java)
+
+    private const val INITIAL_BODY_BUFFER_SIZE = 8 * 1024
+    private const val MAX_RETAINED_BODY_BUFFER_SIZE = 1024 * 1024
   }
 
   private val sqlNames = SqlNames(tableNamespace, sqlConstraints)
@@ -102,6 +107,19 @@ class SqlCache(
       return
     }
 
+    val evicted = evictRows(type, ids)
+
+    if (bodyHashCache != null) {
+      // rows are evicted by id regardless of the owning agent
+      if (evicted) {
+        bodyHashCache.evictIds(type, ids)
+      } else {
+        bodyHashCache.invalidateType(type)
+      }
+    }
+  }
+
+  private fun evictRows(type: String, ids: Collection<String>): Boolean {
     log.info("evicting ${ids.size} $type records")
 
     var deletedCount = 0
@@ -127,6 +145,8 @@ class SqlCache(
       itemsDeleted = deletedCount,
       deleteOperations = opCount
     )
+
+    return deletedCount == ids.size
   }
 
   fun mergeAll(
@@ -539,166 +559,299 @@ class SqlCache(
       agentHint ?: "unknown"
     }
 
-    val existingHashIds = getHashIds(type, agent)
-    result.selectQueries.incrementAndGet()
+    // onDemand rows are shared by many writers, so their hashes can't be tracked locally
+    val hashCache = if (type == ON_DEMAND.ns) null else bodyHashCache
 
-    val existingHashes = existingHashIds // ids previously store by the calling caching agent
-      .asSequence()
-      .map { it.body_hash }
-      .toSet()
-    val existingIds = existingHashIds
-      .asSequence()
-      .map { it.id }
-      .toSet()
+    val existingHashIds = loadHashIds(type, agent, hashCache, result) // id to hash previously stored by the agent
+
+    val existingHashes = existingHashIds.values.toSet()
+    val existingIds = existingHashIds.keys
     val currentIds = mutableSetOf<String>() // current ids from the caching agent
-    val toStore = mutableListOf<String>() // ids that are new or changed
-    val bodies = mutableMapOf<String, String>() // id to body
-    val hashes = mutableMapOf<String, String>() // id to sha256(body)
-    val apps = mutableMapOf<String, String>()
+    val currentHashIds = if (hashCache != null) HashMap<String, String>() else null
 
     items.filter { it.id.length > sqlConstraints.maxIdLength }
       .forEach {
         log.error("Dropping ${it.id} - character length exceeds MAX_ID_LENGTH ($sqlConstraints.maxIdLength)")
       }
 
-    items
+    val storableItems = items
+      .asSequence()
       .filter { it.id != "_ALL_" && it.id.length <= sqlConstraints.maxIdLength }
-      .forEach {
+      .filter {
         if (!currentIds.add(it.id)) {
-            log.warn("agent: '${agent}': type: '$type': only one item with id '${it.id}' allowed")
-            result.duplicates.incrementAndGet()
-            // Skip the rest of this iteration
-            return@forEach
+          log.warn("agent: '${agent}': type: '$type': only one item with id '${it.id}' allowed")
+          result.duplicates.incrementAndGet()
+          false
+        } else {
+          normalizeForStore(it)
+          true
         }
-        val nullKeys = it.attributes
-          .filter { e -> e.value == null }
-          .keys
-        nullKeys.forEach { na -> it.attributes.remove(na) }
+      }
 
-        if (it.attributes.containsKey("application")) {
-          apps[it.id] = it.attributes["application"] as String
+    val batchSize = dynamicConfigService.getConfig(Int::class.java, "sql.cache.write-batch-size", 100)
+
+    val allWritten = if (dynamicConfigService.isEnabled("sql.cache.streaming-writes", false)) {
+      storeResourcesStreaming(type, agent, storableItems, existingHashes, currentHashIds, batchSize, result)
+    } else {
+      var hashedAll = true
+      val toStore = mutableListOf<ResourceRow>() // rows that are new or changed
+      storableItems.forEach {
+        val body: String? = mapper.writeValueAsString(it)
+        val bodyHash = getHash(body)
+
+        if (body == null || bodyHash == null) {
+          hashedAll = false
+        } else {
+          currentHashIds?.put(it.id, bodyHash)
+          if (!existingHashes.contains(bodyHash)) {
+            toStore.add(ResourceRow(it.id, it.attributes["application"] as String?, bodyHash, body))
+          }
         }
+      }
+
+      toStore
+        .chunked(batchSize) { chunk -> writeResourceRows(type, agent, chunk, result) }
+        .fold(hashedAll) { acc, written -> acc && written }
+    }
 
-        val keysToNormalize = it.relationships.keys.filter { k -> k.contains(':') }
-        if (keysToNormalize.isNotEmpty()) {
-          val normalized = normalizeRelationships(it.relationships, emptyList())
-          keysToNormalize.forEach { k -> it.relationships.remove(k) }
-          it.relationships.putAll(normalized)
+    if (!cleanup) {
+      if (hashCache != null && currentHashIds != null) {
+        if (allWritten) {
+          hashCache.put(type, agent, existingHashIds + currentHashIds)
+        } else {
+          hashCache.invalidate(type, agent)
         }
+      }
+      return result
+    }
 
-        val body: String? = mapper.writeValueAsString(it)
-        val bodyHash = getHash(body)
+    val toDelete = existingIds
+      .asSequence()
+      .filter { !currentIds.contains(it) }
+      .toSet()
+
+    val evicted = toDelete.isEmpty() || evictRows(type, toDelete)
+
+    if (hashCache != null && currentHashIds != null) {
+      if (evicted) {
+        hashCache.evictIds(type, toDelete)
+      } else {
+        hashCache.invalidateType(type)
+      }
+      if (allWritten && evicted) {
+        hashCache.put(type, agent, currentHashIds)
+      } else {
+        hashCache.invalidate(type, agent)
+      }
+    }
+
+    return result
+  }
+
+  /**
+   * Returns the `id -> body_hash` pairs previously stored by [agent], preferring the local [hashCache] over a
+   * `SELECT` when this node is known to have been the last writer.
+   *
+   * Rows of the agent may still have been evicted by other nodes, e.g. by on-demand updates, which this node's
+   * [hashCache] can't hear of. Only the agent adds rows, so cached hashes are trusted as long as the agent still
+   * owns as many rows as they cover; otherwise an unchanged body would be skipped and its row stay missing.
+   */
+  private fun loadHashIds(
+    type: String,
+    agent: String,
+    hashCache: SqlBodyHashCache?,
+    result: StoreResult
+  ): Map<String, String> {
+    var cached = hashCache?.get(type, agent)
+    if (cached != null) {
+      result.selectQueries.incrementAndGet()
+      if (countRows(type, agent) != cached.size) {
+        hashCache?.invalidate(type, agent)
+        cached = null
+      }
+    }
+    if (hashCache != null) {
+      cacheMetrics.hashCacheLookup(name, type, cached != null)
+    }
+    if (cached != null) {
+      return cached
+    }
+
+    result.selectQueries.incrementAndGet()
+    return getHashIds(type, agent).associate { it.id to it.body_hash }
+  }
+
+  /**
+   * Strips null attributes and flattens agent-qualified relationship keys prior to serialization.
+   */
+  private fun normalizeForStore(cacheData: CacheData) {
+    val nullKeys = cacheData.attributes
+      .filter { e -> e.value == null }
+      .keys
+    nullKeys.forEach { na -> cacheData.attributes.remove(na) }
+
+    val keysToNormalize = cacheData.relationships.keys.filter { k -> k.contains(':') }
+    if (keysToNormalize.isNotEmpty()) {
+      val normalized = normalizeRelationships(cacheData.relationships, emptyList())
+      keysToNormalize.forEach { k -> cacheData.relationships.remove(k) }
+      cacheData.relationships.putAll(normalized)
+    }
+  }
+
+  /**
+   * Serializes each item into a single reusable buffer and hashes the raw bytes, so that a `String` body is only
+   * materialized for rows that actually changed. Changed rows are written as soon as a full batch is available
+   * rather than after the entire agent result has been serialized.
+   *
+   * Hashes are identical to those produced by [getHash], so rows written by either path are interchangeable.
+   */
+  private fun storeResourcesStreaming(
+    type: String,
+    agent: String,
+    items: Sequence<CacheData>,
+    existingHashes: Set<String>,
+    currentHashIds: MutableMap<String, String>?,
+    batchSize: Int,
+    result: StoreResult
+  ): Boolean {
+    var allWritten = true
+    val buffer = HashingByteArrayOutputStream(INITIAL_BODY_BUFFER_SIZE)
+    val digest = MessageDigest.getInstance("SHA-256")
+    val pending = ArrayList<ResourceRow>(batchSize)
+
+    items.forEach {
+      buffer.reset()
+      try {
+        mapper.writeValue(buffer, it)
+      } catch (e: Exception) {
+        log.error("error serializing body for ${it.id}", e)
+        allWritten = false
+        return@forEach
+      }
 
-        if (body != null && bodyHash != null && !existingHashes.contains(bodyHash)) {
-          toStore.add(it.id)
-          bodies[it.id] = body
-          hashes[it.id] = bodyHash
+      if (buffer.size() == 0) {
+        allWritten = false
+        return@forEach
+      }
+
+      val bodyHash = toHex(buffer.digest(digest))
+      currentHashIds?.put(it.id, bodyHash)
+      if (!existingHashes.contains(bodyHash)) {
+        pending.add(ResourceRow(it.id, it.attributes["application"] as String?, bodyHash, buffer.toString(Charsets.UTF_8)))
+        if (pending.size >= batchSize) {
+          allWritten = writeResourceRows(type, agent, pending, result) && allWritten
+          pending.clear()
         }
       }
 
+      if (buffer.capacity() > MAX_RETAINED_BODY_BUFFER_SIZE) {
+        // avoid pinning the backing array of an unusually large body for the remainder of the store
+        buffer.trim(INITIAL_BODY_BUFFER_SIZE)
+      }
+    }
+
+    if (pending.isNotEmpty()) {
+      allWritten = writeResourceRows(type, agent, pending, result) && allWritten
+    }
+
+    return allWritten
+  }
+
+  /**
+   * @return true if every row in [chunk] was written
+   */
+  private fun writeResourceRows(type: String, agent: String, chunk: List<ResourceRow>, result: StoreResult): Boolean {
     val now = clock.millis()
 
-    toStore.chunked(dynamicConfigService.getConfig(Int::class.java, "sql.cache.write-batch-size", 100)) { chunk ->
-      try {
-        val insert = jooq.insertInto(
-          table(sqlNames.resourceTableName(type)),
-          field("id"),
-          field("agent"),
-          field("application"),
-          field("body_hash"),
-          field("body"),
-          field("last_updated")
-        )
+    try {
+      val insert = jooq.insertInto(
+        table(sqlNames.resourceTableName(type)),
+        field("id"),
+        field("agent"),
+        field("application"),
+        field("body_hash"),
+        field("body"),
+        field("last_updated")
+      )
 
-        insert.apply {
-          chunk.forEach {
-            values(it, sqlNames.checkAgentName(agent), apps[it], hashes[it], bodies[it], now)
-            when (jooq.dialect()) {
-              SQLDialect.POSTGRES ->
-                onConflict(field("id"), field("agent"))
-                  .doUpdate()
-                  .set(field("application"), SqlUtil.excluded(field("application")) as Any)
-                  .set(field("body_hash"), SqlUtil.excluded(field("body_hash")) as Any)
-                  .set(field("body"), SqlUtil.excluded(field("body")) as Any)
-                  .set(field("last_updated"), SqlUtil.excluded(field("last_updated")) as Any)
-              else ->
-                onDuplicateKeyUpdate()
-                  .set(field("application"), MySQLDSL.values(field("application")) as Any)
-                  .set(field("body_hash"), MySQLDSL.values(field("body_hash")) as Any)
-                  .set(field("body"), MySQLDSL.values(field("body")) as Any)
-                  .set(field("last_updated"), MySQLDSL.values(field("last_updated")) as Any)
-            }
+      insert.apply {
+        chunk.forEach {
+          values(it.id, sqlNames.checkAgentName(agent), it.application, it.bodyHash, it.body, now)
+          when (jooq.dialect()) {
+            SQLDialect.POSTGRES ->
+              onConflict(field("id"), field("agent"))
+                .doUpdate()
+                .set(field("application"), SqlUtil.excluded(field("application")) as Any)
+                .set(field("body_hash"), SqlUtil.excluded(field("body_hash")) as Any)
+                .set(field("body"), SqlUtil.excluded(field("body")) as Any)
+                .set(field("last_updated"), SqlUtil.excluded(field("last_updated")) as Any)
+            else ->
+              onDuplicateKeyUpdate()
+                .set(field("application"), MySQLDSL.values(field("application")) as Any)
+                .set(field("body_hash"), MySQLDSL.values(field("body_hash")) as Any)
+                .set(field("body"), MySQLDSL.values(field("body")) as Any)
+                .set(field("last_updated"), MySQLDSL.values(field("last_updated")) as Any)
           }
         }
+      }
 
-        withRetry(RetryCategory.WRITE) {
-          insert.execute()
+      withRetry(RetryCategory.WRITE) {
+        insert.execute()
+      }
+      result.itemsStored.addAndGet(chunk.size)
+      result.writeQueries.incrementAndGet()
+    } catch (e: DataAccessException) {
+      log.error("Error inserting ids: ${chunk.map { it.id }}", e)
+      return false
+    } catch (e: SQLDialectNotSupportedException) {
+      chunk.forEach {
+        val exists = withRetry(RetryCategory.READ) {
+          jooq.fetchExists(
+            jooq.select()
+              .from(sqlNames.resourceTableName(type))
+              .where(field("id").eq(it.id), field("agent").eq(sqlNames.checkAgentName(agent)))
+              .forUpdate()
+          )
         }
-        result.itemsStored.addAndGet(chunk.size)
-        result.writeQueries.incrementAndGet()
-      } catch (e: DataAccessException) {
-        log.error("Error inserting ids: $chunk", e)
-      } catch (e: SQLDialectNotSupportedException) {
-        chunk.forEach {
-          val exists = withRetry(RetryCategory.READ) {
-            jooq.fetchExists(
-              jooq.select()
-                .from(sqlNames.resourceTableName(type))
-                .where(field("id").eq(it), field("agent").eq(sqlNames.checkAgentName(agent)))
-                .forUpdate()
-            )
+        result.selectQueries.incrementAndGet()
+        if (exists) {
+          withRetry(RetryCategory.WRITE) {
+            jooq.update(table(sqlNames.resourceTableName(type)))
+              .set(field("application"), it.application)
+              .set(field("body_hash"), it.bodyHash)
+              .set(field("body"), it.body)
+              .set(field("last_updated"), clock.millis())
+              .where(field("id").eq(it.id), field("agent").eq(sqlNames.checkAgentName(agent)))
+              .execute()
           }
-          result.selectQueries.incrementAndGet()
-          if (exists) {
-            withRetry(RetryCategory.WRITE) {
-              jooq.update(table(sqlNames.resourceTableName(type)))
-                .set(field("application"), apps[it])
-                .set(field("body_hash"), hashes[it])
-                .set(field("body"), bodies[it])
-                .set(field("last_updated"), clock.millis())
-                .where(field("id").eq(it), field("agent").eq(sqlNames.checkAgentName(agent)))
-                .execute()
-            }
-            result.writeQueries.incrementAndGet()
-            result.itemsStored.incrementAndGet()
-          } else {
-            withRetry(RetryCategory.WRITE) {
-              jooq.insertInto(
-                table(sqlNames.resourceTableName(type)),
-                field("id"),
-                field("agent"),
-                field("application"),
-                field("body_hash"),
-                field("body"),
-                field("last_updated")
-              ).values(
-                it,
-                sqlNames.checkAgentName(agent),
-                apps[it],
-                hashes[it],
-                bodies[it],
-                clock.millis()
-              ).execute()
-            }
-            result.writeQueries.incrementAndGet()
-            result.itemsStored.incrementAndGet()
+          result.writeQueries.incrementAndGet()
+          result.itemsStored.incrementAndGet()
+        } else {
+          withRetry(RetryCategory.WRITE) {
+            jooq.insertInto(
+              table(sqlNames.resourceTableName(type)),
+              field("id"),
+              field("agent"),
+              field("application"),
+              field("body_hash"),
+              field("body"),
+              field("last_updated")
+            ).values(
+              it.id,
+              sqlNames.checkAgentName(agent),
+              it.application,
+              it.bodyHash,
+              it.body,
+              clock.millis()
+            ).execute()
           }
+          result.writeQueries.incrementAndGet()
+          result.itemsStored.incrementAndGet()
         }
       }
     }
 
-    if (!cleanup) {
-      return result
-    }
-
-    val toDelete = existingIds
-      .asSequence()
-      .filter { !currentIds.contains(it) }
-      .toSet()
-
-    evictAll(type, toDelete)
-
-    return result
+    return true
   }
 
   private fun storeInformative(type: String, items: MutableCollection<CacheData>, cleanup: Boolean): StoreResult {
@@ -938,20 +1091,33 @@ class SqlCache(
     return try {
       val digest = MessageDigest.getInstance("SHA-256")
         .digest(body.toByteArray())
-      // The hash length is known, so a `StringBuilder` with a predefined capacity is used
-      // to prevent unnecessary array allocations inside the StringBuilder.
-      val builder = StringBuilder(64)
-      for (byte in digest) {
-        // Uses pre-generated string representations for each byte to optimize performance.
-        builder.append(this.hexStrings[byte - Byte.MIN_VALUE])
-      }
-      builder.toString()
+      toHex(digest)
     } catch (e: Exception) {
       log.error("error calculating hash for body: $body", e)
       null
     }
   }
 
+  private fun toHex(digest: ByteArray): String {
+    // The hash length is known, so a `StringBuilder` with a predefined capacity is used
+    // to prevent unnecessary array allocations inside the StringBuilder.
+    val builder = StringBuilder(64)
+    for (byte in digest) {
+      // Uses pre-generated string representations for each byte to optimize performance.
+      builder.append(this.hexStrings[byte - Byte.MIN_VALUE])
+    }
+    return builder.toString()
+  }
+
+  private fun countRows(type: String, agent: String): Int {
+    return withRetry(RetryCategory.READ) {
+      jooq.fetchCount(
+        table(sqlNames.resourceTableName(type)),
+        field("agent").eq(sqlNames.checkAgentName(agent))
+      )
+    }
+  }
+
   private fun getHashIds(type: String, agent: String?): List<HashId> {
     return withRetry(RetryCategory.READ) {
       jooq
@@ -1577,6 +1743,13 @@ class SqlCache(
     }
   }
 
+  private data class ResourceRow(
+    val id: String,
+    val application: String?,
+    val bodyHash: String,
+    val body: String
+  )
+
   data class RelPointer(
     val id: String,
     val rel_id: String,
@@ -1602,6 +1775,24 @@ class SqlCache(
   }
 }
 
+/**
+ * A [ByteArrayOutputStream] that can be digested and shrunk in place, allowing a single buffer to be reused for
+ * serializing every item of an authoritative store.
+ */
+private class HashingByteArrayOutputStream(size: Int) : ByteArrayOutputStream(size) {
+  fun digest(messageDigest: MessageDigest): ByteArray {
+    messageDigest.update(buf, 0, count)
+    return messageDigest.digest()
+  }
+
+  fun capacity(): Int = buf.size
+
+  fun trim(size: Int) {
+    reset()
+    buf = ByteArray(size)
+  }
+}
+
 @ExperimentalContracts
 fun CoroutineContext?.useAsync(size: Int, useAsync: (size: Int) -> Boolean): Boolean {
   contract {
@@ -46,6 +46,17 @@ interface SqlCacheMetrics {
     selectOperations: Int,
     async: Boolean = false
   ) {}
+
+  fun hashCacheLookup(
+    prefix: String,
+    type: String,
+    hit: Boolean
+  ) {}
+
+  fun hashCacheSize(
+    bytesHeld: Long,
+    entries: Long
+  ) {}
 }
 
 class NoopCacheMetrics : SqlCacheMetrics
@@ -21,7 +21,8 @@ class SqlNamedCacheFactory(
   private val prefix: String?,
   private val cacheMetrics: SqlCacheMetrics,
   private val dynamicConfigService: DynamicConfigService,
-  private val sqlConstraints: SqlConstraints
+  private val sqlConstraints: SqlConstraints,
+  private val bodyHashCache: SqlBodyHashCache? = null
 ) : NamedCacheFactory {
 
   @ExperimentalContracts
@@ -42,7 +43,8 @@ class SqlNamedCacheFactory(
       cacheMetrics,
       dynamicConfigService,
       sqlConstraints,
-      providerCacheConfiguration
+      providerCacheConfiguration,
+      bodyHashCache
     )
   }
 
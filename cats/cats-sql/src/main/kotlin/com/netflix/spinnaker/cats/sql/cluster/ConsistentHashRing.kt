@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.cats.sql.cluster
+
+import com.google.common.hash.Hashing
+import java.util.TreeMap
+import kotlin.math.max
+
+/**
+ * A consistent-hash ring of caching pods, each placed at [virtualNodes] points, used to shard accounts so that a
+ * pod joining or leaving only moves the accounts adjacent to its own points.
+ *
+ * The ring is a pure function of the pod ids, so every pod that sees the same `caching_replicas` rows builds the
+ * same ring.
+ */
+class ConsistentHashRing(
+  pods: Collection<String>,
+  virtualNodes: Int
+) {
+
+  private val ring = TreeMap<Long, String>()
+
+  val pods: Set<String> = pods.toSortedSet()
+
+  init {
+    require(this.pods.isNotEmpty()) { "A hash ring needs at least one pod" }
+    val points = max(1, virtualNodes)
+    this.pods.forEach { pod ->
+      (0 until points).forEach { ring.putIfAbsent(hash("$pod#$it"), pod) }
+    }
+  }
+
+  /**
+   * @return the pod owning [key], i.e. the first pod point at or after the key's hash
+   */
+  fun owner(key: String): String =
+    (ring.ceilingEntry(hash(key)) ?: ring.firstEntry()).value
+
+  /**
+   * Assigns every weighted key to a pod using consistent hashing with bounded loads: keys are placed heaviest
+   * first, each on the first pod clockwise from its hash whose load would stay within [loadFactor] times the
+   * average. A key that fits nowhere (heavier than a pod's share on its own) goes to the least loaded pod.
+   *
+   * The result only depends on the ring and [weights], so pods reading the same weights agree on it.
+   */
+  fun assign(weights: Map<String, Double>, loadFactor: Double): Map<String, String> {
+    val capacity = weights.values.sum() * max(1.0, loadFactor) / pods.size
+    val loads = pods.associateWithTo(HashMap()) { 0.0 }
+    val assignment = HashMap<String, String>(weights.size)
+
+    weights.entries
+      .sortedWith(compareByDescending<Map.Entry<String, Double>> { it.value }.thenBy { it.key })
+      .forEach { (key, weight) ->
+        val owner = walk(key).firstOrNull { loads.getValue(it) + weight <= capacity }
+          ?: loads.entries.minWithOrNull(compareBy<Map.Entry<String, Double>> { it.value }.thenBy { it.key })!!.key
+        loads[owner] = loads.getValue(owner) + weight
+        assignment[key] = owner
+      }
+
+    return assignment
+  }
+
+  /**
+   * @return the distinct pods in ring order, starting at the owner of [key]
+   */
+  private fun walk(key: String): Sequence<String> {
+    val start = hash(key)
+    return (ring.tailMap(start, true).values.asSequence() + ring.headMap(start, false).values.asSequence())
+      .distinct()
+      .take(pods.size)
+  }
+
+  private fun hash(value: String): Long =
+    Hashing.murmur3_128().hashUnencodedChars(value).asLong()
+}
@@ -19,6 +19,7 @@ package com.netflix.spinnaker.cats.sql.cluster
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder
 import com.netflix.spinnaker.cats.agent.Agent
+import com.netflix.spinnaker.cats.agent.ExecutionInstrumentation
 import com.netflix.spinnaker.cats.cluster.NodeIdentity
 import com.netflix.spinnaker.cats.cluster.ShardingFilter
 import com.netflix.spinnaker.cats.sql.SqlUtil
@@ -32,10 +33,15 @@ import org.jooq.impl.DSL.table
 import org.slf4j.LoggerFactory
 import org.springframework.dao.DataIntegrityViolationException
 import java.sql.SQLException
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.Executors
 import java.util.concurrent.ScheduledExecutorService
 import java.util.concurrent.TimeUnit
 import kotlin.math.abs
+import kotlin.math.log2
+import kotlin.math.max
+import kotlin.math.pow
+import kotlin.math.roundToInt
 
 class SqlCachingPodsObserver (
   private val jooq: DSLContext,
@@ -45,16 +51,27 @@ class SqlCachingPodsObserver (
   private val liveReplicasScheduler: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor(
     ThreadFactoryBuilder().setNameFormat(SqlCachingPodsObserver::class.java.simpleName + "-%d").build()
   )
-) : ShardingFilter, Runnable{
+) : ShardingFilter, ExecutionInstrumentation, Runnable{
   private val log = LoggerFactory.getLogger(javaClass)
   private var podCount: Int = 0
   private var podIndex: Int = -1
+  @Volatile
+  private var hashSharding: HashSharding? = null
+
+  // recent execution time of each agent run on this pod, and the accounts that ran since the last heartbeat
+  private val agentCosts: MutableMap<String, Double> = ConcurrentHashMap()
+  private val accountsRun: MutableSet<String> = ConcurrentHashMap.newKeySet()
   private var ttlSeconds = dynamicConfigService.getConfig(Long::class.java, "cache-sharding.replica-ttl-seconds", 60)
 
   companion object {
     private val POOL_NAME = ConnectionPools.CACHE_WRITER.value
     const val LAST_HEARTBEAT_TIME = "last_heartbeat_time"
     const val POD_ID = "pod_id"
+    const val ACCOUNT = "account"
+    const val COST_MS = "cost_ms"
+    const val LAST_UPDATED = "last_updated"
+    const val CONSISTENT_HASH_STRATEGY = "consistent-hash"
+    private const val COST_SMOOTHING = 0.3
   }
   private val replicasReferenceTable = "caching_replicas"
   private val replicasTable = if (tableNamespace.isNullOrBlank()) {
@@ -62,11 +79,18 @@ class SqlCachingPodsObserver (
   } else {
     "${replicasReferenceTable}_$tableNamespace"
   }
+  private val costsReferenceTable = "caching_account_costs"
+  private val costsTable = if (tableNamespace.isNullOrBlank()) {
+    costsReferenceTable
+  } else {
+    "${costsReferenceTable}_$tableNamespace"
+  }
 
   init {
     if (!tableNamespace.isNullOrBlank()) {
       withPool(POOL_NAME) {
         SqlUtil.createTableLike(jooq, replicasTable, replicasReferenceTable)
+        SqlUtil.createTableLike(jooq, costsTable, costsReferenceTable)
       }
     }
     refreshHeartbeat(TimeUnit.SECONDS.toMillis(ttlSeconds))
@@ -88,6 +112,9 @@ class SqlCachingPodsObserver (
   private fun refreshHeartbeat(newTtl: Long){
     recordHeartbeat(newTtl)
     deleteExpiredReplicas()
+    if (isCostWeighted()) {
+      recordAccountCosts()
+    }
     preFilter()
   }
 
@@ -169,6 +196,7 @@ class SqlCachingPodsObserver (
   private fun preFilter(){
     var counter = 0
     var index = -1
+    val podIds = mutableListOf<String>()
     try {
       withPool(POOL_NAME) {
         val cachingPods = jooq.select()
@@ -178,6 +206,7 @@ class SqlCachingPodsObserver (
           .intoResultSet()
 
         while (cachingPods.next()) {
+          podIds.add(cachingPods.getString(POD_ID))
           if (cachingPods.getString(POD_ID).equals(nodeIdentity.nodeIdentity)) {
             index = counter;
           }
@@ -192,18 +221,152 @@ class SqlCachingPodsObserver (
     }
     podCount = counter
     podIndex = index
+    hashSharding = buildHashSharding(podIds)
     log.debug("Pod count : {} and current pod's index : {}", podCount, podIndex)
   }
 
+  private fun buildHashSharding(podIds: List<String>): HashSharding? {
+    val strategy = dynamicConfigService.getConfig(String::class.java, "cache-sharding.strategy", "modulo")
+    if (strategy != CONSISTENT_HASH_STRATEGY) {
+      return null
+    }
+
+    val ring = ConsistentHashRing(
+      podIds,
+      dynamicConfigService.getConfig(Int::class.java, "cache-sharding.virtual-nodes", 128)
+    )
+    if (!isCostWeighted()) {
+      return HashSharding(ring, emptyMap())
+    }
+
+    val loadFactor = dynamicConfigService.getConfig(Double::class.java, "cache-sharding.load-factor", 1.25)
+    val owners = ring.assign(readAccountCosts(), loadFactor)
+    log.debug("Placed {} accounts on {} pods by measured cost", owners.size, podIds.size)
+    return HashSharding(ring, owners)
+  }
+
+  private fun isCostWeighted(): Boolean {
+    val strategy = dynamicConfigService.getConfig(String::class.java, "cache-sharding.strategy", "modulo")
+    return strategy == CONSISTENT_HASH_STRATEGY && dynamicConfigService.isEnabled("cache-sharding.cost-weighted", false)
+  }
+
+  /**
+   * Publishes the cost of every account that ran on this pod since the last heartbeat, so that all pods weigh
+   * accounts the same way, and drops costs no pod has refreshed within `cache-sharding.account-cost-ttl-seconds`.
+   */
+  private fun recordAccountCosts() {
+    val accounts = accountsRun.toList()
+    accountsRun.removeAll(accounts)
+    val costs = agentCosts.entries
+      .groupBy({ getAccountName(it.key) }, { it.value })
+      .mapValues { it.value.sum().toLong() }
+    val now = System.currentTimeMillis()
+    try {
+      withPool(POOL_NAME) {
+        accounts.forEach { account ->
+          val costMs = costs[account] ?: return@forEach
+          val updated = jooq.update(table(costsTable))
+            .set(DSL.field(COST_MS), costMs)
+            .set(DSL.field(LAST_UPDATED), now)
+            .where(DSL.field(ACCOUNT).eq(account))
+            .execute()
+          if (updated == 0) {
+            try {
+              jooq.insertInto(table(costsTable))
+                .columns(DSL.field(ACCOUNT), DSL.field(COST_MS), DSL.field(LAST_UPDATED))
+                .values(account, costMs, now)
+                .execute()
+            } catch (e: DataIntegrityViolationException) {
+              // another pod recorded this account first, its cost is as recent as ours
+            }
+          }
+        }
+
+        val ttlMs = TimeUnit.SECONDS.toMillis(
+          dynamicConfigService.getConfig(Long::class.java, "cache-sharding.account-cost-ttl-seconds", 3600)
+        )
+        jooq.deleteFrom(table(costsTable))
+          .where(DSL.field(LAST_UPDATED).lt(now - ttlMs))
+          .execute()
+      }
+    } catch (e: SQLException) {
+      log.error("Unexpected sql exception while trying to record account costs", e)
+    }
+  }
+
+  /**
+   * Costs are rounded to half powers of two so that the small run-to-run variations pods observe between
+   * heartbeats don't move accounts around.
+   */
+  private fun readAccountCosts(): Map<String, Double> {
+    val costs = mutableMapOf<String, Double>()
+    try {
+      withPool(POOL_NAME) {
+        val rows = jooq.select(DSL.field(ACCOUNT), DSL.field(COST_MS))
+          .from(table(costsTable))
+          .fetch()
+          .intoResultSet()
+        while (rows.next()) {
+          val costMs = max(1L, rows.getLong(COST_MS)).toDouble()
+          costs[rows.getString(ACCOUNT)] = 2.0.pow((log2(costMs) * 2).roundToInt() / 2.0)
+        }
+      }
+    } catch (e: SQLException) {
+      log.error("Failed to fetch account costs ${e.message}")
+    }
+    return costs
+  }
+
   override fun filter(agent: Agent) : Boolean{
     if(agent.providerName.equals(CoreProvider.PROVIDER_NAME)){
       return true
     }
-    if (podCount == 1 || abs(getAccountName(agent.agentType).hashCode() % podCount) == podIndex) {
+    if (podCount == 1) {
+      return true
+    }
+    val accountName = getAccountName(agent.agentType)
+    val sharding = hashSharding
+    if (sharding != null) {
+      return sharding.owner(accountName) == nodeIdentity.nodeIdentity
+    }
+    if (abs(accountName.hashCode() % podCount) == podIndex) {
       return true
     }
     return false
   }
 
+  override fun executionStarted(agent: Agent) {
+    // do nothing
+  }
+
+  override fun executionCompleted(agent: Agent, elapsedMs: Long) {
+    recordExecution(agent, elapsedMs)
+  }
+
+  override fun executionFailed(agent: Agent, cause: Throwable, elapsedMs: Long) {
+    recordExecution(agent, elapsedMs)
+  }
+
+  private fun recordExecution(agent: Agent, elapsedMs: Long) {
+    if (agent.providerName.equals(CoreProvider.PROVIDER_NAME)) {
+      return
+    }
+    agentCosts.merge(agent.agentType, elapsedMs.toDouble()) { previous, latest ->
+      previous + COST_SMOOTHING * (latest - previous)
+    }
+    accountsRun.add(getAccountName(agent.agentType))
+  }
+
+  private class HashSharding(
+    private val ring: ConsistentHashRing,
+    private val weightedOwners: Map<String, String>
+  ) {
+    /**
+     * Accounts with a measured cost are placed with bounded loads; any other account (e.g. one that hasn't run
+     * yet) goes to its plain ring owner.
+     */
+    fun owner(accountName: String): String = weightedOwners[accountName] ?: ring.owner(accountName)
+  }
+
 
 }
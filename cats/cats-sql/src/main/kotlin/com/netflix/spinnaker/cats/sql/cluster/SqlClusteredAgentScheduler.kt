@@ -16,6 +16,9 @@
 package com.netflix.spinnaker.cats.sql.cluster
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder
+import com.netflix.spectator.api.NoopRegistry
+import com.netflix.spectator.api.Registry
+import com.netflix.spinnaker.cats.agent.AccountAware
 import com.netflix.spinnaker.cats.agent.Agent
 import com.netflix.spinnaker.cats.agent.AgentExecution
 import com.netflix.spinnaker.cats.agent.AgentLock
@@ -29,6 +32,7 @@ import com.netflix.spinnaker.cats.cluster.NodeStatusProvider
 import com.netflix.spinnaker.cats.cluster.ShardingFilter
 import com.netflix.spinnaker.cats.module.CatsModuleAware
 import com.netflix.spinnaker.cats.sql.SqlUtil
+import com.netflix.spinnaker.cats.sql.cache.SqlBodyHashCache
 import com.netflix.spinnaker.config.ConnectionPools
 import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService
 import com.netflix.spinnaker.kork.sql.routing.withPool
@@ -36,11 +40,15 @@ import java.sql.SQLException
 import java.util.regex.Pattern
 import java.util.regex.Pattern.CASE_INSENSITIVE
 import org.jooq.DSLContext
+import org.jooq.exception.DataAccessException
+import org.jooq.impl.DSL
 import org.jooq.impl.DSL.field
 import org.jooq.impl.DSL.table
 import org.slf4j.LoggerFactory
 import org.springframework.dao.DataIntegrityViolationException
 import java.util.concurrent.*
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.math.max
 
 /**
  * IMPORTANT: Using SQL for locking isn't a good idea. By enabling this scheduler, you'll be adding a fair amount of
@@ -59,13 +67,20 @@ class SqlClusteredAgentScheduler(
   private val disabledAgentsConfig: List<String>,
   agentLockAcquisitionIntervalSeconds: Long? = null,
   private val tableNamespace: String? = null,
-  private val agentExecutionPool: ExecutorService = Executors.newCachedThreadPool(
+  private val agentExecutionPool: ExecutorService = ThreadPoolExecutor(
+    DEFAULT_MAX_CONCURRENT_AGENTS,
+    DEFAULT_MAX_CONCURRENT_AGENTS,
+    60L,
+    TimeUnit.SECONDS,
+    LinkedBlockingQueue(),
     ThreadFactoryBuilder().setNameFormat(AgentExecutionAction::class.java.simpleName + "-%d").build()
-  ),
+  ).apply { allowCoreThreadTimeOut(true) },
   lockPollingScheduler: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor(
     ThreadFactoryBuilder().setNameFormat(SqlClusteredAgentScheduler::class.java.simpleName + "-%d").build()
   ),
-  private val shardingFilter: ShardingFilter
+  private val shardingFilter: ShardingFilter,
+  private val bodyHashCache: SqlBodyHashCache? = null,
+  private val registry: Registry = NoopRegistry()
 ) : CatsModuleAware(), AgentScheduler<AgentLock>, Runnable {
 
   private val log = LoggerFactory.getLogger(javaClass)
@@ -73,6 +88,23 @@ class SqlClusteredAgentScheduler(
   private val agents: MutableMap<String, AgentExecutionAction> = ConcurrentHashMap()
   private val activeAgents: MutableMap<String, NextAttempt> = ConcurrentHashMap()
   private val activeAgentsFutures: MutableMap<String, Future<*>> = ConcurrentHashMap()
+
+  // lock expiries written by this node when releasing a lock, and the agents whose expired lock was still ours
+  // when it was cleaned up; used to tell whether any other node could have run an agent since we last did
+  private val releasedLockExpiries: MutableMap<String, Long> = ConcurrentHashMap()
+  private val reclaimedAgents: MutableSet<String> = ConcurrentHashMap.newKeySet()
+
+  // when each agent last became due and how long it usually runs, used to order the agents that are ready to run
+  private val dueTimes: MutableMap<String, Long> = ConcurrentHashMap()
+  private val runtimes: MutableMap<String, Long> = ConcurrentHashMap()
+
+  // next execution times of agents that finished while locks are written in batches, released on the next pass
+  private val pendingReleases: MutableMap<String, Long> = ConcurrentHashMap()
+  private val releaseStatements = AtomicInteger()
+
+  private val lockStatementsId = registry.createId("cats.sqlAgentScheduler.lockStatements")
+  private val lockStatementsSavedId = registry.createId("cats.sqlAgentScheduler.lockStatementsSaved")
+  private val expiredJobsId = registry.createId("cats.sqlAgentScheduler.expiredJobs")
   private val enabledAgents: Pattern
 
   private val referenceTable = "cats_agent_locks"
@@ -103,11 +135,16 @@ class SqlClusteredAgentScheduler(
       agent.agentScheduler = this
     }
     agents[agent.agentType] = AgentExecutionAction(agent, agentExecution, executionInstrumentation)
+    dueTimes.putIfAbsent(agent.agentType, System.currentTimeMillis())
   }
 
   override fun unschedule(agent: Agent) {
+    pendingReleases.remove(agent.agentType)
     releaseLock(agent.agentType, 0) // Release the lock immediately
-    agents.remove(agent.agentType)
+    agents.remove(agent.agentType)?.let { it.executionInstrumentation.executionDropped(it.agent) }
+    dueTimes.remove(agent.agentType)
+    runtimes.remove(agent.agentType)
+    bodyHashCache?.invalidateAgent(agent.agentType)
   }
 
   override fun run() {
@@ -121,18 +158,38 @@ class SqlClusteredAgentScheduler(
   }
 
   private fun runAgents() {
-    val acquiredAgents = tryAcquire()
+    val batched = isBatchingLocks()
+    val statements = LockStatements(releaseStatements.getAndSet(0))
+    if (pendingReleases.isNotEmpty()) {
+      flushReleases(statements)
+    }
+    val acquiredAgents = tryAcquire(batched, statements)
     activeAgents.putAll(acquiredAgents)
     acquiredAgents.forEach { agentType, nextAttempt ->
       val exec = agents[agentType]
       if (exec != null) {
-        activeAgentsFutures[agentType] = agentExecutionPool.submit(AgentJob(nextAttempt, exec, this::agentCompleted))
+        exec.executionInstrumentation.executionScheduled(exec.agent, lagMs(agentType, nextAttempt.currentTime))
+        activeAgentsFutures[agentType] =
+          agentExecutionPool.submit(AgentJob(nextAttempt, exec, this::agentCompleted, this::agentExpired))
       }
     }
+
+    registry.distributionSummary(lockStatementsId.withTag("batched", batched)).record(statements.issued.toLong())
+    registry.counter(lockStatementsSavedId).increment((statements.unbatched - statements.issued).toLong())
   }
 
-  private fun tryAcquire(): Map<String, NextAttempt> {
-    return findCandidateAgentLocks()
+  private fun isBatchingLocks(): Boolean =
+    dynamicConfigService.isEnabled("sql.agent.batch-locks", false)
+
+  private fun tryAcquire(batched: Boolean, statements: LockStatements): Map<String, NextAttempt> {
+    val candidates = findCandidateAgentLocks(batched, statements)
+    statements.unbatched += candidates.size
+    if (batched) {
+      return tryAcquireBatch(candidates, statements)
+    }
+
+    statements.issued += candidates.size
+    return candidates
       .map {
         val agentType = it.key
         val agentExecution = it.value
@@ -140,8 +197,10 @@ class SqlClusteredAgentScheduler(
 
         val currentTime = System.currentTimeMillis()
         if (tryAcquireSingle(agentType, currentTime, interval.timeout)) {
-          Pair(agentType, NextAttempt(currentTime, interval.interval, interval.errorInterval))
+          agentAcquired(agentType)
+          Pair(agentType, NextAttempt(currentTime, interval.interval, interval.errorInterval, interval.timeout))
         } else {
+          agentExecution.executionInstrumentation.executionDropped(agentExecution.agent)
           null
         }
       }
@@ -149,10 +208,87 @@ class SqlClusteredAgentScheduler(
       .toMap()
   }
 
-  private fun findCandidateAgentLocks(): Map<String, AgentExecutionAction> {
+  /**
+   * Unless this node held the agent's lock continuously since its last local execution, some other node may have
+   * written the agent's cache records in the meantime, so any locally cached write state has to be discarded.
+   */
+  private fun agentAcquired(agentType: String) {
+    val reclaimed = reclaimedAgents.remove(agentType)
+    releasedLockExpiries.remove(agentType)
+    if (!reclaimed) {
+      bodyHashCache?.invalidateAgent(agentType)
+    }
+  }
+
+  /**
+   * Acquires the locks of all [candidates] with one multi-row insert that skips agents already locked, then reads
+   * back which rows this pass wrote, so acquiring any number of agents costs two statements per batch.
+   */
+  private fun tryAcquireBatch(
+    candidates: Map<String, AgentExecutionAction>,
+    statements: LockStatements
+  ): Map<String, NextAttempt> {
+    if (candidates.isEmpty()) {
+      return emptyMap()
+    }
+
+    val intervals = candidates.mapValues { intervalProvider.getInterval(it.value.agent) }
+    val currentTime = System.currentTimeMillis()
+    val acquired = mutableListOf<String>()
+    withPool(POOL_NAME) {
+      for (chunk in intervals.entries.chunked(LOCK_BATCH_SIZE)) {
+        try {
+          var insert = jooq.insertInto(table(lockTable))
+            .columns(
+              field("agent_name"),
+              field("owner_id"),
+              field("lock_acquired"),
+              field("lock_expiry")
+            )
+          chunk.forEach {
+            insert = insert.values(it.key, nodeIdentity.nodeIdentity, currentTime, currentTime + it.value.timeout)
+          }
+          insert.onDuplicateKeyIgnore().execute()
+
+          acquired += jooq.select(field("agent_name"))
+            .from(table(lockTable))
+            .where(
+              field("owner_id").eq(nodeIdentity.nodeIdentity)
+                .and(field("lock_acquired").eq(currentTime))
+                .and(field("agent_name").`in`(chunk.map { it.key }))
+            )
+            .fetch(field("agent_name"), String::class.java)
+          statements.issued += 2
+        } catch (e: Exception) {
+          // the agents of the earlier batches hold their locks and still run, the others are tried on the next pass
+          log.error("Unexpected exception while trying to acquire agent locks", e)
+          break
+        }
+      }
+    }
+
+    candidates
+      .filterKeys { !acquired.contains(it) }
+      .values
+      .forEach { it.executionInstrumentation.executionDropped(it.agent) }
+
+    return acquired.associateWith { agentType ->
+      agentAcquired(agentType)
+      val interval = intervals.getValue(agentType)
+      NextAttempt(currentTime, interval.interval, interval.errorInterval, interval.timeout)
+    }
+  }
+
+  private fun findCandidateAgentLocks(batched: Boolean, statements: LockStatements): Map<String, AgentExecutionAction> {
     cleanupZombieAgents()
+    reclaimedAgents.clear()
     val skip = HashMap(activeAgents).entries
-    val maxConcurrentAgents = dynamicConfigService.getConfig(Int::class.java, "sql.agent.max-concurrent-agents", 100)
+    val maxConcurrentAgents = dynamicConfigService.getConfig(
+      Int::class.java,
+      "sql.agent.max-concurrent-agents",
+      DEFAULT_MAX_CONCURRENT_AGENTS
+    )
+    resizeExecutionPool(maxConcurrentAgents)
     val availableAgents = maxConcurrentAgents - skip.size
     if (availableAgents <= 0) {
       log.debug(
@@ -185,18 +321,34 @@ class SqlClusteredAgentScheduler(
         .from(table(lockTable))
         .fetch()
         .intoResultSet()
+      statements.issued++
+      statements.unbatched++
 
       val now = System.currentTimeMillis()
+      val expiredLocks = mutableListOf<Pair<String, Long>>()
       while (existingLocks.next()) {
         val lockExpiry = existingLocks.getLong("lock_expiry")
         if (now > lockExpiry) {
+          val agentName = existingLocks.getString("agent_name")
+          if (agents.containsKey(agentName)) {
+            dueTimes[agentName] = lockExpiry
+          }
+          statements.unbatched++
+          if (batched) {
+            expiredLocks.add(agentName to lockExpiry)
+            continue
+          }
+          statements.issued++
           try {
-            jooq.deleteFrom(table(lockTable))
+            val deleted = jooq.deleteFrom(table(lockTable))
               .where(
-                field("agent_name").eq(existingLocks.getString("agent_name"))
+                field("agent_name").eq(agentName)
                   .and(field("lock_expiry").eq(lockExpiry))
               )
               .execute()
+            if (deleted > 0 && releasedLockExpiries[agentName] == lockExpiry) {
+              reclaimedAgents.add(agentName)
+            }
           } catch (e: SQLException) {
             log.error(
               "Failed deleting agent lock ${existingLocks.getString("agent_name")} with expiry " +
@@ -207,30 +359,113 @@ class SqlClusteredAgentScheduler(
             candidateAgentLocks.remove(existingLocks.getString("agent_name"))
           }
         } else {
+          // held by another node, or by this one for an agent that is no longer scheduled
           candidateAgentLocks.remove(existingLocks.getString("agent_name"))
+            ?.let { it.executionInstrumentation.executionDropped(it.agent) }
+        }
+      }
+
+      expiredLocks.chunked(LOCK_BATCH_SIZE).forEach { chunk ->
+        statements.issued++
+        try {
+          val deleted = jooq.deleteFrom(table(lockTable))
+            .where(
+              DSL.or(
+                chunk.map { (agentName, lockExpiry) ->
+                  field("agent_name").eq(agentName).and(field("lock_expiry").eq(lockExpiry))
+                }
+              )
+            )
+            .execute()
+          // when another node cleaned up some of these locks first we can't tell which, so none count as reclaimed
+          if (deleted == chunk.size) {
+            chunk
+              .filter { (agentName, lockExpiry) -> releasedLockExpiries[agentName] == lockExpiry }
+              .forEach { reclaimedAgents.add(it.first) }
+          }
+        } catch (e: DataAccessException) {
+          log.error("Failed deleting ${chunk.size} expired agent locks", e)
+          chunk.forEach { candidateAgentLocks.remove(it.first) }
         }
       }
     }
 
     log.debug("Next agents to run: {}, max: {}", candidateAgentLocks.keys, availableAgents)
 
+    val maxPerAccount = dynamicConfigService.getConfig(Int::class.java, "sql.agent.max-concurrent-agents-per-account", 0)
+    val maxPerProvider = dynamicConfigService.getConfig(Int::class.java, "sql.agent.max-concurrent-agents-per-provider", 0)
+    val runningAgents = skip.mapNotNull { agents[it.key]?.agent }
+    val accountLoad = runningAgents.groupingBy { accountName(it) }.eachCount().toMutableMap()
+    val providerLoad = runningAgents.groupingBy { it.providerName }.eachCount().toMutableMap()
+
+    val now = System.currentTimeMillis()
     val trimmedCandidates = mutableMapOf<String, AgentExecutionAction>()
+    val deferredCandidates = mutableListOf<AgentExecutionAction>()
     candidateAgentLocks.entries
       .shuffled()
+      .sortedByDescending { priority(it.key, now) }
       .forEach {
-        if (trimmedCandidates.size >= availableAgents) {
-          log.warn(
-            "Dropping caching agent: {}. Wanted to run {} agents, but a max of {} was configured and there are " +
-              "already {} currently running. Consider increasing sql.agent.max-concurrent-agents",
-          it.key, candidateAgentLocks.size, maxConcurrentAgents, skip)
+        val account = accountName(it.value.agent)
+        val provider = it.value.agent.providerName
+        if (trimmedCandidates.size >= availableAgents ||
+          atLimit(accountLoad[account], maxPerAccount) ||
+          atLimit(providerLoad[provider], maxPerProvider)
+        ) {
+          deferredCandidates.add(it.value)
           return@forEach
         }
+        accountLoad.merge(account, 1, Int::plus)
+        providerLoad.merge(provider, 1, Int::plus)
         trimmedCandidates[it.key] = it.value
       }
 
+    if (deferredCandidates.isNotEmpty()) {
+      log.debug(
+        "Deferring {} caching agents until the next pass (maxConcurrentAgents: {}, per account: {}, per provider: {})",
+        deferredCandidates.size, maxConcurrentAgents, maxPerAccount, maxPerProvider
+      )
+      deferredCandidates.forEach {
+        it.executionInstrumentation.executionDeferred(it.agent, lagMs(it.agent.agentType, now))
+      }
+    }
+
     return trimmedCandidates
   }
 
+  /**
+   * Highest response ratio first: an agent's priority grows with how long it has been due relative to how long it
+   * usually takes, so quick agents get ahead of slow ones without a slow agent waiting forever.
+   */
+  private fun priority(agentType: String, now: Long): Double {
+    val runtime = max(MIN_EXPECTED_RUNTIME_MS, runtimes[agentType] ?: 0L)
+    return (lagMs(agentType, now) + runtime).toDouble() / runtime
+  }
+
+  private fun lagMs(agentType: String, now: Long): Long =
+    max(0L, now - (dueTimes[agentType] ?: now))
+
+  private fun atLimit(running: Int?, limit: Int): Boolean =
+    limit > 0 && (running ?: 0) >= limit
+
+  private fun accountName(agent: Agent): String =
+    (agent as? AccountAware)?.accountName ?: agent.agentType.substringBefore('/')
+
+  /**
+   * Keeps the default execution pool as large as the number of agents allowed to run at once, so agents that
+   * ignored cancellation as zombies delay new work rather than adding threads.
+   */
+  private fun resizeExecutionPool(maxConcurrentAgents: Int) {
+    val pool = agentExecutionPool as? ThreadPoolExecutor ?: return
+    val size = max(1, maxConcurrentAgents)
+    if (size > pool.maximumPoolSize) {
+      pool.maximumPoolSize = size
+      pool.corePoolSize = size
+    } else if (size < pool.maximumPoolSize) {
+      pool.corePoolSize = size
+      pool.maximumPoolSize = size
+    }
+  }
+
   private fun cleanupZombieAgents() {
     val zombieAgentThreshold = dynamicConfigService.getConfig(Long::class.java, "sql.agent.zombie-threshold-ms", 3600000)
     activeAgents
@@ -281,8 +516,10 @@ class SqlClusteredAgentScheduler(
   private fun releaseLock(agentType: String, nextExecutionTime: Long) {
     val newTtl = nextExecutionTime - System.currentTimeMillis()
 
+    releaseStatements.incrementAndGet()
     withPool(POOL_NAME) {
       if (newTtl < dynamicConfigService.getConfig(Long::class.java, "sql.agent.release-threshold-ms", 500)) {
+        releasedLockExpiries.remove(agentType)
         try {
           jooq.delete(table(lockTable)).where(field("agent_name").eq(agentType)).execute()
         } catch (e: SQLException) {
@@ -290,10 +527,12 @@ class SqlClusteredAgentScheduler(
         }
       } else {
         try {
+          val lockExpiry = System.currentTimeMillis() + newTtl
           jooq.update(table(lockTable))
-            .set(field("lock_expiry"), System.currentTimeMillis() + newTtl)
+            .set(field("lock_expiry"), lockExpiry)
             .where(field("agent_name").eq(agentType))
             .execute()
+          releasedLockExpiries[agentType] = lockExpiry
         } catch (e: SQLException) {
           log.error("Failed to update lock TTL for agent: $agentType", e)
         }
@@ -301,9 +540,86 @@ class SqlClusteredAgentScheduler(
     }
   }
 
-  private fun agentCompleted(agentType: String, nextExecutionTime: Long) {
+  /**
+   * Releases the locks of every agent that finished since the last pass with at most one DELETE (agents due again
+   * soon) and one UPDATE (agents keeping their lock until their next execution) per batch.
+   */
+  private fun flushReleases(statements: LockStatements) {
+    val releases = HashMap(pendingReleases)
+    releases.forEach { (agentType, nextExecutionTime) -> pendingReleases.remove(agentType, nextExecutionTime) }
+    statements.unbatched += releases.size
+
+    val now = System.currentTimeMillis()
+    val releaseThreshold = dynamicConfigService.getConfig(Long::class.java, "sql.agent.release-threshold-ms", 500)
+    val (immediate, deferred) = releases.entries.partition { it.value - now < releaseThreshold }
+    val agentName = field("agent_name", String::class.java)
+    val lockExpiry = field("lock_expiry", Long::class.javaObjectType)
+
+    withPool(POOL_NAME) {
+      immediate.map { it.key }.chunked(LOCK_BATCH_SIZE).forEach { chunk ->
+        statements.issued++
+        chunk.forEach { releasedLockExpiries.remove(it) }
+        try {
+          jooq.deleteFrom(table(lockTable)).where(agentName.`in`(chunk)).execute()
+        } catch (e: DataAccessException) {
+          log.error("Failed to immediately release locks for agents: $chunk", e)
+          retryReleases(chunk.associateWith { releases.getValue(it) })
+        }
+      }
+
+      deferred.chunked(LOCK_BATCH_SIZE).forEach { chunk ->
+        statements.issued++
+        var expiries = DSL.decode().value(agentName).`when`(chunk.first().key, chunk.first().value)
+        chunk.drop(1).forEach { expiries = expiries.`when`(it.key, it.value) }
+        try {
+          jooq.update(table(lockTable))
+            .set(lockExpiry, expiries.otherwise(lockExpiry))
+            .where(agentName.`in`(chunk.map { it.key }))
+            .execute()
+          chunk.forEach { releasedLockExpiries[it.key] = it.value }
+        } catch (e: DataAccessException) {
+          log.error("Failed to update lock TTL for agents: ${chunk.map { it.key }}", e)
+          retryReleases(chunk.associate { it.key to it.value })
+        }
+      }
+    }
+  }
+
+  /**
+   * Puts releases that failed back for the next pass, unless their agent completed again or was unscheduled since.
+   */
+  private fun retryReleases(releases: Map<String, Long>) {
+    releases
+      .filterKeys { agents.containsKey(it) }
+      .forEach { (agentType, nextExecutionTime) -> pendingReleases.putIfAbsent(agentType, nextExecutionTime) }
+  }
+
+  /**
+   * Drops a job that waited in the execution pool until its lock expired. Another node may have taken the lock
+   * since, so rather than being released the lock is left to be cleaned up as any other expired lock.
+   */
+  private fun agentExpired(agentType: String) {
+    log.warn("Lock of agent {} expired before it could start running, skipping this execution", agentType)
+    registry.counter(expiredJobsId).increment()
+    try {
+      agents[agentType]?.let { it.executionInstrumentation.executionDropped(it.agent) }
+    } finally {
+      activeAgents.remove(agentType)
+      activeAgentsFutures.remove(agentType)
+    }
+  }
+
+  private fun agentCompleted(agentType: String, nextExecutionTime: Long, elapsedMs: Long) {
     try {
-      releaseLock(agentType, nextExecutionTime)
+      if (agents.containsKey(agentType)) {
+        dueTimes[agentType] = nextExecutionTime
+        runtimes.merge(agentType, elapsedMs) { previous, latest -> (previous + latest) / 2 }
+      }
+      if (isBatchingLocks()) {
+        pendingReleases[agentType] = nextExecutionTime
+      } else {
+        releaseLock(agentType, nextExecutionTime)
+      }
     } finally {
       activeAgents.remove(agentType)
       activeAgentsFutures.remove(agentType)
@@ -312,6 +628,17 @@ class SqlClusteredAgentScheduler(
 
   companion object {
     private val POOL_NAME = ConnectionPools.CACHE_WRITER.value
+    private const val DEFAULT_MAX_CONCURRENT_AGENTS = 100
+    private const val MIN_EXPECTED_RUNTIME_MS = 1000L
+    private const val LOCK_BATCH_SIZE = 500
+  }
+
+  /**
+   * Lock statements issued during one polling pass, next to the number the one-statement-per-lock path would need.
+   */
+  private class LockStatements(releases: Int) {
+    var issued = releases
+    var unbatched = releases
   }
 }
 
@@ -342,15 +669,22 @@ private class AgentExecutionAction(
 private class AgentJob(
   private val lockReleaseTime: NextAttempt,
   private val action: AgentExecutionAction,
-  private val schedulerCallback: (agentType: String, nextExecutionTime: Long) -> Unit
+  private val schedulerCallback: (agentType: String, nextExecutionTime: Long, elapsedMs: Long) -> Unit,
+  private val expiredCallback: (agentType: String) -> Unit
 ) : Runnable {
 
   override fun run() {
+    val startTimeMs = System.currentTimeMillis()
+    // a job queued behind agents that ignored cancellation must not run once its lock may belong to another node
+    if (startTimeMs >= lockReleaseTime.lockExpiry) {
+      expiredCallback(action.agent.agentType)
+      return
+    }
     var status = Status.FAILURE
     try {
       status = action.execute()
     } finally {
-      schedulerCallback(action.agent.agentType, lockReleaseTime.getNextTime(status))
+      schedulerCallback(action.agent.agentType, lockReleaseTime.getNextTime(status), elapsedTimeMs(startTimeMs))
     }
   }
 }
@@ -358,8 +692,12 @@ private class AgentJob(
 private data class NextAttempt(
   val currentTime: Long,
   val successInterval: Long,
-  val errorInterval: Long
+  val errorInterval: Long,
+  val timeout: Long
 ) {
+  val lockExpiry: Long
+    get() = currentTime + timeout
+
   fun getNextTime(status: Status): Long =
     if (status == Status.SUCCESS) {
       currentTime + successInterval
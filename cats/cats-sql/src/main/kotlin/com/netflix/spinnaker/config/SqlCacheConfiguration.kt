@@ -12,6 +12,7 @@ import com.netflix.spinnaker.cats.provider.Provider
 import com.netflix.spinnaker.cats.provider.ProviderRegistry
 import com.netflix.spinnaker.cats.sql.SqlProviderRegistry
 import com.netflix.spinnaker.cats.sql.cache.SpectatorSqlCacheMetrics
+import com.netflix.spinnaker.cats.sql.cache.SqlBodyHashCache
 import com.netflix.spinnaker.cats.sql.cache.SqlCacheMetrics
 import com.netflix.spinnaker.cats.sql.cache.SqlCleanupStaleOnDemandCachesAgent
 import com.netflix.spinnaker.cats.sql.cache.SqlNamedCacheFactory
@@ -67,6 +68,26 @@ class SqlCacheConfiguration {
     return SpectatorSqlCacheMetrics(registry)
   }
 
+  /**
+   * sql.cache.hash-cache.enabled: Keeps the body hashes last written by each locally running caching agent in memory,
+   * so that steady-state authoritative writes don't need to select them back out of the database first. Bounded by
+   * sql.cache.hash-cache.max-bytes (estimated retained heap, default 256MB).
+   *
+   * Only created alongside the SQL agent scheduler (sql.scheduler.enabled), which drops an agent's hashes whenever
+   * another instance may have run the agent since its last local run. Under any other scheduler another instance
+   * could write the agent's rows without this one noticing, and the remembered hashes would skip needed writes.
+   */
+  @Bean
+  @ConditionalOnExpression(
+    "\${sql.cache.hash-cache.enabled:false} && \${sql.scheduler.enabled:false} && \${caching.write-enabled:true}"
+  )
+  fun sqlBodyHashCache(
+    cacheMetrics: SqlCacheMetrics,
+    @Value("\${sql.cache.hash-cache.max-bytes:268435456}") maxBytes: Long
+  ): SqlBodyHashCache {
+    return SqlBodyHashCache(maxBytes, cacheMetrics)
+  }
+
   @Bean
   fun catsModule(
     providers: List<Provider>,
@@ -106,6 +127,7 @@ class SqlCacheConfiguration {
     dynamicConfigService: DynamicConfigService,
     sqlConstraints: SqlConstraints,
     mapper: ObjectMapper,
+    bodyHashCache: ObjectProvider<SqlBodyHashCache>,
     @Value("\${sql.cache.async-pool-size:0}") poolSize: Int,
     @Value("\${sql.table-namespace:#{null}}") tableNamespace: String?
   ): NamedCacheFactory {
@@ -139,7 +161,8 @@ class SqlCacheConfiguration {
       tableNamespace,
       cacheMetrics,
       dynamicConfigService,
-      sqlConstraints
+      sqlConstraints,
+      bodyHashCache.ifAvailable
     )
   }
 
@@ -19,6 +19,7 @@ package com.netflix.spinnaker.cats.sql
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.cats.cache.Cache
 import com.netflix.spinnaker.cats.cache.WriteableCache
+import com.netflix.spinnaker.cats.sql.cache.SqlBodyHashCache
 import com.netflix.spinnaker.cats.sql.cache.SqlCache
 import com.netflix.spinnaker.cats.sql.cache.SqlCacheMetrics
 import com.netflix.spinnaker.config.SqlConstraintsInitializer
@@ -63,7 +64,8 @@ class MySqlCacheSpec extends SqlCacheSpec {
       Mock(SqlCacheMetrics),
       dynamicConfigService,
       new SqlConstraintsInitializer().getDefaultSqlConstraints(SQLDialect.MYSQL),
-      providerCacheConfiguration
+      providerCacheConfiguration,
+      null
     )
   }
 
@@ -97,4 +99,34 @@ class MySqlCacheSpec extends SqlCacheSpec {
     then:
     retrieved.isEmpty()
   }
+
+  def "rows evicted by another node are written again even when their bodies are unchanged"() {
+    given:
+    def dynamicConfigService = Mock(DynamicConfigService) {
+      getConfig(_ as Class, _ as String, _) >> 2
+    }
+    def cacheWithHashes = new SqlCache(
+      "test",
+      context,
+      new ObjectMapper(),
+      null,
+      Clock.fixed(Instant.EPOCH, ZoneId.of("UTC")),
+      new SqlRetryProperties(new RetryProperties(1, 10), new RetryProperties(1, 10)),
+      "test",
+      Mock(SqlCacheMetrics),
+      dynamicConfigService,
+      new SqlConstraintsInitializer().getDefaultSqlConstraints(SQLDialect.MYSQL),
+      providerCacheConfiguration,
+      new SqlBodyHashCache(1024 * 1024, Mock(SqlCacheMetrics))
+    )
+    def data = [createData("keys-1"), createData("keys-2")]
+    cacheWithHashes.mergeAll("keys", data)
+
+    when: 'another node evicts one of the rows'
+    ((SqlCache) cache).evictAll("keys", ["keys-1"])
+    cacheWithHashes.mergeAll("keys", data)
+
+    then:
+    ((SqlCache) cache).getAll("keys")*.id.sort() == ["keys-1", "keys-2"]
+  }
 }
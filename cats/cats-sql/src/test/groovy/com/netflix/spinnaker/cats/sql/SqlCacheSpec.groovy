@@ -59,6 +59,26 @@ abstract class SqlCacheSpec extends WriteableCacheSpec {
     1 * ((SqlCache) cache).cacheMetrics.merge('test', 'foo', 1, 0, 0, 0, 1, 0, 0, 0)
   }
 
+  def 'streaming writes produce the same body hashes as buffered writes'() {
+    given:
+    def data = (1..5).collect { createData("fnord-$it", [application: 'app', a: "b-$it"]) }
+    ((SqlCache) cache).mergeAll('foo', data)
+
+    when:
+    def updated = data.collect { it.id == 'fnord-3' ? createData(it.id, [application: 'app', a: 'changed']) : it }
+    ((SqlCache) cache).mergeAll('foo', updated)
+
+    then:
+    _ * ((SqlCache) cache).dynamicConfigService.isEnabled('sql.cache.streaming-writes', false) >> true
+    1 * ((SqlCache) cache).cacheMetrics.merge('test', 'foo', 5, 1, 0, 0, 1, 1, 0, 0)
+
+    and:
+    def retrieved = ((SqlCache) cache).getAll('foo')
+    retrieved.size() == 5
+    retrieved.find { it.id == 'fnord-3' }.attributes.a == 'changed'
+    retrieved.find { it.id == 'fnord-1' }.attributes.a == 'b-1'
+  }
+
   def 'mergeAll with two items that have the same id preserves the existing item'() {
       given: 'one item in the cache'
       String id = 'bar'
@@ -75,7 +75,8 @@ class SqlProviderCacheSpec extends ProviderCacheSpec {
       sqlMetrics,
       dynamicConfigService,
       new SqlConstraintsInitializer().getDefaultSqlConstraints(SQLDialect.MYSQL),
-      new SqlNamedCacheFactory.DefaultProviderCacheConfiguration()
+      new SqlNamedCacheFactory.DefaultProviderCacheConfiguration(),
+      null
     )
 
     return new SqlProviderCache(backingStore)
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.sql.cache
+
+import dev.minutest.junit.JUnit5Minutests
+import dev.minutest.rootContext
+import strikt.api.expectThat
+import strikt.assertions.isEqualTo
+import strikt.assertions.isGreaterThan
+import strikt.assertions.isLessThanOrEqualTo
+import strikt.assertions.isNotNull
+import strikt.assertions.isNull
+
+class SqlBodyHashCacheTest : JUnit5Minutests {
+
+  fun tests() = rootContext<SqlBodyHashCache> {
+    fixture {
+      SqlBodyHashCache(64 * 1024, NoopCacheMetrics())
+    }
+
+    test("returns the hashes last stored for an agent and type") {
+      put("instances", "agent1", mapOf("i-1" to "a", "i-2" to "b"))
+
+      expectThat(get("instances", "agent1")).isEqualTo(mapOf("i-1" to "a", "i-2" to "b"))
+      expectThat(get("instances", "agent2")).isNull()
+      expectThat(get("serverGroups", "agent1")).isNull()
+      expectThat(bytesHeld()).isGreaterThan(0)
+    }
+
+    test("invalidating an agent drops all of its types") {
+      put("instances", "agent1", mapOf("i-1" to "a"))
+      put("serverGroups", "agent1", mapOf("sg-1" to "a"))
+      put("instances", "agent2", mapOf("i-2" to "a"))
+
+      invalidateAgent("agent1")
+
+      expectThat(get("instances", "agent1")).isNull()
+      expectThat(get("serverGroups", "agent1")).isNull()
+      expectThat(get("instances", "agent2")).isNotNull()
+    }
+
+    test("evicted ids are removed from every agent of the type") {
+      put("instances", "agent1", mapOf("i-1" to "a", "i-2" to "b"))
+      put("instances", "agent2", mapOf("i-2" to "c", "i-3" to "d"))
+
+      evictIds("instances", listOf("i-2"))
+
+      expectThat(get("instances", "agent1")).isEqualTo(mapOf("i-1" to "a"))
+      expectThat(get("instances", "agent2")).isEqualTo(mapOf("i-3" to "d"))
+    }
+
+    test("memory held stays within the configured budget") {
+      (1..100).forEach { agent ->
+        put("instances", "agent$agent", (1..10).associate { "i-$agent-$it" to "hash$it" })
+      }
+
+      expectThat(bytesHeld()).isLessThanOrEqualTo(64 * 1024L)
+      expectThat(get("instances", "agent100")).isNotNull()
+    }
+
+    test("entries larger than the budget are not retained") {
+      put("instances", "agent1", (1..1000).associate { "i-$it" to "hash$it" })
+
+      expectThat(get("instances", "agent1")).isNull()
+      expectThat(bytesHeld()).isEqualTo(0)
+    }
+  }
+}
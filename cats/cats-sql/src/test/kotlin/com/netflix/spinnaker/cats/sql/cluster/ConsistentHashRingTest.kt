@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.cats.sql.cluster
+
+import dev.minutest.junit.JUnit5Minutests
+import dev.minutest.rootContext
+import strikt.api.expectThat
+import strikt.assertions.isEqualTo
+import strikt.assertions.isGreaterThan
+import strikt.assertions.isLessThan
+import strikt.assertions.isLessThanOrEqualTo
+import kotlin.math.abs
+import kotlin.math.max
+import kotlin.math.pow
+import kotlin.random.Random
+
+class ConsistentHashRingTest : JUnit5Minutests {
+
+  fun tests() = rootContext<Fixture> {
+    fixture {
+      Fixture(pods = 10, accounts = 2000)
+    }
+
+    test("an account's owner only depends on the set of pods") {
+      val reordered = ConsistentHashRing(pods.reversed(), 128)
+
+      expectThat(accounts.keys.associateWith(reordered::owner)).isEqualTo(accounts.keys.associateWith(ring::owner))
+    }
+
+    test("removing a pod only moves the accounts it owned") {
+      val removed = pods.last()
+      val shrunk = ConsistentHashRing(pods - removed, 128)
+
+      val moved = accounts.keys.filter { ring.owner(it) != shrunk.owner(it) }
+
+      expectThat(moved.map(ring::owner).toSet()).isEqualTo(setOf(removed))
+    }
+
+    test("adding a pod moves about 1/N of the accounts") {
+      val report = simulate()
+
+      expectThat(report.moduloChurn).isGreaterThan(0.5)
+      expectThat(report.ringChurn).isLessThan(2.0 / (pods.size + 1))
+      expectThat(report.weightedChurn).isLessThan(2.0 / (pods.size + 1))
+    }
+
+    test("weighting by cost bounds the load of the busiest pod") {
+      val report = simulate()
+
+      expectThat(report.weightedSkew)
+        .isLessThanOrEqualTo(max(LOAD_FACTOR, report.heaviestAccount) + 1e-9)
+        .isLessThan(report.ringSkew)
+    }
+  }
+
+  private class Fixture(pods: Int, accounts: Int) {
+    val pods = (0 until pods).map { "clouddriver-caching-$it" }
+    val ring = ConsistentHashRing(this.pods, 128)
+
+    // agent costs are heavy-tailed: a handful of large accounts and a long tail of small ones
+    val accounts: Map<String, Double> = Random(42).let { random ->
+      (0 until accounts).associate { "account-$it" to 1000 * (1 - random.nextDouble()).pow(-1 / 1.5) }
+    }
+
+    fun simulate(): Report {
+      val grown = pods + "clouddriver-caching-${pods.size}"
+      val grownRing = ConsistentHashRing(grown, 128)
+      val weighted = ring.assign(accounts, LOAD_FACTOR)
+      val grownWeighted = grownRing.assign(accounts, LOAD_FACTOR)
+      val mean = accounts.values.sum() / grown.size
+
+      fun churn(before: (String) -> String, after: (String) -> String) =
+        accounts.keys.count { before(it) != after(it) }.toDouble() / accounts.size
+
+      fun skew(owner: (String) -> String) =
+        accounts.entries.groupBy({ owner(it.key) }, { it.value }).values.maxOf { it.sum() } / mean
+
+      return Report(
+        moduloChurn = churn({ modulo(it, pods.size) }, { modulo(it, grown.size) }),
+        ringChurn = churn(ring::owner, grownRing::owner),
+        weightedChurn = churn(weighted::getValue, grownWeighted::getValue),
+        ringSkew = skew(grownRing::owner),
+        weightedSkew = skew(grownWeighted::getValue),
+        heaviestAccount = accounts.values.maxOrNull()!! / mean
+      )
+    }
+
+    private fun modulo(account: String, podCount: Int) = pods.getOrElse(abs(account.hashCode() % podCount)) { "new" }
+  }
+
+  /**
+   * The share of accounts that change owner when a pod is added, and the load of the busiest pod
+   * afterwards relative to the average, for each way of assigning accounts.
+   */
+  private data class Report(
+    val moduloChurn: Double,
+    val ringChurn: Double,
+    val weightedChurn: Double,
+    val ringSkew: Double,
+    val weightedSkew: Double,
+    val heaviestAccount: Double
+  )
+
+  companion object {
+    private const val LOAD_FACTOR = 1.25
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.cluster
+
+import com.google.common.util.concurrent.MoreExecutors
+import com.netflix.spectator.api.DefaultRegistry
+import com.netflix.spinnaker.cats.agent.Agent
+import com.netflix.spinnaker.cats.agent.AgentExecution
+import com.netflix.spinnaker.cats.cluster.AgentIntervalProvider
+import com.netflix.spinnaker.cats.cluster.NodeIdentity
+import com.netflix.spinnaker.cats.cluster.NodeStatusProvider
+import com.netflix.spinnaker.cats.cluster.NoopShardingFilter
+import com.netflix.spinnaker.cats.sql.cluster.SqlClusteredAgentScheduler
+import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService
+import com.netflix.spinnaker.kork.sql.test.SqlTestUtil
+import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.doAnswer
+import com.nhaarman.mockito_kotlin.eq
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.spy
+import com.nhaarman.mockito_kotlin.whenever
+import dev.minutest.junit.JUnit5Minutests
+import dev.minutest.rootContext
+import java.util.concurrent.atomic.AtomicInteger
+import org.jooq.Record
+import org.jooq.Table
+import org.jooq.exception.DataAccessException
+import org.jooq.impl.DSL.field
+import org.jooq.impl.DSL.table
+import org.junit.jupiter.api.Assumptions.assumeTrue
+import org.testcontainers.DockerClientFactory
+import strikt.api.expectThat
+import strikt.assertions.doesNotContain
+import strikt.assertions.hasSize
+import strikt.assertions.isEqualTo
+
+class SqlClusteredAgentSchedulerBatchLocksTest : JUnit5Minutests {
+
+  fun tests() = rootContext<Fixture> {
+    fixture {
+      Fixture()
+    }
+
+    beforeAll {
+      assumeTrue(DockerClientFactory.instance().isDockerAvailable)
+    }
+
+    after {
+      SqlTestUtil.cleanupDb(jooq)
+    }
+
+    test("acquires and releases the locks of many agents in a handful of statements") {
+      lock("agent-0", owner = "node2", expiry = System.currentTimeMillis() + 60_000)
+      lock("agent-1", owner = "node2", expiry = System.currentTimeMillis() - 1_000)
+      (0 until 50).forEach { scheduleAgent("agent-$it") }
+
+      // select locks, delete the expired one, insert the candidates and read back the acquired ones
+      subject.run()
+
+      expectThat(invocations).hasSize(49).doesNotContain("agent-0")
+      expectThat(locks().filterValues { it == "node1" }.keys).hasSize(49)
+      expectThat(lockStatements().totalAmount()).isEqualTo(4L)
+
+      // extend the 49 released locks until their next execution, then select locks
+      subject.run()
+
+      expectThat(invocations).hasSize(49)
+      expectThat(lockStatements().count()).isEqualTo(2L)
+      expectThat(lockStatements().totalAmount()).isEqualTo(6L)
+      expectThat(registry.counter("cats.sqlAgentScheduler.lockStatementsSaved").count())
+        .isEqualTo((1L + 1 + 49 - 4) + (49 + 1 - 2))
+    }
+
+    test("runs the agents of the batches locked before a later batch failed") {
+      whenever(dynamicConfigService.getConfig(eq(Int::class.java), eq("sql.agent.max-concurrent-agents"), any()))
+        .thenReturn(1_000)
+      // the agents whose locks expired are due the longest, so they fill the first batch
+      val expiry = System.currentTimeMillis() - 1_000
+      (0 until 500).forEach {
+        lock("agent-$it", owner = "node2", expiry = expiry)
+        scheduleAgent("agent-$it")
+      }
+      scheduleAgent("late-agent")
+      failInsert(2)
+
+      subject.run()
+
+      expectThat(invocations).hasSize(500).doesNotContain("late-agent")
+      expectThat(locks().filterValues { it == "node1" }.keys).hasSize(500)
+    }
+  }
+
+  private inner class Fixture {
+    val testDatabase = SqlTestUtil.initTcMysqlDatabase()
+    val jooq = spy(testDatabase.context)
+    val registry = DefaultRegistry()
+    val invocations = mutableListOf<String>()
+
+    val nodeIdentity: NodeIdentity = mock()
+    val intervalProvider: AgentIntervalProvider = mock()
+    val nodeStatusProvider: NodeStatusProvider = mock()
+    val dynamicConfigService: DynamicConfigService = mock()
+
+    val subject: SqlClusteredAgentScheduler
+
+    init {
+      whenever(nodeStatusProvider.isNodeEnabled).thenReturn(true)
+      whenever(nodeIdentity.nodeIdentity).thenReturn("node1")
+      whenever(intervalProvider.getInterval(any())).thenReturn(AgentIntervalProvider.Interval(60_000L, 60_000L))
+      whenever(dynamicConfigService.getConfig(any<Class<Any>>(), any(), any())).thenAnswer { it.getArgument<Any>(2) }
+      whenever(dynamicConfigService.isEnabled(eq("sql.agent.batch-locks"), any())).thenReturn(true)
+
+      subject = SqlClusteredAgentScheduler(
+        jooq = jooq,
+        nodeIdentity = nodeIdentity,
+        intervalProvider = intervalProvider,
+        nodeStatusProvider = nodeStatusProvider,
+        dynamicConfigService = dynamicConfigService,
+        enabledAgentPattern = ".*",
+        disabledAgentsConfig = emptyList(),
+        agentExecutionPool = MoreExecutors.newDirectExecutorService(),
+        lockPollingScheduler = mock(),
+        shardingFilter = NoopShardingFilter(),
+        registry = registry
+      )
+    }
+
+    fun scheduleAgent(name: String) {
+      val agent: Agent = mock()
+      whenever(agent.agentType).thenReturn(name)
+      whenever(agent.providerName).thenReturn("test")
+      subject.schedule(agent, AgentExecution { invocations.add(it.agentType) }, mock())
+    }
+
+    fun failInsert(n: Int) {
+      val inserts = AtomicInteger()
+      doAnswer {
+        if (inserts.incrementAndGet() == n) throw DataAccessException("Connection lost") else it.callRealMethod()
+      }.whenever(jooq).insertInto(any<Table<Record>>())
+    }
+
+    fun lock(agentName: String, owner: String, expiry: Long) {
+      testDatabase.context.insertInto(table("cats_agent_locks"))
+        .columns(field("agent_name"), field("owner_id"), field("lock_acquired"), field("lock_expiry"))
+        .values(agentName, owner, expiry - 60_000, expiry)
+        .execute()
+    }
+
+    fun locks(): Map<String, String> =
+      jooq.select(field("agent_name"), field("owner_id"))
+        .from(table("cats_agent_locks"))
+        .fetch()
+        .associate { it.get(0, String::class.java) to it.get(1, String::class.java) }
+
+    fun lockStatements() =
+      registry.distributionSummary(registry.createId("cats.sqlAgentScheduler.lockStatements").withTag("batched", true))
+  }
+}
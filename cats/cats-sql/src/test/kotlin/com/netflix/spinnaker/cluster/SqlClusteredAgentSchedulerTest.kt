@@ -19,6 +19,7 @@ package com.netflix.spinnaker.cluster
 
 import com.netflix.spinnaker.cats.agent.Agent
 import com.netflix.spinnaker.cats.agent.AgentExecution
+import com.netflix.spinnaker.cats.agent.ExecutionInstrumentation
 import com.netflix.spinnaker.cats.cluster.AgentIntervalProvider
 import com.netflix.spinnaker.cats.cluster.NodeIdentity
 import com.netflix.spinnaker.cats.cluster.NodeStatusProvider
@@ -28,12 +29,17 @@ import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService
 import com.nhaarman.mockito_kotlin.any
 import com.nhaarman.mockito_kotlin.eq
 import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.verify
 import com.nhaarman.mockito_kotlin.whenever
 import dev.minutest.junit.JUnit5Minutests
 import dev.minutest.rootContext
 import org.jooq.*
 import org.junit.jupiter.api.Assertions.assertFalse
 import org.mockito.stubbing.Answer
+import strikt.api.expectThat
+import strikt.assertions.containsExactly
+import strikt.assertions.containsExactlyInAnyOrder
+import strikt.assertions.isEmpty
 import java.sql.ResultSet
 import java.util.concurrent.ExecutorService
 import java.util.concurrent.FutureTask
@@ -79,6 +85,78 @@ class SqlClusteredAgentSchedulerTest : JUnit5Minutests {
         "Expected variation in agent order of execution, " +
           "but the same agents ran in the same order: " + actual1)
     }
+
+    test("should cap concurrent agents per account") {
+      whenever(dynamicConfigService.getConfig(eq(Int::class.java), eq("sql.agent.max-concurrent-agents-per-account"),
+        any())).thenReturn(1)
+      val invocations = mutableListOf<String>()
+      val agentExec = AgentExecution {
+        invocations.add(it.agentType)
+      }
+      scheduleAgent("account1/KubernetesCoreCachingAgent[1/2]", agentExec)
+      scheduleAgent("account1/KubernetesCoreCachingAgent[2/2]", agentExec)
+      scheduleAgent("account2/KubernetesCoreCachingAgent[1/2]", agentExec)
+      scheduleAgent("account2/KubernetesCoreCachingAgent[2/2]", agentExec)
+
+      this.sqlClusteredAgentScheduler.run()
+
+      expectThat(invocations.map { it.substringBefore('/') }).containsExactlyInAnyOrder("account1", "account2")
+    }
+
+    test("should run the agents that have been due the longest first") {
+      whenever(dynamicConfigService.getConfig(eq(Int::class.java), eq("sql.agent.max-concurrent-agents"),
+        any())).thenReturn(1)
+      val invocations = mutableListOf<String>()
+      val agentExec = AgentExecution {
+        invocations.add(it.agentType)
+      }
+      val deferred: ExecutionInstrumentation = mock()
+      scheduleAgent("account1/KubernetesCoreCachingAgent[1/3]", agentExec, deferred)
+      scheduleAgent("account1/KubernetesCoreCachingAgent[2/3]", agentExec)
+      scheduleAgent("account1/KubernetesCoreCachingAgent[3/3]", agentExec)
+
+      // the lock of the second agent expired a minute ago, so it has been due since
+      whenever(resultSet.next()).thenReturn(true, false)
+      whenever(resultSet.getString("agent_name")).thenReturn("account1/KubernetesCoreCachingAgent[2/3]")
+      whenever(resultSet.getLong("lock_expiry")).thenReturn(System.currentTimeMillis() - 60_000)
+
+      this.sqlClusteredAgentScheduler.run()
+
+      expectThat(invocations).containsExactly("account1/KubernetesCoreCachingAgent[2/3]")
+      verify(deferred).executionDeferred(any(), any())
+    }
+
+    test("should skip agents whose lock expired before they could start") {
+      whenever(intervalProvider.getInterval(any())).thenReturn(AgentIntervalProvider.Interval(30L, 1L))
+      val jobs = mutableListOf<Runnable>()
+      whenever(agentExecutionPool.submit(any())).thenAnswer(Answer {
+        val r: Runnable = it.getArgument(0)
+        jobs.add(r)
+        FutureTask<Any>(r, null)
+      })
+      val invocations = mutableListOf<String>()
+      val agentExec = AgentExecution {
+        invocations.add(it.agentType)
+      }
+      val instrumentation: ExecutionInstrumentation = mock()
+      scheduleAgent("account1/KubernetesCoreCachingAgent[1/1]", agentExec, instrumentation)
+
+      this.sqlClusteredAgentScheduler.run()
+      Thread.sleep(10)
+      jobs.forEach { it.run() }
+
+      expectThat(invocations).isEmpty()
+      verify(instrumentation).executionDropped(any())
+    }
+
+    test("should stop counting unscheduled agents as waiting") {
+      val instrumentation: ExecutionInstrumentation = mock()
+      val agent = scheduleAgent("account1/KubernetesCoreCachingAgent[1/1]", AgentExecution { }, instrumentation)
+
+      this.sqlClusteredAgentScheduler.unschedule(agent)
+
+      verify(instrumentation).executionDropped(agent)
+    }
   }
 
   private inner class Fixture {
@@ -93,7 +171,8 @@ class SqlClusteredAgentSchedulerTest : JUnit5Minutests {
     val tableNamespace = ""
     val agentExecutionPool: ExecutorService = mock()
     val lockPollingScheduler: ScheduledExecutorService = mock()
-    val interval = AgentIntervalProvider.Interval(30L, 30L)
+    val interval = AgentIntervalProvider.Interval(30L, 30_000L)
+    val resultSet: ResultSet = mock()
     val shardingFilter = NoopShardingFilter()
     val sqlClusteredAgentScheduler = SqlClusteredAgentScheduler(
       jooq,
@@ -113,6 +192,7 @@ class SqlClusteredAgentSchedulerTest : JUnit5Minutests {
     init {
       whenever(nodeStatusProvider.isNodeEnabled).thenReturn(true)
       whenever(nodeIdentity.nodeIdentity).thenReturn("node1")
+      whenever(dynamicConfigService.getConfig(eq(Int::class.java), any(), any())).thenAnswer { it.getArgument<Int>(2) }
       whenever(dynamicConfigService.getConfig(eq(String::class.java), eq("sql.agent.disabled-agents"),
         any())).thenReturn("")
       whenever(dynamicConfigService.getConfig(eq(Long::class.java), eq("sql.agent.release-threshold-ms"),
@@ -122,7 +202,6 @@ class SqlClusteredAgentSchedulerTest : JUnit5Minutests {
       val sss: SelectSelectStep<Record2<Any, Any>> = mock()
       val sjs: SelectJoinStep<Record2<Any, Any>> = mock()
       val result: Result<Record2<Any, Any>> = mock()
-      val resultSet: ResultSet = mock()
       whenever(jooq.select(any<SelectField<Any>>(), any<SelectField<Any>>())).thenReturn(sss)
       whenever(sss.from(any<TableLike<Record>>())).thenReturn(sjs)
       whenever(sjs.fetch()).thenReturn(result)
@@ -141,6 +220,7 @@ class SqlClusteredAgentSchedulerTest : JUnit5Minutests {
       val dcs: DeleteConditionStep<Record> = mock()
       whenever(jooq.delete(any<Table<Record>>())).thenReturn(dus)
       whenever(dus.where(any<Condition>())).thenReturn(dcs)
+      whenever(jooq.deleteFrom(any<Table<Record>>())).thenReturn(dus)
 
       whenever(intervalProvider.getInterval(any())).thenReturn(interval)
       whenever(agentExecutionPool.submit(any())).thenAnswer(Answer {
@@ -150,10 +230,15 @@ class SqlClusteredAgentSchedulerTest : JUnit5Minutests {
       })
     }
 
-    fun scheduleAgent(name: String, agentExec: AgentExecution) {
+    fun scheduleAgent(
+      name: String,
+      agentExec: AgentExecution,
+      instrumentation: ExecutionInstrumentation = mock()
+    ): Agent {
       val agent: Agent = mock()
       whenever(agent.agentType).thenReturn(name)
-      sqlClusteredAgentScheduler.schedule(agent, agentExec, mock())
+      sqlClusteredAgentScheduler.schedule(agent, agentExec, instrumentation)
+      return agent
     }
   }
 }
@@ -26,6 +26,28 @@ public interface ExecutionInstrumentation {
 
   void executionFailed(Agent agent, Throwable cause, long elapsedMs);
 
+  /**
+   * Called by schedulers that order ready agents when an agent is picked to run.
+   *
+   * @param lagMs how long the agent had been due to run
+   */
+  default void executionScheduled(Agent agent, long lagMs) {}
+
+  /**
+   * Called by schedulers that order ready agents when an agent was ready to run but has been left
+   * for a later pass (e.g. because of concurrency limits).
+   *
+   * @param lagMs how long the agent has been due to run
+   */
+  default void executionDeferred(Agent agent, long lagMs) {}
+
+  /**
+   * Called by schedulers that order ready agents when an agent no longer waits to run on this node,
+   * e.g. because it was unscheduled, another node holds its lock, or its lock expired before it
+   * could start.
+   */
+  default void executionDropped(Agent agent) {}
+
   static long elapsedTimeMs(long startTimeMs) {
     return System.currentTimeMillis() - startTimeMs;
   }
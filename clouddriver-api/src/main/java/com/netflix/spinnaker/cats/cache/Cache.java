@@ -20,6 +20,7 @@ import com.netflix.spinnaker.kork.annotations.Beta;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 /** Cache provides view access to data keyed by type and identifier. */
@@ -119,6 +120,26 @@ public interface Cache {
    */
   Collection<CacheData> getAll(String type, String... identifiers);
 
+  /**
+   * Retrieves the items for several types at once. Implementations backed by a remote store may
+   * batch the lookups for every type into a single round trip.
+   *
+   * @param identifiersByType the identifiers to retrieve, keyed by type
+   * @param cacheFilters cacheFilters to govern which relationships to fetch, as type to filter;
+   *     types without a filter fetch all relationships
+   * @return the matching items, keyed by type
+   */
+  default Map<String, Collection<CacheData>> getAllByType(
+      Map<String, ? extends Collection<String>> identifiersByType,
+      Map<String, CacheFilter> cacheFilters) {
+    Map<String, Collection<CacheData>> items = new HashMap<>(identifiersByType.size());
+    for (Map.Entry<String, ? extends Collection<String>> entry : identifiersByType.entrySet()) {
+      CacheFilter cacheFilter = cacheFilters == null ? null : cacheFilters.get(entry.getKey());
+      items.put(entry.getKey(), getAll(entry.getKey(), entry.getValue(), cacheFilter));
+    }
+    return items;
+  }
+
   /** Returns whether or not the three {@code getAllByApplication} methods are supported */
   default boolean supportsGetAllByApplication() {
     return false;
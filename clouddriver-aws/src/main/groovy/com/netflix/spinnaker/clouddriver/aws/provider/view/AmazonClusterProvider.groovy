@@ -176,29 +176,19 @@ class AmazonClusterProvider implements ClusterProvider<AmazonCluster>, ServerGro
 
     def cacheResults = cacheView.getAllByApplication(toFetch, application, filters)
 
-    // lbs and images can span applications and can't currently be indexed by app
-    Collection<CacheData> allLoadBalancers = resolveRelationshipDataForCollection(
-      cacheResults[CLUSTERS.ns],
-      LOAD_BALANCERS.ns,
-      RelationshipCacheFilter.none()
-    )
-    Collection<CacheData> allTargetGroups = resolveRelationshipDataForCollection(
-      cacheResults[CLUSTERS.ns],
-      TARGET_GROUPS.ns,
-      RelationshipCacheFilter.none()
-    )
-
-    Collection<CacheData> allImages = []
-    allImages.addAll(
-      resolveRelationshipDataForCollection(cacheResults[LAUNCH_CONFIGS.ns], IMAGES.ns, RelationshipCacheFilter.none())
-    )
-
-    allImages.addAll(
-      resolveRelationshipDataForCollection(cacheResults[LAUNCH_TEMPLATES.ns], IMAGES.ns, RelationshipCacheFilter.none())
-    )
-
-    Map<String, AmazonLoadBalancer> loadBalancers = translateLoadBalancers(allLoadBalancers)
-    Map<String, AmazonTargetGroup> targetGroups = translateTargetGroups(allTargetGroups)
+    // lbs and images can span applications and can't currently be indexed by app; only clusters
+    // relate to lbs and only launch configs and templates to images, so all are read together
+    Collection<CacheData> sources = []
+    [CLUSTERS.ns, LAUNCH_CONFIGS.ns, LAUNCH_TEMPLATES.ns].each { sources.addAll(cacheResults[it] ?: []) }
+    Map<String, Collection<CacheData>> related = resolveRelationshipDataByType(sources, [
+      (LOAD_BALANCERS.ns): RelationshipCacheFilter.none(),
+      (TARGET_GROUPS.ns) : RelationshipCacheFilter.none(),
+      (IMAGES.ns)        : RelationshipCacheFilter.none()
+    ])
+    Collection<CacheData> allImages = related[IMAGES.ns]
+
+    Map<String, AmazonLoadBalancer> loadBalancers = translateLoadBalancers(related[LOAD_BALANCERS.ns])
+    Map<String, AmazonTargetGroup> targetGroups = translateTargetGroups(related[TARGET_GROUPS.ns])
     Map<String, AmazonServerGroup> serverGroups = translateServerGroups(
       cacheResults[SERVER_GROUPS.ns],
       cacheResults[INSTANCES.ns],
@@ -231,14 +221,15 @@ class AmazonClusterProvider implements ClusterProvider<AmazonCluster>, ServerGro
     Map<String, AmazonServerGroup> serverGroups
 
     if (includeDetails) {
-      Collection<CacheData> allLoadBalancers = resolveRelationshipDataForCollection(clusterData, LOAD_BALANCERS.ns)
-      Collection<CacheData> allTargetGroups = resolveRelationshipDataForCollection(clusterData, TARGET_GROUPS.ns)
-      Collection<CacheData> allServerGroups = resolveRelationshipDataForCollection(
-        clusterData, SERVER_GROUPS.ns, RelationshipCacheFilter.include(INSTANCES.ns, LAUNCH_CONFIGS.ns, LAUNCH_TEMPLATES.ns))
-
-      loadBalancers = translateLoadBalancers(allLoadBalancers)
-      targetGroups = translateTargetGroups(allTargetGroups)
-      serverGroups = translateServerGroups(allServerGroups, false)
+      Map<String, Collection<CacheData>> related = resolveRelationshipDataByType(clusterData, [
+        (LOAD_BALANCERS.ns): null,
+        (TARGET_GROUPS.ns) : null,
+        (SERVER_GROUPS.ns) : RelationshipCacheFilter.include(INSTANCES.ns, LAUNCH_CONFIGS.ns, LAUNCH_TEMPLATES.ns)
+      ])
+
+      loadBalancers = translateLoadBalancers(related[LOAD_BALANCERS.ns])
+      targetGroups = translateTargetGroups(related[TARGET_GROUPS.ns])
+      serverGroups = translateServerGroups(related[SERVER_GROUPS.ns], false)
       // instance relationships were expanded so no need to consider partial instances
     } else {
       Collection<CacheData> allServerGroups = resolveRelationshipDataForCollection(clusterData, SERVER_GROUPS.ns, RelationshipCacheFilter.none())
@@ -375,7 +366,12 @@ class AmazonClusterProvider implements ClusterProvider<AmazonCluster>, ServerGro
       [(it.relationships[LAUNCH_TEMPLATES.ns].first()): it.id]
     }
 
-    Collection<CacheData> launchConfigs = cacheView.getAll(LAUNCH_CONFIGS.ns, launchConfigurations.keySet())
+    Map<String, Collection<CacheData>> launchSettings = cacheView.getAllByType([
+      (LAUNCH_CONFIGS.ns)  : launchConfigurations.keySet(),
+      (LAUNCH_TEMPLATES.ns): templates.keySet()
+    ], [:])
+
+    Collection<CacheData> launchConfigs = launchSettings[LAUNCH_CONFIGS.ns] ?: []
     Map<String, Collection<String>> allImages = [:]
     launchConfigs.each { launchConfig ->
       def serverGroupId = launchConfigurations[launchConfig.id]
@@ -389,7 +385,7 @@ class AmazonClusterProvider implements ClusterProvider<AmazonCluster>, ServerGro
       }
     }
 
-    Collection<CacheData> launchTemplates = cacheView.getAll(LAUNCH_TEMPLATES.ns, templates.keySet())
+    Collection<CacheData> launchTemplates = launchSettings[LAUNCH_TEMPLATES.ns] ?: []
     launchTemplates.each { launchTemplate ->
       def serverGroupId = templates[launchTemplate.id]
       populateServerGroupWithLtOrMip(serverGroups[serverGroupId], launchTemplate)
@@ -461,6 +457,24 @@ class AmazonClusterProvider implements ClusterProvider<AmazonCluster>, ServerGro
     relationships ? cacheView.getAll(relationship, relationships, cacheFilter) : []
   }
 
+  /**
+   * Resolves the items of several relationship types of {@code sources} at once, so caches backed by
+   * a remote store can read them in a single round trip.
+   */
+  private Map<String, Collection<CacheData>> resolveRelationshipDataByType(Collection<CacheData> sources,
+                                                                           Map<String, CacheFilter> cacheFilters) {
+    Map<String, Collection<String>> identifiersByType = [:]
+    cacheFilters.keySet().each { String relationship ->
+      Collection<String> relationships = sources?.findResults { it.relationships[relationship] ?: [] }?.flatten() ?: []
+      if (relationships) {
+        identifiersByType[relationship] = relationships
+      }
+    }
+
+    Map<String, Collection<CacheData>> related = identifiersByType ? cacheView.getAllByType(identifiersByType, cacheFilters) : [:]
+    cacheFilters.keySet().collectEntries { [(it): related[it] ?: []] } as Map<String, Collection<CacheData>>
+  }
+
   private Collection<CacheData> resolveRelationshipData(CacheData source, String relationship, Closure<Boolean> relFilter, CacheFilter cacheFilter = null) {
     Collection<String> filteredRelationships = source.relationships[relationship]?.findAll(relFilter)
     filteredRelationships ? cacheView.getAll(relationship, filteredRelationships, cacheFilter) : []
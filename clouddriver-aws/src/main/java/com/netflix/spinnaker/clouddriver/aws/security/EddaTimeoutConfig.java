@@ -30,6 +30,7 @@ public class EddaTimeoutConfig {
   private static final int EDDA_CONNECT_TIMEOUT_MILLIS = 1000;
   private static final int EDDA_CONNECT_REQUEST_TIMEOUT_MILLIS = 10000;
   private static final int EDDA_SOCKET_TIMEOUT_MILLIS = 5000;
+  private static final long EDDA_RESPONSE_CACHE_MAX_RESULTS = 1_000_000L;
 
   private final long retryBase;
   private final int backoffMillis;
@@ -39,6 +40,8 @@ public class EddaTimeoutConfig {
   private final int socketTimeout;
   private final Set<String> disabledRegions;
   private boolean albEnabled;
+  private final long responseCacheTtlMillis;
+  private final long responseCacheMaxResults;
 
   public EddaTimeoutConfig(
       long retryBase,
@@ -49,6 +52,52 @@ public class EddaTimeoutConfig {
       int socketTimeout,
       Collection<String> disabledRegions,
       boolean albEnabled) {
+    this(
+        retryBase,
+        backoffMillis,
+        maxAttempts,
+        connectTimeout,
+        connectionRequestTimeout,
+        socketTimeout,
+        disabledRegions,
+        albEnabled,
+        0L);
+  }
+
+  public EddaTimeoutConfig(
+      long retryBase,
+      int backoffMillis,
+      int maxAttempts,
+      int connectTimeout,
+      int connectionRequestTimeout,
+      int socketTimeout,
+      Collection<String> disabledRegions,
+      boolean albEnabled,
+      long responseCacheTtlMillis) {
+    this(
+        retryBase,
+        backoffMillis,
+        maxAttempts,
+        connectTimeout,
+        connectionRequestTimeout,
+        socketTimeout,
+        disabledRegions,
+        albEnabled,
+        responseCacheTtlMillis,
+        EDDA_RESPONSE_CACHE_MAX_RESULTS);
+  }
+
+  public EddaTimeoutConfig(
+      long retryBase,
+      int backoffMillis,
+      int maxAttempts,
+      int connectTimeout,
+      int connectionRequestTimeout,
+      int socketTimeout,
+      Collection<String> disabledRegions,
+      boolean albEnabled,
+      long responseCacheTtlMillis,
+      long responseCacheMaxResults) {
     this.retryBase = retryBase;
     this.backoffMillis = backoffMillis;
     this.maxAttempts = maxAttempts;
@@ -60,6 +109,8 @@ public class EddaTimeoutConfig {
             ? Collections.emptySet()
             : Collections.unmodifiableSet(new LinkedHashSet<>(disabledRegions));
     this.albEnabled = albEnabled;
+    this.responseCacheTtlMillis = responseCacheTtlMillis;
+    this.responseCacheMaxResults = responseCacheMaxResults;
   }
 
   public long getRetryBase() {
@@ -94,6 +145,22 @@ public class EddaTimeoutConfig {
     return albEnabled;
   }
 
+  /**
+   * How long a decoded response for a full Edda collection is shared between callers of the same
+   * account and region; 0 disables sharing.
+   */
+  public long getResponseCacheTtlMillis() {
+    return responseCacheTtlMillis;
+  }
+
+  /**
+   * The most decoded resources kept for shared Edda responses, across all of them; the least
+   * recently used responses are dropped beyond it.
+   */
+  public long getResponseCacheMaxResults() {
+    return responseCacheMaxResults;
+  }
+
   public static class Builder {
     private long retryBase;
     private int backoffMillis;
@@ -103,6 +170,8 @@ public class EddaTimeoutConfig {
     private int socketTimeout;
     private List<String> disabledRegions;
     private boolean albEnabled;
+    private long responseCacheTtlMillis;
+    private long responseCacheMaxResults;
 
     public Builder() {
       this.retryBase = EDDA_RETRY_BASE_MILLIS;
@@ -113,6 +182,8 @@ public class EddaTimeoutConfig {
       this.socketTimeout = EDDA_SOCKET_TIMEOUT_MILLIS;
       this.disabledRegions = null;
       this.albEnabled = false;
+      this.responseCacheTtlMillis = 0L;
+      this.responseCacheMaxResults = EDDA_RESPONSE_CACHE_MAX_RESULTS;
     }
 
     public EddaTimeoutConfig build() {
@@ -124,7 +195,9 @@ public class EddaTimeoutConfig {
           connectionRequestTimeout,
           socketTimeout,
           disabledRegions,
-          albEnabled);
+          albEnabled,
+          responseCacheTtlMillis,
+          responseCacheMaxResults);
     }
 
     public long getRetryBase() {
@@ -190,5 +263,21 @@ public class EddaTimeoutConfig {
     public void setAlbEnabled(boolean albEnabled) {
       this.albEnabled = albEnabled;
     }
+
+    public long getResponseCacheTtlMillis() {
+      return responseCacheTtlMillis;
+    }
+
+    public void setResponseCacheTtlMillis(long responseCacheTtlMillis) {
+      this.responseCacheTtlMillis = responseCacheTtlMillis;
+    }
+
+    public long getResponseCacheMaxResults() {
+      return responseCacheMaxResults;
+    }
+
+    public void setResponseCacheMaxResults(long responseCacheMaxResults) {
+      this.responseCacheMaxResults = responseCacheMaxResults;
+    }
   }
 }
@@ -34,6 +34,7 @@ import com.amazonaws.services.elasticloadbalancingv2.model.TargetGroup;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
 import com.netflix.spectator.api.Id;
@@ -45,9 +46,12 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
@@ -72,6 +76,7 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
   private final EddaTimeoutConfig eddaTimeoutConfig;
   private final Registry registry;
   private final Map<String, String> metricTags;
+  private final EddaResponseCache responseCache;
 
   public AmazonClientInvocationHandler(
       Object delegate,
@@ -82,6 +87,28 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
       EddaTimeoutConfig eddaTimeoutConfig,
       Registry registry,
       Map<String, String> metricTags) {
+    this(
+        delegate,
+        serviceName,
+        edda,
+        httpClient,
+        objectMapper,
+        eddaTimeoutConfig,
+        registry,
+        metricTags,
+        new EddaResponseCache(0, 0));
+  }
+
+  public AmazonClientInvocationHandler(
+      Object delegate,
+      String serviceName,
+      String edda,
+      HttpClient httpClient,
+      ObjectMapper objectMapper,
+      EddaTimeoutConfig eddaTimeoutConfig,
+      Registry registry,
+      Map<String, String> metricTags,
+      EddaResponseCache responseCache) {
     this.edda = edda;
     this.httpClient = httpClient;
     this.objectMapper = objectMapper;
@@ -91,6 +118,7 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
         eddaTimeoutConfig == null ? EddaTimeoutConfig.DEFAULT : eddaTimeoutConfig;
     this.registry = registry;
     this.metricTags = ImmutableMap.copyOf(metricTags);
+    this.responseCache = responseCache;
   }
 
   @Override
@@ -409,23 +437,28 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
       final Id deserializeJsonTimer = registry.createId("edda.deserializeJson", metricTags);
       final Id resultSizeCounter = registry.createId("edda.resultSize", metricTags);
       if (ids.isEmpty()) {
-        HttpEntity entity = getHttpEntity(metricTags, object, null);
-        try {
-          final JavaType listMeta =
-              objectMapper
-                  .getTypeFactory()
-                  .constructParametrizedType(List.class, List.class, singleMeta);
-          final List<Metadata<T>> metadataResults =
-              registry
-                  .timer(deserializeJsonTimer)
-                  .record(() -> objectMapper.readValue(entity.getContent(), listMeta));
-          for (Metadata<T> meta : metadataResults) {
-            mtime = mtime == null ? meta.mtime : Math.min(mtime, meta.mtime);
-            results.add(meta.data);
-          }
-        } finally {
-          EntityUtils.consume(entity);
+        final String url = getUrl(object, null);
+        final EddaResponseCache.Entry entry;
+        if (responseCache.isEnabled()) {
+          final AtomicBoolean loaded = new AtomicBoolean();
+          entry =
+              responseCache.get(
+                  url,
+                  previous -> {
+                    loaded.set(true);
+                    return getCollection(metricTags, url, singleMeta, previous);
+                  });
+          registry
+              .counter(
+                  registry
+                      .createId("edda.responseCache", metricTags)
+                      .withTag("result", loaded.get() ? "miss" : "hit"))
+              .increment();
+        } else {
+          entry = getCollection(metricTags, url, singleMeta, null);
         }
+        mtime = entry.mtime;
+        results.addAll((List<T>) entry.results);
       } else {
         for (String id : ids) {
           HttpEntity entity = getHttpEntity(metricTags, object, id);
@@ -461,6 +494,59 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
     }
   }
 
+  /**
+   * Reads a full collection, decoding its elements one at a time rather than materializing the
+   * whole response first.
+   *
+   * @param previous an expired response for the same url, revalidated with a conditional request
+   * @return the decoded collection, or previous if Edda reports it as not modified
+   */
+  private <T> EddaResponseCache.Entry getCollection(
+      Map<String, String> metricTags,
+      String url,
+      JavaType singleMeta,
+      EddaResponseCache.Entry previous)
+      throws Exception {
+    final HttpResponse response = getHttpResponse(metricTags, url, previous);
+    final HttpEntity entity = response.getEntity();
+    try {
+      if (response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+        registry.counter(registry.createId("edda.notModified", metricTags)).increment();
+        return previous;
+      }
+
+      final List<T> results = new ArrayList<>();
+      final Long mtime =
+          registry
+              .timer(registry.createId("edda.deserializeJson", metricTags))
+              .record(
+                  () -> {
+                    Long minMtime = null;
+                    try (MappingIterator<Metadata<T>> it =
+                        objectMapper.readerFor(singleMeta).readValues(entity.getContent())) {
+                      while (it.hasNextValue()) {
+                        Metadata<T> meta = it.nextValue();
+                        minMtime = minMtime == null ? meta.mtime : Math.min(minMtime, meta.mtime);
+                        results.add(meta.data);
+                      }
+                    }
+                    return minMtime;
+                  });
+      return new EddaResponseCache.Entry(
+          Collections.unmodifiableList(results),
+          mtime,
+          getHeader(response, HttpHeaders.ETAG),
+          getHeader(response, HttpHeaders.LAST_MODIFIED));
+    } finally {
+      EntityUtils.consume(entity);
+    }
+  }
+
+  private static String getHeader(HttpResponse response, String name) {
+    Header header = response.getFirstHeader(name);
+    return header == null ? null : header.getValue();
+  }
+
   private static Collection<String> getRequestIds(
       AmazonWebServiceRequest request, String idFieldName) {
     if (request == null) {
@@ -476,10 +562,22 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
     }
   }
 
+  private String getUrl(String objectName, String key) {
+    return edda + "/REST/v2/aws/" + objectName + (key == null ? ";_expand" : "/" + key) + ";_meta";
+  }
+
   private HttpEntity getHttpEntity(Map<String, String> metricTags, String objectName, String key)
       throws EddaException {
-    final String url =
-        edda + "/REST/v2/aws/" + objectName + (key == null ? ";_expand" : "/" + key) + ";_meta";
+    return getHttpResponse(metricTags, getUrl(objectName, key), null).getEntity();
+  }
+
+  /**
+   * @param previous if not null, the request is made conditional on the validators of this
+   *     response, and a not modified response is accepted
+   */
+  private HttpResponse getHttpResponse(
+      Map<String, String> metricTags, String url, EddaResponseCache.Entry previous)
+      throws EddaException {
     final HttpGet get = new HttpGet(url);
     get.setConfig(
         RequestConfig.custom()
@@ -487,6 +585,15 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
             .setConnectionRequestTimeout(eddaTimeoutConfig.getConnectionRequestTimeout())
             .setSocketTimeout(eddaTimeoutConfig.getSocketTimeout())
             .build());
+    final boolean conditional = previous != null && previous.canRevalidate();
+    if (conditional) {
+      if (previous.etag != null) {
+        get.setHeader(HttpHeaders.IF_NONE_MATCH, previous.etag);
+      }
+      if (previous.lastModified != null) {
+        get.setHeader(HttpHeaders.IF_MODIFIED_SINCE, previous.lastModified);
+      }
+    }
 
     long retryDelay = eddaTimeoutConfig.getRetryBase();
     int retryAttempts = 0;
@@ -509,7 +616,10 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
             registry.timer(httpExecuteTime).record(() -> httpClient.execute(get));
         final int statusCode = response.getStatusLine().getStatusCode();
         entity = response.getEntity();
-        if (statusCode != HttpStatus.SC_OK) {
+        if (statusCode == HttpStatus.SC_OK
+            || (conditional && statusCode == HttpStatus.SC_NOT_MODIFIED)) {
+          return response;
+        } else {
           lastExceptionMessage =
               response.getProtocolVersion().toString()
                   + " "
@@ -523,8 +633,6 @@ public class AmazonClientInvocationHandler implements InvocationHandler {
 
           throw new HttpClientErrorException(
               org.springframework.http.HttpStatus.valueOf(statusCode), lastExceptionMessage);
-        } else {
-          return entity;
         }
       } catch (Exception e) {
         lastExceptionMessage = e.getClass().getSimpleName() + ": " + e.getMessage();
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.aws.security.sdkclient;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.Striped;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Decoded Edda responses, keyed by url and shared by the invocation handlers of an {@link
+ * ProxyHandlerBuilder}, so that caching agents describing the same collection of an account and
+ * region within the ttl share a single request and a single decoded copy of the response.
+ *
+ * <p>Expired entries are kept so that they can be revalidated with a conditional request, and
+ * reused if Edda reports them as not modified. They are dropped once no caller has read them for
+ * {@link #MAX_IDLE_MILLIS}, or to keep the total number of decoded resources under {@code
+ * maxResults}.
+ *
+ * <p>The decoded resources are the same instances for every caller, and must not be modified.
+ */
+public class EddaResponseCache {
+  /** How long a response that no caller reads is kept, if longer than the ttl. */
+  static final long MAX_IDLE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+  private final long ttlMillis;
+  private final Ticker ticker;
+  private final Cache<String, Entry> entries;
+  private final Striped<Lock> locks = Striped.lazyWeakLock(256);
+
+  public EddaResponseCache(long ttlMillis, long maxResults) {
+    this(ttlMillis, maxResults, Ticker.systemTicker());
+  }
+
+  EddaResponseCache(long ttlMillis, long maxResults, Ticker ticker) {
+    this.ttlMillis = ttlMillis;
+    this.ticker = ticker;
+    this.entries =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxResults)
+            .weigher((String url, Entry entry) -> entry.results.size())
+            .expireAfterAccess(Math.max(ttlMillis, MAX_IDLE_MILLIS), TimeUnit.MILLISECONDS)
+            .ticker(ticker)
+            .build();
+  }
+
+  public boolean isEnabled() {
+    return ttlMillis > 0;
+  }
+
+  /**
+   * Returns the entry for a url if it hasn't expired, otherwise loads it. Concurrent callers for
+   * the same url wait for a single load.
+   */
+  Entry get(String url, Loader loader) throws Exception {
+    Entry current = entries.getIfPresent(url);
+    if (current != null && current.isFresh(nowMillis())) {
+      return current;
+    }
+
+    Lock lock = locks.get(url);
+    lock.lock();
+    try {
+      current = entries.getIfPresent(url);
+      if (current != null && current.isFresh(nowMillis())) {
+        return current;
+      }
+      Entry loaded = loader.load(current);
+      loaded.expiresAtMillis = nowMillis() + ttlMillis;
+      entries.put(url, loaded);
+      return loaded;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private long nowMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(ticker.read());
+  }
+
+  @FunctionalInterface
+  interface Loader {
+    /**
+     * @param previous the expired entry for the url, if any, to revalidate
+     * @return the entry to cache; previous if it is still current
+     */
+    Entry load(Entry previous) throws Exception;
+  }
+
+  static class Entry {
+    final List<?> results;
+    final Long mtime;
+    final String etag;
+    final String lastModified;
+    volatile long expiresAtMillis;
+
+    Entry(List<?> results, Long mtime, String etag, String lastModified) {
+      this.results = results;
+      this.mtime = mtime;
+      this.etag = etag;
+      this.lastModified = lastModified;
+    }
+
+    boolean isFresh(long nowMillis) {
+      return nowMillis < expiresAtMillis;
+    }
+
+    boolean canRevalidate() {
+      return etag != null || lastModified != null;
+    }
+  }
+}
@@ -41,6 +41,7 @@ public class ProxyHandlerBuilder {
   private final EddaTemplater eddaTemplater;
   private final EddaTimeoutConfig eddaTimeoutConfig;
   private final Registry registry;
+  private final EddaResponseCache eddaResponseCache;
 
   public ProxyHandlerBuilder(
       AwsSdkClientSupplier awsSdkClientSupplier,
@@ -55,6 +56,12 @@ public class ProxyHandlerBuilder {
     this.eddaTemplater = requireNonNull(eddaTemplater);
     this.eddaTimeoutConfig = eddaTimeoutConfig;
     this.registry = requireNonNull(registry);
+    this.eddaResponseCache =
+        eddaTimeoutConfig == null
+            ? new EddaResponseCache(0, 0)
+            : new EddaResponseCache(
+                eddaTimeoutConfig.getResponseCacheTtlMillis(),
+                eddaTimeoutConfig.getResponseCacheMaxResults());
   }
 
   public <T extends AwsClientBuilder<T, U>, U> U getProxyHandler(
@@ -136,6 +143,7 @@ public class ProxyHandlerBuilder {
         objectMapper,
         eddaTimeoutConfig,
         registry,
-        baseTags);
+        baseTags,
+        eddaResponseCache);
   }
 }
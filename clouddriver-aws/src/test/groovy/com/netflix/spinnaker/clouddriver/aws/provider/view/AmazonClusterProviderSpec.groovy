@@ -69,6 +69,14 @@ class AmazonClusterProviderSpec extends Specification {
   @BeforeEach
   def setup() {
     serverGroup.asg.clear()
+
+    // multi-type reads resolve through the single-type stubs of each test
+    cacheView.getAllByType(_, _) >> { Map<String, Collection<String>> identifiersByType, Map<String, CacheFilter> cacheFilters ->
+      identifiersByType.collectEntries { type, identifiers ->
+        CacheFilter cacheFilter = cacheFilters[type]
+        [(type): cacheFilter ? cacheView.getAll(type, identifiers, cacheFilter) : cacheView.getAll(type, identifiers)]
+      }
+    }
   }
 
   def "should get cluster details with build info"() {
@@ -169,7 +177,31 @@ class AmazonClusterProviderSpec extends Specification {
     allServerGroups[0].mixedInstancesPolicy == null
   }
 
-  def "should resolve server group launch config"() {
+  def "should read launch configs and launch templates together"() {
+    given:
+    serverGroup.asg = [launchConfigurationName: launchConfigName]
+    def launchConfiguration = new DefaultCacheData(
+      Keys.getLaunchConfigKey(launchConfigName, account, region), [imageId: "ami-1"], [:])
+
+    and:
+    cacheView.get(CLUSTERS.ns, clusterId) >> new DefaultCacheData(clusterId, clusterAttributes, [serverGroups: [serverGroupId]])
+
+    when:
+    def result = provider.getCluster(app, account, clusterName)
+
+    then:
+    1 * cacheView.getAllByType([(SERVER_GROUPS.ns): [serverGroupId]], _) >> [
+      (SERVER_GROUPS.ns): [new DefaultCacheData(serverGroupId, serverGroup, [launchConfigs: [launchConfiguration.id]])]
+    ]
+    1 * cacheView.getAllByType([(LAUNCH_CONFIGS.ns): [launchConfiguration.id] as Set, (LAUNCH_TEMPLATES.ns): [] as Set], _) >> [
+      (LAUNCH_CONFIGS.ns): [launchConfiguration]
+    ]
+    0 * cacheView.getAll(LAUNCH_CONFIGS.ns, _)
+    0 * cacheView.getAll(LAUNCH_TEMPLATES.ns, _)
+    result.serverGroups*.launchConfig == [launchConfiguration.attributes]
+  }
+
+    def "should resolve server group launch config"() {
     given:
     serverGroup.asg = [ launchConfigurationName: launchConfigName]
     def launchConfiguration = new DefaultCacheData(
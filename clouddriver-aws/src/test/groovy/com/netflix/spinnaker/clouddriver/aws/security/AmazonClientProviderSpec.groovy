@@ -148,11 +148,76 @@ class AmazonClientProviderSpec extends Specification {
     1 * ec2.describeSecurityGroups()
   }
 
+  void "full collections are shared between clients within the response cache ttl"() {
+    setup:
+    def mockHttp = Mock(HttpClient)
+    def provider = new AmazonClientProvider.Builder()
+      .httpClient(mockHttp)
+      .eddaTimeoutConfig(new EddaTimeoutConfig.Builder(responseCacheTtlMillis: 60000).build())
+      .build()
+
+    when:
+    def first = provider.getAutoScaling(credentialsWithEdda, "us-east-1").describeAutoScalingGroups()
+    def second = provider.getAutoScaling(credentialsWithEdda, "us-east-1").describeAutoScalingGroups()
+
+    then:
+    1 * mockHttp.execute(_) >> getMockResponse(MULTIPLE_ASG_CONTENT)
+    first.autoScalingGroups*.autoScalingGroupName == ["my-app-v000", "my-app-v001"]
+    second.autoScalingGroups == first.autoScalingGroups
+    provider.lastModified == MTIME
+  }
+
+  void "collections beyond the response cache size are not kept"() {
+    setup:
+    def mockHttp = Mock(HttpClient)
+    def provider = new AmazonClientProvider.Builder()
+      .httpClient(mockHttp)
+      .eddaTimeoutConfig(new EddaTimeoutConfig.Builder(responseCacheTtlMillis: 60000, responseCacheMaxResults: 1).build())
+      .build()
+
+    when:
+    provider.getAutoScaling(credentialsWithEdda, "us-east-1").describeAutoScalingGroups()
+    def second = provider.getAutoScaling(credentialsWithEdda, "us-east-1").describeAutoScalingGroups()
+
+    then:
+    2 * mockHttp.execute(_) >> { getMockResponse(MULTIPLE_ASG_CONTENT) }
+    second.autoScalingGroups*.autoScalingGroupName == ["my-app-v000", "my-app-v001"]
+  }
+
+  void "expired collections are revalidated with a conditional request"() {
+    setup:
+    def mockHttp = Mock(HttpClient)
+    def provider = new AmazonClientProvider.Builder()
+      .httpClient(mockHttp)
+      .eddaTimeoutConfig(new EddaTimeoutConfig.Builder(responseCacheTtlMillis: 1).build())
+      .build()
+    def client = provider.getAutoScaling(credentialsWithEdda, "us-east-1")
+
+    when:
+    client.describeAutoScalingGroups()
+    sleep(5)
+    def result = client.describeAutoScalingGroups()
+
+    then:
+    1 * mockHttp.execute(_) >> { HttpGet get ->
+      assert !get.containsHeader("If-None-Match")
+      getMockResponse(ARRAY_ASG_CONTENT, '"v1"')
+    }
+    1 * mockHttp.execute(_) >> { HttpGet get ->
+      assert get.getFirstHeader("If-None-Match").value == '"v1"'
+      getNotModifiedResponse()
+    }
+    result.autoScalingGroups*.autoScalingGroupName == ["my-app-v000"]
+    provider.lastModified == MTIME
+  }
+
   static def MTIME = 1446701217475L
   static def OBJECT_ASG_CONTENT = '{"mtime": ' + MTIME + ', "data": { "autoScalingGroupName": "my-app-v000" }}'
   static def ARRAY_ASG_CONTENT = "[$OBJECT_ASG_CONTENT]"
+  static def MULTIPLE_ASG_CONTENT = "[$OBJECT_ASG_CONTENT, " +
+    '{"mtime": ' + (MTIME + 1) + ', "data": { "autoScalingGroupName": "my-app-v001" }}]'
 
-  def getMockResponse(String content = ARRAY_ASG_CONTENT) {
+  def getMockResponse(String content = ARRAY_ASG_CONTENT, String etag = null) {
     def mock = Mock(HttpResponse)
     def statusLine = Mock(StatusLine)
     statusLine.getStatusCode() >> 200
@@ -163,6 +228,19 @@ class AmazonClientProviderSpec extends Specification {
     header.getValue() >> ContentType.APPLICATION_JSON.getMimeType()
     entity.getContentType() >> header
     mock.getEntity() >> entity
+    if (etag) {
+      def etagHeader = Mock(Header)
+      etagHeader.getValue() >> etag
+      mock.getFirstHeader("ETag") >> etagHeader
+    }
+    mock
+  }
+
+  def getNotModifiedResponse() {
+    def mock = Mock(HttpResponse)
+    def statusLine = Mock(StatusLine)
+    statusLine.getStatusCode() >> 304
+    mock.getStatusLine() >> statusLine
     mock
   }
 }
@@ -42,7 +42,9 @@ import com.netflix.spinnaker.clouddriver.helpers.AbstractServerGroupNameResolver
 import com.netflix.spinnaker.clouddriver.model.HealthState;
 import java.io.File;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
@@ -67,7 +69,12 @@ public class Applications {
   private final Integer resultsPerPage;
   private final boolean onlySpinnakerManaged;
   private final ForkJoinPool forkJoinPool;
+  private final PageCollector pageCollector;
   private final LoadingCache<String, CloudFoundryServerGroup> serverGroupCache;
+  private final IncrementalSync incrementalSync;
+
+  /** The cacheable applications found by the previous listing, by guid. */
+  private volatile Map<String, Application> cacheableApplications = emptyMap();
 
   public Applications(
       String account,
@@ -79,6 +86,7 @@ public class Applications {
       Integer resultsPerPage,
       boolean onlySpinnakerManaged,
       ForkJoinPool forkJoinPool,
+      PageCollector pageCollector,
       CloudFoundryConfigurationProperties.LocalCacheConfig localCacheConfig) {
     this.account = account;
     this.appsManagerUri = appsManagerUri;
@@ -89,6 +97,11 @@ public class Applications {
     this.resultsPerPage = resultsPerPage;
     this.onlySpinnakerManaged = onlySpinnakerManaged;
     this.forkJoinPool = forkJoinPool;
+    this.pageCollector = pageCollector;
+    this.incrementalSync =
+        new IncrementalSync(
+            localCacheConfig.isIncrementalSyncEnabled(),
+            Duration.ofSeconds(localCacheConfig.getFullResyncIntervalSeconds()));
 
     CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
     if (localCacheConfig.getApplicationsAccessExpirySeconds() >= 0) {
@@ -132,25 +145,40 @@ public class Applications {
     String spaceGuidsQ =
         spaceGuids == null || spaceGuids.isEmpty() ? null : String.join(",", spaceGuids);
 
-    List<Application> newCloudFoundryAppList =
-        collectPages("applications", page -> api.all(page, resultsPerPage, null, spaceGuidsQ));
+    // when syncing incrementally, only the applications updated since the previous listing are
+    // fetched and merged into the ones it found
+    IncrementalSync.Listing listing = incrementalSync.start(spaceGuidsQ);
+    Map<String, Application> cacheableApplications =
+        listing.isFull() ? new HashMap<>() : new HashMap<>(this.cacheableApplications);
+    Set<String> fetchedApplications = new HashSet<>();
+
+    // filter each page as it arrives rather than holding on to every application
+    pageCollector.forEachPage(
+        "applications",
+        page ->
+            listing.isFull()
+                ? api.all(page, resultsPerPage, null, spaceGuidsQ)
+                : api.updatedSince(page, resultsPerPage, spaceGuidsQ, listing.getUpdatedSince()),
+        applications -> {
+          for (Application application : applications) {
+            fetchedApplications.add(application.getGuid());
+            if (shouldCacheApplication(application)) {
+              cacheableApplications.put(application.getGuid(), application);
+            } else {
+              cacheableApplications.remove(application.getGuid());
+            }
+          }
+        });
 
     log.debug(
-        "Fetched {} total apps from foundation account {}",
-        newCloudFoundryAppList.size(),
+        "Fetched {} {} apps from foundation account {}",
+        fetchedApplications.size(),
+        listing.isFull() ? "total" : "updated",
         this.account);
 
-    List<Application> cacheableApplications =
-        newCloudFoundryAppList.stream()
-            .filter(this::shouldCacheApplication)
-            .collect(Collectors.toUnmodifiableList());
-
-    List<String> availableAppIds =
-        cacheableApplications.stream().map(Application::getGuid).collect(toList());
-
     long invalidatedServerGroups =
         serverGroupCache.asMap().keySet().parallelStream()
-            .filter(appGuid -> !availableAppIds.contains(appGuid))
+            .filter(appGuid -> !cacheableApplications.containsKey(appGuid))
             .peek(appGuid -> log.trace("Evicting the following SG with id '{}'", appGuid))
             .peek(serverGroupCache::invalidate)
             .count();
@@ -160,13 +188,17 @@ public class Applications {
         invalidatedServerGroups,
         this.account);
 
+    // applications that weren't updated since the previous listing but can't be found anymore have
+    // been deleted since, and aren't mapped from the stale copy of the previous listing
+    Set<String> vanishedApplications = ConcurrentHashMap.newKeySet();
+
     // if the update time doesn't match then we need to update the cache
     // if the app is not found in the cache we need to process with `map` and update the cache
     try {
       forkJoinPool
           .submit(
               () ->
-                  cacheableApplications.parallelStream()
+                  cacheableApplications.values().parallelStream()
                       .filter(
                           app -> {
                             CloudFoundryServerGroup cachedApp = findById(app.getGuid());
@@ -182,6 +214,9 @@ public class Applications {
                               } else {
                                 return false;
                               }
+                            } else if (!fetchedApplications.contains(app.getGuid())) {
+                              vanishedApplications.add(app.getGuid());
+                              return false;
                             } else {
                               log.trace(
                                   "App '{}' not found in cache for foundation '{}'",
@@ -196,21 +231,29 @@ public class Applications {
                       .forEach(sg -> serverGroupCache.put(sg.getId(), sg)))
           .get();
 
+      cacheableApplications.keySet().removeAll(vanishedApplications);
+
       forkJoinPool
           .submit(
               () ->
                   // execute health check on instances, set number of available instances and health
                   // status
-                  cacheableApplications.parallelStream()
+                  cacheableApplications.values().parallelStream()
                       .forEach(
-                          a ->
-                              serverGroupCache.put(
-                                  a.getGuid(), checkHealthStatus(findById(a.getGuid()), a))))
+                          a -> {
+                            CloudFoundryServerGroup serverGroup = findById(a.getGuid());
+                            if (serverGroup != null) {
+                              serverGroupCache.put(a.getGuid(), checkHealthStatus(serverGroup, a));
+                            }
+                          }))
           .get();
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
 
+    this.cacheableApplications = cacheableApplications;
+    incrementalSync.succeeded(listing);
+
     Map<String, Set<CloudFoundryServerGroup>> serverGroupsByClusters = new HashMap<>();
     Map<String, Set<String>> clustersByApps = new HashMap<>();
 
@@ -714,7 +757,8 @@ public class Applications {
     String finalName = buildFinalAsgName(clusterName);
     List<String> filter =
         asList("name<=" + finalName, "name>=" + clusterName, "space_guid:" + spaceId);
-    return collectPageResources("applications", page -> api.listAppsFiltered(page, filter, 10))
+    return pageCollector
+        .collectPageResources("applications", page -> api.listAppsFiltered(page, filter, 10))
         .stream()
         .filter(
             app -> {
@@ -749,6 +793,7 @@ public class Applications {
   }
 
   public List<Resource<ServiceBinding>> getServiceBindingsByApp(String appGuid) {
-    return collectPageResources("service bindings", pg -> api.getServiceBindings(appGuid));
+    return pageCollector.collectPageResources(
+        "service bindings", pg -> api.getServiceBindings(appGuid));
   }
 }
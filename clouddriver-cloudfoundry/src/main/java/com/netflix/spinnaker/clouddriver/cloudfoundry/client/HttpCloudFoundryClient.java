@@ -27,6 +27,7 @@ import com.netflix.spinnaker.clouddriver.cloudfoundry.client.tokens.AccessTokenA
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.tokens.AccessTokenInterceptor;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.tokens.AccessTokenProvider;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.config.CloudFoundryConfigurationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
@@ -80,7 +81,8 @@ public class HttpCloudFoundryClient implements CloudFoundryClient {
       ForkJoinPool forkJoinPool,
       OkHttpClient.Builder okHttpClientBuilder,
       CloudFoundryConfigurationProperties.ClientConfig clientConfig,
-      CloudFoundryConfigurationProperties.LocalCacheConfig localCacheConfig) {
+      CloudFoundryConfigurationProperties.LocalCacheConfig localCacheConfig,
+      MeterRegistry meterRegistry) {
 
     this.apiHost = apiHost;
     this.user = user;
@@ -123,6 +125,10 @@ public class HttpCloudFoundryClient implements CloudFoundryClient {
             .addConverterFactory(JacksonConverterFactory.create(mapper))
             .build();
 
+    PageCollector pageCollector =
+        new PageCollector(
+            account, forkJoinPool, clientConfig.getMaxConcurrentPageRequests(), meterRegistry);
+
     this.organizations = new Organizations(retrofit.create(OrganizationService.class));
     this.spaces = new Spaces(retrofit.create(SpaceService.class), organizations);
     this.processes = new Processes(retrofit.create(ProcessesService.class));
@@ -138,6 +144,7 @@ public class HttpCloudFoundryClient implements CloudFoundryClient {
             resultsPerPage,
             onlySpinnakerManaged,
             forkJoinPool,
+            pageCollector,
             localCacheConfig);
     this.domains = new Domains(retrofit.create(DomainService.class), organizations);
     this.serviceInstances =
@@ -154,6 +161,7 @@ public class HttpCloudFoundryClient implements CloudFoundryClient {
             spaces,
             resultsPerPage,
             forkJoinPool,
+            pageCollector,
             localCacheConfig);
     this.serviceKeys = new ServiceKeys(retrofit.create(ServiceKeyService.class), spaces);
     this.tasks = new Tasks(retrofit.create(TaskService.class));
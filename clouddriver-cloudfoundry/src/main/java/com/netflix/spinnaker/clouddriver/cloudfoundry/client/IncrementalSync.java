@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.cloudfoundry.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+/**
+ * Decides whether a listing of a resource of a foundation can be limited to the resources updated
+ * since the last successful listing, or has to list every resource. Deleted resources are only
+ * noticed by a full listing, so one is made at least every {@code fullResyncInterval}, as well as
+ * on the first listing and whenever the filter of the listing changes.
+ */
+class IncrementalSync {
+  /**
+   * Resources updated while the previous listing was in progress, or recorded with a slightly
+   * skewed clock, are listed again rather than missed.
+   */
+  static final Duration OVERLAP = Duration.ofSeconds(30);
+
+  private final boolean enabled;
+  private final Duration fullResyncInterval;
+  private final Clock clock;
+
+  @Nullable private Listing lastListing;
+  @Nullable private Instant lastFullListingStart;
+
+  IncrementalSync(boolean enabled, Duration fullResyncInterval) {
+    this(enabled, fullResyncInterval, Clock.systemUTC());
+  }
+
+  IncrementalSync(boolean enabled, Duration fullResyncInterval, Clock clock) {
+    this.enabled = enabled;
+    this.fullResyncInterval = fullResyncInterval;
+    this.clock = clock;
+  }
+
+  /** @param filter what the listing is limited to, e.g. the spaces of the account */
+  synchronized Listing start(@Nullable String filter) {
+    Instant now = clock.instant();
+    if (!enabled
+        || lastListing == null
+        || lastFullListingStart == null
+        || !Objects.equals(lastListing.filter, filter)
+        || !now.isBefore(lastFullListingStart.plus(fullResyncInterval))) {
+      return new Listing(now, null, filter);
+    }
+    return new Listing(now, lastListing.start.minus(OVERLAP), filter);
+  }
+
+  /** Records a listing whose results have all been applied. */
+  synchronized void succeeded(Listing listing) {
+    lastListing = listing;
+    if (listing.isFull()) {
+      lastFullListingStart = listing.start;
+    }
+  }
+
+  static class Listing {
+    private final Instant start;
+    @Nullable private final Instant updatedSince;
+    @Nullable private final String filter;
+
+    private Listing(Instant start, @Nullable Instant updatedSince, @Nullable String filter) {
+      this.start = start;
+      this.updatedSince = updatedSince;
+      this.filter = filter;
+    }
+
+    boolean isFull() {
+      return updatedSince == null;
+    }
+
+    /** The lower bound of an {@code updated_ats[gt]} filter, in the format of the v3 API. */
+    String getUpdatedSince() {
+      return updatedSince == null ? null : updatedSince.truncatedTo(ChronoUnit.SECONDS).toString();
+    }
+  }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.cloudfoundry.client;
+
+import static com.netflix.spinnaker.clouddriver.cloudfoundry.client.CloudFoundryClientUtils.safelyCall;
+
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Page;
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Resource;
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v3.Pagination;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import retrofit2.Call;
+
+/**
+ * Collects the pages of a paginated resource of a foundation. The first page is fetched on the
+ * calling thread to learn the number of pages, and the remaining pages are fetched in parallel on
+ * the Cloud Foundry thread pool. At most {@code maxConcurrentPageRequests} pages of a foundation
+ * are fetched at once, across all callers.
+ *
+ * <p>Callers may themselves run on the Cloud Foundry thread pool, e.g. lookups made while
+ * processing the elements of a parallel stream. Waiting for a permit or a page is therefore done
+ * through {@link ForkJoinPool#managedBlock}, which lets the pool add a thread for the page requests
+ * rather than have waiting callers take up every thread.
+ *
+ * <p>Pages are handed to the caller on its own thread as they arrive, so consumers don't need to be
+ * thread-safe. The latency of every page is recorded as {@code cf.api.pages}, tagged with the
+ * account and the resource.
+ */
+public class PageCollector {
+  private final String account;
+  private final ForkJoinPool forkJoinPool;
+  private final Semaphore pageRequests;
+  private final MeterRegistry meterRegistry;
+
+  public PageCollector(
+      String account,
+      ForkJoinPool forkJoinPool,
+      int maxConcurrentPageRequests,
+      MeterRegistry meterRegistry) {
+    this.account = account;
+    this.forkJoinPool = forkJoinPool;
+    this.pageRequests = new Semaphore(Math.max(1, maxConcurrentPageRequests));
+    this.meterRegistry = meterRegistry;
+  }
+
+  /** Collects the resources of all pages of a v3 resource, in page order. */
+  public <R> List<R> collectPages(
+      String resourceNamePluralized, Function<Integer, Call<Pagination<R>>> fetchPage)
+      throws CloudFoundryApiException {
+    PagesInOrder<R> pages = new PagesInOrder<>();
+    fetchPages(
+        resourceNamePluralized,
+        fetchPage,
+        page -> page.getPagination().getTotalPages(),
+        Pagination::getResources,
+        pages);
+    return pages.flatten();
+  }
+
+  /** Collects the resources of all pages of a v2 resource, in page order. */
+  public <R> List<Resource<R>> collectPageResources(
+      String resourceNamePluralized, Function<Integer, Call<Page<R>>> fetchPage)
+      throws CloudFoundryApiException {
+    PagesInOrder<Resource<R>> pages = new PagesInOrder<>();
+    fetchPages(resourceNamePluralized, fetchPage, Page::getTotalPages, Page::getResources, pages);
+    return pages.flatten();
+  }
+
+  /** Hands the resources of each page of a v3 resource to the consumer as the page arrives. */
+  public <R> void forEachPage(
+      String resourceNamePluralized,
+      Function<Integer, Call<Pagination<R>>> fetchPage,
+      Consumer<List<R>> consumer)
+      throws CloudFoundryApiException {
+    fetchPages(
+        resourceNamePluralized,
+        fetchPage,
+        page -> page.getPagination().getTotalPages(),
+        Pagination::getResources,
+        (page, resources) -> consumer.accept(resources));
+  }
+
+  /** Hands the resources of each page of a v2 resource to the consumer as the page arrives. */
+  public <R> void forEachPageResource(
+      String resourceNamePluralized,
+      Function<Integer, Call<Page<R>>> fetchPage,
+      Consumer<List<Resource<R>>> consumer)
+      throws CloudFoundryApiException {
+    fetchPages(
+        resourceNamePluralized,
+        fetchPage,
+        Page::getTotalPages,
+        Page::getResources,
+        (page, resources) -> consumer.accept(resources));
+  }
+
+  private <P, R> void fetchPages(
+      String resourceNamePluralized,
+      Function<Integer, Call<P>> fetchPage,
+      Function<P, Integer> totalPages,
+      Function<P, List<R>> resources,
+      BiConsumer<Integer, List<R>> consumer) {
+    P firstPage = fetch(resourceNamePluralized, fetchPage, null);
+    consumer.accept(1, resources.apply(firstPage));
+
+    int pages = totalPages.apply(firstPage);
+    if (pages < 2) {
+      return;
+    }
+
+    CompletionService<FetchedPage<P>> completionService =
+        new ExecutorCompletionService<>(forkJoinPool);
+    int submitted = 0;
+    int completed = 0;
+    RuntimeException failure = null;
+    for (int page = 2; page <= pages && failure == null; page++) {
+      acquire(resourceNamePluralized);
+      final int p = page;
+      completionService.submit(
+          () -> {
+            try {
+              return new FetchedPage<>(p, fetch(resourceNamePluralized, fetchPage, p));
+            } finally {
+              pageRequests.release();
+            }
+          });
+      submitted++;
+
+      // hand over the pages that have arrived in the meantime, without waiting for more
+      Future<FetchedPage<P>> done;
+      while (failure == null && (done = completionService.poll()) != null) {
+        completed++;
+        failure = accept(done, resources, consumer);
+      }
+    }
+
+    // pages in flight hold permits of the foundation, so wait for them even after a failure
+    while (completed < submitted) {
+      Future<FetchedPage<P>> done = take(completionService, resourceNamePluralized);
+      completed++;
+      if (failure == null) {
+        failure = accept(done, resources, consumer);
+      }
+    }
+
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private <P> P fetch(
+      String resourceNamePluralized, Function<Integer, Call<P>> fetchPage, Integer page) {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    boolean success = false;
+    try {
+      P result =
+          safelyCall(() -> fetchPage.apply(page))
+              .orElseThrow(
+                  () ->
+                      new CloudFoundryApiException("Unable to retrieve " + resourceNamePluralized));
+      success = true;
+      return result;
+    } finally {
+      sample.stop(
+          meterRegistry.timer(
+              "cf.api.pages",
+              "account",
+              account,
+              "resource",
+              resourceNamePluralized,
+              "success",
+              Boolean.toString(success)));
+    }
+  }
+
+  private void acquire(String resourceNamePluralized) {
+    await(
+        () -> pageRequests.tryAcquire() ? Boolean.TRUE : null,
+        () -> {
+          pageRequests.acquire();
+          return Boolean.TRUE;
+        },
+        resourceNamePluralized);
+  }
+
+  private static <P> Future<FetchedPage<P>> take(
+      CompletionService<FetchedPage<P>> completionService, String resourceNamePluralized) {
+    return await(completionService::poll, completionService::take, resourceNamePluralized);
+  }
+
+  private static <T> T await(Supplier<T> poll, Blocking<T> take, String resourceNamePluralized) {
+    ManagedWait<T> wait = new ManagedWait<>(poll, take);
+    try {
+      ForkJoinPool.managedBlock(wait);
+      return wait.result;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CloudFoundryApiException(e, "Interrupted fetching " + resourceNamePluralized);
+    }
+  }
+
+  /** @return the failure to fetch or consume the page, if any */
+  private static <P, R> RuntimeException accept(
+      Future<FetchedPage<P>> done,
+      Function<P, List<R>> resources,
+      BiConsumer<Integer, List<R>> consumer) {
+    try {
+      FetchedPage<P> fetched = done.get();
+      consumer.accept(fetched.number, resources.apply(fetched.page));
+      return null;
+    } catch (ExecutionException e) {
+      return e.getCause() instanceof RuntimeException
+          ? (RuntimeException) e.getCause()
+          : new CloudFoundryApiException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return new CloudFoundryApiException(e);
+    } catch (RuntimeException e) {
+      return e;
+    }
+  }
+
+  private interface Blocking<T> {
+    T get() throws InterruptedException;
+  }
+
+  private static class ManagedWait<T> implements ForkJoinPool.ManagedBlocker {
+    private final Supplier<T> poll;
+    private final Blocking<T> take;
+    private T result;
+
+    ManagedWait(Supplier<T> poll, Blocking<T> take) {
+      this.poll = poll;
+      this.take = take;
+    }
+
+    @Override
+    public boolean block() throws InterruptedException {
+      if (result == null) {
+        result = take.get();
+      }
+      return true;
+    }
+
+    @Override
+    public boolean isReleasable() {
+      if (result == null) {
+        result = poll.get();
+      }
+      return result != null;
+    }
+  }
+
+  private static class FetchedPage<P> {
+    private final int number;
+    private final P page;
+
+    FetchedPage(int number, P page) {
+      this.number = number;
+      this.page = page;
+    }
+  }
+
+  private static class PagesInOrder<R> implements BiConsumer<Integer, List<R>> {
+    private final List<List<R>> pages = new ArrayList<>();
+
+    @Override
+    public void accept(Integer page, List<R> resources) {
+      while (pages.size() < page) {
+        pages.add(null);
+      }
+      pages.set(page - 1, resources);
+    }
+
+    List<R> flatten() {
+      List<R> allResources = new ArrayList<>();
+      for (List<R> resources : pages) {
+        if (resources != null) {
+          allResources.addAll(resources);
+        }
+      }
+      return allResources;
+    }
+  }
+}
@@ -16,8 +16,8 @@
 
 package com.netflix.spinnaker.clouddriver.cloudfoundry.client;
 
-import static com.netflix.spinnaker.clouddriver.cloudfoundry.client.CloudFoundryClientUtils.collectPageResources;
 import static com.netflix.spinnaker.clouddriver.cloudfoundry.client.CloudFoundryClientUtils.safelyCall;
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singletonList;
 
@@ -29,15 +29,22 @@ import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.RouteId;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Resource;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Route;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.RouteMapping;
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v3.Relationship;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.config.CloudFoundryConfigurationProperties;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.model.CloudFoundryDomain;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.model.CloudFoundryLoadBalancer;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.model.CloudFoundryServerGroup;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.model.CloudFoundrySpace;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
@@ -60,7 +67,12 @@ public class Routes {
   private final Integer resultsPerPage;
 
   private final ForkJoinPool forkJoinPool;
+  private final PageCollector pageCollector;
   private final LoadingCache<String, List<RouteMapping>> routeMappings;
+  private final IncrementalSync incrementalSync;
+
+  /** The routes found by the previous listing, by guid. */
+  private volatile Map<String, Resource<Route>> routes = emptyMap();
 
   public Routes(
       String account,
@@ -70,6 +82,7 @@ public class Routes {
       Spaces spaces,
       Integer resultsPerPage,
       ForkJoinPool forkJoinPool,
+      PageCollector pageCollector,
       CloudFoundryConfigurationProperties.LocalCacheConfig localCacheConfig) {
     this.account = account;
     this.api = api;
@@ -78,6 +91,11 @@ public class Routes {
     this.spaces = spaces;
     this.resultsPerPage = resultsPerPage;
     this.forkJoinPool = forkJoinPool;
+    this.pageCollector = pageCollector;
+    this.incrementalSync =
+        new IncrementalSync(
+            localCacheConfig.isIncrementalSyncEnabled(),
+            Duration.ofSeconds(localCacheConfig.getFullResyncIntervalSeconds()));
 
     CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
     if (localCacheConfig.getRoutesAccessExpirySeconds() >= 0) {
@@ -93,7 +111,8 @@ public class Routes {
               @Override
               public List<RouteMapping> load(@Nonnull String guid)
                   throws CloudFoundryApiException, ResourceNotFoundException {
-                return collectPageResources("route mappings", pg -> api.routeMappings(guid, pg))
+                return pageCollector
+                    .collectPageResources("route mappings", pg -> api.routeMappings(guid, pg))
                     .stream()
                     .map(Resource::getEntity)
                     .collect(Collectors.toList());
@@ -148,7 +167,9 @@ public class Routes {
     if (routeId.getPath() != null) queryParams.add("path:" + routeId.getPath());
     if (routeId.getPort() != null) queryParams.add("port:" + routeId.getPort().toString());
 
-    return collectPageResources("route mappings", pg -> api.all(pg, 1, queryParams)).stream()
+    return pageCollector
+        .collectPageResources("route mappings", pg -> api.all(pg, 1, queryParams))
+        .stream()
         .filter(
             routeResource ->
                 (routeId.getPath() != null || routeResource.getEntity().getPath().isEmpty())
@@ -181,39 +202,112 @@ public class Routes {
   public List<CloudFoundryLoadBalancer> all(List<CloudFoundrySpace> spaces)
       throws CloudFoundryApiException {
     try {
-      if (!spaces.isEmpty()) {
-        List<String> spaceGuids =
-            spaces.stream().map(CloudFoundrySpace::getId).collect(Collectors.toList());
-        String orgFilter =
-            "organization_guid IN "
-                + spaces.stream()
-                    .map(s -> s.getOrganization().getId())
-                    .collect(Collectors.joining(","));
-        return forkJoinPool
-            .submit(
-                () ->
-                    collectPageResources(
-                            "routes", pg -> api.all(pg, resultsPerPage, singletonList(orgFilter)))
-                        .parallelStream()
-                        .map(this::map)
-                        .filter(lb -> spaceGuids.contains(lb.getSpace().getId()))
-                        .collect(Collectors.toList()))
-            .get();
+      List<String> spaceGuids =
+          spaces.stream().map(CloudFoundrySpace::getId).collect(Collectors.toList());
+      String orgGuids =
+          spaces.isEmpty()
+              ? null
+              : spaces.stream()
+                  .map(s -> s.getOrganization().getId())
+                  .distinct()
+                  .collect(Collectors.joining(","));
+
+      // when syncing incrementally, only the routes updated since the previous listing are
+      // fetched and merged into the ones it found
+      IncrementalSync.Listing listing = incrementalSync.start(orgGuids);
+      Map<String, Resource<Route>> routes;
+      Set<String> fetchedRoutes;
+      if (listing.isFull()) {
+        List<String> queryParams =
+            orgGuids == null ? null : singletonList("organization_guid IN " + orgGuids);
+        routes = new LinkedHashMap<>();
+        pageCollector
+            .collectPageResources("routes", pg -> api.all(pg, resultsPerPage, queryParams))
+            .forEach(route -> routes.put(route.getMetadata().getGuid(), route));
+        fetchedRoutes = routes.keySet();
       } else {
-        return forkJoinPool
-            .submit(
-                () ->
-                    collectPageResources("routes", pg -> api.all(pg, resultsPerPage, null))
-                        .parallelStream()
-                        .map(this::map)
-                        .collect(Collectors.toList()))
-            .get();
+        routes = new LinkedHashMap<>(this.routes);
+        fetchedRoutes = fetchUpdatedRoutes(listing, orgGuids, routes);
       }
+
+      // routes that weren't updated since the previous listing and whose mappings can't be found
+      // anymore have been deleted since
+      Set<String> vanishedRoutes = ConcurrentHashMap.newKeySet();
+      List<CloudFoundryLoadBalancer> loadBalancers =
+          forkJoinPool
+              .submit(
+                  () ->
+                      routes.values().parallelStream()
+                          .map(
+                              route -> {
+                                try {
+                                  return map(route);
+                                } catch (CloudFoundryApiException e) {
+                                  String guid = route.getMetadata().getGuid();
+                                  if (fetchedRoutes.contains(guid)
+                                      || safelyCall(() -> api.findById(guid)).isPresent()) {
+                                    throw e;
+                                  }
+                                  vanishedRoutes.add(guid);
+                                  return null;
+                                }
+                              })
+                          .filter(Objects::nonNull)
+                          .filter(
+                              lb -> spaces.isEmpty() || spaceGuids.contains(lb.getSpace().getId()))
+                          .collect(Collectors.toList()))
+              .get();
+
+      routes.keySet().removeAll(vanishedRoutes);
+      this.routes = routes;
+      incrementalSync.succeeded(listing);
+      return loadBalancers;
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
   }
 
+  /**
+   * Applies the routes updated since the previous listing to its routes. The v2 API can't filter
+   * routes by update time, so the updated routes are found with the v3 API and then fetched one by
+   * one.
+   *
+   * @return the guids of the updated routes
+   */
+  private Set<String> fetchUpdatedRoutes(
+      IncrementalSync.Listing listing,
+      @Nullable String orgGuids,
+      Map<String, Resource<Route>> routes)
+      throws ExecutionException, InterruptedException {
+    Set<String> updatedRouteGuids =
+        pageCollector
+            .collectPages(
+                "updated routes",
+                pg -> api.updatedSince(pg, resultsPerPage, orgGuids, listing.getUpdatedSince()))
+            .stream()
+            .map(Relationship::getGuid)
+            .collect(Collectors.toSet());
+
+    Map<String, Optional<Resource<Route>>> updatedRoutes =
+        forkJoinPool
+            .submit(
+                () ->
+                    updatedRouteGuids.parallelStream()
+                        .collect(
+                            Collectors.toMap(
+                                guid -> guid, guid -> safelyCall(() -> api.findById(guid)))))
+            .get();
+
+    log.debug(
+        "Fetched {} updated routes from foundation account {}", updatedRoutes.size(), account);
+
+    // routes that can't be found anymore have been deleted since they were updated
+    updatedRoutes.forEach(
+        (guid, route) ->
+            route.ifPresentOrElse(r -> routes.put(guid, r), () -> routes.remove(guid)));
+    return updatedRouteGuids;
+  }
+
   public CloudFoundryLoadBalancer createRoute(RouteId routeId, String spaceId)
       throws CloudFoundryApiException {
     Route route = new Route(routeId, spaceId);
@@ -35,6 +35,13 @@ public interface ApplicationService {
       @Query("names") List<String> names,
       @Query("space_guids") String spaceGuids);
 
+  @GET("/v3/apps")
+  Call<Pagination<Application>> updatedSince(
+      @Query("page") Integer page,
+      @Query("per_page") Integer perPage,
+      @Query("space_guids") String spaceGuids,
+      @Query("updated_ats[gt]") String updatedSince);
+
   @GET("/v3/apps/{guid}")
   Call<Application> findById(@Path("guid") String guid);
 
@@ -20,6 +20,8 @@ import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Page;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Resource;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Route;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.RouteMapping;
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v3.Pagination;
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v3.Relationship;
 import java.util.List;
 import okhttp3.ResponseBody;
 import retrofit2.Call;
@@ -34,6 +36,14 @@ public interface RouteService {
       @Query("per_page") Integer perPage,
       @Query("q") List<String> queryParams);
 
+  /** Only the guids of the routes are read, the v2 routes are still the source of truth. */
+  @GET("/v3/routes")
+  Call<Pagination<Relationship>> updatedSince(
+      @Query("page") Integer page,
+      @Query("per_page") Integer perPage,
+      @Query("organization_guids") String organizationGuids,
+      @Query("updated_ats[gt]") String updatedSince);
+
   @GET("/v2/routes/{guid}")
   Call<Resource<Route>> findById(@Path("guid") String guid);
 
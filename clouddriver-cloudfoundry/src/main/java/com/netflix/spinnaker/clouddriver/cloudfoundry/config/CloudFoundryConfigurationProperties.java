@@ -83,6 +83,12 @@ public class CloudFoundryConfigurationProperties implements DisposableBean {
     private int writeTimeout = 10000;
     private int readTimeout = 10000;
     private int maxRetries = 3;
+
+    /**
+     * Maximum number of pages of a paginated resource fetched at once from each foundation, after
+     * the first page.
+     */
+    private int maxConcurrentPageRequests = 10;
   }
 
   @Data
@@ -91,5 +97,17 @@ public class CloudFoundryConfigurationProperties implements DisposableBean {
     private long applicationsWriteExpirySeconds = 600;
     private long routesAccessExpirySeconds = -1;
     private long routesWriteExpirySeconds = 180;
+
+    /**
+     * List only the applications and routes updated since the previous caching cycle, rather than
+     * every application and route of the foundation.
+     */
+    private boolean incrementalSyncEnabled = false;
+
+    /**
+     * How often applications and routes are fully listed when syncing incrementally, to notice the
+     * ones that have been deleted.
+     */
+    private long fullResyncIntervalSeconds = 1800;
   }
 }
@@ -79,7 +79,8 @@ public class CloudFoundryProviderConfig {
       CacheRepository cacheRepository,
       CredentialsRepository<CloudFoundryCredentials> cloudFoundryCredentialsRepository,
       ForkJoinPool cloudFoundryThreadPool,
-      @Qualifier("cloudFoundryOkHttpClient") OkHttpClient okHttpClient) {
+      @Qualifier("cloudFoundryOkHttpClient") OkHttpClient okHttpClient,
+      MeterRegistry meterRegistry) {
 
     if (cloudFoundryCredentialSource == null) {
       cloudFoundryCredentialSource = configurationProperties::getAccounts;
@@ -104,7 +105,8 @@ public class CloudFoundryProviderConfig {
                 a.getSpaceFilter(),
                 okHttpClient,
                 configurationProperties.getClient(),
-                configurationProperties.getLocalCacheConfig()),
+                configurationProperties.getLocalCacheConfig(),
+                meterRegistry),
         cloudFoundryCredentialsRepository);
   }
 
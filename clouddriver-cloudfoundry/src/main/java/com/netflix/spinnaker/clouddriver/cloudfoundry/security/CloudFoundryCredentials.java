@@ -31,6 +31,7 @@ import com.netflix.spinnaker.clouddriver.cloudfoundry.config.CloudFoundryConfigu
 import com.netflix.spinnaker.clouddriver.cloudfoundry.model.CloudFoundrySpace;
 import com.netflix.spinnaker.clouddriver.security.AbstractAccountCredentials;
 import com.netflix.spinnaker.fiat.model.resources.Permissions;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.*;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
@@ -102,7 +103,8 @@ public class CloudFoundryCredentials extends AbstractAccountCredentials<CloudFou
       Map<String, Set<String>> spaceFilter,
       OkHttpClient okHttpClient,
       CloudFoundryConfigurationProperties.ClientConfig clientConfig,
-      CloudFoundryConfigurationProperties.LocalCacheConfig localCacheConfig) {
+      CloudFoundryConfigurationProperties.LocalCacheConfig localCacheConfig,
+      MeterRegistry meterRegistry) {
     this.name = name;
     this.appsManagerUri = appsManagerUri;
     this.metricsUri = metricsUri;
@@ -131,7 +133,8 @@ public class CloudFoundryCredentials extends AbstractAccountCredentials<CloudFou
             forkJoinPool,
             okHttpClient.newBuilder(),
             clientConfig,
-            localCacheConfig);
+            localCacheConfig,
+            meterRegistry);
     this.filteredSpaces = createFilteredSpaces(spaceFilter);
   }
 
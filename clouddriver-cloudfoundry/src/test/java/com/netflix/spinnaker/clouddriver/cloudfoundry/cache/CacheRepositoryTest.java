@@ -39,6 +39,7 @@ import com.netflix.spinnaker.clouddriver.cloudfoundry.model.*;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.provider.agent.CloudFoundryServerGroupCachingAgent;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.security.CloudFoundryCredentials;
 import com.netflix.spinnaker.clouddriver.model.HealthState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.List;
 import java.util.concurrent.ForkJoinPool;
 import okhttp3.OkHttpClient;
@@ -160,7 +161,8 @@ class CacheRepositoryTest {
         emptyMap(),
         new OkHttpClient(),
         new CloudFoundryConfigurationProperties.ClientConfig(),
-        new CloudFoundryConfigurationProperties.LocalCacheConfig());
+        new CloudFoundryConfigurationProperties.LocalCacheConfig(),
+        new SimpleMeterRegistry());
   }
 
   @Test
@@ -32,6 +32,7 @@ import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v3.Package;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v3.Process;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.config.CloudFoundryConfigurationProperties;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.model.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.vavr.collection.HashMap;
 import java.time.ZonedDateTime;
 import java.util.*;
@@ -60,6 +61,7 @@ class ApplicationsTest {
           resultsPerPage,
           true,
           ForkJoinPool.commonPool(),
+          new PageCollector("pws", ForkJoinPool.commonPool(), 10, new SimpleMeterRegistry()),
           new CloudFoundryConfigurationProperties.LocalCacheConfig());
   private final String spaceId = "space-guid";
   private final CloudFoundrySpace cloudFoundrySpace =
@@ -86,7 +88,8 @@ class ApplicationsTest {
             ForkJoinPool.commonPool(),
             new OkHttpClient().newBuilder(),
             new CloudFoundryConfigurationProperties.ClientConfig(),
-            new CloudFoundryConfigurationProperties.LocalCacheConfig());
+            new CloudFoundryConfigurationProperties.LocalCacheConfig(),
+            new SimpleMeterRegistry());
 
     assertThatThrownBy(() -> client.getApplications().all(emptyList()))
         .isInstanceOf(CloudFoundryApiException.class);
@@ -357,6 +360,61 @@ class ApplicationsTest {
     verify(applicationService, never()).findDropletByApplicationGuid(guid);
   }
 
+  @Test
+  void allListsOnlyUpdatedAppsWhenSyncingIncrementally() {
+    CloudFoundryConfigurationProperties.LocalCacheConfig localCacheConfig =
+        new CloudFoundryConfigurationProperties.LocalCacheConfig();
+    localCacheConfig.setIncrementalSyncEnabled(true);
+    Applications incrementalApps =
+        new Applications(
+            "pws",
+            "some-apps-man-uri",
+            "some-metrics-uri",
+            applicationService,
+            spaces,
+            processes,
+            resultsPerPage,
+            true,
+            ForkJoinPool.commonPool(),
+            new PageCollector("pws", ForkJoinPool.commonPool(), 10, new SimpleMeterRegistry()),
+            localCacheConfig);
+
+    Application application =
+        new Application()
+            .setCreatedAt(ZonedDateTime.now())
+            .setUpdatedAt(ZonedDateTime.now())
+            .setGuid("guid")
+            .setName("my-app-v000")
+            .setState("STARTED")
+            .setLinks(
+                HashMap.of("space", new Link().setHref("http://capi.io/space/space-guid"))
+                    .toJavaMap());
+
+    when(applicationService.all(any(), any(), any(), any()))
+        .thenReturn(
+            Calls.response(
+                Response.success(
+                    new Pagination<Application>()
+                        .setPagination(new Pagination.Details().setTotalPages(1))
+                        .setResources(Collections.singletonList(application)))));
+    when(applicationService.updatedSince(any(), any(), any(), any()))
+        .thenReturn(
+            Calls.response(
+                Response.success(
+                    new Pagination<Application>()
+                        .setPagination(new Pagination.Details().setTotalPages(1))
+                        .setResources(emptyList()))));
+    when(applicationService.findById(anyString())).thenReturn(Calls.response(application));
+    mockMap(cloudFoundrySpace, "droplet-guid");
+
+    assertThat(incrementalApps.all(List.of(spaceId))).hasSize(1);
+    // the app wasn't updated since, but is still on the foundation
+    assertThat(incrementalApps.all(List.of(spaceId))).hasSize(1);
+
+    verify(applicationService).all(null, resultsPerPage, null, spaceId);
+    verify(applicationService).updatedSince(eq(null), eq(resultsPerPage), eq(spaceId), anyString());
+  }
+
   @Test
   void getAppStateWhenProcessStateNotFound() {
     when(processes.getProcessState(anyString())).thenReturn(Optional.empty());
@@ -28,6 +28,7 @@ import com.github.tomakehurst.wiremock.matching.UrlPattern;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.CreateServiceBinding;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.config.CloudFoundryConfigurationProperties;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.model.CloudFoundryOrganization;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ForkJoinPool;
@@ -261,6 +262,7 @@ class HttpCloudFoundryClientTest {
         ForkJoinPool.commonPool(),
         new OkHttpClient.Builder(),
         clientConfig,
-        new CloudFoundryConfigurationProperties.LocalCacheConfig());
+        new CloudFoundryConfigurationProperties.LocalCacheConfig(),
+        new SimpleMeterRegistry());
   }
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.cloudfoundry.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class IncrementalSyncTest {
+  private final Clock clock = mock(Clock.class);
+  private final IncrementalSync incrementalSync =
+      new IncrementalSync(true, Duration.ofMinutes(30), clock);
+
+  @Test
+  void listsUpdatedResourcesSinceThePreviousSuccessfulListing() {
+    succeed(at("2026-01-01T10:00:00.500Z"), "space-guid");
+
+    IncrementalSync.Listing listing = start(at("2026-01-01T10:01:00Z"), "space-guid");
+    assertThat(listing.isFull()).isFalse();
+    assertThat(listing.getUpdatedSince()).isEqualTo("2026-01-01T09:59:30Z");
+
+    // a failed listing doesn't move the lower bound
+    assertThat(start(at("2026-01-01T10:02:00Z"), "space-guid").getUpdatedSince())
+        .isEqualTo("2026-01-01T09:59:30Z");
+  }
+
+  @Test
+  void listsEverythingFirstAndPeriodically() {
+    assertThat(start(at("2026-01-01T10:00:00Z"), null).isFull()).isTrue();
+
+    succeed(at("2026-01-01T10:00:00Z"), null);
+    succeed(at("2026-01-01T10:20:00Z"), null);
+    assertThat(start(at("2026-01-01T10:29:59Z"), null).isFull()).isFalse();
+    assertThat(start(at("2026-01-01T10:30:00Z"), null).isFull()).isTrue();
+  }
+
+  @Test
+  void listsEverythingWhenTheFilterChanges() {
+    succeed(at("2026-01-01T10:00:00Z"), "space-guid");
+
+    assertThat(start(at("2026-01-01T10:01:00Z"), "other-space-guid").isFull()).isTrue();
+  }
+
+  @Test
+  void listsEverythingWhenDisabled() {
+    IncrementalSync disabled = new IncrementalSync(false, Duration.ofMinutes(30), clock);
+    when(clock.instant()).thenReturn(at("2026-01-01T10:00:00Z"));
+    disabled.succeeded(disabled.start(null));
+
+    assertThat(disabled.start(null).isFull()).isTrue();
+  }
+
+  private IncrementalSync.Listing start(Instant now, String filter) {
+    when(clock.instant()).thenReturn(now);
+    return incrementalSync.start(filter);
+  }
+
+  private void succeed(Instant now, String filter) {
+    incrementalSync.succeeded(start(now, filter));
+  }
+
+  private static Instant at(String instant) {
+    return Instant.parse(instant);
+  }
+}
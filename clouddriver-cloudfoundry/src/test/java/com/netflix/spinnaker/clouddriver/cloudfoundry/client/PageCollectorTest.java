@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.cloudfoundry.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Page;
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Resource;
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v3.Pagination;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.mock.Calls;
+
+class PageCollectorTest {
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final PageCollector pageCollector =
+      new PageCollector("account", ForkJoinPool.commonPool(), 2, meterRegistry);
+
+  @Test
+  void collectPagesKeepsPageOrderWhenPagesArriveOutOfOrder() {
+    List<String> results =
+        pageCollector.collectPages(
+            "applications",
+            page -> {
+              int p = page == null ? 1 : page;
+              // the second page arrives last
+              return delayed(p == 2 ? 200 : 0, pagination(p, 5));
+            });
+
+    assertThat(results)
+        .containsExactly("resource-1", "resource-2", "resource-3", "resource-4", "resource-5");
+  }
+
+  @Test
+  void collectPageResourcesCollectsEveryPage() {
+    List<Resource<String>> results =
+        pageCollector.collectPageResources(
+            "routes", page -> Calls.response(Response.success(page(page == null ? 1 : page, 3))));
+
+    assertThat(results.stream().map(Resource::getEntity).collect(Collectors.toList()))
+        .containsExactly("resource-1", "resource-2", "resource-3");
+  }
+
+  @Test
+  void forEachPageHandsOverPagesAsTheyArrive() {
+    List<String> arrived = new ArrayList<>();
+    pageCollector.forEachPage(
+        "applications",
+        page -> {
+          int p = page == null ? 1 : page;
+          return delayed(p == 2 ? 200 : 0, pagination(p, 3));
+        },
+        arrived::addAll);
+
+    assertThat(arrived).containsExactly("resource-1", "resource-3", "resource-2");
+  }
+
+  @Test
+  void fetchesAtMostMaxConcurrentPagesAtOnce() {
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+
+    List<String> results =
+        pageCollector.collectPages(
+            "applications",
+            page ->
+                Calls.defer(
+                    () -> {
+                      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                      Thread.sleep(20);
+                      inFlight.decrementAndGet();
+                      return Calls.response(
+                          Response.success(pagination(page == null ? 1 : page, 10)));
+                    }));
+
+    assertThat(results).hasSize(10);
+    assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+  }
+
+  @Test
+  void collectsPagesFromATaskOfItsOwnPool() throws Exception {
+    ForkJoinPool pool = new ForkJoinPool(1);
+    try {
+      PageCollector singleThreaded = new PageCollector("account", pool, 1, meterRegistry);
+
+      // the only thread of the pool waits for pages that have to be fetched on the pool
+      List<String> results =
+          pool.submit(
+                  () ->
+                      singleThreaded.collectPages(
+                          "applications",
+                          page ->
+                              Calls.response(
+                                  Response.success(pagination(page == null ? 1 : page, 4)))))
+              .get(10, TimeUnit.SECONDS);
+
+      assertThat(results).hasSize(4);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void propagatesTheFailureOfAPage() {
+    assertThatThrownBy(
+            () ->
+                pageCollector.collectPages(
+                    "applications",
+                    page ->
+                        page != null && page == 3
+                            ? Calls.failure(new IOException("boom"))
+                            : Calls.response(
+                                Response.success(pagination(page == null ? 1 : page, 5)))))
+        .isInstanceOf(CloudFoundryApiException.class);
+
+    // the permits of the failed collection are all given back
+    assertThat(
+            pageCollector.collectPages(
+                "applications",
+                page -> Calls.response(Response.success(pagination(page == null ? 1 : page, 4)))))
+        .hasSize(4);
+  }
+
+  @Test
+  void recordsTheLatencyOfEveryPage() {
+    pageCollector.collectPages(
+        "applications",
+        page -> Calls.response(Response.success(pagination(page == null ? 1 : page, 4))));
+
+    assertThat(
+            meterRegistry
+                .get("cf.api.pages")
+                .tag("account", "account")
+                .tag("resource", "applications")
+                .tag("success", "true")
+                .timer()
+                .count())
+        .isEqualTo(4);
+  }
+
+  private static Pagination<String> pagination(int page, int totalPages) {
+    Pagination<String> pagination = new Pagination<>();
+    pagination.setPagination(new Pagination.Details().setTotalPages(totalPages));
+    pagination.setResources(Collections.singletonList("resource-" + page));
+    return pagination;
+  }
+
+  private static Page<String> page(int page, int totalPages) {
+    return Page.singleton("resource-" + page, "guid-" + page).setTotalPages(totalPages);
+  }
+
+  private static <T> Call<T> delayed(long millis, T body) {
+    return Calls.defer(
+        () -> {
+          Thread.sleep(millis);
+          return Calls.response(Response.success(body));
+        });
+  }
+}
@@ -21,6 +21,9 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.api.RouteService;
@@ -29,19 +32,34 @@ import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Page;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Resource;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.Route;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v2.RouteMapping;
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v3.Pagination;
+import com.netflix.spinnaker.clouddriver.cloudfoundry.client.model.v3.Relationship;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.config.CloudFoundryConfigurationProperties;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.model.CloudFoundryDomain;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.model.CloudFoundryLoadBalancer;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.model.CloudFoundryOrganization;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.model.CloudFoundrySpace;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
 import org.junit.jupiter.api.Test;
+import retrofit2.Call;
 import retrofit2.Response;
 import retrofit2.mock.Calls;
 
 class RoutesTest {
+  private static final CloudFoundrySpace SPACE =
+      CloudFoundrySpace.builder()
+          .organization(CloudFoundryOrganization.builder().id("org-guid").name("org").build())
+          .name("space")
+          .id("space-guid")
+          .build();
+
   @Test
   void toRouteId() {
     CloudFoundryDomain domain =
@@ -75,6 +93,7 @@ class RoutesTest {
             spaces,
             500,
             ForkJoinPool.commonPool(),
+            new PageCollector("pws", ForkJoinPool.commonPool(), 10, new SimpleMeterRegistry()),
             new CloudFoundryConfigurationProperties.LocalCacheConfig());
     RouteId routeId = routes.toRouteId("demo1-prod.apps.calabasas.cf-app.com/path/v1.0");
     assertThat(routeId).isNotNull();
@@ -94,6 +113,7 @@ class RoutesTest {
             null,
             500,
             ForkJoinPool.commonPool(),
+            new PageCollector("pws", ForkJoinPool.commonPool(), 10, new SimpleMeterRegistry()),
             new CloudFoundryConfigurationProperties.LocalCacheConfig());
     assertNull(routes.toRouteId("demo1-pro cf-app.com/path"));
   }
@@ -165,6 +185,7 @@ class RoutesTest {
             spaces,
             500,
             ForkJoinPool.commonPool(),
+            new PageCollector("pws", ForkJoinPool.commonPool(), 10, new SimpleMeterRegistry()),
             new CloudFoundryConfigurationProperties.LocalCacheConfig());
 
     CloudFoundryLoadBalancer loadBalancer =
@@ -189,6 +210,150 @@ class RoutesTest {
     assertThat(loadBalancer.getPort()).isNull();
   }
 
+  @Test
+  void allAppliesTheRoutesUpdatedSinceThePreviousListing() {
+    RouteService routeService = incrementalRouteService("route-1", "route-2");
+    Routes routes = incrementalRoutes(routeService);
+    assertThat(hosts(routes.all(List.of(SPACE)))).containsExactlyInAnyOrder("host-1", "host-2");
+
+    when(routeService.updatedSince(any(), any(), eq("org-guid"), any()))
+        .thenAnswer(invocation -> Calls.response(Response.success(updatedRoutes("route-1"))));
+    when(routeService.findById("route-1"))
+        .thenAnswer(
+            invocation -> Calls.response(Response.success(routeResource("route-1", "renamed"))));
+
+    assertThat(hosts(routes.all(List.of(SPACE)))).containsExactlyInAnyOrder("renamed", "host-2");
+    verify(routeService, times(1)).all(any(), any(), any());
+  }
+
+  @Test
+  void allRemovesUpdatedRoutesThatHaveBeenDeleted() {
+    RouteService routeService = incrementalRouteService("route-1", "route-2");
+    Routes routes = incrementalRoutes(routeService);
+    routes.all(List.of(SPACE));
+
+    when(routeService.updatedSince(any(), any(), eq("org-guid"), any()))
+        .thenAnswer(invocation -> Calls.response(Response.success(updatedRoutes("route-1"))));
+    when(routeService.findById("route-1")).thenAnswer(invocation -> notFound());
+
+    assertThat(hosts(routes.all(List.of(SPACE)))).containsExactly("host-2");
+    verify(routeService, times(1)).all(any(), any(), any());
+  }
+
+  @Test
+  void allRemovesUnchangedRoutesWhoseMappingsVanished() {
+    RouteService routeService = incrementalRouteService("route-1", "route-2");
+    Routes routes = incrementalRoutes(routeService);
+    routes.all(List.of(SPACE));
+
+    when(routeService.updatedSince(any(), any(), eq("org-guid"), any()))
+        .thenAnswer(invocation -> Calls.response(Response.success(updatedRoutes())));
+    when(routeService.routeMappings(eq("route-2"), any())).thenAnswer(invocation -> notFound());
+    when(routeService.findById("route-2")).thenAnswer(invocation -> notFound());
+
+    assertThat(hosts(routes.all(List.of(SPACE)))).containsExactly("host-1");
+    // the route stays gone from the listings after it
+    assertThat(hosts(routes.all(List.of(SPACE)))).containsExactly("host-1");
+  }
+
+  @Test
+  void allListsEveryRouteWhenTheOrganizationsChange() {
+    RouteService routeService = incrementalRouteService("route-1", "route-2");
+    Routes routes = incrementalRoutes(routeService);
+    routes.all(List.of(SPACE));
+
+    CloudFoundrySpace otherSpace =
+        CloudFoundrySpace.builder()
+            .organization(
+                CloudFoundryOrganization.builder().id("other-org-guid").name("other-org").build())
+            .name("other-space")
+            .id("other-space-guid")
+            .build();
+    routes.all(List.of(SPACE, otherSpace));
+
+    verify(routeService).all(any(), any(), eq(List.of("organization_guid IN org-guid")));
+    verify(routeService)
+        .all(any(), any(), eq(List.of("organization_guid IN org-guid,other-org-guid")));
+    verify(routeService, never()).updatedSince(any(), any(), any(), any());
+  }
+
+  /** A route service whose full listing finds the given routes, none of them mapped to apps. */
+  private static RouteService incrementalRouteService(String... routeGuids) {
+    Page<Route> routePage = new Page<>();
+    routePage.setTotalPages(1);
+    routePage.setTotalResults(routeGuids.length);
+    routePage.setResources(
+        Arrays.stream(routeGuids)
+            .map(guid -> routeResource(guid, guid.replace("route", "host")))
+            .collect(Collectors.toList()));
+
+    Page<RouteMapping> routeMappingPage = new Page<>();
+    routeMappingPage.setTotalPages(1);
+
+    RouteService routeService = mock(RouteService.class);
+    when(routeService.all(any(), any(), any()))
+        .thenAnswer(invocation -> Calls.response(Response.success(routePage)));
+    when(routeService.routeMappings(any(), any()))
+        .thenAnswer(invocation -> Calls.response(Response.success(routeMappingPage)));
+    return routeService;
+  }
+
+  /** Routes syncing incrementally, which load the mappings of every route on every listing. */
+  private static Routes incrementalRoutes(RouteService routeService) {
+    CloudFoundryDomain domain =
+        CloudFoundryDomain.builder().id("domain-guid").name("apps.example.com").build();
+    Domains domains = mock(Domains.class);
+    when(domains.findById("domain-guid")).thenReturn(domain);
+    Spaces spaces = mock(Spaces.class);
+    when(spaces.findById("space-guid")).thenReturn(SPACE);
+
+    CloudFoundryConfigurationProperties.LocalCacheConfig localCacheConfig =
+        new CloudFoundryConfigurationProperties.LocalCacheConfig();
+    localCacheConfig.setIncrementalSyncEnabled(true);
+    localCacheConfig.setRoutesWriteExpirySeconds(0);
+
+    return new Routes(
+        "pws",
+        routeService,
+        null,
+        domains,
+        spaces,
+        500,
+        ForkJoinPool.commonPool(),
+        new PageCollector("pws", ForkJoinPool.commonPool(), 10, new SimpleMeterRegistry()),
+        localCacheConfig);
+  }
+
+  private static Resource<Route> routeResource(String guid, String host) {
+    return new Resource<Route>()
+        .setEntity(
+            new Route(
+                new RouteId().setHost(host).setDomainGuid("domain-guid").setPath(""),
+                "space-guid"))
+        .setMetadata(new Resource.Metadata().setGuid(guid));
+  }
+
+  private static Pagination<Relationship> updatedRoutes(String... routeGuids) {
+    Pagination.Details details = new Pagination.Details();
+    details.setTotalPages(1);
+    Pagination<Relationship> pagination = new Pagination<>();
+    pagination.setPagination(details);
+    pagination.setResources(
+        Arrays.stream(routeGuids).map(Relationship::new).collect(Collectors.toList()));
+    return pagination;
+  }
+
+  private static <T> Call<T> notFound() {
+    return Calls.response(
+        Response.error(404, ResponseBody.create(MediaType.get("application/json"), "{}")));
+  }
+
+  private static List<String> hosts(List<CloudFoundryLoadBalancer> loadBalancers) {
+    return loadBalancers.stream()
+        .map(CloudFoundryLoadBalancer::getHost)
+        .collect(Collectors.toList());
+  }
+
   private Resource<Route> createRouteResource(Route route) {
     return new Resource<Route>()
         .setEntity(route)
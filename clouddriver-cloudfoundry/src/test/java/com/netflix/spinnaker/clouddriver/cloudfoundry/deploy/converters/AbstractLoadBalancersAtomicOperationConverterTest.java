@@ -38,6 +38,7 @@ import com.netflix.spinnaker.clouddriver.cloudfoundry.security.CloudFoundryCrede
 import com.netflix.spinnaker.clouddriver.orchestration.AtomicOperation;
 import com.netflix.spinnaker.credentials.CredentialsRepository;
 import com.netflix.spinnaker.credentials.MapBackedCredentialsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.vavr.collection.HashMap;
 import io.vavr.collection.List;
 import java.util.Collections;
@@ -107,7 +108,8 @@ class AbstractLoadBalancersAtomicOperationConverterTest {
           emptyMap(),
           new OkHttpClient(),
           new CloudFoundryConfigurationProperties.ClientConfig(),
-          new CloudFoundryConfigurationProperties.LocalCacheConfig()) {
+          new CloudFoundryConfigurationProperties.LocalCacheConfig(),
+          new SimpleMeterRegistry()) {
         public CloudFoundryClient getClient() {
           return cloudFoundryClient;
         }
@@ -33,6 +33,7 @@ import com.netflix.spinnaker.clouddriver.cloudfoundry.provider.CloudFoundryProvi
 import com.netflix.spinnaker.clouddriver.cloudfoundry.security.CloudFoundryCredentials;
 import com.netflix.spinnaker.credentials.CredentialsRepository;
 import com.netflix.spinnaker.credentials.MapBackedCredentialsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.vavr.collection.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -74,7 +75,8 @@ class CreateCloudFoundryServiceKeyAtomicOperationConverterTest {
           emptyMap(),
           new OkHttpClient(),
           new CloudFoundryConfigurationProperties.ClientConfig(),
-          new CloudFoundryConfigurationProperties.LocalCacheConfig()) {
+          new CloudFoundryConfigurationProperties.LocalCacheConfig(),
+          new SimpleMeterRegistry()) {
         public CloudFoundryClient getClient() {
           return cloudFoundryClient;
         }
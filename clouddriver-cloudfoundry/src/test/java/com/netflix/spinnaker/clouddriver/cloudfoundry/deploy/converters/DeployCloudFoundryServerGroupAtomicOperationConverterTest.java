@@ -42,6 +42,7 @@ import com.netflix.spinnaker.clouddriver.cloudfoundry.security.CloudFoundryCrede
 import com.netflix.spinnaker.credentials.CredentialsRepository;
 import com.netflix.spinnaker.credentials.MapBackedCredentialsRepository;
 import com.netflix.spinnaker.credentials.NoopCredentialsLifecycleHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -107,7 +108,8 @@ class DeployCloudFoundryServerGroupAtomicOperationConverterTest {
         emptyMap(),
         new OkHttpClient(),
         new CloudFoundryConfigurationProperties.ClientConfig(),
-        new CloudFoundryConfigurationProperties.LocalCacheConfig()) {
+        new CloudFoundryConfigurationProperties.LocalCacheConfig(),
+        new SimpleMeterRegistry()) {
       public CloudFoundryClient getClient() {
         return cloudFoundryClient;
       }
@@ -42,6 +42,7 @@ import com.netflix.spinnaker.clouddriver.cloudfoundry.security.CloudFoundryCrede
 import com.netflix.spinnaker.credentials.CredentialsRepository;
 import com.netflix.spinnaker.credentials.MapBackedCredentialsRepository;
 import com.netflix.spinnaker.credentials.NoopCredentialsLifecycleHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.*;
 import java.util.concurrent.ForkJoinPool;
 import javax.annotation.Nullable;
@@ -94,7 +95,8 @@ class DeployCloudFoundryServiceAtomicOperationConverterTest {
           emptyMap(),
           new OkHttpClient(),
           new CloudFoundryConfigurationProperties.ClientConfig(),
-          new CloudFoundryConfigurationProperties.LocalCacheConfig()) {
+          new CloudFoundryConfigurationProperties.LocalCacheConfig(),
+          new SimpleMeterRegistry()) {
         public CloudFoundryClient getClient() {
           return cloudFoundryClient;
         }
@@ -36,6 +36,7 @@ import com.netflix.spinnaker.clouddriver.cloudfoundry.client.MockCloudFoundryCli
 import com.netflix.spinnaker.clouddriver.cloudfoundry.config.CloudFoundryConfigurationProperties;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.model.CloudFoundryOrganization;
 import com.netflix.spinnaker.clouddriver.cloudfoundry.model.CloudFoundrySpace;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -180,7 +181,8 @@ public class CloudFoundryCredentialsTest {
         emptyMap(),
         new OkHttpClient(),
         new CloudFoundryConfigurationProperties.ClientConfig(),
-        new CloudFoundryConfigurationProperties.LocalCacheConfig()) {
+        new CloudFoundryConfigurationProperties.LocalCacheConfig(),
+        new SimpleMeterRegistry()) {
       public CloudFoundryClient getClient() {
         return cloudFoundryClient;
       }
@@ -33,7 +33,6 @@ import javax.annotation.PostConstruct
 import java.util.concurrent.Executors
 import java.util.concurrent.ScheduledExecutorService
 import java.util.concurrent.TimeUnit
-import java.util.concurrent.atomic.AtomicReference
 
 import static com.netflix.spinnaker.clouddriver.cache.SearchableProvider.SearchableResource
 
@@ -52,9 +51,7 @@ class CatsSearchProvider implements SearchProvider, Runnable {
 
 
 
-  private final AtomicReference<Map<String, Collection<String>>> cachedIdentifiersByType = new AtomicReference(
-    [:]
-  )
+  private final CacheKeySearchIndex searchIndex
 
   private final FiatPermissionEvaluator permissionEvaluator
   private final List<KeyParser> keyParsers
@@ -87,6 +84,8 @@ class CatsSearchProvider implements SearchProvider, Runnable {
       return mappings
     }
 
+    searchIndex = new CacheKeySearchIndex(catsInMemorySearchProperties.maxIndexSizeMb * 1024 * 1024)
+
     if (catsInMemorySearchProperties.enabled) {
       scheduledExecutorService =
         Executors.newScheduledThreadPool(
@@ -115,30 +114,38 @@ class CatsSearchProvider implements SearchProvider, Runnable {
   /**
    * Periodically refresh cache identifiers that can then be searched over in-memory vs. in-redis.
    *
-   * This is beneficial for sets (like instances) that may have hundreds of thousands of keys.
+   * This is beneficial for sets (like instances) that may have hundreds of thousands of keys. Only the identifiers
+   * that changed since the previous refresh are added to or removed from the search index.
    */
   @Override
   void run() {
-    try {
-      log.info("Refreshing Cached Identifiers (instances)")
-      def instanceIdentifiers = providers.findAll { provider ->
-        provider.supportsSearch('instances', Collections.emptyMap())
-      }.collect { provider ->
-        def cache = providerRegistry.getProviderCache(provider.getProviderName())
-        return cache.getIdentifiers("instances").findResults { key ->
-          // Even though we don't need the parsed Map, we should still allow the provider to reject invalid keys
-          if (provider.parseKey(key))
-            return key?.toLowerCase()
+    catsInMemorySearchProperties.indexedTypes.each { String type ->
+      try {
+        log.info("Refreshing Cached Identifiers (${type})")
+        def identifiers = providers.findAll { provider ->
+          provider.supportsSearch(type, Collections.emptyMap())
+        }.collect { provider ->
+          def cache = providerRegistry.getProviderCache(provider.getProviderName())
+          return cache.getIdentifiers(type).findResults { key ->
+            // Even though we don't need the parsed Map, we should still allow the provider to reject invalid keys
+            if (provider.parseKey(key))
+              return key
+          }
+        }.flatten()
+
+        if (identifiers) {
+          if (!searchIndex.reconcile(type, identifiers)) {
+            log.warn(
+              "Unable to index ${identifiers.size()} ${type} within ${catsInMemorySearchProperties.maxIndexSizeMb}MB, " +
+                "falling back to cache lookups"
+            )
+          }
         }
-      }.flatten()
 
-      if (instanceIdentifiers) {
-        cachedIdentifiersByType.set(["instances": instanceIdentifiers])
+        log.info("Refreshed Cached Identifiers (found ${identifiers.size()} ${type}, index size: ${searchIndex.bytesHeld()} bytes)")
+      } catch (Exception e) {
+        log.error("Unable to refresh cached identifiers (${type})", e)
       }
-
-      log.info("Refreshed Cached Identifiers (found ${instanceIdentifiers.size()} instances)")
-    } catch (Exception e) {
-      log.error("Unable to refresh cached identifiers (instances)", e)
     }
   }
 
@@ -283,18 +290,14 @@ class CatsSearchProvider implements SearchProvider, Runnable {
         }
       }
 
-      def identifiers
-      def cached = cachedIdentifiersByType.get()
-      if (cached.containsKey(cache)) {
-        /**
-         * Attempt an exact match of the query against any attribute of an instance key (account, region, etc.).
-         *
-         * This is not 100% consistent with doing `*:${cache}:*${normalizedWord}*` in redis _but_ for instances it
-         * should be sufficient.
-         */
-        def identifiersForCache = cached.get(cache)
-        identifiers = identifiersForCache.findAll { it.contains(normalizedWord) }
-      } else {
+      /**
+       * Attempt an exact match of the query against any attribute of an indexed key (account, region, etc.).
+       *
+       * This is not 100% consistent with doing `*:${cache}:*${normalizedWord}*` in redis _but_ for instances it
+       * should be sufficient. Types that are not (or no longer) indexed are searched in the cache instead.
+       */
+      def identifiers = searchIndex.find(cache, normalizedWord)
+      if (identifiers == null) {
         List<SearchableProvider> validProviders = providers.findAll { it.supportsSearch(cache, filters) }
         identifiers = new HashSet<>()
         for (SearchableProvider sp : validProviders) {
@@ -72,6 +72,18 @@ class SpectatorRedisCacheMetrics implements CacheMetrics {
     registry.counter(id("cats.redisCache.get", "mgetOperations", tags)).increment(mgetOperations)
   }
 
+  @Override
+  void getAllByType(String prefix,
+                    int typeCount, int itemCount, int mgetOperations,
+                    int roundTrips, int roundTripsSaved) {
+    final Iterable<Tag> tags = [new BasicTag("prefix", prefix)]
+    registry.counter(id("cats.redisCache.getAllByType", "typeCount", tags)).increment(typeCount)
+    registry.counter(id("cats.redisCache.getAllByType", "itemCount", tags)).increment(itemCount)
+    registry.counter(id("cats.redisCache.getAllByType", "mgetOperations", tags)).increment(mgetOperations)
+    registry.counter(id("cats.redisCache.getAllByType", "roundTrips", tags)).increment(roundTrips)
+    registry.counter(id("cats.redisCache.getAllByType", "roundTripsSaved", tags)).increment(roundTripsSaved)
+  }
+
   private Id id(String metricGroup, String metric, Iterable<Tag> tags) {
     return registry.createId(metricGroup + '.' + metric, tags)
   }
@@ -51,8 +51,11 @@ class RedisConfig {
 
   @Bean
   @ConditionalOnExpression('${redis.task-repository.enabled:true}')
-  TaskRepository taskRepository(RedisClientDelegate redisClientDelegate, Optional<RedisClientDelegate> redisClientDelegatePrevious) {
-    new RedisTaskRepository(redisClientDelegate, redisClientDelegatePrevious)
+  TaskRepository taskRepository(RedisClientDelegate redisClientDelegate,
+                                Optional<RedisClientDelegate> redisClientDelegatePrevious,
+                                RedisConfigurationProperties redisConfigurationProperties) {
+    new RedisTaskRepository(
+      redisClientDelegate, redisClientDelegatePrevious, redisConfigurationProperties.taskRepository.compactHistory)
   }
 
   @Bean
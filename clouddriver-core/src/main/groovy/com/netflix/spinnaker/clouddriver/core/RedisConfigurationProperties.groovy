@@ -38,12 +38,26 @@ class RedisConfigurationProperties {
     Integer agentLockAcquisitionIntervalSeconds
   }
 
+  @Canonical
+  static class TaskRepositoryConfiguration {
+    boolean enabled = true
+
+    /**
+     * Writes task history entries in a compact encoding rather than JSON. Every instance sharing the
+     * redis must understand the compact encoding before this is turned on.
+     */
+    boolean compactHistory = false
+  }
+
   @NestedConfigurationProperty
   final PollConfiguration poll = new PollConfiguration()
 
   @NestedConfigurationProperty
   final AgentConfiguration agent = new AgentConfiguration()
 
+  @NestedConfigurationProperty
+  final TaskRepositoryConfiguration taskRepository = new TaskRepositoryConfiguration()
+
   String connection = "redis://localhost:6379"
   String connectionPrevious = null
 
@@ -23,6 +23,7 @@ import com.netflix.spinnaker.cats.agent.DefaultAgentScheduler;
 import com.netflix.spinnaker.cats.agent.ExecutionInstrumentation;
 import com.netflix.spinnaker.cats.cache.Cache;
 import com.netflix.spinnaker.cats.cache.NamedCacheFactory;
+import com.netflix.spinnaker.cats.mem.CompactInMemoryCache;
 import com.netflix.spinnaker.cats.mem.InMemoryNamedCacheFactory;
 import com.netflix.spinnaker.cats.module.CatsModule;
 import com.netflix.spinnaker.cats.provider.Provider;
@@ -32,6 +33,7 @@ import com.netflix.spinnaker.fiat.shared.FiatPermissionEvaluator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -47,7 +49,11 @@ import org.springframework.context.annotation.Configuration;
 public class CacheConfig {
   @Bean
   @ConditionalOnMissingBean(NamedCacheFactory.class)
-  NamedCacheFactory namedCacheFactory() {
+  NamedCacheFactory namedCacheFactory(
+      @Value("${caching.in-memory.compact:false}") boolean compactInMemoryCache) {
+    if (compactInMemoryCache) {
+      return new InMemoryNamedCacheFactory(CompactInMemoryCache::new);
+    }
     return new InMemoryNamedCacheFactory();
   }
 
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.clouddriver.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.Nullable;
+
+/**
+ * A trigram index over cache keys, used by {@link CatsSearchProvider} to answer substring queries
+ * without scanning every key.
+ *
+ * <p>Keys are added and removed individually (see {@link #reconcile(String, Collection)}), so the
+ * index never has to be rebuilt. A query of three or more characters intersects the posting lists
+ * of its trigrams and only verifies the surviving candidates; shorter queries fall back to a scan.
+ *
+ * <p>The estimated size of the index is bounded by {@code maxBytes}. A type whose keys would exceed
+ * the budget is dropped from the index, and callers are expected to search it some other way. It is
+ * only indexed again once it has fewer keys than when it last did not fit.
+ */
+public class CacheKeySearchIndex {
+  private static final int GRAM_LENGTH = 3;
+
+  // Rough per-object overheads: a compact String, a HashMap node, a key slot and a posting list.
+  private static final int STRING_OVERHEAD_BYTES = 56;
+  private static final int MAP_ENTRY_OVERHEAD_BYTES = 48;
+  private static final int KEY_SLOT_BYTES = 8;
+  private static final int POSTING_LIST_OVERHEAD_BYTES = 96;
+
+  private final long maxBytes;
+  private final AtomicLong bytesHeld = new AtomicLong();
+  private final Map<String, TypeIndex> indexes = new ConcurrentHashMap<>();
+  private final Map<String, Integer> overBudgetKeyCounts = new ConcurrentHashMap<>();
+
+  public CacheKeySearchIndex(long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Brings the index for {@code type} in line with {@code keys}, adding and removing only the keys
+   * that changed since the last call.
+   *
+   * @return false if the keys do not fit in the memory budget, in which case the type is no longer
+   *     indexed
+   */
+  public boolean reconcile(String type, Collection<String> keys) {
+    Integer overBudgetKeyCount = overBudgetKeyCounts.get(type);
+    if (overBudgetKeyCount != null && keys.size() >= overBudgetKeyCount) {
+      return false;
+    }
+
+    Set<String> current = new HashSet<>(keys.size());
+    for (String key : keys) {
+      current.add(key.toLowerCase());
+    }
+
+    TypeIndex index = indexes.computeIfAbsent(type, t -> new TypeIndex());
+    index.lock.writeLock().lock();
+    try {
+      List<String> removed = new ArrayList<>();
+      for (String key : index.idsByKey.keySet()) {
+        if (!current.contains(key)) {
+          removed.add(key);
+        }
+      }
+      removed.forEach(index::remove);
+      current.removeAll(index.idsByKey.keySet());
+
+      for (String key : current) {
+        if (bytesHeld.get() + estimateWeight(key) > maxBytes) {
+          drop(type);
+          overBudgetKeyCounts.put(type, keys.size());
+          return false;
+        }
+        index.add(key);
+      }
+      overBudgetKeyCounts.remove(type);
+      return true;
+    } finally {
+      index.lock.writeLock().unlock();
+    }
+  }
+
+  public boolean isIndexed(String type) {
+    return indexes.containsKey(type);
+  }
+
+  /**
+   * Returns the (lower-cased) keys of {@code type} containing {@code query}. They are not ranked,
+   * callers order the matches of every type together.
+   *
+   * @return null if {@code type} is not indexed, including when it was dropped while being queried
+   */
+  @Nullable
+  public List<String> find(String type, String query) {
+    TypeIndex index = indexes.get(type);
+    if (index == null) {
+      return null;
+    }
+    String normalizedQuery = query.toLowerCase();
+    index.lock.readLock().lock();
+    try {
+      return index.dropped ? null : index.find(normalizedQuery);
+    } finally {
+      index.lock.readLock().unlock();
+    }
+  }
+
+  public Set<String> keys(String type) {
+    TypeIndex index = indexes.get(type);
+    if (index == null) {
+      return Collections.emptySet();
+    }
+    index.lock.readLock().lock();
+    try {
+      return new HashSet<>(index.idsByKey.keySet());
+    } finally {
+      index.lock.readLock().unlock();
+    }
+  }
+
+  public long bytesHeld() {
+    return bytesHeld.get();
+  }
+
+  private void drop(String type) {
+    TypeIndex index = indexes.remove(type);
+    if (index != null) {
+      index.dropped = true;
+      bytesHeld.addAndGet(-index.bytes);
+    }
+  }
+
+  private static long estimateWeight(String key) {
+    return STRING_OVERHEAD_BYTES
+        + key.length()
+        + MAP_ENTRY_OVERHEAD_BYTES
+        + KEY_SLOT_BYTES
+        + (long) Integer.BYTES * Math.max(0, key.length() - GRAM_LENGTH + 1);
+  }
+
+  private static Set<Long> grams(String value) {
+    Set<Long> grams = new HashSet<>();
+    for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+      grams.add(
+          ((long) value.charAt(i) << 32)
+              | ((long) value.charAt(i + 1) << 16)
+              | (long) value.charAt(i + 2));
+    }
+    return grams;
+  }
+
+  private class TypeIndex {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> idsByKey = new HashMap<>();
+    private final List<String> keysById = new ArrayList<>();
+    private final List<Integer> freeIds = new ArrayList<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private long bytes;
+    private boolean dropped;
+
+    void add(String key) {
+      int id;
+      if (freeIds.isEmpty()) {
+        id = keysById.size();
+        keysById.add(key);
+      } else {
+        id = freeIds.remove(freeIds.size() - 1);
+        keysById.set(id, key);
+      }
+      idsByKey.put(key, id);
+
+      long weight = estimateWeight(key);
+      for (Long gram : grams(key)) {
+        PostingList postingList = postings.get(gram);
+        if (postingList == null) {
+          postingList = new PostingList();
+          postings.put(gram, postingList);
+          weight += POSTING_LIST_OVERHEAD_BYTES;
+        }
+        postingList.add(id);
+      }
+      bytes += weight;
+      bytesHeld.addAndGet(weight);
+    }
+
+    void remove(String key) {
+      Integer id = idsByKey.remove(key);
+      if (id == null) {
+        return;
+      }
+      keysById.set(id, null);
+      freeIds.add(id);
+
+      long weight = estimateWeight(key);
+      for (Long gram : grams(key)) {
+        PostingList postingList = postings.get(gram);
+        if (postingList != null && postingList.remove(id) && postingList.size == 0) {
+          postings.remove(gram);
+          weight += POSTING_LIST_OVERHEAD_BYTES;
+        }
+      }
+      bytes -= weight;
+      bytesHeld.addAndGet(-weight);
+    }
+
+    List<String> find(String query) {
+      List<String> matches = new ArrayList<>();
+      if (query.length() < GRAM_LENGTH) {
+        for (String key : idsByKey.keySet()) {
+          if (key.contains(query)) {
+            matches.add(key);
+          }
+        }
+        return matches;
+      }
+
+      List<PostingList> lists = new ArrayList<>();
+      for (Long gram : grams(query)) {
+        PostingList postingList = postings.get(gram);
+        if (postingList == null) {
+          return matches;
+        }
+        lists.add(postingList);
+      }
+      lists.sort(Comparator.comparingInt(p -> p.size));
+
+      int[] candidates = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+      int candidateCount = candidates.length;
+      for (int i = 1; i < lists.size() && candidateCount > 0; i++) {
+        candidateCount = lists.get(i).retainAll(candidates, candidateCount);
+      }
+
+      // trigrams only narrow the candidates down; they need not be adjacent in the key
+      for (int i = 0; i < candidateCount; i++) {
+        String key = keysById.get(candidates[i]);
+        if (key.contains(query)) {
+          matches.add(key);
+        }
+      }
+      return matches;
+    }
+  }
+
+  /** A sorted, growable array of key ids. */
+  private static class PostingList {
+    private int[] ids = new int[2];
+    private int size;
+
+    void add(int id) {
+      int idx = Arrays.binarySearch(ids, 0, size, id);
+      if (idx >= 0) {
+        return;
+      }
+      int insertAt = -idx - 1;
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+      }
+      System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+      ids[insertAt] = id;
+      size++;
+    }
+
+    boolean remove(int id) {
+      int idx = Arrays.binarySearch(ids, 0, size, id);
+      if (idx < 0) {
+        return false;
+      }
+      System.arraycopy(ids, idx + 1, ids, idx, size - idx - 1);
+      size--;
+      if (size > 0 && size < ids.length >> 2) {
+        ids = Arrays.copyOf(ids, ids.length >> 1);
+      }
+      return true;
+    }
+
+    /** Keeps only the candidates (sorted, in place) present in this list; returns the new count. */
+    int retainAll(int[] candidates, int count) {
+      int retained = 0;
+      int i = 0;
+      int j = 0;
+      while (i < count && j < size) {
+        if (candidates[i] == ids[j]) {
+          candidates[retained++] = candidates[i];
+          i++;
+          j++;
+        } else if (candidates[i] < ids[j]) {
+          i++;
+        } else {
+          j++;
+        }
+      }
+      return retained;
+    }
+  }
+}
@@ -16,6 +16,9 @@
 
 package com.netflix.spinnaker.clouddriver.cache;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties("caching.search.in-memory")
@@ -23,6 +26,12 @@ public class CatsInMemorySearchProperties {
   private boolean enabled = false;
   private int refreshIntervalSeconds = 30;
 
+  /** Types whose identifiers are held in the in-memory search index. */
+  private List<String> indexedTypes = new ArrayList<>(Collections.singletonList("instances"));
+
+  /** Upper bound on the estimated size of the in-memory search index. */
+  private long maxIndexSizeMb = 512;
+
   public boolean isEnabled() {
     return enabled;
   }
@@ -38,4 +47,20 @@ public class CatsInMemorySearchProperties {
   public void setRefreshIntervalSeconds(int refreshIntervalSeconds) {
     this.refreshIntervalSeconds = refreshIntervalSeconds;
   }
+
+  public List<String> getIndexedTypes() {
+    return indexedTypes;
+  }
+
+  public void setIndexedTypes(List<String> indexedTypes) {
+    this.indexedTypes = indexedTypes;
+  }
+
+  public long getMaxIndexSizeMb() {
+    return maxIndexSizeMb;
+  }
+
+  public void setMaxIndexSizeMb(long maxIndexSizeMb) {
+    this.maxIndexSizeMb = maxIndexSizeMb;
+  }
 }
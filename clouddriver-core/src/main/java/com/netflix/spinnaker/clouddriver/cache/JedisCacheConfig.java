@@ -17,13 +17,22 @@
 package com.netflix.spinnaker.clouddriver.cache;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.cats.cache.NamedCacheFactory;
+import com.netflix.spinnaker.cats.compression.CompressionStrategy;
+import com.netflix.spinnaker.cats.compression.DeflateCompression;
 import com.netflix.spinnaker.cats.redis.cache.RedisCache.CacheMetrics;
 import com.netflix.spinnaker.cats.redis.cache.RedisCacheOptions;
 import com.netflix.spinnaker.cats.redis.cache.RedisNamedCacheFactory;
 import com.netflix.spinnaker.clouddriver.core.RedisConfigurationProperties;
 import com.netflix.spinnaker.kork.jedis.JedisClientDelegate;
 import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -32,7 +41,10 @@ import redis.clients.jedis.JedisPool;
 
 @Configuration
 @ConditionalOnExpression("${redis.enabled:true} && ${redis.cache.enabled:true}")
-@EnableConfigurationProperties(RedisConfigurationProperties.class)
+@EnableConfigurationProperties({
+  RedisConfigurationProperties.class,
+  RedisCacheCompressionProperties.class
+})
 class JedisCacheConfig {
 
   @Bean
@@ -40,13 +52,41 @@ class JedisCacheConfig {
     return new JedisClientDelegate(jedisPool);
   }
 
+  /**
+   * Deflate is used even when compression is disabled, as values written while it was enabled
+   * still have to be read.
+   */
+  @Bean
+  CompressionStrategy redisCacheCompression(
+      RedisCacheCompressionProperties properties, Registry registry) {
+    Map<String, byte[]> dictionaries = new HashMap<>();
+    properties
+        .getDictionaries()
+        .forEach(
+            (type, path) -> {
+              try {
+                dictionaries.put(type, Files.readAllBytes(Paths.get(path)));
+              } catch (IOException e) {
+                throw new UncheckedIOException(
+                    "Failed to read the compression dictionary for " + type + " at " + path, e);
+              }
+            });
+    return new DeflateCompression(
+        properties.getThresholdBytesSize(),
+        properties.isEnabled(),
+        properties.getLevel(),
+        dictionaries,
+        new SpectatorCompressionMetrics(registry));
+  }
+
   @Bean
   NamedCacheFactory cacheFactory(
       RedisClientDelegate redisClientDelegate,
       ObjectMapper objectMapper,
       RedisCacheOptions redisCacheOptions,
-      CacheMetrics cacheMetrics) {
+      CacheMetrics cacheMetrics,
+      CompressionStrategy redisCacheCompression) {
     return new RedisNamedCacheFactory(
-        redisClientDelegate, objectMapper, redisCacheOptions, cacheMetrics);
+        redisClientDelegate, objectMapper, redisCacheOptions, cacheMetrics, redisCacheCompression);
   }
 }
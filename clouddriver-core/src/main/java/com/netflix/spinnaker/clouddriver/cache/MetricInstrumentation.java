@@ -20,6 +20,8 @@ import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.cats.agent.Agent;
 import com.netflix.spinnaker.cats.agent.ExecutionInstrumentation;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -27,6 +29,8 @@ class MetricInstrumentation implements ExecutionInstrumentation {
 
   private final Registry registry;
   private final Id timingId;
+  private final Id lagId;
+  private final Set<String> deferredAgents = ConcurrentHashMap.newKeySet();
 
   @Autowired
   MetricInstrumentation(Registry registry) {
@@ -35,6 +39,16 @@ class MetricInstrumentation implements ExecutionInstrumentation {
         registry
             .createId("executionTime")
             .withTag("className", MetricInstrumentation.class.getSimpleName());
+    lagId =
+        registry
+            .createId("executionLag")
+            .withTag("className", MetricInstrumentation.class.getSimpleName());
+    registry.gauge(
+        registry
+            .createId("executionQueueDepth")
+            .withTag("className", MetricInstrumentation.class.getSimpleName()),
+        deferredAgents,
+        Set::size);
   }
 
   private static String stripPackageName(String className) {
@@ -51,6 +65,22 @@ class MetricInstrumentation implements ExecutionInstrumentation {
     // do nothing
   }
 
+  @Override
+  public void executionScheduled(Agent agent, long lagMs) {
+    deferredAgents.remove(agentName(agent));
+    registry.timer(lagId.withTag("agent", agentName(agent))).record(lagMs, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void executionDeferred(Agent agent, long lagMs) {
+    deferredAgents.add(agentName(agent));
+  }
+
+  @Override
+  public void executionDropped(Agent agent) {
+    deferredAgents.remove(agentName(agent));
+  }
+
   @Override
   public void executionCompleted(Agent agent, long elapsedMs) {
     registry
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.clouddriver.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("caching.redis.compression")
+public class RedisCacheCompressionProperties {
+  /**
+   * Compresses values as they are written. Compressed values are still read once this is turned
+   * off again.
+   */
+  private boolean enabled = false;
+
+  /** Values smaller than this are stored uncompressed. */
+  private long thresholdBytesSize = 1024;
+
+  private int level = Deflater.DEFAULT_COMPRESSION;
+
+  /**
+   * Paths of preset dictionaries, by cache type. A replaced dictionary must stay registered under
+   * another key for as long as values written with it are stored.
+   */
+  private Map<String, String> dictionaries = new HashMap<>();
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public long getThresholdBytesSize() {
+    return thresholdBytesSize;
+  }
+
+  public void setThresholdBytesSize(long thresholdBytesSize) {
+    this.thresholdBytesSize = thresholdBytesSize;
+  }
+
+  public int getLevel() {
+    return level;
+  }
+
+  public void setLevel(int level) {
+    this.level = level;
+  }
+
+  public Map<String, String> getDictionaries() {
+    return dictionaries;
+  }
+
+  public void setDictionaries(Map<String, String> dictionaries) {
+    this.dictionaries = dictionaries;
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.clouddriver.cache;
+
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.cats.compression.CompressionMetrics;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports raw vs. stored byte counts (from which per-type compression ratios can be derived) and
+ * CPU time spent compressing and decompressing cache values.
+ */
+public class SpectatorCompressionMetrics implements CompressionMetrics {
+
+  private final Registry registry;
+  private final Id rawBytesId;
+  private final Id storedBytesId;
+  private final Id cpuTimeId;
+
+  public SpectatorCompressionMetrics(Registry registry) {
+    this.registry = registry;
+    this.rawBytesId = registry.createId("cats.compression.rawBytes");
+    this.storedBytesId = registry.createId("cats.compression.storedBytes");
+    this.cpuTimeId = registry.createId("cats.compression.cpuTime");
+  }
+
+  @Override
+  public void compressed(String type, int rawBytes, int storedBytes, long cpuTimeNanos) {
+    record("compress", type, rawBytes, storedBytes, cpuTimeNanos);
+  }
+
+  @Override
+  public void decompressed(String type, int storedBytes, int rawBytes, long cpuTimeNanos) {
+    record("decompress", type, rawBytes, storedBytes, cpuTimeNanos);
+  }
+
+  private void record(
+      String operation, String type, int rawBytes, int storedBytes, long cpuTimeNanos) {
+    registry
+        .counter(rawBytesId.withTag("type", type).withTag("operation", operation))
+        .increment(rawBytes);
+    registry
+        .counter(storedBytesId.withTag("type", type).withTag("operation", operation))
+        .increment(storedBytes);
+    registry
+        .timer(cpuTimeId.withTag("type", type).withTag("operation", operation))
+        .record(cpuTimeNanos, TimeUnit.NANOSECONDS);
+  }
+}
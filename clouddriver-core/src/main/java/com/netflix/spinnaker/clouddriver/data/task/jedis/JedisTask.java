@@ -3,32 +3,39 @@ package com.netflix.spinnaker.clouddriver.data.task.jedis;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.google.common.collect.Iterables;
+import com.netflix.spinnaker.clouddriver.data.task.DefaultTaskStatus;
 import com.netflix.spinnaker.clouddriver.data.task.SagaId;
 import com.netflix.spinnaker.clouddriver.data.task.Status;
 import com.netflix.spinnaker.clouddriver.data.task.Task;
 import com.netflix.spinnaker.clouddriver.data.task.TaskDisplayOutput;
+import com.netflix.spinnaker.clouddriver.data.task.TaskDisplayStatus;
 import com.netflix.spinnaker.clouddriver.data.task.TaskOutput;
 import com.netflix.spinnaker.clouddriver.data.task.TaskState;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import org.codehaus.groovy.runtime.DefaultGroovyMethods;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * The fields of the task are computed on-demand by querying the repository. This means that the
- * serialized task may not be internally consistent; each field will reflect the state of the task
- * in the repository at the time that field's accessor was called during serialization. This is in
- * general a difficult problem to solve with redis, which does not support atomic reads of multiple
- * keys, but has been solved in the SQL repository by fetching all data in a single query. As a
- * workaround, we'll instruct Jackson to serialize the status first. The reason is that consumers
- * tend to use the status field to check if a task is complete, and expect the other fields to be
- * filled out if it is. If there is an inconsistency between the status and other fields, we'd
- * rather return a stale value in the status field than in other fields. In general, returning an
- * older status (ie, still running) and newer other fields will just cause clients to poll again
- * until they see the updated status. Returning a newer status (ie, completed or failed) but stale
- * values in other fields will in general cause clients to use these stale values, leading to bugs.
+ * The fields of the task are computed on-demand by querying the repository. Where the redis client
+ * supports pipelining, the history, results and outputs are read together in one round trip (a task
+ * returned by {@link RedisTaskRepository#get} or {@link RedisTaskRepository#list} already carries
+ * them, along with its status) and are reused for {@link #DATA_MAX_AGE_MS} or until the task is
+ * written. Otherwise the serialized task may not be internally consistent; each field will reflect
+ * the state of the task in the repository at the time that field's accessor was called during
+ * serialization. This is in general a difficult problem to solve with redis, which does not support
+ * atomic reads of multiple keys, but has been solved in the SQL repository by fetching all data in
+ * a single query. As a workaround, we'll instruct Jackson to serialize the status first. The reason
+ * is that consumers tend to use the status field to check if a task is complete, and expect the
+ * other fields to be filled out if it is. If there is an inconsistency between the status and other
+ * fields, we'd rather return a stale value in the status field than in other fields. In general,
+ * returning an older status (ie, still running) and newer other fields will just cause clients to
+ * poll again until they see the updated status. Returning a newer status (ie, completed or failed)
+ * but stale values in other fields will in general cause clients to use these stale values, leading
+ * to bugs.
  *
  * <p>We'll force the history to be computed next (as clients could feasibly use this to determine
  * whether a task is complete), then will not enforce an order on any other properties.
@@ -38,6 +45,9 @@ public class JedisTask implements Task {
 
   private static final Logger log = LoggerFactory.getLogger(JedisTask.class);
 
+  /** How long data read from the repository is reused before being read again. */
+  static final long DATA_MAX_AGE_MS = 1000;
+
   @JsonIgnore private RedisTaskRepository repository;
   private final String id;
   private final long startTimeMs;
@@ -45,6 +55,7 @@ public class JedisTask implements Task {
   private final String requestId;
   private final Set<SagaId> sagaIds;
   @JsonIgnore private final boolean previousRedis;
+  @JsonIgnore private volatile Data data;
 
   public JedisTask(
       String id,
@@ -103,11 +114,18 @@ public class JedisTask implements Task {
   }
 
   public List<Object> getResultObjects() {
-    return repository.getResultObjects(this);
+    Data data = loadData();
+    return data != null ? data.results : repository.getResultObjects(this);
   }
 
   public List<? extends Status> getHistory() {
-    List<Status> status = repository.getHistory(this);
+    Data data = loadData();
+    List<Status> status =
+        data != null
+            ? data.history.stream()
+                .<Status>map(TaskDisplayStatus::create)
+                .collect(Collectors.toList())
+            : repository.getHistory(this);
     if (status != null && !status.isEmpty() && Iterables.getLast(status).isCompleted()) {
       return status.subList(0, status.size() - 1);
     } else {
@@ -122,7 +140,13 @@ public class JedisTask implements Task {
 
   @Override
   public Status getStatus() {
-    return repository.currentState(this);
+    // Reading the status on its own is cheaper than reading all of the task's data, so only
+    // reuse data that is already loaded
+    Data data = freshData();
+    if (data == null) {
+      return repository.currentState(this);
+    }
+    return data.history.isEmpty() ? null : Iterables.getLast(data.history);
   }
 
   @Override
@@ -149,7 +173,8 @@ public class JedisTask implements Task {
 
   @Override
   public List<TaskOutput> getOutputs() {
-    return repository.getOutputs(this);
+    Data data = loadData();
+    return data != null ? data.outputs : repository.getOutputs(this);
   }
 
   @Override
@@ -175,6 +200,31 @@ public class JedisTask implements Task {
     log.debug("Updated ownerId for task id={} from {} to {}", id, previousOwnerId, ownerId);
   }
 
+  void setData(Data data) {
+    this.data = data;
+  }
+
+  void clearData() {
+    this.data = null;
+  }
+
+  private Data freshData() {
+    Data current = data;
+    if (current != null && System.currentTimeMillis() - current.loadedAtMs <= DATA_MAX_AGE_MS) {
+      return current;
+    }
+    return null;
+  }
+
+  private Data loadData() {
+    Data current = freshData();
+    if (current == null) {
+      current = repository.getData(this);
+      data = current;
+    }
+    return current;
+  }
+
   private void checkMutable() {
     if (previousRedis) {
       throw new IllegalStateException("Read-only task");
@@ -212,4 +262,18 @@ public class JedisTask implements Task {
   public final boolean isPreviousRedis() {
     return previousRedis;
   }
+
+  /** The history, results and outputs of a task, as read together from the repository. */
+  public static final class Data {
+    private final List<DefaultTaskStatus> history;
+    private final List<Object> results;
+    private final List<TaskOutput> outputs;
+    private final long loadedAtMs = System.currentTimeMillis();
+
+    Data(List<DefaultTaskStatus> history, List<Object> results, List<TaskOutput> outputs) {
+      this.history = history;
+      this.results = results;
+      this.outputs = outputs;
+    }
+  }
 }
@@ -20,6 +20,7 @@ import static java.lang.String.format;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Iterables;
 import com.netflix.spinnaker.clouddriver.core.ClouddriverHostname;
 import com.netflix.spinnaker.clouddriver.data.task.DefaultTaskStatus;
 import com.netflix.spinnaker.clouddriver.data.task.SagaId;
@@ -42,8 +43,18 @@ import net.jodah.failsafe.RetryPolicy;
 import net.jodah.failsafe.function.CheckedConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Response;
 import redis.clients.jedis.exceptions.JedisException;
 
+/**
+ * Stores each task as a hash ({@code task:<id>}) plus history, result and output lists.
+ *
+ * <p>When the redis client supports multi-key pipelines, a task is read together with all of its
+ * lists in a single round trip, {@link #list()} reads running tasks in pipelined batches, and the
+ * commands making up each write are sent as one pipeline. History entries can optionally be written
+ * in a compact, non-JSON encoding; both encodings are always readable, but every instance sharing
+ * the redis must be upgraded before {@code compactHistory} is turned on.
+ */
 public class RedisTaskRepository implements TaskRepository {
   private static final Logger log = LoggerFactory.getLogger(RedisTaskRepository.class);
 
@@ -56,6 +67,9 @@ public class RedisTaskRepository implements TaskRepository {
 
   private static final int TASK_TTL = (int) TimeUnit.HOURS.toSeconds(12);
 
+  /** The number of tasks read per pipeline when listing running tasks. */
+  private static final int LIST_BATCH_SIZE = 100;
+
   private static final RetryPolicy REDIS_RETRY_POLICY =
       new RetryPolicy()
           .retryOn(Collections.singletonList(JedisException.class))
@@ -64,13 +78,22 @@ public class RedisTaskRepository implements TaskRepository {
 
   private final RedisClientDelegate redisClientDelegate;
   private final Optional<RedisClientDelegate> redisClientDelegatePrevious;
+  private final boolean compactHistory;
   private final ObjectMapper mapper = new ObjectMapper();
 
   public RedisTaskRepository(
       RedisClientDelegate redisClientDelegate,
       Optional<RedisClientDelegate> redisClientDelegatePrevious) {
+    this(redisClientDelegate, redisClientDelegatePrevious, false);
+  }
+
+  public RedisTaskRepository(
+      RedisClientDelegate redisClientDelegate,
+      Optional<RedisClientDelegate> redisClientDelegatePrevious,
+      boolean compactHistory) {
     this.redisClientDelegate = redisClientDelegate;
     this.redisClientDelegatePrevious = redisClientDelegatePrevious;
+    this.compactHistory = compactHistory;
   }
 
   @Override
@@ -116,52 +139,18 @@ public class RedisTaskRepository implements TaskRepository {
 
   @Override
   public Task get(String id) {
-    Map<String, String> taskMap =
-        retry(
-            () ->
-                redisClientDelegate.withCommandsClient(
-                    client -> {
-                      return client.hgetAll("task:" + id);
-                    }),
-            format("Getting task ID %s", id));
-    boolean oldTask =
-        redisClientDelegatePrevious.isPresent() && (taskMap == null || taskMap.isEmpty());
+    StoredTask stored =
+        retry(() -> readTask(redisClientDelegate, id), format("Getting task ID %s", id));
+    boolean oldTask = redisClientDelegatePrevious.isPresent() && stored.isMissing();
     if (oldTask) {
       try {
-        taskMap =
-            redisClientDelegatePrevious
-                .get()
-                .withCommandsClient(
-                    client -> {
-                      return client.hgetAll("task:" + id);
-                    });
+        stored = readTask(redisClientDelegatePrevious.get(), id);
       } catch (Exception e) {
         // Failed to hit old redis, let's not blow up on that
         return null;
       }
     }
-    if (taskMap.containsKey("id") && taskMap.containsKey("startTimeMs")) {
-      Set<SagaId> sagaIds;
-      if (taskMap.containsKey("sagaIds")) {
-        try {
-          sagaIds = mapper.readValue(taskMap.get("sagaIds"), SAGA_IDS_TYPE);
-        } catch (IOException e) {
-          throw new SystemException("Could not deserialize sagaIds key", e);
-        }
-      } else {
-        sagaIds = new HashSet<>();
-      }
-
-      return new JedisTask(
-          taskMap.get("id"),
-          Long.parseLong(taskMap.get("startTimeMs")),
-          this,
-          taskMap.get("ownerId"),
-          taskMap.get("requestId"),
-          sagaIds,
-          oldTask);
-    }
-    return null;
+    return toTask(stored, oldTask);
   }
 
   @Override
@@ -199,15 +188,32 @@ public class RedisTaskRepository implements TaskRepository {
 
   @Override
   public List<Task> list() {
-    return retry(
-        () ->
-            redisClientDelegate.withCommandsClient(
-                client -> {
-                  return client.smembers(RUNNING_TASK_KEY).stream()
-                      .map(this::get)
-                      .collect(Collectors.toList());
-                }),
-        "Getting all running tasks");
+    List<String> ids =
+        new ArrayList<>(
+            retry(
+                () ->
+                    redisClientDelegate.withCommandsClient(
+                        client -> {
+                          return client.smembers(RUNNING_TASK_KEY);
+                        }),
+                "Getting all running tasks"));
+    if (!redisClientDelegate.supportsMultiKeyPipelines()) {
+      return ids.stream().map(this::get).collect(Collectors.toList());
+    }
+
+    List<Task> tasks = new ArrayList<>(ids.size());
+    for (List<String> batch : Iterables.partition(ids, LIST_BATCH_SIZE)) {
+      Map<String, StoredTask> stored =
+          retry(
+              () -> readTasks(redisClientDelegate, batch),
+              format("Getting %d running tasks", batch.size()));
+      for (String id : batch) {
+        StoredTask task = stored.get(id);
+        // Tasks that are not in the current redis may still be in the previous one
+        tasks.add(task.isMissing() ? get(id) : toTask(task, false));
+      }
+    }
+    return tasks;
   }
 
   @Override
@@ -228,34 +234,47 @@ public class RedisTaskRepository implements TaskRepository {
     } catch (JsonProcessingException e) {
       throw new SystemException("Failed to serialize saga ids into Task", e);
     }
+    task.clearData();
     retry(
-        () ->
+        () -> {
+          if (redisClientDelegate.supportsMultiKeyPipelines()) {
+            redisClientDelegate.withMultiKeyPipeline(
+                pipeline -> {
+                  pipeline.hmset(taskId, data);
+                  pipeline.expire(taskId, TASK_TTL);
+                  pipeline.sadd(RUNNING_TASK_KEY, id);
+                  pipeline.sync();
+                });
+          } else {
             redisClientDelegate.withCommandsClient(
                 client -> {
                   client.hmset(taskId, data);
                   client.expire(taskId, TASK_TTL);
                   client.sadd(RUNNING_TASK_KEY, id);
-                }),
+                });
+          }
+        },
         format("Writing task %s", id));
   }
 
   public void addToHistory(DefaultTaskStatus status, JedisTask task) {
     String historyId = "taskHistory:" + task.getId();
+    String hist = encodeHistory(status);
 
-    Map<String, String> data = new HashMap<>();
-    data.put("phase", status.getPhase());
-    data.put("status", status.getStatus());
-    data.put("state", status.getState().toString());
-
-    String hist;
-    try {
-      hist = mapper.writeValueAsString(data);
-    } catch (JsonProcessingException e) {
-      throw new RuntimeException("Failed converting task history to json", e);
-    }
-
+    task.clearData();
     retry(
-        () ->
+        () -> {
+          if (redisClientDelegate.supportsMultiKeyPipelines()) {
+            redisClientDelegate.withMultiKeyPipeline(
+                pipeline -> {
+                  pipeline.rpush(historyId, hist);
+                  pipeline.expire(historyId, TASK_TTL);
+                  if (status.isCompleted()) {
+                    pipeline.srem(RUNNING_TASK_KEY, task.getId());
+                  }
+                  pipeline.sync();
+                });
+          } else {
             redisClientDelegate.withCommandsClient(
                 client -> {
                   client.rpush(historyId, hist);
@@ -263,7 +282,9 @@ public class RedisTaskRepository implements TaskRepository {
                   if (status.isCompleted()) {
                     client.srem(RUNNING_TASK_KEY, task.getId());
                   }
-                }),
+                });
+          }
+        },
         format("Adding status history to task %s: %s", task.getId(), status));
   }
 
@@ -279,20 +300,7 @@ public class RedisTaskRepository implements TaskRepository {
                     }),
             format("Getting history for task %s", task.getId()))
         .stream()
-        .map(
-            h -> {
-              Map<String, String> history;
-              try {
-                history = mapper.readValue(h, HISTORY_TYPE);
-              } catch (IOException e) {
-                throw new RuntimeException("Could not convert history json to type", e);
-              }
-              return TaskDisplayStatus.create(
-                  DefaultTaskStatus.create(
-                      history.get("phase"),
-                      history.get("status"),
-                      TaskState.valueOf(history.get("state"))));
-            })
+        .map(h -> TaskDisplayStatus.create(decodeHistory(h)))
         .collect(Collectors.toList());
   }
 
@@ -308,15 +316,24 @@ public class RedisTaskRepository implements TaskRepository {
                       return c.lindex(historyId, -1);
                     }),
             format("Getting current state for task %s", task.getId()));
+    return decodeHistory(state);
+  }
 
-    Map<String, String> history;
-    try {
-      history = mapper.readValue(state, HISTORY_TYPE);
-    } catch (IOException e) {
-      throw new RuntimeException("Failed converting task history json to object", e);
+  /**
+   * Reads the history, results and outputs of a task in a single pipelined round trip.
+   *
+   * @return the task's data, or null if the client does not support multi-key pipelines
+   */
+  public JedisTask.Data getData(JedisTask task) {
+    RedisClientDelegate client = clientForTask(task);
+    if (!client.supportsMultiKeyPipelines()) {
+      return null;
     }
-    return DefaultTaskStatus.create(
-        history.get("phase"), history.get("status"), TaskState.valueOf(history.get("state")));
+    StoredTask stored =
+        retry(
+            () -> readTasks(client, Collections.singletonList(task.getId())).get(task.getId()),
+            format("Getting data for task %s", task.getId()));
+    return toData(stored);
   }
 
   public void addResultObjects(List<Object> objects, JedisTask task) {
@@ -335,13 +352,24 @@ public class RedisTaskRepository implements TaskRepository {
             .toArray(new String[objects.size()]);
 
     log.debug("Adding results to task {} (results: {})", task.getId(), values);
+    task.clearData();
     retry(
-        () ->
+        () -> {
+          if (redisClientDelegate.supportsMultiKeyPipelines()) {
+            redisClientDelegate.withMultiKeyPipeline(
+                pipeline -> {
+                  pipeline.rpush(resultId, values);
+                  pipeline.expire(resultId, TASK_TTL);
+                  pipeline.sync();
+                });
+          } else {
             redisClientDelegate.withCommandsClient(
                 client -> {
                   client.rpush(resultId, values);
                   client.expire(resultId, TASK_TTL);
-                }),
+                });
+          }
+        },
         format("Adding results to task %s", task.getId()));
   }
 
@@ -357,14 +385,7 @@ public class RedisTaskRepository implements TaskRepository {
                         }),
             format("Getting results for task %s", task.getId()))
         .stream()
-        .map(
-            o -> {
-              try {
-                return mapper.readValue(o, Map.class);
-              } catch (IOException e) {
-                throw new RuntimeException("Failed to convert result object to map", e);
-              }
-            })
+        .map(this::decodeResult)
         .collect(Collectors.toList());
   }
 
@@ -386,13 +407,24 @@ public class RedisTaskRepository implements TaskRepository {
     }
 
     log.debug("Adding task output: {} to task {}", taskOutput, task.getId());
+    task.clearData();
     retry(
-        () ->
+        () -> {
+          if (redisClientDelegate.supportsMultiKeyPipelines()) {
+            redisClientDelegate.withMultiKeyPipeline(
+                pipeline -> {
+                  pipeline.rpush(outputId, taskOutput);
+                  pipeline.expire(outputId, TASK_TTL);
+                  pipeline.sync();
+                });
+          } else {
             redisClientDelegate.withCommandsClient(
                 client -> {
                   client.rpush(outputId, taskOutput);
                   client.expire(outputId, TASK_TTL);
-                }),
+                });
+          }
+        },
         format("Adding task output to task %s", task.getId()));
   }
 
@@ -408,24 +440,198 @@ public class RedisTaskRepository implements TaskRepository {
                         }),
             format("Getting task outputs for task %s", task.getId()))
         .stream()
-        .map(
-            o -> {
-              Map<String, String> data;
-              try {
-                data = mapper.readValue(o, HISTORY_TYPE);
-              } catch (IOException e) {
-                throw new RuntimeException(
-                    "Failed to convert task outputs to map for task: " + task.getId(), e);
-              }
-              return new TaskDisplayOutput(
-                  data.get("manifest"),
-                  data.get("phase"),
-                  data.get("stdOut"),
-                  data.get("stdError"));
-            })
+        .map(o -> decodeOutput(o, task.getId()))
         .collect(Collectors.toList());
   }
 
+  /**
+   * Reads the hash of a task. When pipelines are supported, its lists are read in the same round
+   * trip so that the returned task can be served without further calls.
+   */
+  private StoredTask readTask(RedisClientDelegate client, String id) {
+    if (client.supportsMultiKeyPipelines()) {
+      return readTasks(client, Collections.singletonList(id)).get(id);
+    }
+    return new StoredTask(
+        id,
+        client.withCommandsClient(
+            c -> {
+              return c.hgetAll("task:" + id);
+            }),
+        null,
+        null,
+        null);
+  }
+
+  /** Reads the hashes and lists of several tasks in one multi-key pipeline. */
+  private Map<String, StoredTask> readTasks(RedisClientDelegate client, Collection<String> ids) {
+    Map<String, Response<Map<String, String>>> hashes = new HashMap<>(ids.size());
+    Map<String, Response<List<String>>> histories = new HashMap<>(ids.size());
+    Map<String, Response<List<String>>> results = new HashMap<>(ids.size());
+    Map<String, Response<List<String>>> outputs = new HashMap<>(ids.size());
+    client.withMultiKeyPipeline(
+        pipeline -> {
+          for (String id : ids) {
+            hashes.put(id, pipeline.hgetAll("task:" + id));
+            histories.put(id, pipeline.lrange("taskHistory:" + id, 0, -1));
+            results.put(id, pipeline.lrange("taskResult:" + id, 0, -1));
+            outputs.put(id, pipeline.lrange("taskOutput:" + id, 0, -1));
+          }
+          pipeline.sync();
+        });
+
+    Map<String, StoredTask> tasks = new HashMap<>(ids.size());
+    for (String id : ids) {
+      tasks.put(
+          id,
+          new StoredTask(
+              id,
+              hashes.get(id).get(),
+              histories.get(id).get(),
+              results.get(id).get(),
+              outputs.get(id).get()));
+    }
+    return tasks;
+  }
+
+  private JedisTask toTask(StoredTask stored, boolean previousRedis) {
+    Map<String, String> taskMap = stored.hash;
+    if (!taskMap.containsKey("id") || !taskMap.containsKey("startTimeMs")) {
+      return null;
+    }
+
+    Set<SagaId> sagaIds;
+    if (taskMap.containsKey("sagaIds")) {
+      try {
+        sagaIds = mapper.readValue(taskMap.get("sagaIds"), SAGA_IDS_TYPE);
+      } catch (IOException e) {
+        throw new SystemException("Could not deserialize sagaIds key", e);
+      }
+    } else {
+      sagaIds = new HashSet<>();
+    }
+
+    JedisTask task =
+        new JedisTask(
+            taskMap.get("id"),
+            Long.parseLong(taskMap.get("startTimeMs")),
+            this,
+            taskMap.get("ownerId"),
+            taskMap.get("requestId"),
+            sagaIds,
+            previousRedis);
+    JedisTask.Data data = toData(stored);
+    if (data != null) {
+      task.setData(data);
+    }
+    return task;
+  }
+
+  private JedisTask.Data toData(StoredTask stored) {
+    if (stored.history == null) {
+      return null;
+    }
+    return new JedisTask.Data(
+        stored.history.stream().map(this::decodeHistory).collect(Collectors.toList()),
+        stored.results.stream().map(this::decodeResult).collect(Collectors.toList()),
+        stored.outputs.stream()
+            .map(o -> decodeOutput(o, stored.id))
+            .collect(Collectors.toList()));
+  }
+
+  /**
+   * Encodes a history entry. The compact encoding is {@code <state><phase length>:<phase><status>},
+   * e.g. {@code S6:DEPLOYStarting}; entries with a null phase or status are always written as JSON.
+   */
+  private String encodeHistory(DefaultTaskStatus status) {
+    if (compactHistory && status.getPhase() != null && status.getStatus() != null) {
+      return stateCode(status.getState())
+          + status.getPhase().length()
+          + ":"
+          + status.getPhase()
+          + status.getStatus();
+    }
+
+    Map<String, String> data = new HashMap<>();
+    data.put("phase", status.getPhase());
+    data.put("status", status.getStatus());
+    data.put("state", status.getState().toString());
+    try {
+      return mapper.writeValueAsString(data);
+    } catch (JsonProcessingException e) {
+      throw new RuntimeException("Failed converting task history to json", e);
+    }
+  }
+
+  private DefaultTaskStatus decodeHistory(String encoded) {
+    if (encoded != null && !encoded.isEmpty() && encoded.charAt(0) != '{') {
+      int separator = encoded.indexOf(':');
+      int phaseEnd = separator + 1 + Integer.parseInt(encoded.substring(1, separator));
+      return DefaultTaskStatus.create(
+          encoded.substring(separator + 1, phaseEnd),
+          encoded.substring(phaseEnd),
+          stateForCode(encoded.charAt(0)));
+    }
+
+    Map<String, String> history;
+    try {
+      history = mapper.readValue(encoded, HISTORY_TYPE);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed converting task history json to object", e);
+    }
+    return DefaultTaskStatus.create(
+        history.get("phase"), history.get("status"), TaskState.valueOf(history.get("state")));
+  }
+
+  private static char stateCode(TaskState state) {
+    switch (state) {
+      case STARTED:
+        return 'S';
+      case COMPLETED:
+        return 'C';
+      case FAILED:
+        return 'F';
+      case FAILED_RETRYABLE:
+        return 'R';
+      default:
+        throw new IllegalArgumentException("Unknown task state " + state);
+    }
+  }
+
+  private static TaskState stateForCode(char code) {
+    switch (code) {
+      case 'S':
+        return TaskState.STARTED;
+      case 'C':
+        return TaskState.COMPLETED;
+      case 'F':
+        return TaskState.FAILED;
+      case 'R':
+        return TaskState.FAILED_RETRYABLE;
+      default:
+        throw new IllegalArgumentException("Unknown task state code " + code);
+    }
+  }
+
+  private Object decodeResult(String encoded) {
+    try {
+      return mapper.readValue(encoded, Map.class);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to convert result object to map", e);
+    }
+  }
+
+  private TaskOutput decodeOutput(String encoded, String taskId) {
+    Map<String, String> data;
+    try {
+      data = mapper.readValue(encoded, HISTORY_TYPE);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to convert task outputs to map for task: " + taskId, e);
+    }
+    return new TaskDisplayOutput(
+        data.get("manifest"), data.get("phase"), data.get("stdOut"), data.get("stdError"));
+  }
+
   private String getClientRequestKey(String clientRequestId) {
     return TASK_KEY_MAP + ":" + clientRequestId;
   }
@@ -461,6 +667,32 @@ public class RedisTaskRepository implements TaskRepository {
     Failsafe.with(REDIS_RETRY_POLICY).onRetriesExceeded(retryExceededListener).run(f::run);
   }
 
+  /** The raw contents of a task's keys; the lists are null if they were not read. */
+  private static class StoredTask {
+    final String id;
+    final Map<String, String> hash;
+    final List<String> history;
+    final List<String> results;
+    final List<String> outputs;
+
+    StoredTask(
+        String id,
+        Map<String, String> hash,
+        List<String> history,
+        List<String> results,
+        List<String> outputs) {
+      this.id = id;
+      this.hash = hash == null ? Collections.emptyMap() : hash;
+      this.history = history;
+      this.results = results;
+      this.outputs = outputs;
+    }
+
+    boolean isMissing() {
+      return hash.isEmpty();
+    }
+  }
+
   private static class ExcessiveRedisFailureRetries extends RuntimeException {
     ExcessiveRedisFailureRetries(String message, Throwable cause) {
       super(message, cause);
@@ -41,7 +41,8 @@ public interface RequestQueue {
         registry,
         config.getStartWorkTimeoutMillis(),
         config.getTimeoutMillis(),
-        config.getPoolSize());
+        config.getPoolSize(),
+        config.getAdaptiveConcurrency().isEnabled());
   }
 
   static RequestQueue noop() {
@@ -64,8 +65,24 @@ public interface RequestQueue {
       long startWorkTimeoutMillis,
       long timeoutMillis,
       int poolSize) {
+    return pooled(
+        dynamicConfigService, registry, startWorkTimeoutMillis, timeoutMillis, poolSize, false);
+  }
+
+  static RequestQueue pooled(
+      DynamicConfigService dynamicConfigService,
+      Registry registry,
+      long startWorkTimeoutMillis,
+      long timeoutMillis,
+      int poolSize,
+      boolean adaptiveConcurrency) {
     return new PooledRequestQueue(
-        dynamicConfigService, registry, startWorkTimeoutMillis, timeoutMillis, poolSize);
+        dynamicConfigService,
+        registry,
+        startWorkTimeoutMillis,
+        timeoutMillis,
+        poolSize,
+        adaptiveConcurrency);
   }
 
   default long getDefaultTimeoutMillis() {
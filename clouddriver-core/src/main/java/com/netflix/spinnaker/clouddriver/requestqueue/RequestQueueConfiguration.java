@@ -24,6 +24,7 @@ public class RequestQueueConfiguration {
   private long startWorkTimeoutMillis = RequestQueue.DEFAULT_START_WORK_TIMEOUT_MILLIS;
   private long timeoutMillis = RequestQueue.DEFAULT_TIMEOUT_MILLIS;
   private int poolSize = 10;
+  private AdaptiveConcurrency adaptiveConcurrency = new AdaptiveConcurrency();
 
   public boolean isEnabled() {
     return enabled;
@@ -56,4 +57,29 @@ public class RequestQueueConfiguration {
   public void setPoolSize(int poolSize) {
     this.poolSize = poolSize;
   }
+
+  public AdaptiveConcurrency getAdaptiveConcurrency() {
+    return adaptiveConcurrency;
+  }
+
+  public void setAdaptiveConcurrency(AdaptiveConcurrency adaptiveConcurrency) {
+    this.adaptiveConcurrency = adaptiveConcurrency;
+  }
+
+  /**
+   * Tunes the concurrency of each partition from its observed latency, and rejects requests that
+   * are predicted to wait longer than their start work timeout. Can be toggled at runtime with the
+   * {@code request-queue.adaptive-concurrency.enabled} dynamic config.
+   */
+  public static class AdaptiveConcurrency {
+    private boolean enabled = false;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+  }
 }
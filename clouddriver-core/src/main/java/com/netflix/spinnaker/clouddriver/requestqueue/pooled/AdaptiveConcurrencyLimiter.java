@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.requestqueue.pooled;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * A gradient-style concurrency limiter for a single partition.
+ *
+ * <p>The limit is tuned from the observed service time of each request: while recent service times
+ * stay close to the long-term average the limit grows by roughly the square root of itself, and as
+ * they rise above it the limit shrinks proportionally. Requests that outlive their caller's timeout
+ * cut the limit multiplicatively. The limit is always kept between 1 and {@code maxLimit}.
+ */
+class AdaptiveConcurrencyLimiter {
+  /** How quickly the limit and the recent service time follow new samples. */
+  private static final double SMOOTHING = 0.2;
+
+  /** The number of samples the long-term service time is averaged over. */
+  private static final double LONG_WINDOW = 100;
+
+  /** How much slower than the long-term average requests may get before the limit shrinks. */
+  private static final double TOLERANCE = 1.5;
+
+  private static final double MIN_GRADIENT = 0.5;
+  private static final double BACKOFF_RATIO = 0.9;
+
+  /** Wait predictions are only made once this many requests have been observed. */
+  private static final int MIN_SAMPLES = 10;
+
+  private final IntSupplier maxLimit;
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private volatile double limit;
+  private volatile double recentServiceNanos;
+  private volatile long samples;
+  private double longServiceNanos;
+
+  AdaptiveConcurrencyLimiter(IntSupplier maxLimit) {
+    this.maxLimit = maxLimit;
+    this.limit = Math.max(1, maxLimit.getAsInt());
+  }
+
+  /** Takes a slot if one is free under the current limit. */
+  boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= getLimit()) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /** Takes a slot regardless of the current limit. */
+  void acquire() {
+    inFlight.incrementAndGet();
+  }
+
+  /** Releases a slot whose request never ran. */
+  void release() {
+    inFlight.decrementAndGet();
+  }
+
+  /**
+   * Releases a slot and adjusts the limit.
+   *
+   * @param serviceNanos how long the request ran for
+   * @param dropped whether the caller had already given up on the request when it completed
+   */
+  synchronized void release(long serviceNanos, boolean dropped) {
+    int concurrency = inFlight.getAndDecrement();
+
+    double sample = Math.max(1, serviceNanos);
+    if (samples == 0) {
+      longServiceNanos = sample;
+      recentServiceNanos = sample;
+    } else {
+      longServiceNanos += (sample - longServiceNanos) / LONG_WINDOW;
+      recentServiceNanos += (sample - recentServiceNanos) * SMOOTHING;
+    }
+    samples++;
+
+    double newLimit;
+    if (dropped) {
+      newLimit = limit * BACKOFF_RATIO;
+    } else {
+      double gradient =
+          Math.max(MIN_GRADIENT, Math.min(1.0, TOLERANCE * longServiceNanos / recentServiceNanos));
+      newLimit = limit * gradient + Math.sqrt(limit);
+      if (concurrency < limit / 2) {
+        // The partition isn't using its limit, so there's no evidence that it can handle more
+        newLimit = Math.min(newLimit, limit);
+      }
+      newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+    }
+    limit = Math.max(1, Math.min(Math.max(1, maxLimit.getAsInt()), newLimit));
+  }
+
+  /**
+   * Predicts how long a request would wait for a slot if it joined the back of the queue.
+   *
+   * @param queued the number of requests already waiting
+   * @return the predicted wait, or 0 if there is not enough data to predict one
+   */
+  long predictedWaitNanos(int queued) {
+    if (samples < MIN_SAMPLES) {
+      return 0;
+    }
+    int slots = getLimit();
+    if (queued == 0 && inFlight.get() < slots) {
+      return 0;
+    }
+    return (long) ((queued + 1) * recentServiceNanos / slots);
+  }
+
+  int getLimit() {
+    return Math.max(1, Math.min((int) limit, maxLimit.getAsInt()));
+  }
+
+  int getInFlight() {
+    return inFlight.get();
+  }
+}
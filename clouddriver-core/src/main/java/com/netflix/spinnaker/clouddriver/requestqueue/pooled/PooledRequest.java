@@ -26,14 +26,17 @@ import org.slf4j.MDC;
 
 class PooledRequest<T> implements Runnable {
   private final Timer timer;
+  private final RequestPartition partition;
   private final Promise<T> result;
   private final Callable<T> work;
   private final long startTime = System.nanoTime();
 
-  PooledRequest(Registry registry, String partition, Callable<T> work) {
+  PooledRequest(Registry registry, RequestPartition partition, Callable<T> work) {
     this.timer =
-        registry.timer(registry.createId("pooledRequestQueue.enqueueTime", "partition", partition));
-    this.result = new Promise<>(registry, partition);
+        registry.timer(
+            registry.createId("pooledRequestQueue.enqueueTime", "partition", partition.getName()));
+    this.partition = partition;
+    this.result = new Promise<>(registry, partition.getName());
 
     // Copy the MDC before doing the work.  That way information from the MDC
     // (e.g. from X-SPINNAKER-* incoming http request headers) of the calling
@@ -67,11 +70,17 @@ class PooledRequest<T> implements Runnable {
     // request may have expired with a timeout prior to this point, lets not
     // issue the work if that is the case as the caller has already moved on
     if (result.shouldStart()) {
+      final long workStartTime = System.nanoTime();
+      boolean completed;
       try {
-        result.complete(work.call());
+        completed = result.complete(work.call());
       } catch (Throwable t) {
-        result.completeWithException(t);
+        completed = result.completeWithException(t);
       }
+      // if the promise was already completed the caller timed out waiting for this request
+      partition.completed(System.nanoTime() - workStartTime, !completed);
+    } else {
+      partition.skipped();
     }
   }
 }
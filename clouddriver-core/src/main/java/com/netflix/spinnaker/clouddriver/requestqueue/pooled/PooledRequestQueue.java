@@ -37,24 +37,34 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 
+/**
+ * Runs requests on a shared pool, distributing the pool fairly between partitions (typically one
+ * per cloud provider).
+ *
+ * <p>With adaptive concurrency enabled, each partition's concurrency is tuned from its observed
+ * service times by an {@link AdaptiveConcurrencyLimiter}, and requests that are predicted to wait
+ * longer than their start work timeout are rejected up front rather than after waiting it out.
+ */
 public class PooledRequestQueue implements RequestQueue {
   private final Logger log = LoggerFactory.getLogger(getClass());
-  private final ConcurrentMap<String, Queue<PooledRequest<?>>> partitionedRequests =
+  private final ConcurrentMap<String, RequestPartition> partitionedRequests =
       new ConcurrentHashMap<>();
   private final PollCoordinator pollCoordinator = new PollCoordinator();
 
   private final long defaultStartWorkTimeout;
   private final long defaultTimeout;
   private final int defaultCorePoolSize;
+  private final boolean defaultAdaptiveConcurrency;
   private final ThreadPoolExecutor executorService;
   private final BlockingQueue<Runnable> submittedRequests;
-  private final Collection<Queue<PooledRequest<?>>> requestQueues;
+  private final Collection<RequestPartition> requestPartitions;
   private final RequestDistributor requestDistributor;
 
   private final DynamicConfigService dynamicConfigService;
   private final Registry registry;
 
   private final AtomicBoolean isEnabled = new AtomicBoolean(true);
+  private final AtomicBoolean isAdaptive;
 
   public PooledRequestQueue(
       DynamicConfigService dynamicConfigService,
@@ -62,6 +72,22 @@ public class PooledRequestQueue implements RequestQueue {
       long defaultStartWorkTimeout,
       long defaultTimeout,
       int requestPoolSize) {
+    this(
+        dynamicConfigService,
+        registry,
+        defaultStartWorkTimeout,
+        defaultTimeout,
+        requestPoolSize,
+        false);
+  }
+
+  public PooledRequestQueue(
+      DynamicConfigService dynamicConfigService,
+      Registry registry,
+      long defaultStartWorkTimeout,
+      long defaultTimeout,
+      int requestPoolSize,
+      boolean adaptiveConcurrency) {
 
     if (defaultStartWorkTimeout <= 0) {
       throw new IllegalArgumentException("defaultStartWorkTimeout");
@@ -81,6 +107,8 @@ public class PooledRequestQueue implements RequestQueue {
     this.defaultStartWorkTimeout = defaultStartWorkTimeout;
     this.defaultTimeout = defaultTimeout;
     this.defaultCorePoolSize = requestPoolSize;
+    this.defaultAdaptiveConcurrency = adaptiveConcurrency;
+    this.isAdaptive = new AtomicBoolean(adaptiveConcurrency);
 
     this.submittedRequests = new LinkedBlockingQueue<>();
     registry.gauge("pooledRequestQueue.executorQueue.size", submittedRequests, Queue::size);
@@ -99,12 +127,14 @@ public class PooledRequestQueue implements RequestQueue {
     registry.gauge(
         "pooledRequestQueue.corePoolSize", executorService, ThreadPoolExecutor::getCorePoolSize);
 
-    this.requestQueues = new CopyOnWriteArrayList<>();
+    this.requestPartitions = new CopyOnWriteArrayList<>();
     this.requestDistributor =
-        new RequestDistributor(registry, pollCoordinator, executorService, requestQueues);
+        new RequestDistributor(registry, pollCoordinator, executorService, requestPartitions);
     executorService.submit(requestDistributor);
 
     registry.gauge("pooledRequestQueue.enabled", isEnabled, value -> value.get() ? 1.0 : 0.0);
+    registry.gauge(
+        "pooledRequestQueue.adaptiveConcurrency", isAdaptive, value -> value.get() ? 1.0 : 0.0);
   }
 
   @PreDestroy
@@ -136,31 +166,16 @@ public class PooledRequestQueue implements RequestQueue {
     }
 
     final long startTime = System.nanoTime();
-    final Queue<PooledRequest<?>> queue;
-    if (!partitionedRequests.containsKey(partition)) {
-      Queue<PooledRequest<?>> newQueue = new LinkedBlockingQueue<>();
-      Queue<PooledRequest<?>> existing = partitionedRequests.putIfAbsent(partition, newQueue);
-      if (existing == null) {
-        requestQueues.add(newQueue);
-        queue = newQueue;
-        registry.gauge(
-            registry.createId("pooledRequestQueue.partition.size", "partition", partition),
-            queue,
-            Queue::size);
-      } else {
-        queue = existing;
-      }
-    } else {
-      queue = partitionedRequests.get(partition);
-    }
+    final RequestPartition requestPartition =
+        partitionedRequests.computeIfAbsent(partition, this::createPartition);
 
-    final PooledRequest<T> request = new PooledRequest<>(registry, partition, operation);
-
-    queue.offer(request);
-    pollCoordinator.notifyItemsAdded();
+    final PooledRequest<T> request = new PooledRequest<>(registry, requestPartition, operation);
 
     Id id = registry.createId("pooledRequestQueue.totalTime", "partition", partition);
     try {
+      if (!requestPartition.offer(request, unit.toNanos(startWorkTimeout))) {
+        throw new PromiseRejectedException();
+      }
       T result = request.getPromise().blockingGetOrThrow(startWorkTimeout, timeout, unit);
       id = id.withTag("success", "true");
       return result;
@@ -172,6 +187,19 @@ public class PooledRequestQueue implements RequestQueue {
     }
   }
 
+  private RequestPartition createPartition(String partition) {
+    RequestPartition requestPartition =
+        new RequestPartition(
+            registry,
+            partition,
+            // one thread is reserved for the request distributor
+            () -> executorService.getMaximumPoolSize() - 1,
+            isAdaptive::get,
+            pollCoordinator);
+    requestPartitions.add(requestPartition);
+    return requestPartition;
+  }
+
   @Scheduled(fixedDelayString = "${request-queue.core-pool-size-refresh-ms:120000}")
   public void refreshCorePoolSize() {
     int currentCorePoolSize = executorService.getCorePoolSize();
@@ -190,5 +218,8 @@ public class PooledRequestQueue implements RequestQueue {
     }
 
     isEnabled.set(dynamicConfigService.isEnabled("request-queue", true));
+    isAdaptive.set(
+        dynamicConfigService.isEnabled(
+            "request-queue.adaptive-concurrency", defaultAdaptiveConcurrency));
   }
 }
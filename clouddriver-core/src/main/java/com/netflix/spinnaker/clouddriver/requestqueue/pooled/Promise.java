@@ -68,16 +68,17 @@ class Promise<T> {
     }
   }
 
-  void complete(T result) {
+  boolean complete(T result) {
     registry
         .counter(registry.createId("pooledRequestQueue.promise.complete", "partition", partition))
         .increment();
-    this.result.compareAndSet(null, Either.forResult(result));
+    boolean completed = this.result.compareAndSet(null, Either.forResult(result));
     startingLatch.countDown();
     latch.countDown();
+    return completed;
   }
 
-  void completeWithException(Throwable exception) {
+  boolean completeWithException(Throwable exception) {
     final String cause =
         Optional.ofNullable(exception)
             .map(Throwable::getClass)
@@ -88,9 +89,10 @@ class Promise<T> {
             registry.createId(
                 "pooledRequestQueue.promise.exception", "partition", partition, "cause", cause))
         .increment();
-    this.result.compareAndSet(null, Either.forException(exception));
+    boolean completed = this.result.compareAndSet(null, Either.forException(exception));
     startingLatch.countDown();
     latch.countDown();
+    return completed;
   }
 
   T blockingGetOrThrow(long startWorkTimeout, long timeout, TimeUnit unit) throws Throwable {
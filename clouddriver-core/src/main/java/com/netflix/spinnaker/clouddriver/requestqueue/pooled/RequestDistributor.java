@@ -19,7 +19,6 @@ package com.netflix.spinnaker.clouddriver.requestqueue.pooled;
 import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.Registry;
 import java.util.Collection;
-import java.util.Queue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
@@ -29,7 +28,7 @@ class RequestDistributor implements Runnable {
   private final AtomicBoolean continueRunning = new AtomicBoolean(true);
   private final PollCoordinator pollCoordinator;
   private final Executor executor;
-  private final Collection<Queue<PooledRequest<?>>> requestQueues;
+  private final Collection<RequestPartition> partitions;
   private final Counter submissionCounter;
 
   private final Logger log = LoggerFactory.getLogger(getClass());
@@ -38,10 +37,10 @@ class RequestDistributor implements Runnable {
       Registry registry,
       PollCoordinator pollCoordinator,
       Executor executor,
-      Collection<Queue<PooledRequest<?>>> requestQueues) {
+      Collection<RequestPartition> partitions) {
     this.pollCoordinator = pollCoordinator;
     this.executor = executor;
-    this.requestQueues = requestQueues;
+    this.partitions = partitions;
     this.submissionCounter = registry.counter("pooledRequestQueue.submitted");
   }
 
@@ -60,8 +59,8 @@ class RequestDistributor implements Runnable {
     try {
       boolean hadItems = false;
       pollCoordinator.reset();
-      for (Queue<PooledRequest<?>> queue : requestQueues) {
-        final PooledRequest<?> request = queue.poll();
+      for (RequestPartition partition : partitions) {
+        final PooledRequest<?> request = partition.poll();
         if (request != null) {
           hadItems = true;
           submissionCounter.increment();
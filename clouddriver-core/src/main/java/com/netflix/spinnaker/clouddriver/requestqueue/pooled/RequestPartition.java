@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.requestqueue.pooled;
+
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Timer;
+import java.util.Queue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+
+/**
+ * The queue of requests for a single partition, along with the limiter that decides how many of
+ * them may run at once.
+ *
+ * <p>When adaptive concurrency is disabled the limiter still observes every request (so its metrics
+ * stay meaningful) but never holds requests back or sheds them.
+ */
+class RequestPartition {
+  private final String name;
+  private final Queue<PooledRequest<?>> queue = new LinkedBlockingQueue<>();
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final BooleanSupplier adaptive;
+  private final PollCoordinator pollCoordinator;
+
+  private final Timer serviceTime;
+  private final Counter rejected;
+
+  RequestPartition(
+      Registry registry,
+      String name,
+      IntSupplier maxConcurrency,
+      BooleanSupplier adaptive,
+      PollCoordinator pollCoordinator) {
+    this.name = name;
+    this.limiter = new AdaptiveConcurrencyLimiter(maxConcurrency);
+    this.adaptive = adaptive;
+    this.pollCoordinator = pollCoordinator;
+
+    this.serviceTime =
+        registry.timer(registry.createId("pooledRequestQueue.serviceTime", "partition", name));
+    this.rejected =
+        registry.counter(
+            registry.createId(
+                "pooledRequestQueue.rejected", "partition", name, "reason", "predictedWait"));
+    registry.gauge(
+        registry.createId("pooledRequestQueue.partition.size", "partition", name),
+        queue,
+        Queue::size);
+    registry.gauge(
+        registry.createId("pooledRequestQueue.partition.concurrencyLimit", "partition", name),
+        limiter,
+        AdaptiveConcurrencyLimiter::getLimit);
+    registry.gauge(
+        registry.createId("pooledRequestQueue.partition.inFlight", "partition", name),
+        limiter,
+        AdaptiveConcurrencyLimiter::getInFlight);
+  }
+
+  String getName() {
+    return name;
+  }
+
+  /**
+   * Queues a request, unless adaptive concurrency is enabled and the request is predicted to wait
+   * longer than {@code startWorkTimeoutNanos} before starting.
+   *
+   * @return whether the request was queued
+   */
+  boolean offer(PooledRequest<?> request, long startWorkTimeoutNanos) {
+    if (adaptive.getAsBoolean()
+        && limiter.predictedWaitNanos(queue.size()) > startWorkTimeoutNanos) {
+      rejected.increment();
+      return false;
+    }
+    queue.offer(request);
+    pollCoordinator.notifyItemsAdded();
+    return true;
+  }
+
+  /** Takes the next request if the partition has capacity to run it. */
+  PooledRequest<?> poll() {
+    if (queue.isEmpty()) {
+      return null;
+    }
+    if (adaptive.getAsBoolean()) {
+      if (!limiter.tryAcquire()) {
+        return null;
+      }
+    } else {
+      limiter.acquire();
+    }
+
+    PooledRequest<?> request = queue.poll();
+    if (request == null) {
+      limiter.release();
+    }
+    return request;
+  }
+
+  /** Called when a request taken by {@link #poll()} is not going to run. */
+  void skipped() {
+    limiter.release();
+    notifyCapacityFreed();
+  }
+
+  /** Called when a request taken by {@link #poll()} has finished running. */
+  void completed(long serviceNanos, boolean dropped) {
+    serviceTime.record(serviceNanos, TimeUnit.NANOSECONDS);
+    limiter.release(serviceNanos, dropped);
+    notifyCapacityFreed();
+  }
+
+  private void notifyCapacityFreed() {
+    // Requests held back by the limiter can now be distributed
+    if (adaptive.getAsBoolean() && !queue.isEmpty()) {
+      pollCoordinator.notifyItemsAdded();
+    }
+  }
+}
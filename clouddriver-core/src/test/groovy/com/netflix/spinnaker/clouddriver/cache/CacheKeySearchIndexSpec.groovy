@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.clouddriver.cache
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class CacheKeySearchIndexSpec extends Specification {
+
+  def index = new CacheKeySearchIndex(1024 * 1024)
+
+  def keys = [
+    "aws:instances:prod:us-west-2:i-1234",
+    "aws:instances:prod:us-east-1:i-5678",
+    "aws:instances:test:us-west-2:i-9012",
+  ]
+
+  @Unroll
+  def "finds keys containing '#query'"() {
+    given:
+    index.reconcile("instances", keys)
+
+    expect:
+    index.find("instances", query) as Set == expected as Set
+
+    where:
+    query       || expected
+    "i-1234"    || ["aws:instances:prod:us-west-2:i-1234"]
+    "US-WEST"   || ["aws:instances:prod:us-west-2:i-1234", "aws:instances:test:us-west-2:i-9012"]
+    "prod"      || ["aws:instances:prod:us-west-2:i-1234", "aws:instances:prod:us-east-1:i-5678"]
+    "-1"        || ["aws:instances:prod:us-west-2:i-1234", "aws:instances:prod:us-east-1:i-5678"]
+    "1234prod"  || []
+    "2:i-1"     || ["aws:instances:prod:us-west-2:i-1234"]
+  }
+
+  def "only changed keys are added or removed on reconcile"() {
+    given:
+    index.reconcile("instances", keys)
+    def bytes = index.bytesHeld()
+
+    when:
+    index.reconcile("instances", keys - keys[0] + "aws:instances:prod:us-west-2:i-4321")
+
+    then:
+    index.keys("instances") == (keys - keys[0] + "aws:instances:prod:us-west-2:i-4321") as Set
+    index.find("instances", "i-1234").isEmpty()
+    index.find("instances", "i-4321") == ["aws:instances:prod:us-west-2:i-4321"]
+    index.bytesHeld() == bytes
+
+    when:
+    index.reconcile("instances", [])
+
+    then:
+    index.keys("instances").isEmpty()
+    index.bytesHeld() == 0
+  }
+
+  def "types exceeding the memory budget are not indexed"() {
+    given:
+    def smallIndex = new CacheKeySearchIndex(1024)
+
+    expect:
+    !smallIndex.reconcile("instances", (1..100).collect { "aws:instances:prod:us-west-2:i-$it".toString() })
+    !smallIndex.isIndexed("instances")
+    smallIndex.bytesHeld() == 0
+    smallIndex.find("instances", "prod") == null
+  }
+
+  def "types exceeding the memory budget are only indexed again once they shrink"() {
+    given:
+    def smallIndex = new CacheKeySearchIndex(1024)
+    def tooMany = (1..100).collect { "aws:instances:prod:us-west-2:i-$it".toString() }
+
+    expect:
+    !smallIndex.reconcile("instances", tooMany)
+
+    when:
+    def moreKeys = Mock(Collection)
+    def indexed = smallIndex.reconcile("instances", moreKeys)
+
+    then:
+    _ * moreKeys.size() >> tooMany.size() + 1
+    0 * moreKeys.iterator()
+    !indexed
+
+    when:
+    indexed = smallIndex.reconcile("instances", tooMany.take(2))
+
+    then:
+    indexed
+    smallIndex.find("instances", "i-2") == ["aws:instances:prod:us-west-2:i-2"]
+  }
+}
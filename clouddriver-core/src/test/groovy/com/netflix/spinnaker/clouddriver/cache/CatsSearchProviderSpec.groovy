@@ -70,9 +70,7 @@ class CatsSearchProviderSpec extends Specification {
     catsSearchProvider.run()
 
     then:
-    catsSearchProvider.cachedIdentifiersByType.get() == [
-      "instances": instanceIdentifiers.collect { it.toLowerCase() }
-    ]
+    catsSearchProvider.searchIndex.keys("instances") == instanceIdentifiers.collect { it.toLowerCase() } as Set
   }
 
   def "should handle unparseable instance identifiers"() {
@@ -83,7 +81,7 @@ class CatsSearchProviderSpec extends Specification {
     catsSearchProvider.run()
 
     then:
-    catsSearchProvider.cachedIdentifiersByType.get() == [:]
+    !catsSearchProvider.searchIndex.isIndexed("instances")
 
     when:
     providers.add(
@@ -93,6 +91,6 @@ class CatsSearchProviderSpec extends Specification {
     )
 
     then:
-    catsSearchProvider.cachedIdentifiersByType.get() == [:]
+    !catsSearchProvider.searchIndex.isIndexed("instances")
   }
 }
@@ -15,7 +15,7 @@
  */
 package com.netflix.spinnaker.clouddriver.data.task.jedis
 
-
+import com.netflix.spinnaker.clouddriver.data.task.TaskState
 import com.netflix.spinnaker.kork.jedis.EmbeddedRedis
 import com.netflix.spinnaker.kork.jedis.JedisClientDelegate
 import redis.clients.jedis.Jedis
@@ -76,4 +76,48 @@ class RedisTaskRepositorySpec extends Specification {
     embeddedRedis1.destroy()
     embeddedRedis2.destroy()
   }
+
+  void "compact history entries round trip and can be read alongside json entries"() {
+    given:
+    def jsonRepository = new RedisTaskRepository(new JedisClientDelegate(jedisPool), Optional.empty())
+    def compactRepository = new RedisTaskRepository(new JedisClientDelegate(jedisPool), Optional.empty(), true)
+
+    when:
+    def task = jsonRepository.create("INIT", "Creating task")
+    def compactTask = compactRepository.get(task.id)
+    compactTask.updateStatus("DEPLOY:CANARY", "Deploying: 50%")
+    compactTask.fail(true)
+    def stored = jedisPool.resource.withCloseable {
+      ((Jedis) it).lrange("taskHistory:" + task.id, 0, -1)
+    }
+    def reloaded = jsonRepository.get(task.id)
+
+    then:
+    stored*.take(1) == ['{', 'S', 'R']
+
+    and:
+    reloaded.history*.phase == ["INIT", "DEPLOY:CANARY"]
+    reloaded.history*.status == ["Creating task", "Deploying: 50%"]
+    reloaded.status.phase == "DEPLOY:CANARY"
+    reloaded.status.isRetryable()
+  }
+
+  void "tasks are listed with their history, results and outputs"() {
+    given:
+    def first = taskRepository.create("DEPLOY", "Starting")
+    first.addResultObjects([[name: "first"]])
+    first.updateOutput("manifest", "DEPLOY", "out", "err")
+    def second = taskRepository.create("DEPLOY", "Starting")
+    second.updateStatus("DEPLOY", "Running")
+
+    when:
+    def tasks = taskRepository.list().collectEntries { [(it.id): it] }
+
+    then:
+    tasks.keySet() == [first.id, second.id] as Set
+    tasks[first.id].resultObjects == [[name: "first"]]
+    tasks[first.id].outputs*.stdOut == ["out"]
+    tasks[second.id].history*.status == ["Starting", "Running"]
+    tasks[second.id].status.state == TaskState.STARTED
+  }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.requestqueue.pooled;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+final class AdaptiveConcurrencyLimiterTest {
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+  @Test
+  void shrinksWhenLatencyRisesAndRecovers() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(() -> 10);
+    saturate(limiter, 10);
+
+    sample(limiter, 50, FAST);
+    assertThat(limiter.getLimit()).isEqualTo(10);
+
+    sample(limiter, 10, SLOW);
+    assertThat(limiter.getLimit()).isLessThan(10);
+
+    sample(limiter, 50, FAST);
+    assertThat(limiter.getLimit()).isEqualTo(10);
+  }
+
+  @Test
+  void backsOffWhenRequestsAreDropped() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(() -> 10);
+
+    limiter.acquire();
+    limiter.release(FAST, true);
+
+    assertThat(limiter.getLimit()).isEqualTo(9);
+  }
+
+  @Test
+  void onlyGrowsWhenTheLimitIsUsed() {
+    AtomicInteger maxLimit = new AtomicInteger(2);
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(maxLimit::get);
+    maxLimit.set(10);
+
+    sample(limiter, 50, FAST);
+    assertThat(limiter.getLimit()).isEqualTo(2);
+
+    saturate(limiter, 10);
+    sample(limiter, 50, FAST);
+    assertThat(limiter.getLimit()).isEqualTo(10);
+  }
+
+  @Test
+  void tryAcquireRespectsTheLimit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(() -> 2);
+
+    assertThat(limiter.tryAcquire()).isTrue();
+    assertThat(limiter.tryAcquire()).isTrue();
+    assertThat(limiter.tryAcquire()).isFalse();
+
+    limiter.release();
+    assertThat(limiter.tryAcquire()).isTrue();
+    assertThat(limiter.getInFlight()).isEqualTo(2);
+  }
+
+  @Test
+  void predictsWaitFromRecentServiceTime() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(() -> 2);
+    assertThat(limiter.predictedWaitNanos(10)).isZero();
+
+    sample(limiter, 10, FAST);
+    assertThat(limiter.predictedWaitNanos(0)).isZero();
+
+    saturate(limiter, 2);
+    assertThat(limiter.predictedWaitNanos(0)).isEqualTo(FAST / 2);
+    assertThat(limiter.predictedWaitNanos(3)).isEqualTo(2 * FAST);
+  }
+
+  private static void saturate(AdaptiveConcurrencyLimiter limiter, int requests) {
+    for (int i = 0; i < requests; i++) {
+      limiter.acquire();
+    }
+  }
+
+  private static void sample(AdaptiveConcurrencyLimiter limiter, int requests, long serviceNanos) {
+    for (int i = 0; i < requests; i++) {
+      limiter.acquire();
+      limiter.release(serviceNanos, false);
+    }
+  }
+}
@@ -167,6 +167,42 @@ final class PooledRequestQueueTest {
     assertThat(testJobRan.get()).isFalse();
   }
 
+  @Test
+  void shedsRequestsPredictedToMissTheirStartTimeout() {
+    NoopRegistry registry = new NoopRegistry();
+    RequestPartition partition =
+        new RequestPartition(registry, "foo", () -> 1, () -> true, new PollCoordinator());
+    long serviceTime = TimeUnit.MILLISECONDS.toNanos(30);
+    long startWorkTimeout = TimeUnit.MILLISECONDS.toNanos(50);
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(partition.offer(request(registry, partition), 0)).isTrue();
+      assertThat(partition.poll()).isNotNull();
+      partition.completed(serviceTime, false);
+    }
+
+    // Occupy the only slot, then queue a request that is expected to start within the timeout
+    partition.offer(request(registry, partition), startWorkTimeout);
+    assertThat(partition.poll()).isNotNull();
+    assertThat(partition.offer(request(registry, partition), startWorkTimeout)).isTrue();
+    assertThat(partition.poll()).isNull();
+
+    // A second queued request would have to wait for both of them
+    assertThat(partition.offer(request(registry, partition), startWorkTimeout)).isFalse();
+  }
+
+  @Test
+  void shouldExecuteRequestsWithAdaptiveConcurrency() throws Throwable {
+    PooledRequestQueue queue =
+        new PooledRequestQueue(dynamicConfigService, new NoopRegistry(), 1000, 1000, 1, true);
+
+    assertThat(queue.execute("foo", () -> 12345L)).isEqualTo(12345L);
+  }
+
+  private static PooledRequest<Void> request(NoopRegistry registry, RequestPartition partition) {
+    return new PooledRequest<>(registry, partition, () -> null);
+  }
+
   /**
    * Translates a {@link ThrowingRunnable} into a {@link Callable<Void>}.
    *
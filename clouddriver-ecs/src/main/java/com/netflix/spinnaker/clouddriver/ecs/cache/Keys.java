@@ -31,6 +31,7 @@ public class Keys implements KeyParser {
     SERVICES,
     ECS_CLUSTERS,
     TASKS,
+    SERVICE_TASKS,
     CONTAINER_INSTANCES,
     TASK_DEFINITIONS,
     ALARMS,
@@ -116,6 +117,11 @@ public class Keys implements KeyParser {
         result.put("region", parts[3]);
         result.put("taskId", parts[4]);
         break;
+      case SERVICE_TASKS:
+        result.put("account", parts[2]);
+        result.put("region", parts[3]);
+        result.put("serviceName", parts[4]);
+        break;
       case CONTAINER_INSTANCES:
         result.put("account", parts[2]);
         result.put("region", parts[3]);
@@ -183,6 +189,10 @@ public class Keys implements KeyParser {
     return buildKey(Namespace.TASKS.ns, account, region, taskId);
   }
 
+  public static String getServiceTasksKey(String account, String region, String serviceName) {
+    return buildKey(Namespace.SERVICE_TASKS.ns, account, region, serviceName);
+  }
+
   public static String getTaskHealthKey(String account, String region, String taskId) {
     return buildKey(HEALTH.getNs(), account, region, taskId);
   }
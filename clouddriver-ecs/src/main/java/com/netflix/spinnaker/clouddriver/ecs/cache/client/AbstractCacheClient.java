@@ -21,7 +21,9 @@ import com.netflix.spinnaker.cats.cache.CacheData;
 import com.netflix.spinnaker.clouddriver.ecs.cache.Keys;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -73,6 +75,34 @@ abstract class AbstractCacheClient<T> {
     return convertAll(allData);
   }
 
+  /**
+   * @param keys Keys within the key namespace that will be used to retrieve the objects in a single
+   *     bulk read.
+   * @return The objects of the generic type that are associated to the keys, by key. Keys without a
+   *     cached object are absent.
+   */
+  public Map<String, T> getAllByKey(Collection<String> keys) {
+    Map<String, T> objects = new HashMap<>();
+    if (keys.isEmpty()) {
+      return objects;
+    }
+    Collection<CacheData> allData = cacheView.getAll(keyNamespace, keys);
+    if (allData != null) {
+      for (CacheData cacheData : allData) {
+        objects.put(cacheData.getId(), convert(cacheData));
+      }
+    }
+    return objects;
+  }
+
+  /**
+   * @return A lookup that memoizes the objects read through this client, to be used for a single
+   *     caching cycle.
+   */
+  public CacheLookup<T> lookup() {
+    return new CacheLookup<>(this);
+  }
+
   /**
    * @param key A key within the key namespace that will be used to retrieve the object.
    * @return An object of the generic type that is associated to the key.
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.ecs.cache.client;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Memoizes the objects read through a cache client for the duration of a caching cycle. Keys known
+ * in advance can be prefetched in a single bulk read, instead of one read per key.
+ *
+ * <p>Not thread safe; a lookup is meant to be created and used by a single agent execution.
+ *
+ * @param <T> The type of object read through the cache client.
+ */
+public class CacheLookup<T> {
+  private final AbstractCacheClient<T> cacheClient;
+  private final Map<String, T> objects = new HashMap<>();
+
+  CacheLookup(AbstractCacheClient<T> cacheClient) {
+    this.cacheClient = cacheClient;
+  }
+
+  /**
+   * Reads the objects for all keys that haven't been looked up yet in one bulk read. Keys without
+   * a cached object are remembered as missing.
+   *
+   * @param keys Keys within the key namespace of the cache client.
+   */
+  public void prefetch(Collection<String> keys) {
+    Set<String> missing =
+        keys.stream()
+            .filter(key -> key != null && !objects.containsKey(key))
+            .collect(Collectors.toSet());
+    if (missing.isEmpty()) {
+      return;
+    }
+
+    Map<String, T> found = cacheClient.getAllByKey(missing);
+    for (String key : missing) {
+      objects.put(key, found.get(key));
+    }
+  }
+
+  /**
+   * @param key A key within the key namespace of the cache client.
+   * @return The object associated to the key, read from the cache only if it hasn't been looked up
+   *     yet.
+   */
+  public T get(String key) {
+    if (!objects.containsKey(key)) {
+      objects.put(key, cacheClient.get(key));
+    }
+    return objects.get(key);
+  }
+}
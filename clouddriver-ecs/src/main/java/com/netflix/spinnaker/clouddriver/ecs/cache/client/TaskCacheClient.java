@@ -16,22 +16,31 @@
 
 package com.netflix.spinnaker.clouddriver.ecs.cache.client;
 
+import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.SERVICE_TASKS;
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.TASKS;
 
 import com.amazonaws.services.ecs.model.Container;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.netflix.spinnaker.cats.cache.Cache;
 import com.netflix.spinnaker.cats.cache.CacheData;
+import com.netflix.spinnaker.clouddriver.ecs.cache.Keys;
 import com.netflix.spinnaker.clouddriver.ecs.cache.model.Task;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 public class TaskCacheClient extends AbstractCacheClient<Task> {
+  private static final String SERVICE_GROUP_PREFIX = "service:";
+
   private ObjectMapper objectMapper;
 
   @Autowired
@@ -40,6 +49,61 @@ public class TaskCacheClient extends AbstractCacheClient<Task> {
     this.objectMapper = objectMapper;
   }
 
+  /**
+   * Reads the tasks of the given services through the per-service task records, so only those
+   * tasks are read rather than every task of the region.
+   *
+   * @param account Account name.
+   * @param region Region name.
+   * @param serviceNames Names of the services to read the tasks of.
+   * @return The tasks of the services, by service name.
+   */
+  public Map<String, List<Task>> getAllByService(
+      String account, String region, Collection<String> serviceNames) {
+    if (serviceNames.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    Collection<String> serviceTasksKeys =
+        serviceNames.stream()
+            .map(serviceName -> Keys.getServiceTasksKey(account, region, serviceName))
+            .collect(Collectors.toList());
+
+    Collection<CacheData> allServiceTasks =
+        cacheView.getAll(SERVICE_TASKS.toString(), serviceTasksKeys);
+    Set<String> taskKeys = new HashSet<>();
+    if (allServiceTasks != null) {
+      for (CacheData serviceTasks : allServiceTasks) {
+        Collection<String> keys =
+            (Collection<String>) serviceTasks.getAttributes().get("taskKeys");
+        if (keys != null) {
+          taskKeys.addAll(keys);
+        }
+      }
+    }
+    if (taskKeys.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    return groupByService(getAll(taskKeys));
+  }
+
+  /**
+   * @param tasks Tasks to group.
+   * @return The tasks that were started by a service, by service name.
+   */
+  private static Map<String, List<Task>> groupByService(Collection<Task> tasks) {
+    Map<String, List<Task>> tasksByService = new HashMap<>();
+    for (Task task : tasks) {
+      String group = task.getGroup();
+      if (group != null && group.startsWith(SERVICE_GROUP_PREFIX)) {
+        String serviceName = group.substring(SERVICE_GROUP_PREFIX.length());
+        tasksByService.computeIfAbsent(serviceName, k -> new ArrayList<>()).add(task);
+      }
+    }
+    return tasksByService;
+  }
+
   @Override
   protected Task convert(CacheData cacheData) {
     Task task = new Task();
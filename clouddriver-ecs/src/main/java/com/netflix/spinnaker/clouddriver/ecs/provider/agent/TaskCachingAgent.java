@@ -21,6 +21,7 @@ import static com.netflix.spinnaker.cats.agent.AgentDataType.Authority.INFORMATI
 import static com.netflix.spinnaker.clouddriver.core.provider.agent.Namespace.ON_DEMAND;
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.ECS_CLUSTERS;
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.SERVICES;
+import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.SERVICE_TASKS;
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.TASKS;
 
 import com.amazonaws.auth.AWSCredentialsProvider;
@@ -37,6 +38,7 @@ import com.netflix.spinnaker.cats.provider.ProviderCache;
 import com.netflix.spinnaker.clouddriver.aws.security.AmazonClientProvider;
 import com.netflix.spinnaker.clouddriver.aws.security.NetflixAmazonCredentials;
 import com.netflix.spinnaker.clouddriver.ecs.cache.Keys;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -51,10 +53,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class TaskCachingAgent extends AbstractEcsOnDemandAgent<Task> {
+  private static final String SERVICE_GROUP_PREFIX = "service:";
   private static final Collection<AgentDataType> types =
       Collections.unmodifiableCollection(
           Arrays.asList(
               AUTHORITATIVE.forType(TASKS.toString()),
+              AUTHORITATIVE.forType(SERVICE_TASKS.toString()),
               INFORMATIVE.forType(ECS_CLUSTERS.toString())));
   private final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -77,6 +81,15 @@ public class TaskCachingAgent extends AbstractEcsOnDemandAgent<Task> {
     return accountName + "/" + region + "/" + getClass().getSimpleName();
   }
 
+  /**
+   * Only tasks are evicted explicitly. The per-service task records are rewritten on every run, and
+   * as their namespace is authoritative the cache drops the ones that are no longer written.
+   */
+  @Override
+  String getAuthoritativeKeyName() {
+    return TASKS.toString();
+  }
+
   @Override
   protected List<Task> getItems(AmazonECS ecs, ProviderCache providerCache) {
     List<Task> taskList = new LinkedList<>();
@@ -161,6 +174,7 @@ public class TaskCachingAgent extends AbstractEcsOnDemandAgent<Task> {
   protected Map<String, Collection<CacheData>> generateFreshData(Collection<Task> tasks) {
     Collection<CacheData> dataPoints = new LinkedList<>();
     Map<String, CacheData> clusterDataPoints = new HashMap<>();
+    Map<String, List<String>> taskKeysByService = new HashMap<>();
 
     for (Task task : tasks) {
       String taskId = StringUtils.substringAfterLast(task.getTaskArn(), "/");
@@ -169,6 +183,12 @@ public class TaskCachingAgent extends AbstractEcsOnDemandAgent<Task> {
       String key = Keys.getTaskKey(accountName, region, taskId);
       dataPoints.add(new DefaultCacheData(key, attributes, Collections.emptyMap()));
 
+      String group = task.getGroup();
+      if (group != null && group.startsWith(SERVICE_GROUP_PREFIX)) {
+        String serviceName = group.substring(SERVICE_GROUP_PREFIX.length());
+        taskKeysByService.computeIfAbsent(serviceName, k -> new ArrayList<>()).add(key);
+      }
+
       String clusterName = StringUtils.substringAfterLast(task.getClusterArn(), "/");
       Map<String, Object> clusterAttributes =
           EcsClusterCachingAgent.convertClusterArnToAttributes(
@@ -182,6 +202,18 @@ public class TaskCachingAgent extends AbstractEcsOnDemandAgent<Task> {
     Map<String, Collection<CacheData>> dataMap = new HashMap<>();
     dataMap.put(TASKS.toString(), dataPoints);
 
+    // one record per service listing its task keys, so a service's tasks can be read by key
+    Collection<CacheData> serviceTasksDataPoints = new LinkedList<>();
+    for (Map.Entry<String, List<String>> entry : taskKeysByService.entrySet()) {
+      Map<String, Object> serviceTasksAttributes = new HashMap<>();
+      serviceTasksAttributes.put("serviceName", entry.getKey());
+      serviceTasksAttributes.put("taskKeys", entry.getValue());
+      String key = Keys.getServiceTasksKey(accountName, region, entry.getKey());
+      serviceTasksDataPoints.add(
+          new DefaultCacheData(key, serviceTasksAttributes, Collections.emptyMap()));
+    }
+    dataMap.put(SERVICE_TASKS.toString(), serviceTasksDataPoints);
+
     log.info("Caching " + clusterDataPoints.size() + " ECS clusters in " + getAgentType());
     dataMap.put(ECS_CLUSTERS.toString(), clusterDataPoints.values());
 
@@ -45,10 +45,13 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -105,15 +108,21 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
     Collection<Task> tasks = taskCacheClient.getAll(accountName, region);
     if (tasks != null) {
       log.debug("Found {} tasks to retrieve health for.", tasks.size());
+
+      CacheLookup<ContainerInstance> containerInstances = containerInstanceCacheClient.lookup();
+      CacheLookup<Service> services = serviceCacheClient.lookup();
+      CacheLookup<TaskDefinition> taskDefinitions = taskDefinitionCacheClient.lookup();
+      CacheLookup<EcsTargetHealth> targetHealths = targetHealthCacheClient.lookup();
+      prefetch(tasks, containerInstances, services, taskDefinitions, targetHealths);
+
       for (Task task : tasks) {
         String containerInstanceCacheKey =
             Keys.getContainerInstanceKey(accountName, region, task.getContainerInstanceArn());
-        ContainerInstance containerInstance =
-            containerInstanceCacheClient.get(containerInstanceCacheKey);
+        ContainerInstance containerInstance = containerInstances.get(containerInstanceCacheKey);
 
         String serviceName = StringUtils.substringAfter(task.getGroup(), "service:");
         String serviceKey = Keys.getServiceKey(accountName, region, serviceName);
-        Service service = serviceCacheClient.get(serviceKey);
+        Service service = services.get(serviceKey);
 
         if (service == null) {
           String taskEvictionKey = Keys.getTaskKey(accountName, region, task.getTaskId());
@@ -127,7 +136,7 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
 
         String taskDefinitionCacheKey =
             Keys.getTaskDefinitionKey(accountName, region, service.getTaskDefinition());
-        TaskDefinition taskDefinition = taskDefinitionCacheClient.get(taskDefinitionCacheKey);
+        TaskDefinition taskDefinition = taskDefinitions.get(taskDefinitionCacheKey);
 
         boolean lacksNetworkInterfaces = isTaskMissingNetworkInterfaces(task);
         if (task.getContainers().isEmpty()
@@ -145,11 +154,11 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
           // if network interfaces are present, assume awsvpc mode
           taskHealth =
               inferHealthNetworkInterfacedContainer(
-                  targetHealthCacheClient, task, serviceName, service, taskDefinition);
+                  targetHealths, task, serviceName, service, taskDefinition);
         } else {
           taskHealth =
               inferHealthNetworkBindedContainer(
-                  targetHealthCacheClient, task, containerInstance, serviceName, service);
+                  targetHealths, task, containerInstance, serviceName, service);
         }
         log.debug("Task Health contains the following elements: {}", taskHealth);
 
@@ -165,8 +174,57 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
     return taskHealthList;
   }
 
+  /**
+   * Reads the container instances, services, task definitions and target healths referenced by the
+   * tasks in one bulk read per type, rather than one read per task.
+   */
+  private void prefetch(
+      Collection<Task> tasks,
+      CacheLookup<ContainerInstance> containerInstances,
+      CacheLookup<Service> services,
+      CacheLookup<TaskDefinition> taskDefinitions,
+      CacheLookup<EcsTargetHealth> targetHealths) {
+    containerInstances.prefetch(
+        tasks.stream()
+            .map(
+                task ->
+                    Keys.getContainerInstanceKey(
+                        accountName, region, task.getContainerInstanceArn()))
+            .collect(Collectors.toSet()));
+
+    Set<String> serviceKeys =
+        tasks.stream()
+            .map(
+                task ->
+                    Keys.getServiceKey(
+                        accountName,
+                        region,
+                        StringUtils.substringAfter(task.getGroup(), "service:")))
+            .collect(Collectors.toSet());
+    services.prefetch(serviceKeys);
+
+    Set<String> taskDefinitionKeys = new HashSet<>();
+    Set<String> targetHealthKeys = new HashSet<>();
+    for (String serviceKey : serviceKeys) {
+      Service service = services.get(serviceKey);
+      if (service == null) {
+        continue;
+      }
+      taskDefinitionKeys.add(
+          Keys.getTaskDefinitionKey(accountName, region, service.getTaskDefinition()));
+      for (LoadBalancer loadBalancer : service.getLoadBalancers()) {
+        if (loadBalancer.getTargetGroupArn() != null) {
+          targetHealthKeys.add(
+              Keys.getTargetHealthKey(accountName, region, loadBalancer.getTargetGroupArn()));
+        }
+      }
+    }
+    taskDefinitions.prefetch(taskDefinitionKeys);
+    targetHealths.prefetch(targetHealthKeys);
+  }
+
   private TaskHealth inferHealthNetworkInterfacedContainer(
-      TargetHealthCacheClient targetHealthCacheClient,
+      CacheLookup<EcsTargetHealth> targetHealths,
       Task task,
       String serviceName,
       Service loadBalancerService,
@@ -210,7 +268,7 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
 
       overallTaskHealth =
           describeTargetHealth(
-              targetHealthCacheClient,
+              targetHealths,
               task,
               serviceName,
               loadBalancer.getTargetGroupArn(),
@@ -243,7 +301,7 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
   }
 
   private TaskHealth inferHealthNetworkBindedContainer(
-      TargetHealthCacheClient targetHealthCacheClient,
+      CacheLookup<EcsTargetHealth> targetHealths,
       Task task,
       ContainerInstance containerInstance,
       String serviceName,
@@ -275,7 +333,7 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
 
       overallTaskHealth =
           describeTargetHealth(
-              targetHealthCacheClient,
+              targetHealths,
               task,
               serviceName,
               loadBalancer.getTargetGroupArn(),
@@ -300,7 +358,7 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
   }
 
   private TaskHealth describeTargetHealth(
-      TargetHealthCacheClient targetHealthCacheClient,
+      CacheLookup<EcsTargetHealth> targetHealths,
       Task task,
       String serviceName,
       String targetGroupArn,
@@ -309,7 +367,7 @@ public class TaskHealthCachingAgent extends AbstractEcsCachingAgent<TaskHealth>
       TaskHealth overallTaskHealth) {
 
     String targetHealthKey = Keys.getTargetHealthKey(accountName, region, targetGroupArn);
-    EcsTargetHealth targetHealth = targetHealthCacheClient.get(targetHealthKey);
+    EcsTargetHealth targetHealth = targetHealths.get(targetHealthKey);
 
     if (targetHealth == null) {
       log.debug("Cached EcsTargetHealth is empty for targetGroup {}", targetGroupArn);
@@ -48,6 +48,7 @@ import com.netflix.spinnaker.clouddriver.model.ServerGroup;
 import com.netflix.spinnaker.credentials.CredentialsRepository;
 import com.netflix.spinnaker.moniker.Moniker;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -130,7 +131,16 @@ public class EcsServerClusterProvider implements ClusterProvider<EcsServerCluste
 
     Collection<String> ecsServices = serviceCacheClient.filterIdentifiers(glob);
     Collection<Service> services = serviceCacheClient.getAll(ecsServices);
-    Collection<Task> allTasks = taskCacheClient.getAll(credentials.getName(), awsRegion.getName());
+    if (services.isEmpty()) {
+      return clusterMap;
+    }
+
+    // only the tasks of the matched services are read, through the per-service task records
+    Map<String, List<Task>> tasksByService =
+        taskCacheClient.getAllByService(
+            credentials.getName(),
+            awsRegion.getName(),
+            services.stream().map(Service::getServiceName).collect(Collectors.toList()));
 
     for (Service service : services) {
       final Moniker moniker = service.getMoniker();
@@ -145,9 +155,9 @@ public class EcsServerClusterProvider implements ClusterProvider<EcsServerCluste
           new HashSet<>(
               ecsLoadbalancerCacheClient.find(credentials.getName(), awsRegion.getName()));
 
+      List<Task> tasks = tasksByService.getOrDefault(serviceName, Collections.emptyList());
       Set<Instance> instances =
-          allTasks.stream()
-              .filter(task -> task.getGroup().equals("service:" + serviceName))
+          tasks.stream()
               .map(
                   task ->
                       convertToEcsTask(
@@ -171,6 +181,7 @@ public class EcsServerClusterProvider implements ClusterProvider<EcsServerCluste
               moniker,
               service.getDesiredCount(),
               instances,
+              tasks,
               service.getCreatedAt(),
               service.getClusterName(),
               taskDefinition,
@@ -313,6 +324,7 @@ public class EcsServerClusterProvider implements ClusterProvider<EcsServerCluste
       Moniker moniker,
       int desiredCount,
       Set<Instance> instances,
+      List<Task> tasks,
       long creationTime,
       String ecsClusterName,
       com.amazonaws.services.ecs.model.TaskDefinition taskDefinition,
@@ -349,26 +361,20 @@ public class EcsServerClusterProvider implements ClusterProvider<EcsServerCluste
           vpcId = vpcIds.iterator().next();
         }
       } else {
-        for (Instance instance : instances) {
-          String taskId = instance.getName();
-          String taskKey = Keys.getTaskKey(account, region, taskId);
-          Task task = taskCacheClient.get(taskKey);
-
-          if (task != null) {
-            com.amazonaws.services.ec2.model.Instance ec2Instance =
-                containerInformationService.getEc2Instance(account, region, task);
-            if (ec2Instance != null) {
-              if (ec2Instance.getVpcId() != null && !ec2Instance.getVpcId().isEmpty()) {
-                vpcId = ec2Instance.getVpcId();
-              }
-              if (ec2Instance.getSecurityGroups() != null) {
-                securityGroups =
-                    ec2Instance.getSecurityGroups().stream()
-                        .map(GroupIdentifier::getGroupId)
-                        .collect(Collectors.toSet());
-              }
-              break;
+        for (Task task : tasks) {
+          com.amazonaws.services.ec2.model.Instance ec2Instance =
+              containerInformationService.getEc2Instance(account, region, task);
+          if (ec2Instance != null) {
+            if (ec2Instance.getVpcId() != null && !ec2Instance.getVpcId().isEmpty()) {
+              vpcId = ec2Instance.getVpcId();
             }
+            if (ec2Instance.getSecurityGroups() != null) {
+              securityGroups =
+                  ec2Instance.getSecurityGroups().stream()
+                      .map(GroupIdentifier::getGroupId)
+                      .collect(Collectors.toSet());
+            }
+            break;
           }
         }
       }
@@ -39,6 +39,8 @@ import spock.lang.Specification
 import spock.lang.Subject
 
 import static com.netflix.spinnaker.clouddriver.core.provider.agent.Namespace.HEALTH
+import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.CONTAINER_INSTANCES
+import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.SERVICES
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.TARGET_HEALTHS
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.TASKS
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.TASK_DEFINITIONS
@@ -73,6 +75,10 @@ class TaskHealthCachingAgentSpec extends Specification {
     targetHealths.add(targetHealthMap2)
 
     providerCache.filterIdentifiers(_, _) >> []
+    // everything but tasks is read in bulk, from the same cached data as single reads
+    providerCache.getAll({ it != TASKS.toString() }, _ as Collection) >> { String type, Collection<String> keys ->
+      keys.collect { providerCache.get(type, it) }.findAll { it != null }
+    }
 
     def serviceAttributes = [
       loadBalancers        : Collections.singletonList(loadbalancerMap),
@@ -498,4 +504,75 @@ class TaskHealthCachingAgentSpec extends Specification {
       attributes.get('instanceId') == 'i-deadbeef'
     }
   }
+
+  def 'should read services, task definitions, container instances and target healths in bulk'() {
+    given:
+    int serviceCount = 10
+    int instanceCount = 20
+    int taskCount = 200
+    def account = CommonCachingAgent.ACCOUNT
+    def region = CommonCachingAgent.REGION
+
+    Map<String, Object> loadBalancerMap = mapper.convertValue(
+      new LoadBalancer().withTargetGroupArn(targetGroupArn).withContainerPort(1338), Map.class)
+    Map<String, Object> containerMap = mapper.convertValue(
+      new Container().withNetworkBindings(new NetworkBinding().withContainerPort(1338).withHostPort(1338)), Map.class)
+    Map<String, Object> containerDefinitionMap = mapper.convertValue(
+      new ContainerDefinition().withPortMappings(new PortMapping().withContainerPort(1338)), Map.class)
+
+    def services = (0..<serviceCount).collect { i ->
+      new DefaultCacheData(Keys.getServiceKey(account, region, "service-$i"), [
+        serviceName          : "service-$i".toString(),
+        loadBalancers        : [loadBalancerMap],
+        taskDefinition       : "task-definition-$i".toString(),
+        desiredCount         : 1,
+        maximumPercent       : 1,
+        minimumHealthyPercent: 1,
+        createdAt            : new Date().getTime()
+      ], [:])
+    }
+    def taskDefinitions = (0..<serviceCount).collect { i ->
+      new DefaultCacheData(Keys.getTaskDefinitionKey(account, region, "task-definition-$i"), [
+        taskDefinitionArn   : "task-definition-$i".toString(),
+        containerDefinitions: [containerDefinitionMap]
+      ], [:])
+    }
+    def containerInstances = (0..<instanceCount).collect { i ->
+      new DefaultCacheData(Keys.getContainerInstanceKey(account, region, "container-instance-$i"), [
+        ec2InstanceId: "i-$i".toString()
+      ], [:])
+    }
+    def targetHealth = new DefaultCacheData(Keys.getTargetHealthKey(account, region, targetGroupArn), [
+      targetGroupArn          : targetGroupArn,
+      targetHealthDescriptions: (0..<instanceCount).collect { i ->
+        mapper.convertValue(new TargetHealthDescription()
+          .withTarget(new TargetDescription().withId("i-$i").withPort(1338))
+          .withTargetHealth(new TargetHealth().withState(TargetHealthStateEnum.Healthy)), Map.class)
+      }
+    ], [:])
+    def tasks = (0..<taskCount).collect { i ->
+      new DefaultCacheData(Keys.getTaskKey(account, region, "task-$i"), [
+        taskId              : "task-$i".toString(),
+        taskArn             : "task-arn-$i".toString(),
+        startedAt           : new Date().getTime(),
+        containerInstanceArn: "container-instance-${i % instanceCount}".toString(),
+        group               : "service:service-${i % serviceCount}".toString(),
+        containers          : [containerMap]
+      ], [:])
+    }
+
+    when:
+    def taskHealthList = agent.getItems(ecs, providerCache)
+
+    then:
+    1 * providerCache.getAll(TASKS.toString(), _) >> tasks
+    1 * providerCache.getAll(SERVICES.toString(), { it.size() == serviceCount }) >> services
+    1 * providerCache.getAll(TASK_DEFINITIONS.toString(), { it.size() == serviceCount }) >> taskDefinitions
+    1 * providerCache.getAll(CONTAINER_INSTANCES.toString(), { it.size() == instanceCount }) >> containerInstances
+    1 * providerCache.getAll(TARGET_HEALTHS.toString(), { it.size() == 1 }) >> [targetHealth]
+    0 * providerCache.get(_, _)
+
+    taskHealthList.size() == taskCount
+    taskHealthList.every { it.state == 'Up' }
+  }
 }
@@ -24,8 +24,12 @@ import com.amazonaws.services.ecs.model.*
 import com.fasterxml.jackson.databind.DeserializationFeature
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.frigga.Names
+import com.netflix.spectator.api.NoopRegistry
 import com.netflix.spinnaker.cats.cache.Cache
+import com.netflix.spinnaker.cats.agent.DefaultCacheResult
 import com.netflix.spinnaker.cats.cache.DefaultCacheData
+import com.netflix.spinnaker.cats.mem.InMemoryCache
+import com.netflix.spinnaker.cats.provider.DefaultProviderCache
 import com.netflix.spinnaker.clouddriver.aws.security.AmazonCredentials
 import com.netflix.spinnaker.clouddriver.aws.security.NetflixAmazonCredentials
 import com.netflix.spinnaker.clouddriver.ecs.cache.Keys
@@ -180,6 +184,7 @@ class EcsServerClusterProviderSpec extends Specification {
     def serviceCacheData = new DefaultCacheData('', serviceAttributes, [:])
     def serviceCacheData2 = new DefaultCacheData('', serviceAttributes2, [:])
     def taskCacheData = new DefaultCacheData('', taskAttributes, [:])
+    def serviceTasksCacheData = new DefaultCacheData('', [serviceName: serviceName, taskKeys: ['key']], [:])
 
     credentialsRepository.getAll() >> [creds, creds2]
     credentialsRepository.getOne(creds.getName()) >> creds
@@ -196,6 +201,7 @@ class EcsServerClusterProviderSpec extends Specification {
 
     cacheView.filterIdentifiers(_, _) >> ['key']
     cacheView.getAll(Keys.Namespace.SERVICES.ns, _) >> [serviceCacheData, serviceCacheData2]
+    cacheView.getAll(Keys.Namespace.SERVICE_TASKS.ns, _) >> [serviceTasksCacheData]
     cacheView.getAll(Keys.Namespace.TASKS.ns, _) >> [taskCacheData]
     cacheView.get(Keys.Namespace.TASKS.ns, _) >> taskCacheData
   }
@@ -382,6 +388,71 @@ class EcsServerClusterProviderSpec extends Specification {
     retrievedClusters.sort() == [expectedCluster, expectedCluster2].sort()
   }
 
+  def 'should read only the tasks of the matched services through the service task records'() {
+    given:
+    def region = 'us-west-1'
+    def creds = Mock(NetflixECSCredentials)
+    creds.getCloudProvider() >> 'ecs'
+    creds.getName() >> CREDS_NAME
+    creds.getRegions() >> [new AmazonCredentials.AWSRegion(region, ['us-west-1a'])]
+    def serviceCachingAgent = TestServiceCachingAgentFactory.create(creds, region)
+
+    def taskCount = 50000
+    def servicesCount = 500
+    def tasksPerService = taskCount.intdiv(servicesCount)
+    def services = (0..<servicesCount).collect { i ->
+      def serviceName = String.format('app%03d-v000', i)
+      new DefaultCacheData(
+        Keys.getServiceKey(CREDS_NAME, region, serviceName),
+        serviceCachingAgent.convertServiceToAttributes(new Service(
+          serviceName: serviceName,
+          deploymentConfiguration: new DeploymentConfiguration(minimumHealthyPercent: 0, maximumPercent: 100),
+          createdAt: new Date(),
+          desiredCount: tasksPerService
+        )),
+        [:])
+    }
+    def tasks = (0..<taskCount).collect { i ->
+      def serviceName = String.format('app%03d-v000', i % servicesCount)
+      new Task(
+        taskArn: "task-arn/task-${i}",
+        clusterArn: 'cluster-arn',
+        containerInstanceArn: 'container-instance-arn',
+        group: 'service:' + serviceName,
+        lastStatus: 'RUNNING',
+        desiredStatus: 'RUNNING',
+        startedAt: new Date(),
+        containers: []
+      )
+    }
+    def taskCachingAgent = new TaskCachingAgent(creds, region, null, null, new NoopRegistry())
+
+    def cache = Spy(DefaultProviderCache, constructorArgs: [new InMemoryCache()])
+    cache.putCacheResult('ServiceCachingAgent', [Keys.Namespace.SERVICES.ns],
+      new DefaultCacheResult([(Keys.Namespace.SERVICES.ns): services]))
+    cache.putCacheResult(taskCachingAgent.agentType, [Keys.Namespace.TASKS.ns, Keys.Namespace.SERVICE_TASKS.ns],
+      new DefaultCacheResult(taskCachingAgent.generateFreshData(tasks)))
+
+    def cachedProvider = new EcsServerClusterProvider(credentialsRepository,
+      containerInformationService,
+      subnetSelector,
+      new TaskCacheClient(cache, objectMapper),
+      new ServiceCacheClient(cache, objectMapper),
+      scalableTargetCacheClient,
+      ecsLoadbalancerCacheClient,
+      taskDefinitionCacheClient,
+      ecsCloudWatchAlarmCacheClient)
+
+    when:
+    def clusters = cachedProvider.getClusterDetails('app007')
+
+    then:
+    0 * cache.filterIdentifiers(Keys.Namespace.TASKS.ns, _)
+    0 * cache.get(Keys.Namespace.TASKS.ns, _)
+    1 * cache.getAll(Keys.Namespace.TASKS.ns, { it.size() == tasksPerService })
+    clusters['app007']*.serverGroups.flatten()*.instances.flatten().size() == tasksPerService
+  }
+
   def makeEcsServerGroup(String serviceName, String region, long startTime, String taskId, Map healthStatus, String ip) {
     Names name = Names.parseName(serviceName)
     new EcsServerGroup(
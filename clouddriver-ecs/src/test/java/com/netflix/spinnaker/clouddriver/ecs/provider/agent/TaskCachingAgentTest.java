@@ -17,7 +17,9 @@
 package com.netflix.spinnaker.clouddriver.ecs.provider.agent;
 
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.ECS_CLUSTERS;
+import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.SERVICE_TASKS;
 import static com.netflix.spinnaker.clouddriver.ecs.cache.Keys.Namespace.TASKS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -114,8 +116,8 @@ public class TaskCachingAgentTest extends CommonCachingAgent {
 
     // Then
     assertTrue(
-        dataMap.keySet().size() == 2,
-        "Expected the data map to contain 2 namespaces, but it contains "
+        dataMap.keySet().size() == 3,
+        "Expected the data map to contain 3 namespaces, but it contains "
             + dataMap.keySet().size()
             + " namespaces.");
     assertTrue(
@@ -154,4 +156,36 @@ public class TaskCachingAgentTest extends CommonCachingAgent {
               + ".");
     }
   }
+
+  @Test
+  public void shouldIndexServiceTasksByService() {
+    // Given
+    List<Task> tasks = new LinkedList<>();
+    tasks.add(
+        new Task()
+            .withClusterArn(CLUSTER_ARN_1)
+            .withTaskArn(TASK_ARN_1)
+            .withGroup("service:" + SERVICE_NAME_1)
+            .withContainers(Collections.emptyList()));
+    tasks.add(
+        new Task()
+            .withClusterArn(CLUSTER_ARN_1)
+            .withTaskArn(TASK_ARN_2)
+            .withGroup("family:" + SERVICE_NAME_1)
+            .withContainers(Collections.emptyList()));
+
+    // When
+    Map<String, Collection<CacheData>> dataMap = agent.generateFreshData(tasks);
+
+    // Then
+    Collection<CacheData> serviceTasks = dataMap.get(SERVICE_TASKS.toString());
+    assertEquals(1, serviceTasks.size(), "Expected one record for the one service");
+
+    CacheData cacheData = serviceTasks.iterator().next();
+    assertEquals(Keys.getServiceTasksKey(ACCOUNT, REGION, SERVICE_NAME_1), cacheData.getId());
+    assertEquals(
+        Collections.singletonList(Keys.getTaskKey(ACCOUNT, REGION, TASK_ID_1)),
+        cacheData.getAttributes().get("taskKeys"),
+        "Expected only the task started by the service to be listed");
+  }
 }
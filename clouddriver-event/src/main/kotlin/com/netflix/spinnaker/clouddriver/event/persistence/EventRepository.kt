@@ -48,6 +48,30 @@ interface EventRepository {
    */
   fun list(aggregateType: String, aggregateId: String): List<SpinnakerEvent>
 
+  /**
+   * Save a snapshot of an [Aggregate]. A snapshot is a compacted prefix of the event log: replaying [events]
+   * must produce the same state as replaying every event up to and including [sequence].
+   *
+   * Snapshots are an optimization only; implementations that do not support them may ignore this call.
+   *
+   * @param aggregateType The aggregate collection name
+   * @param aggregateId The unique identifier of the event aggregate within the [aggregateType]
+   * @param sequence The sequence of the last event covered by the snapshot
+   * @param events The compacted events, oldest to newest, with their metadata already initialized
+   */
+  fun saveSnapshot(aggregateType: String, aggregateId: String, sequence: Long, events: List<SpinnakerEvent>) {}
+
+  /**
+   * List the latest snapshot of a given [Aggregate], followed by all events saved after it. If the aggregate has
+   * no snapshot, this is equivalent to [list].
+   *
+   * @param aggregateType The aggregate collection name
+   * @param aggregateId The unique identifier of the event aggregate within the [aggregateType]
+   * @return An ordered list of events, oldest to newest
+   */
+  fun listWithSnapshot(aggregateType: String, aggregateId: String): List<SpinnakerEvent> =
+    list(aggregateType, aggregateId)
+
   /**
    * List all aggregates for a given type.
    *
@@ -50,6 +50,7 @@ class InMemoryEventRepository(
   private val eventReadCountId = registry.createId("eventing.events.reads")
 
   private val events: MutableMap<Aggregate, MutableList<SpinnakerEvent>> = ConcurrentHashMap()
+  private val snapshots: MutableMap<Aggregate, Snapshot> = ConcurrentHashMap()
 
   override fun save(
     aggregateType: String,
@@ -106,6 +107,26 @@ class InMemoryEventRepository(
       ?: throw MissingAggregateEventsException(aggregateType, aggregateId)
   }
 
+  override fun saveSnapshot(aggregateType: String, aggregateId: String, sequence: Long, events: List<SpinnakerEvent>) {
+    snapshots.compute(getAggregate(aggregateType, aggregateId)) { _, existing ->
+      if (existing != null && existing.sequence >= sequence) existing else Snapshot(sequence, events.toList())
+    }
+  }
+
+  override fun listWithSnapshot(aggregateType: String, aggregateId: String): List<SpinnakerEvent> {
+    val aggregate = getAggregate(aggregateType, aggregateId)
+    val snapshot = snapshots[aggregate] ?: return list(aggregateType, aggregateId)
+
+    registry.counter(eventReadCountId).increment()
+
+    val aggregateEvents = events[aggregate]?.toList()
+      ?: throw MissingAggregateEventsException(aggregateType, aggregateId)
+
+    // Events are appended in sequence order, so the tail can be found by walking back from the end of the log.
+    val tailStart = aggregateEvents.indexOfLast { it.getMetadata().sequence <= snapshot.sequence } + 1
+    return snapshot.events + aggregateEvents.subList(tailStart, aggregateEvents.size)
+  }
+
   override fun listAggregates(criteria: EventRepository.ListAggregatesCriteria): EventRepository.ListAggregatesResult {
     val aggregates = events.keys
 
@@ -160,6 +181,7 @@ class InMemoryEventRepository(
           .forEach {
             log.trace("Cleaning up $it")
             events.remove(it)
+            snapshots.remove(it)
           }
       }
 
@@ -176,6 +198,7 @@ class InMemoryEventRepository(
           .forEach {
             log.trace("Cleaning up ${it.first}")
             events.remove(it.first)
+            snapshots.remove(it.first)
           }
       }
   }
@@ -186,6 +209,11 @@ class InMemoryEventRepository(
     registry.gauge(eventCountId).set(events.flatMap { it.value }.size.toDouble())
   }
 
+  private class Snapshot(
+    val sequence: Long,
+    val events: List<SpinnakerEvent>
+  )
+
   inner class MissingAggregateEventsException(aggregateType: String, aggregateId: String) : SystemException(
     "Aggregate $aggregateType/$aggregateId is missing its internal events list store"
   )
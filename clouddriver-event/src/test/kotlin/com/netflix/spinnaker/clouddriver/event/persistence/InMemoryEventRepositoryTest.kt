@@ -96,6 +96,37 @@ class InMemoryEventRepositoryTest : JUnit5Minutests {
       confirmVerified(eventPublisher)
     }
 
+    context("snapshots") {
+      test("listing without a snapshot returns the full log") {
+        val event1 = MyEvent("agg", "id", "one")
+        val event2 = MyEvent("agg", "id", "two")
+        subject.save("agg", "id", 0L, listOf(event1, event2))
+
+        expectThat(subject.listWithSnapshot("agg", "id")).containsExactly(event1, event2)
+      }
+
+      test("listing with a snapshot returns the snapshot followed by newer events") {
+        val event1 = MyEvent("agg", "id", "one")
+        val event2 = MyEvent("agg", "id", "two")
+        val event3 = MyEvent("agg", "id", "three")
+        subject.save("agg", "id", 0L, listOf(event1, event2))
+        subject.saveSnapshot("agg", "id", 2L, listOf(event2))
+        subject.save("agg", "id", 1L, listOf(event3))
+
+        expectThat(subject.listWithSnapshot("agg", "id")).containsExactly(event2, event3)
+      }
+
+      test("an older snapshot does not replace a newer one") {
+        val event1 = MyEvent("agg", "id", "one")
+        val event2 = MyEvent("agg", "id", "two")
+        subject.save("agg", "id", 0L, listOf(event1, event2))
+        subject.saveSnapshot("agg", "id", 2L, listOf(event2))
+        subject.saveSnapshot("agg", "id", 1L, listOf(event1))
+
+        expectThat(subject.listWithSnapshot("agg", "id")).containsExactly(event2)
+      }
+    }
+
     context("listing aggregates") {
       val event1 = MyEvent("type1", "id", "one")
       val event2 = MyEvent("type2", "id", "two")
@@ -17,13 +17,18 @@ package com.netflix.spinnaker.clouddriver.google
 
 import com.google.api.client.googleapis.services.AbstractGoogleClientRequest
 import com.google.api.client.http.HttpResponseException
+import com.google.common.util.concurrent.MoreExecutors
 import com.netflix.spectator.api.Clock
+import com.netflix.spectator.api.NoopRegistry
 import com.netflix.spectator.api.Registry
+import com.netflix.spinnaker.clouddriver.google.batch.GoogleBatchExecutor
 import com.netflix.spinnaker.clouddriver.google.batch.GoogleBatchRequest
+import com.netflix.spinnaker.clouddriver.google.config.GoogleConfigurationProperties
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.stereotype.Component
 
 import javax.annotation.PostConstruct
+import java.util.concurrent.Executors
 import java.util.concurrent.TimeUnit
 
 /**
@@ -65,9 +70,29 @@ class GoogleExecutor {
   @Autowired
   Registry autowiredRegistry
 
+  /**
+   * The batch executor is bound the same way as the registry, so that every batch request shares
+   * its thread pool and per-project concurrency and rate limits.
+   */
+  static GoogleBatchExecutor globalBatchExecutor
+
+  @Lazy
+  private static GoogleBatchExecutor defaultBatchExecutor = new GoogleBatchExecutor(
+    MoreExecutors.listeningDecorator(Executors.newCachedThreadPool()),
+    new NoopRegistry(),
+    new GoogleConfigurationProperties.BatchConfig())
+
+  static GoogleBatchExecutor getBatchExecutor() {
+    return globalBatchExecutor ?: defaultBatchExecutor
+  }
+
+  @Autowired
+  GoogleBatchExecutor autowiredBatchExecutor
+
   @PostConstruct
   public void bindGlobalRegistry() {
     globalRegistry = autowiredRegistry
+    globalBatchExecutor = autowiredBatchExecutor
   }
 
   final static String TAG_BATCH_CONTEXT = "context"
@@ -86,7 +111,7 @@ class GoogleExecutor {
      int statusCode = 200
 
      try {
-       batch.execute()
+       batch.execute(batchContext)
        success = "true"
      } catch (HttpResponseException e) {
        statusCode = e.getStatusCode()
@@ -37,6 +37,29 @@ class GoogleConfigurationProperties {
     boolean verifyAccountHealth = true
   }
 
+  /**
+   * settings of the batch executor shared by all caching agents and operations
+   */
+  @Canonical
+  static class BatchConfig {
+    /**
+     * maximum number of batches executed at once for each project. batches of different projects
+     * don't wait for each other, so a node executes up to this many batches per project it caches.
+     */
+    int maxConcurrentBatches = 10
+    /**
+     * requests per second sent to each project. halved while requests are rate limited, and
+     * recovered gradually afterwards. a non-positive rate disables rate limiting.
+     */
+    double requestsPerSecond = 100
+    /**
+     * how many times rate limited requests are retried before their failure is reported.
+     */
+    int maxRetries = 5
+    long initialBackoffMillis = 500
+    long maxBackoffMillis = 30000
+  }
+
   @ToString(includeNames = true)
   static class ManagedAccount extends GoogleCommonManagedAccount {
     boolean alphaListed
@@ -61,4 +84,7 @@ class GoogleConfigurationProperties {
 
   @NestedConfigurationProperty
   final HealthConfig health = new HealthConfig()
+
+  @NestedConfigurationProperty
+  final BatchConfig batch = new BatchConfig()
 }
@@ -96,7 +96,7 @@ class GCEUtil {
     def imageProjects = [credentials.project] + credentials?.imageProjects + baseImageProjects - null
     def sourceImage = null
 
-    def imageListBatch = new GoogleBatchRequest(credentials.compute, clouddriverUserAgentApplicationName)
+    def imageListBatch = new GoogleBatchRequest(credentials.compute, credentials.project, clouddriverUserAgentApplicationName)
     def imageListCallback = new JsonBatchCallback<ImageList>() {
       @Override
       void onFailure(GoogleJsonError e, HttpHeaders responseHeaders) throws IOException {
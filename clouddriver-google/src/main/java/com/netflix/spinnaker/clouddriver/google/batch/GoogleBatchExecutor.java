@@ -0,0 +1,397 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.google.batch;
+
+import static com.google.common.collect.Lists.partition;
+
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.services.json.AbstractGoogleJsonClientRequest;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.util.Throwables;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.RateLimiter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.clouddriver.google.config.GoogleConfigurationProperties;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executes GCE batch requests for all caching agents and operations.
+ *
+ * <p>Requests are split into batches of at most {@link #MAX_BATCH_SIZE}, which are executed on a
+ * shared thread pool while holding one of a bounded number of permits of their project, so a
+ * project with many slow batches can't hold up the batches of the others. Before a batch is sent,
+ * each of its requests takes a token from the rate limiter of its project. Requests that fail
+ * because a rate quota was exceeded are retried with exponential backoff, and the rate of their
+ * project is halved; it recovers gradually as batches succeed.
+ *
+ * <p>Batches executed from a callback of another batch, such as the next page of a paginated
+ * request, run on the calling thread under the permit it already holds, so nested batches can't
+ * exhaust the permits and deadlock.
+ */
+@Slf4j
+public class GoogleBatchExecutor {
+
+  // Platform-specified max to not overwhelm batch backends.
+  public static final int MAX_BATCH_SIZE = 100;
+
+  private static final ImmutableSet<String> RATE_LIMIT_REASONS =
+      ImmutableSet.of("rateLimitExceeded", "userRateLimitExceeded");
+  private static final ThreadLocal<Boolean> HOLDS_PERMIT =
+      ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+  private final ListeningExecutorService executor;
+  private final Registry registry;
+  private final GoogleConfigurationProperties.BatchConfig config;
+  private final ConcurrentMap<String, Semaphore> permits = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, ProjectRateLimiter> rateLimiters =
+      new ConcurrentHashMap<>();
+
+  public GoogleBatchExecutor(
+      ListeningExecutorService executor,
+      Registry registry,
+      GoogleConfigurationProperties.BatchConfig config) {
+    this.executor = executor;
+    this.registry = registry;
+    this.config = config;
+  }
+
+  /**
+   * Executes the requests, invoking their callbacks as responses arrive.
+   *
+   * @param project the project whose quota the requests are charged to
+   * @param batchContext the context that metrics are tagged with
+   * @param requests the requests to execute
+   * @param batchFactory creates an empty batch to queue requests in
+   * @throws IOException the first failure to execute a batch
+   */
+  public void execute(
+      String project,
+      String batchContext,
+      List<QueuedRequest<?>> requests,
+      Supplier<BatchRequest> batchFactory)
+      throws IOException {
+    String projectKey = project == null ? "" : project;
+    Semaphore projectPermits =
+        permits.computeIfAbsent(
+            projectKey, p -> new Semaphore(Math.max(1, config.getMaxConcurrentBatches()), true));
+    ProjectRateLimiter rateLimiter =
+        rateLimiters.computeIfAbsent(
+            projectKey, p -> new ProjectRateLimiter(config.getRequestsPerSecond()));
+
+    List<QueuedRequest<?>> pending = requests;
+    for (int attempt = 0; !pending.isEmpty(); attempt++) {
+      boolean retryable = attempt < config.getMaxRetries();
+      List<QueuedRequest<?>> rateLimited = Collections.synchronizedList(new ArrayList<>());
+
+      List<List<QueuedRequest<?>>> partitions = partition(pending, MAX_BATCH_SIZE);
+      List<BatchCall> calls = new ArrayList<>(partitions.size());
+      for (List<QueuedRequest<?>> requestPartition : partitions) {
+        BatchRequest batch = batchFactory.get();
+        for (QueuedRequest<?> request : requestPartition) {
+          request.queue(batch, rateLimited, retryable);
+        }
+        calls.add(
+            new BatchCall(
+                requestPartition.size(),
+                () -> {
+                  try {
+                    batch.execute();
+                  } catch (HttpResponseException e) {
+                    if (!retryable || !isRateLimited(e.getStatusCode())) {
+                      throw e;
+                    }
+                    rateLimited.addAll(requestPartition);
+                  }
+                }));
+      }
+      executeAll(projectPermits, rateLimiter, batchContext, calls);
+
+      if (rateLimited.isEmpty()) {
+        rateLimiter.recover();
+        return;
+      }
+
+      rateLimiter.throttle();
+      registry
+          .counter(registry.createId("google.batchThrottled", "context", batchContext))
+          .increment(rateLimited.size());
+      if (!retryable) {
+        return;
+      }
+      log.warn(
+          "{} requests of {} in project {} were rate limited, retrying at {} requests/second",
+          rateLimited.size(),
+          batchContext,
+          project,
+          rateLimiter.getRate());
+      backoff(attempt);
+      pending = new ArrayList<>(rateLimited);
+    }
+  }
+
+  private void executeAll(
+      Semaphore projectPermits,
+      ProjectRateLimiter rateLimiter,
+      String batchContext,
+      List<BatchCall> calls)
+      throws IOException {
+    if (calls.size() == 1 || HOLDS_PERMIT.get()) {
+      for (BatchCall call : calls) {
+        executeBatch(projectPermits, rateLimiter, batchContext, call);
+      }
+      return;
+    }
+
+    List<ListenableFuture<Void>> futures = new ArrayList<>(calls.size());
+    for (BatchCall call : calls) {
+      futures.add(
+          executor.submit(
+              (Callable<Void>)
+                  () -> {
+                    executeBatch(projectPermits, rateLimiter, batchContext, call);
+                    return null;
+                  }));
+    }
+    try {
+      new FailFastFuture(futures, executor).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      Throwables.propagateIfPossible(cause, IOException.class);
+      throw new RuntimeException(cause);
+    }
+  }
+
+  private void executeBatch(
+      Semaphore projectPermits, ProjectRateLimiter rateLimiter, String batchContext, BatchCall call)
+      throws IOException {
+    double waitedSeconds = rateLimiter.acquire(call.size);
+    if (waitedSeconds > 0) {
+      registry
+          .timer(registry.createId("google.batchRateLimitWait", "context", batchContext))
+          .record(Duration.ofNanos((long) (waitedSeconds * 1_000_000_000L)));
+    }
+
+    if (HOLDS_PERMIT.get()) {
+      call.batch.execute();
+      return;
+    }
+
+    try {
+      projectPermits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    }
+    HOLDS_PERMIT.set(true);
+    try {
+      call.batch.execute();
+    } finally {
+      HOLDS_PERMIT.set(false);
+      projectPermits.release();
+    }
+  }
+
+  private void backoff(int attempt) throws InterruptedIOException {
+    long maxMillis =
+        Math.min(
+            config.getMaxBackoffMillis(),
+            config.getInitialBackoffMillis() * (1L << Math.min(attempt, 20)));
+    try {
+      Thread.sleep(maxMillis / 2 + ThreadLocalRandom.current().nextLong(maxMillis / 2 + 1));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    }
+  }
+
+  @VisibleForTesting
+  double getRate(String project) {
+    ProjectRateLimiter rateLimiter = rateLimiters.get(project);
+    return rateLimiter == null ? config.getRequestsPerSecond() : rateLimiter.getRate();
+  }
+
+  private static boolean isRateLimited(int statusCode) {
+    return statusCode == 429;
+  }
+
+  private static boolean isRateLimited(GoogleJsonError error) {
+    if (error == null) {
+      return false;
+    }
+    if (isRateLimited(error.getCode())) {
+      return true;
+    }
+    return error.getCode() == 403
+        && error.getErrors() != null
+        && error.getErrors().stream().anyMatch(e -> RATE_LIMIT_REASONS.contains(e.getReason()));
+  }
+
+  @FunctionalInterface
+  private interface IoRunnable {
+    void execute() throws IOException;
+  }
+
+  private static class BatchCall {
+    private final int size;
+    private final IoRunnable batch;
+
+    BatchCall(int size, IoRunnable batch) {
+      this.size = size;
+      this.batch = batch;
+    }
+  }
+
+  /** A request and the callback its response is delivered to. */
+  public static final class QueuedRequest<T> {
+    private final AbstractGoogleJsonClientRequest<T> request;
+    private final JsonBatchCallback<T> callback;
+
+    public QueuedRequest(
+        AbstractGoogleJsonClientRequest<T> request, JsonBatchCallback<T> callback) {
+      this.request = request;
+      this.callback = callback;
+    }
+
+    public AbstractGoogleJsonClientRequest<T> getRequest() {
+      return request;
+    }
+
+    public JsonBatchCallback<T> getCallback() {
+      return callback;
+    }
+
+    /**
+     * @param rateLimited where to collect the request if it is rate limited
+     * @param retryable whether a rate limited request will be retried, rather than its failure
+     *     delivered to the callback
+     */
+    private void queue(BatchRequest batch, List<QueuedRequest<?>> rateLimited, boolean retryable)
+        throws IOException {
+      request.queue(
+          batch,
+          new JsonBatchCallback<T>() {
+            @Override
+            public void onSuccess(T response, HttpHeaders responseHeaders) throws IOException {
+              callback.onSuccess(response, responseHeaders);
+            }
+
+            @Override
+            public void onFailure(GoogleJsonError e, HttpHeaders responseHeaders)
+                throws IOException {
+              if (isRateLimited(e)) {
+                rateLimited.add(QueuedRequest.this);
+                if (retryable) {
+                  return;
+                }
+              }
+              callback.onFailure(e, responseHeaders);
+            }
+          });
+    }
+  }
+
+  /**
+   * A token bucket for the requests of a project. Its rate is halved when requests are rate
+   * limited, down to {@link #MIN_RATE}, and recovers by a tenth of the configured rate with each
+   * execution that isn't. A non-positive configured rate disables rate limiting.
+   */
+  private static class ProjectRateLimiter {
+    private static final double MIN_RATE = 1;
+
+    private final double maxRate;
+    private final RateLimiter rateLimiter;
+
+    ProjectRateLimiter(double maxRate) {
+      this.maxRate = maxRate;
+      this.rateLimiter = maxRate > 0 ? RateLimiter.create(maxRate) : null;
+    }
+
+    double acquire(int requests) {
+      return rateLimiter == null ? 0 : rateLimiter.acquire(requests);
+    }
+
+    synchronized void throttle() {
+      if (rateLimiter != null) {
+        rateLimiter.setRate(Math.max(MIN_RATE, rateLimiter.getRate() / 2));
+      }
+    }
+
+    synchronized void recover() {
+      if (rateLimiter != null && rateLimiter.getRate() < maxRate) {
+        rateLimiter.setRate(Math.min(maxRate, rateLimiter.getRate() + maxRate / 10));
+      }
+    }
+
+    double getRate() {
+      return rateLimiter == null ? maxRate : rateLimiter.getRate();
+    }
+  }
+
+  private static class FailFastFuture extends AbstractFuture<Void> {
+
+    private final AtomicInteger remainingFutures;
+
+    FailFastFuture(List<ListenableFuture<Void>> futures, Executor executor) {
+      remainingFutures = new AtomicInteger(futures.size());
+      for (ListenableFuture<Void> future : futures) {
+        Futures.addCallback(
+            future,
+            new FutureCallback<Object>() {
+              @Override
+              public void onSuccess(Object result) {
+                if (remainingFutures.decrementAndGet() == 0) {
+                  set(null);
+                }
+              }
+
+              @Override
+              public void onFailure(Throwable t) {
+                setException(t);
+              }
+            },
+            executor);
+      }
+    }
+  }
+}
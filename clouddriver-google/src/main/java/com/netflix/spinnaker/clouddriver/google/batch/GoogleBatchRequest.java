@@ -22,78 +22,46 @@ import com.google.api.client.http.HttpRequest;
 import com.google.api.client.http.HttpRequestInitializer;
 import com.google.api.services.compute.Compute;
 import com.google.api.services.compute.ComputeRequest;
-import com.google.common.collect.Lists;
+import com.netflix.spinnaker.clouddriver.google.GoogleExecutor;
+import com.netflix.spinnaker.clouddriver.google.batch.GoogleBatchExecutor.QueuedRequest;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
-import lombok.AllArgsConstructor;
-import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 
-/** Helper class for sending batch requests to GCE. */
+/**
+ * Helper class for sending batch requests to GCE. Requests are executed by the {@link
+ * GoogleBatchExecutor} shared by all caching agents and operations, and are charged to the quota
+ * of the project.
+ */
 @Slf4j
 public class GoogleBatchRequest {
 
-  private static final int MAX_BATCH_SIZE =
-      100; // Platform specified max to not overwhelm batch backends.
   private static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = (int) TimeUnit.MINUTES.toMillis(2);
   private static final int DEFAULT_READ_TIMEOUT_MILLIS = (int) TimeUnit.MINUTES.toMillis(2);
 
-  private List<QueuedRequest> queuedRequests;
+  private List<QueuedRequest<?>> queuedRequests;
   private String clouddriverUserAgentApplicationName;
   private Compute compute;
+  private String project;
 
-  public GoogleBatchRequest(Compute compute, String clouddriverUserAgentApplicationName) {
+  public GoogleBatchRequest(
+      Compute compute, String project, String clouddriverUserAgentApplicationName) {
     this.compute = compute;
+    this.project = project;
     this.clouddriverUserAgentApplicationName = clouddriverUserAgentApplicationName;
     this.queuedRequests = new ArrayList<>();
   }
 
-  public void execute() {
+  public void execute(String batchContext) throws IOException {
     if (queuedRequests.size() == 0) {
       log.debug("No requests queued in batch, exiting.");
       return;
     }
 
-    List<BatchRequest> queuedBatches = new ArrayList<>();
-    List<List<QueuedRequest>> requestPartitions = Lists.partition(queuedRequests, MAX_BATCH_SIZE);
-    requestPartitions.forEach(
-        requestPart -> {
-          BatchRequest newBatch = newBatch();
-          requestPart.forEach(
-              qr -> {
-                try {
-                  qr.getRequest().queue(newBatch, qr.getCallback());
-                } catch (IOException ioe) {
-                  log.error("Queueing request {} in batch failed.", qr);
-                  throw new RuntimeException(ioe);
-                }
-              });
-          queuedBatches.add(newBatch);
-        });
-
-    ExecutorService threadPool = new ForkJoinPool(10);
-    try {
-      threadPool
-          .submit(() -> queuedBatches.stream().parallel().forEach(this::executeInternalBatch))
-          .get();
-    } catch (InterruptedException | ExecutionException e) {
-      throw new RuntimeException(e);
-    }
-    threadPool.shutdown();
-  }
-
-  private void executeInternalBatch(BatchRequest b) {
-    try {
-      b.execute();
-    } catch (IOException ioe) {
-      log.error("Executing batch {} failed.", b);
-      throw new RuntimeException(ioe);
-    }
+    GoogleExecutor.getBatchExecutor()
+        .execute(project, batchContext, queuedRequests, this::newBatch);
   }
 
   private BatchRequest newBatch() {
@@ -108,18 +76,12 @@ public class GoogleBatchRequest {
         });
   }
 
+  @SuppressWarnings("unchecked")
   public void queue(ComputeRequest request, JsonBatchCallback callback) {
-    queuedRequests.add(new QueuedRequest(request, callback));
+    queuedRequests.add(new QueuedRequest<Object>(request, callback));
   }
 
   public Integer size() {
     return queuedRequests.size();
   }
-
-  @Data
-  @AllArgsConstructor
-  private static class QueuedRequest {
-    private ComputeRequest request;
-    private JsonBatchCallback callback;
-  }
 }
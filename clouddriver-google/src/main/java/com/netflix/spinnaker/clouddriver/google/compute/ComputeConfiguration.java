@@ -19,6 +19,9 @@ package com.netflix.spinnaker.clouddriver.google.compute;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.clouddriver.google.batch.GoogleBatchExecutor;
+import com.netflix.spinnaker.clouddriver.google.config.GoogleConfigurationProperties;
 import java.util.concurrent.Executors;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
@@ -38,4 +41,13 @@ public class ComputeConfiguration {
                 .setNameFormat(ComputeConfiguration.class.getSimpleName() + "-%d")
                 .build()));
   }
+
+  @Bean
+  public GoogleBatchExecutor googleBatchExecutor(
+      @Qualifier(BATCH_REQUEST_EXECUTOR) ListeningExecutorService batchRequestExecutor,
+      Registry registry,
+      GoogleConfigurationProperties googleConfigurationProperties) {
+    return new GoogleBatchExecutor(
+        batchRequestExecutor, registry, googleConfigurationProperties.getBatch());
+  }
 }
@@ -17,13 +17,12 @@
 package com.netflix.spinnaker.clouddriver.google.compute;
 
 import com.google.api.services.compute.ComputeRequest;
-import com.google.common.util.concurrent.ListeningExecutorService;
 import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.clouddriver.google.batch.GoogleBatchExecutor;
 import com.netflix.spinnaker.clouddriver.google.deploy.GoogleOperationPoller;
 import com.netflix.spinnaker.clouddriver.google.model.GoogleServerGroup;
 import com.netflix.spinnaker.clouddriver.google.security.GoogleNamedAccountCredentials;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -32,15 +31,14 @@ public class GoogleComputeApiFactory {
   private final GoogleOperationPoller operationPoller;
   private final Registry registry;
   private String clouddriverUserAgentApplicationName;
-  private ListeningExecutorService batchExecutor;
+  private GoogleBatchExecutor batchExecutor;
 
   @Autowired
   public GoogleComputeApiFactory(
       GoogleOperationPoller operationPoller,
       Registry registry,
       String clouddriverUserAgentApplicationName,
-      @Qualifier(ComputeConfiguration.BATCH_REQUEST_EXECUTOR)
-          ListeningExecutorService batchExecutor) {
+      GoogleBatchExecutor batchExecutor) {
     this.operationPoller = operationPoller;
     this.registry = registry;
     this.clouddriverUserAgentApplicationName = clouddriverUserAgentApplicationName;
@@ -90,7 +88,11 @@ public class GoogleComputeApiFactory {
       BatchComputeRequest<RequestT, ResponseT> createBatchRequest(
           GoogleNamedAccountCredentials credentials) {
     return new BatchComputeRequestImpl<>(
-        credentials.getCompute(), registry, clouddriverUserAgentApplicationName, batchExecutor);
+        credentials.getCompute(),
+        registry,
+        clouddriverUserAgentApplicationName,
+        batchExecutor,
+        credentials.getProject());
   }
 
   public <ComputeRequestT extends ComputeRequest<ResponseT>, ResponseT, ItemT>
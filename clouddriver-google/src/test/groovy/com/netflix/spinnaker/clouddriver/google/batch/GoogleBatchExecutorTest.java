@@ -0,0 +1,293 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.google.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.compute.Compute;
+import com.google.api.services.compute.model.Image;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.clouddriver.google.batch.GoogleBatchExecutor.QueuedRequest;
+import com.netflix.spinnaker.clouddriver.google.config.GoogleConfigurationProperties;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class GoogleBatchExecutorTest {
+
+  private static final String PROJECT = "project";
+  private static final String MIME_BOUNDARY = "batch_foobarbaz";
+  private static final String MIME_PART_START = "--batch_foobarbaz\n";
+  private static final String MIME_END = "--batch_foobarbaz--\n";
+  private static final String BATCH_CONTENT_TYPE = "multipart/mixed; boundary=" + MIME_BOUNDARY;
+
+  private Registry registry;
+  private GoogleConfigurationProperties.BatchConfig config;
+
+  @BeforeEach
+  public void setUp() {
+    registry = new DefaultRegistry();
+    config = new GoogleConfigurationProperties.BatchConfig();
+    config.setRequestsPerSecond(100);
+    config.setInitialBackoffMillis(1);
+    config.setMaxBackoffMillis(1);
+  }
+
+  @Test
+  public void retriesRateLimitedRequests() throws IOException {
+
+    Compute compute =
+        computeWithResponses(
+            batchResponse(
+                successResponse() + rateLimitedResponse(429, "rateLimitExceeded") + MIME_END),
+            batchResponse(successResponse() + MIME_END));
+    GoogleBatchExecutor executor = executor();
+
+    CountResponses responses = new CountResponses();
+    executor.execute(PROJECT, "batchContext", requests(compute, 2, responses), compute::batch);
+
+    assertThat(responses.successes).hasValue(2);
+    assertThat(responses.failures).hasValue(0);
+    assertThat(executor.getRate(PROJECT)).isEqualTo(60);
+    assertThat(
+            registry
+                .counter(registry.createId("google.batchThrottled", "context", "batchContext"))
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void failsRequestsStillRateLimitedAfterRetries() throws IOException {
+
+    config.setMaxRetries(1);
+    Compute compute =
+        computeWithResponses(
+            batchResponse(rateLimitedResponse(403, "userRateLimitExceeded") + MIME_END),
+            batchResponse(rateLimitedResponse(403, "userRateLimitExceeded") + MIME_END));
+    GoogleBatchExecutor executor = executor();
+
+    CountResponses responses = new CountResponses();
+    executor.execute(PROJECT, "batchContext", requests(compute, 1, responses), compute::batch);
+
+    assertThat(responses.successes).hasValue(0);
+    assertThat(responses.failures).hasValue(1);
+    assertThat(executor.getRate(PROJECT)).isEqualTo(25);
+  }
+
+  @Test
+  public void rateRecoversAfterSuccessfulBatches() throws IOException {
+
+    Compute compute =
+        computeWithResponses(
+            batchResponse(rateLimitedResponse(429, "rateLimitExceeded") + MIME_END),
+            batchResponse(successResponse() + MIME_END),
+            batchResponse(successResponse() + MIME_END));
+    GoogleBatchExecutor executor = executor();
+
+    CountResponses responses = new CountResponses();
+    executor.execute(PROJECT, "batchContext", requests(compute, 1, responses), compute::batch);
+    assertThat(executor.getRate(PROJECT)).isEqualTo(60);
+
+    executor.execute(PROJECT, "batchContext", requests(compute, 1, responses), compute::batch);
+    assertThat(executor.getRate(PROJECT)).isEqualTo(70);
+    assertThat(executor.getRate("other-project")).isEqualTo(100);
+  }
+
+  @Test
+  public void projectsDoNotWaitForTheBatchesOfOtherProjects() throws Exception {
+
+    config.setMaxConcurrentBatches(1);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Compute slowCompute =
+        new Compute(
+            blockingResponse(started, release, batchResponse(successResponse() + MIME_END)),
+            GsonFactory.getDefaultInstance(),
+            /* httpRequestInitializer= */ null);
+    Compute compute = computeWithResponses(batchResponse(successResponse() + MIME_END));
+    GoogleBatchExecutor executor = executor();
+
+    ExecutorService slowProject = Executors.newSingleThreadExecutor();
+    try {
+      CountResponses slowResponses = new CountResponses();
+      Future<?> slowBatch =
+          slowProject.submit(
+              () -> {
+                executor.execute(
+                    "slow-project",
+                    "batchContext",
+                    requests(slowCompute, 1, slowResponses),
+                    slowCompute::batch);
+                return null;
+              });
+      started.await();
+
+      // the slow project holds its only permit until it is released
+      CountResponses responses = new CountResponses();
+      assertTimeoutPreemptively(
+          Duration.ofSeconds(10),
+          () ->
+              executor.execute(
+                  PROJECT, "batchContext", requests(compute, 1, responses), compute::batch));
+      assertThat(responses.successes).hasValue(1);
+
+      release.countDown();
+      slowBatch.get();
+      assertThat(slowResponses.successes).hasValue(1);
+    } finally {
+      release.countDown();
+      slowProject.shutdownNow();
+    }
+  }
+
+  private GoogleBatchExecutor executor() {
+    return new GoogleBatchExecutor(MoreExecutors.newDirectExecutorService(), registry, config);
+  }
+
+  private static List<QueuedRequest<?>> requests(
+      Compute compute, int count, CountResponses responses) throws IOException {
+    List<QueuedRequest<?>> requests = new ArrayList<>();
+    for (int i = 0; i < count; ++i) {
+      requests.add(new QueuedRequest<>(compute.images().get(PROJECT, "image-name"), responses));
+    }
+    return requests;
+  }
+
+  private static Compute computeWithResponses(LowLevelHttpResponse... responses) {
+    return new Compute(
+        responses(responses), GsonFactory.getDefaultInstance(), /* httpRequestInitializer= */ null);
+  }
+
+  private static HttpTransport responses(LowLevelHttpResponse... responses) {
+    return new HttpTransport() {
+      private AtomicInteger requests = new AtomicInteger(0);
+
+      @Override
+      protected LowLevelHttpRequest buildRequest(String method, String url) {
+        int requestNum = requests.getAndIncrement();
+        LowLevelHttpResponse response =
+            requestNum < responses.length
+                ? responses[requestNum]
+                : new MockLowLevelHttpResponse()
+                    .setStatusCode(500)
+                    .setContent("Sent more requests than expected.");
+        return new LowLevelHttpRequest() {
+          @Override
+          public void addHeader(String name, String value) {}
+
+          @Override
+          public LowLevelHttpResponse execute() {
+            return response;
+          }
+        };
+      }
+    };
+  }
+
+  private static HttpTransport blockingResponse(
+      CountDownLatch started, CountDownLatch release, LowLevelHttpResponse response) {
+    return new HttpTransport() {
+      @Override
+      protected LowLevelHttpRequest buildRequest(String method, String url) {
+        return new LowLevelHttpRequest() {
+          @Override
+          public void addHeader(String name, String value) {}
+
+          @Override
+          public LowLevelHttpResponse execute() throws IOException {
+            started.countDown();
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              throw new InterruptedIOException();
+            }
+            return response;
+          }
+        };
+      }
+    };
+  }
+
+  private static MockLowLevelHttpResponse batchResponse(String content) {
+    return new MockLowLevelHttpResponse()
+        .setStatusCode(200)
+        .addHeader("Content-Type", BATCH_CONTENT_TYPE)
+        .setContent(content);
+  }
+
+  private static String successResponse() {
+    return MIME_PART_START
+        + "Content-Type: application/http\n"
+        + "\n"
+        + "HTTP/1.1 200 OK\n"
+        + "Content-Type: application/json\n"
+        + "\n"
+        + "{\"name\":\"foobar\"}\n\n";
+  }
+
+  private static String rateLimitedResponse(int statusCode, String reason) {
+    return MIME_PART_START
+        + "Content-Type: application/http\n"
+        + "\n"
+        + "HTTP/1.1 "
+        + statusCode
+        + " Rate Limit Exceeded\n"
+        + "Content-Type: application/json\n"
+        + "\n"
+        + "{\"error\":{\"code\":"
+        + statusCode
+        + ",\"message\":\"Rate Limit Exceeded\",\"errors\":[{\"reason\":\""
+        + reason
+        + "\"}]}}\n\n";
+  }
+
+  private static class CountResponses extends JsonBatchCallback<Image> {
+    AtomicInteger successes = new AtomicInteger();
+    AtomicInteger failures = new AtomicInteger();
+
+    @Override
+    public void onFailure(GoogleJsonError e, HttpHeaders responseHeaders) {
+      failures.incrementAndGet();
+    }
+
+    @Override
+    public void onSuccess(Image image, HttpHeaders responseHeaders) {
+      successes.incrementAndGet();
+    }
+  }
+}
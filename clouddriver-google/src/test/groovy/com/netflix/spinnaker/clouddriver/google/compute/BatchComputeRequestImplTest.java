@@ -39,6 +39,8 @@ import com.netflix.spectator.api.DefaultRegistry;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spectator.api.Tag;
 import com.netflix.spectator.api.Timer;
+import com.netflix.spinnaker.clouddriver.google.batch.GoogleBatchExecutor;
+import com.netflix.spinnaker.clouddriver.google.config.GoogleConfigurationProperties;
 import java.io.IOException;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.http.client.HttpResponseException;
@@ -54,10 +56,15 @@ public class BatchComputeRequestImplTest {
   private static final String BATCH_CONTENT_TYPE = "multipart/mixed; boundary=" + MIME_BOUNDARY;
 
   private Registry registry;
+  private GoogleBatchExecutor executor;
 
   @BeforeEach
   public void setUp() {
     registry = new DefaultRegistry();
+    GoogleConfigurationProperties.BatchConfig config =
+        new GoogleConfigurationProperties.BatchConfig();
+    config.setRequestsPerSecond(0);
+    executor = new GoogleBatchExecutor(MoreExecutors.newDirectExecutorService(), registry, config);
   }
 
   @Test
@@ -66,8 +73,7 @@ public class BatchComputeRequestImplTest {
     Compute compute = computeWithResponses();
 
     BatchComputeRequest<Get, Image> batchRequest =
-        new BatchComputeRequestImpl<>(
-            compute, registry, USER_AGENT, MoreExecutors.newDirectExecutorService());
+        new BatchComputeRequestImpl<>(compute, registry, USER_AGENT, executor, "project");
 
     batchRequest.execute("batchContext");
   }
@@ -78,8 +84,7 @@ public class BatchComputeRequestImplTest {
     Compute compute = computeWithResponses(() -> successBatchResponse(1));
 
     BatchComputeRequest<Get, Image> batchRequest =
-        new BatchComputeRequestImpl<>(
-            compute, registry, USER_AGENT, MoreExecutors.newDirectExecutorService());
+        new BatchComputeRequestImpl<>(compute, registry, USER_AGENT, executor, "project");
 
     CountResponses responses = new CountResponses();
     batchRequest.queue(request(compute), responses);
@@ -97,8 +102,7 @@ public class BatchComputeRequestImplTest {
         computeWithResponses(() -> successBatchResponse(BatchComputeRequestImpl.MAX_BATCH_SIZE));
 
     BatchComputeRequest<Get, Image> batchRequest =
-        new BatchComputeRequestImpl<>(
-            compute, registry, USER_AGENT, MoreExecutors.newDirectExecutorService());
+        new BatchComputeRequestImpl<>(compute, registry, USER_AGENT, executor, "project");
 
     CountResponses responses = new CountResponses();
     for (int i = 0; i < BatchComputeRequestImpl.MAX_BATCH_SIZE; ++i) {
@@ -121,8 +125,7 @@ public class BatchComputeRequestImplTest {
             () -> successBatchResponse(37));
 
     BatchComputeRequest<Get, Image> batchRequest =
-        new BatchComputeRequestImpl<>(
-            compute, registry, USER_AGENT, MoreExecutors.newDirectExecutorService());
+        new BatchComputeRequestImpl<>(compute, registry, USER_AGENT, executor, "project");
 
     CountResponses responses = new CountResponses();
     for (int i = 0; i < BatchComputeRequestImpl.MAX_BATCH_SIZE * 2 + 37; ++i) {
@@ -149,8 +152,7 @@ public class BatchComputeRequestImplTest {
     Compute compute = computeWithResponses(() -> batchResponse(responseContent.toString()));
 
     BatchComputeRequest<Get, Image> batchRequest =
-        new BatchComputeRequestImpl<>(
-            compute, registry, USER_AGENT, MoreExecutors.newDirectExecutorService());
+        new BatchComputeRequestImpl<>(compute, registry, USER_AGENT, executor, "project");
 
     CountResponses responses = new CountResponses();
     for (int i = 0; i < 5; ++i) {
@@ -185,8 +187,7 @@ public class BatchComputeRequestImplTest {
             });
 
     BatchComputeRequest<Get, Image> batchRequest =
-        new BatchComputeRequestImpl<>(
-            compute, registry, USER_AGENT, MoreExecutors.newDirectExecutorService());
+        new BatchComputeRequestImpl<>(compute, registry, USER_AGENT, executor, "project");
 
     CountResponses responses = new CountResponses();
     for (int i = 0; i < BatchComputeRequestImpl.MAX_BATCH_SIZE * 3; ++i) {
@@ -208,8 +209,7 @@ public class BatchComputeRequestImplTest {
             () -> successBatchResponse(37));
 
     BatchComputeRequest<Get, Image> batchRequest =
-        new BatchComputeRequestImpl<>(
-            compute, registry, USER_AGENT, MoreExecutors.newDirectExecutorService());
+        new BatchComputeRequestImpl<>(compute, registry, USER_AGENT, executor, "project");
 
     CountResponses responses = new CountResponses();
     for (int i = 0; i < BatchComputeRequestImpl.MAX_BATCH_SIZE * 2 + 37; ++i) {
@@ -250,8 +250,7 @@ public class BatchComputeRequestImplTest {
             });
 
     BatchComputeRequest<Get, Image> batchRequest =
-        new BatchComputeRequestImpl<>(
-            compute, registry, USER_AGENT, MoreExecutors.newDirectExecutorService());
+        new BatchComputeRequestImpl<>(compute, registry, USER_AGENT, executor, "project");
 
     CountResponses responses = new CountResponses();
     for (int i = 0; i < 55; ++i) {
@@ -292,8 +291,7 @@ public class BatchComputeRequestImplTest {
             });
 
     BatchComputeRequest<Get, Image> batchRequest =
-        new BatchComputeRequestImpl<>(
-            compute, registry, USER_AGENT, MoreExecutors.newDirectExecutorService());
+        new BatchComputeRequestImpl<>(compute, registry, USER_AGENT, executor, "project");
 
     CountResponses responses = new CountResponses();
     for (int i = 0; i < 55; ++i) {
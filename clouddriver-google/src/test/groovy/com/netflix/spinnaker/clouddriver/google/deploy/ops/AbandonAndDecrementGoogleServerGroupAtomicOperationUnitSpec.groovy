@@ -22,9 +22,11 @@ import com.google.common.util.concurrent.MoreExecutors
 import com.netflix.spectator.api.DefaultRegistry
 import com.netflix.spinnaker.clouddriver.data.task.Task
 import com.netflix.spinnaker.clouddriver.data.task.TaskRepository
+import com.netflix.spinnaker.clouddriver.google.batch.GoogleBatchExecutor
 import com.netflix.spinnaker.clouddriver.google.deploy.GCEUtil
 import com.netflix.spinnaker.clouddriver.google.deploy.GoogleOperationPoller
 import com.netflix.spinnaker.clouddriver.google.deploy.description.AbandonAndDecrementGoogleServerGroupDescription
+import com.netflix.spinnaker.clouddriver.google.config.GoogleConfigurationProperties
 import com.netflix.spinnaker.clouddriver.google.compute.GoogleComputeApiFactory
 import com.netflix.spinnaker.clouddriver.google.model.GoogleInstance
 import com.netflix.spinnaker.clouddriver.google.model.GoogleServerGroup
@@ -84,7 +86,7 @@ class AbandonAndDecrementGoogleServerGroupAtomicOperationUnitSpec extends Specif
       @Subject def operation = new AbandonAndDecrementGoogleServerGroupAtomicOperation(description)
       operation.registry = registry
       operation.googleClusterProvider = googleClusterProviderMock
-      operation.computeApiFactory = new GoogleComputeApiFactory(Mock(GoogleOperationPoller), registry, "user-agent", MoreExecutors.newDirectExecutorService())
+      operation.computeApiFactory = new GoogleComputeApiFactory(Mock(GoogleOperationPoller), registry, "user-agent", new GoogleBatchExecutor(MoreExecutors.newDirectExecutorService(), registry, new GoogleConfigurationProperties.BatchConfig()))
 
     when:
       operation.operate([])
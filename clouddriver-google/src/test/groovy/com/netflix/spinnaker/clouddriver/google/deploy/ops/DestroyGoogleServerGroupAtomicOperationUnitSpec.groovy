@@ -28,6 +28,7 @@ import com.netflix.spectator.api.DefaultRegistry
 import com.netflix.spinnaker.clouddriver.data.task.Task
 import com.netflix.spinnaker.clouddriver.data.task.TaskRepository
 import com.netflix.spinnaker.clouddriver.google.GoogleApiTestUtils
+import com.netflix.spinnaker.clouddriver.google.batch.GoogleBatchExecutor
 import com.netflix.spinnaker.clouddriver.google.compute.GoogleComputeApiFactory
 import com.netflix.spinnaker.clouddriver.google.config.GoogleConfigurationProperties
 import com.netflix.spinnaker.clouddriver.google.deploy.GCEUtil
@@ -116,7 +117,7 @@ class DestroyGoogleServerGroupAtomicOperationUnitSpec extends Specification {
     operation.safeRetry = safeRetry
     operation.googleClusterProvider = googleClusterProviderMock
     operation.googleLoadBalancerProvider = googleLoadBalancerProviderMock
-    operation.computeApiFactory = new GoogleComputeApiFactory(operation.googleOperationPoller, registry, "user-agent", MoreExecutors.newDirectExecutorService())
+    operation.computeApiFactory = new GoogleComputeApiFactory(operation.googleOperationPoller, registry, "user-agent", new GoogleBatchExecutor(MoreExecutors.newDirectExecutorService(), registry, new GoogleConfigurationProperties.BatchConfig()))
 
     when:
     operation.operate([])
@@ -226,7 +227,7 @@ class DestroyGoogleServerGroupAtomicOperationUnitSpec extends Specification {
     operation.safeRetry = safeRetry
     operation.googleClusterProvider = googleClusterProviderMock
     operation.googleLoadBalancerProvider = googleLoadBalancerProviderMock
-    operation.computeApiFactory = new GoogleComputeApiFactory(operation.googleOperationPoller, registry, "user-agent", MoreExecutors.newDirectExecutorService())
+    operation.computeApiFactory = new GoogleComputeApiFactory(operation.googleOperationPoller, registry, "user-agent", new GoogleBatchExecutor(MoreExecutors.newDirectExecutorService(), registry, new GoogleConfigurationProperties.BatchConfig()))
 
     when:
     operation.operate([])
@@ -367,7 +368,7 @@ class DestroyGoogleServerGroupAtomicOperationUnitSpec extends Specification {
     operation.safeRetry = safeRetry
     operation.googleClusterProvider = googleClusterProviderMock
     operation.googleLoadBalancerProvider = googleLoadBalancerProviderMock
-    operation.computeApiFactory = new GoogleComputeApiFactory(operation.googleOperationPoller, registry, "user-agent", MoreExecutors.newDirectExecutorService())
+    operation.computeApiFactory = new GoogleComputeApiFactory(operation.googleOperationPoller, registry, "user-agent", new GoogleBatchExecutor(MoreExecutors.newDirectExecutorService(), registry, new GoogleConfigurationProperties.BatchConfig()))
 
     when:
     def closure = operation.destroyHttpLoadBalancerBackends(computeMock, PROJECT_NAME, serverGroup, googleLoadBalancerProviderMock)
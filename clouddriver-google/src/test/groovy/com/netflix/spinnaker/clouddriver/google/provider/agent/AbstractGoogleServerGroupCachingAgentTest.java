@@ -63,8 +63,10 @@ import com.netflix.spinnaker.cats.cache.DefaultCacheData;
 import com.netflix.spinnaker.cats.mem.InMemoryCache;
 import com.netflix.spinnaker.cats.provider.DefaultProviderCache;
 import com.netflix.spinnaker.cats.provider.ProviderCache;
+import com.netflix.spinnaker.clouddriver.google.batch.GoogleBatchExecutor;
 import com.netflix.spinnaker.clouddriver.google.cache.Keys;
 import com.netflix.spinnaker.clouddriver.google.compute.GoogleComputeApiFactory;
+import com.netflix.spinnaker.clouddriver.google.config.GoogleConfigurationProperties;
 import com.netflix.spinnaker.clouddriver.google.deploy.GoogleOperationPoller;
 import com.netflix.spinnaker.clouddriver.google.model.GoogleAutoscalingPolicy;
 import com.netflix.spinnaker.clouddriver.google.model.GoogleAutoscalingPolicy.AutoscalingMode;
@@ -951,7 +953,10 @@ class AbstractGoogleServerGroupCachingAgentTest {
             new GoogleOperationPoller(),
             new DefaultRegistry(),
             "user-agent",
-            MoreExecutors.listeningDecorator(Executors.newCachedThreadPool()));
+            new GoogleBatchExecutor(
+                MoreExecutors.listeningDecorator(Executors.newCachedThreadPool()),
+                new DefaultRegistry(),
+                new GoogleConfigurationProperties.BatchConfig()));
     return new TestCachingAgent(credentials, computeApiFactory, instanceGroupManagers, autoscalers);
   }
 
@@ -52,8 +52,10 @@ import com.netflix.spinnaker.cats.mem.InMemoryCache;
 import com.netflix.spinnaker.cats.provider.DefaultProviderCache;
 import com.netflix.spinnaker.cats.provider.ProviderCache;
 import com.netflix.spinnaker.clouddriver.cache.OnDemandAgent.OnDemandResult;
+import com.netflix.spinnaker.clouddriver.google.batch.GoogleBatchExecutor;
 import com.netflix.spinnaker.clouddriver.google.cache.Keys;
 import com.netflix.spinnaker.clouddriver.google.compute.GoogleComputeApiFactory;
+import com.netflix.spinnaker.clouddriver.google.config.GoogleConfigurationProperties;
 import com.netflix.spinnaker.clouddriver.google.deploy.GoogleOperationPoller;
 import com.netflix.spinnaker.clouddriver.google.model.GoogleLabeledResource;
 import com.netflix.spinnaker.clouddriver.google.model.GoogleServerGroup;
@@ -637,7 +639,10 @@ final class GoogleRegionalServerGroupCachingAgentTest {
             new GoogleOperationPoller(),
             new DefaultRegistry(),
             "user-agent",
-            MoreExecutors.listeningDecorator(Executors.newCachedThreadPool())),
+            new GoogleBatchExecutor(
+                MoreExecutors.listeningDecorator(Executors.newCachedThreadPool()),
+                new DefaultRegistry(),
+                new GoogleConfigurationProperties.BatchConfig())),
         new DefaultRegistry(),
         REGION,
         new ObjectMapper(),
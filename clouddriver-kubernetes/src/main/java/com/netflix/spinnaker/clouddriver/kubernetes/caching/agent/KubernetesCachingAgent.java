@@ -47,16 +47,24 @@ import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesNamedAcco
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.lang.Nullable;
@@ -69,6 +77,7 @@ import org.springframework.lang.Nullable;
 public abstract class KubernetesCachingAgent
     implements AgentIntervalAware, CachingAgent, AccountAware {
   private static final Logger log = LoggerFactory.getLogger(KubernetesCachingAgent.class);
+  private static final long ALL_NAMESPACES_LIST_RETRY_MILLIS = TimeUnit.HOURS.toMillis(1);
 
   public static final List<SpinnakerKind> SPINNAKER_UI_KINDS =
       Arrays.asList(
@@ -95,6 +104,7 @@ public abstract class KubernetesCachingAgent
 
   protected final KubernetesSpinnakerKindMap kubernetesSpinnakerKindMap;
   @Nullable private final Front50ApplicationLoader front50ApplicationLoader;
+  private final AtomicLong allNamespacesListForbiddenUntil = new AtomicLong();
 
   protected KubernetesCachingAgent(
       KubernetesNamedAccountCredentials namedAccountCredentials,
@@ -175,7 +185,7 @@ public abstract class KubernetesCachingAgent
     return filteredPrimaryKinds;
   }
 
-  private ImmutableList<KubernetesManifest> loadResources(
+  protected ImmutableList<KubernetesManifest> loadResources(
       @Nonnull Iterable<KubernetesKind> kubernetesKinds, Optional<String> optionalNamespace) {
     String namespace = optionalNamespace.orElse(null);
     return credentials.list(ImmutableList.copyOf(kubernetesKinds), namespace);
@@ -184,16 +194,115 @@ public abstract class KubernetesCachingAgent
   @Nonnull
   private ImmutableList<KubernetesManifest> loadNamespaceScopedResources(
       @Nonnull Iterable<KubernetesKind> kubernetesKinds) {
-    return getNamespaces()
-        // Not using parallelStream. In ForkJoin.commonPool, the number of threads == (CPU cores -
-        // 1). Since we're already running in the AgentExecutionAction thread pool and the number of
-        // threads to compute namespaces is already configurable at account level, this is not
-        // needed and most importantly, avoids contention in the common pool, increasing
-        // performance.
-        .stream()
-        .map(n -> loadResources(kubernetesKinds, Optional.of(n)))
-        .flatMap(Collection::stream)
-        .collect(ImmutableList.toImmutableList());
+    ImmutableList<String> namespaces = getNamespaces();
+    if (namespaces.isEmpty() || !kubernetesKinds.iterator().hasNext()) {
+      return ImmutableList.of();
+    }
+
+    String mode = "sequential";
+    long start = registry.clock().monotonicTime();
+    ImmutableList<KubernetesManifest> result = null;
+    if (listNamespacesInSingleCall()) {
+      mode = "allNamespaces";
+      result = loadAllNamespacesResources(kubernetesKinds, namespaces);
+    }
+    if (result == null
+        && credentials.getCacheNamespaceConcurrency() > 1
+        && namespaces.size() > 1) {
+      mode = "concurrent";
+      result = loadNamespaceScopedResourcesConcurrently(kubernetesKinds, namespaces);
+    }
+    if (result == null) {
+      // Not using parallelStream. In ForkJoin.commonPool, the number of threads == (CPU cores -
+      // 1), and sharing it would cause contention with everything else using the common pool.
+      // Concurrent listing uses an executor of the account instead (see cacheNamespaceConcurrency).
+      result =
+          namespaces.stream()
+              .map(n -> loadResources(kubernetesKinds, Optional.of(n)))
+              .flatMap(Collection::stream)
+              .collect(ImmutableList.toImmutableList());
+    }
+
+    registry
+        .timer(
+            registry.createId(
+                "kubernetes.cache.namespaceScopedResources",
+                "account",
+                accountName,
+                "mode",
+                mode))
+        .record(registry.clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+    return result;
+  }
+
+  /**
+   * Whether namespaced kinds should be listed across all namespaces with a single kubectl call, as
+   * configured by the account's cacheNamespacesInSingleList.
+   */
+  protected boolean listNamespacesInSingleCall() {
+    return credentials.isCacheNamespacesInSingleList()
+        && registry.clock().wallTime() >= allNamespacesListForbiddenUntil.get();
+  }
+
+  /** @return the resources in {@code namespaces}, or null if they could not be listed at once */
+  @Nullable
+  private ImmutableList<KubernetesManifest> loadAllNamespacesResources(
+      @Nonnull Iterable<KubernetesKind> kubernetesKinds, ImmutableList<String> namespaces) {
+    try {
+      // other agents of this account may own some of the namespaces
+      Set<String> ownNamespaces = new HashSet<>(namespaces);
+      return credentials.listAllNamespaces(ImmutableList.copyOf(kubernetesKinds)).stream()
+          .filter(m -> ownNamespaces.contains(m.getNamespace()))
+          .collect(ImmutableList.toImmutableList());
+    } catch (KubectlJobExecutor.KubectlException e) {
+      if (StringUtils.containsIgnoreCase(e.getMessage(), "forbidden")) {
+        // the account may only have access to its own namespaces; check again now and then in
+        // case it was granted cluster-wide access since
+        allNamespacesListForbiddenUntil.set(
+            registry.clock().wallTime() + ALL_NAMESPACES_LIST_RETRY_MILLIS);
+        log.warn(
+            "{}: Not allowed to list {} across all namespaces, listing namespace by namespace for the next {} minutes",
+            getAgentType(),
+            kubernetesKinds,
+            TimeUnit.MILLISECONDS.toMinutes(ALL_NAMESPACES_LIST_RETRY_MILLIS),
+            e);
+      } else {
+        log.warn(
+            "{}: Unable to list {} across all namespaces, listing namespace by namespace instead",
+            getAgentType(),
+            kubernetesKinds,
+            e);
+      }
+      return null;
+    }
+  }
+
+  @Nonnull
+  private ImmutableList<KubernetesManifest> loadNamespaceScopedResourcesConcurrently(
+      @Nonnull Iterable<KubernetesKind> kubernetesKinds, ImmutableList<String> namespaces) {
+    ExecutorService executor = credentials.getNamespaceExecutor();
+    List<Future<ImmutableList<KubernetesManifest>>> futures =
+        namespaces.stream()
+            .map(n -> executor.submit(() -> loadResources(kubernetesKinds, Optional.of(n))))
+            .collect(Collectors.toList());
+
+    ImmutableList.Builder<KubernetesManifest> result = ImmutableList.builder();
+    try {
+      for (Future<ImmutableList<KubernetesManifest>> future : futures) {
+        result.addAll(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(getAgentType() + ": interrupted while listing namespaces", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      futures.forEach(f -> f.cancel(true));
+    }
+    return result.build();
   }
 
   @Nonnull
@@ -21,6 +21,9 @@ import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.netflix.spinnaker.cats.agent.AgentDataType.Authority.AUTHORITATIVE;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.math.IntMath;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.cats.agent.AgentDataType;
 import com.netflix.spinnaker.clouddriver.kubernetes.caching.Keys;
@@ -28,10 +31,18 @@ import com.netflix.spinnaker.clouddriver.kubernetes.config.KubernetesConfigurati
 import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesSpinnakerKindMap;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKindProperties;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifest;
 import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesNamedAccountCredentials;
+import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
+import javax.annotation.Nonnull;
 import org.springframework.lang.Nullable;
 
 /**
@@ -41,8 +52,17 @@ import org.springframework.lang.Nullable;
  * <p>Core kinds is a hardcoded, immutable list defined in {@link
  * KubernetesKindProperties#getGlobalKindProperties()}. From this list, only the kinds to which
  * clouddriver has access (kubectl get {kind}) and are allowed by configuration are cached.
+ *
+ * <p>With {@link KubernetesConfigurationProperties.Cache#isWatchEnabled()}, resources are read
+ * from a {@link KubernetesResourceWatch} per kind and namespace rather than listed every cycle, up
+ * to this agent's share of {@link
+ * KubernetesConfigurationProperties.Cache#getMaxWatchesPerAccount()}. Watches of kinds or
+ * namespaces that a cycle no longer reads are stopped.
  */
 public class KubernetesCoreCachingAgent extends KubernetesCachingAgent {
+  private final Map<String, KubernetesResourceWatch> watches = new ConcurrentHashMap<>();
+  // the keys of the watches read during the current caching cycle
+  private final Set<String> watchesInUse = ConcurrentHashMap.newKeySet();
 
   public KubernetesCoreCachingAgent(
       KubernetesNamedAccountCredentials namedAccountCredentials,
@@ -81,6 +101,87 @@ public class KubernetesCoreCachingAgent extends KubernetesCachingAgent {
         .collect(toImmutableSet());
   }
 
+  @Override
+  protected ImmutableList<KubernetesManifest> loadResources(
+      @Nonnull Iterable<KubernetesKind> kubernetesKinds, Optional<String> optionalNamespace) {
+    if (!configurationProperties.getCache().isWatchEnabled()) {
+      return super.loadResources(kubernetesKinds, optionalNamespace);
+    }
+
+    String namespace = optionalNamespace.orElse(null);
+    ImmutableList.Builder<KubernetesManifest> result = ImmutableList.builder();
+    List<KubernetesKind> unwatchedKinds = new ArrayList<>();
+    for (KubernetesKind kind : kubernetesKinds) {
+      KubernetesResourceWatch watch = watchFor(kind, namespace);
+      if (watch == null) {
+        unwatchedKinds.add(kind);
+      } else {
+        result.addAll(watch.list());
+      }
+    }
+    if (!unwatchedKinds.isEmpty()) {
+      result.addAll(super.loadResources(unwatchedKinds, optionalNamespace));
+    }
+    return result.build();
+  }
+
+  /** @return the watch of {@code kind} in {@code namespace}, or null if there are too many */
+  @Nullable
+  private synchronized KubernetesResourceWatch watchFor(
+      KubernetesKind kind, @Nullable String namespace) {
+    String key = kind + "/" + Strings.nullToEmpty(namespace);
+    KubernetesResourceWatch watch = watches.get(key);
+    if (watch == null) {
+      int maxWatches =
+          IntMath.divide(
+              configurationProperties.getCache().getMaxWatchesPerAccount(),
+              agentCount,
+              RoundingMode.CEILING);
+      if (watches.size() >= maxWatches) {
+        return null;
+      }
+      watch =
+          new KubernetesResourceWatch(
+              credentials, kind, namespace, registry, KubernetesResourceWatch.WATCH_EXECUTOR);
+      watches.put(key, watch);
+    }
+    watchesInUse.add(key);
+    return watch;
+  }
+
+  @Override
+  protected Map<KubernetesKind, List<KubernetesManifest>> loadPrimaryResourceList() {
+    if (!configurationProperties.getCache().isWatchEnabled()) {
+      return super.loadPrimaryResourceList();
+    }
+
+    watchesInUse.clear();
+    Map<KubernetesKind, List<KubernetesManifest>> result = super.loadPrimaryResourceList();
+    // namespaces that were deleted or moved to another agent, and kinds no longer cached
+    stopWatchesNotInUse();
+    return result;
+  }
+
+  private synchronized void stopWatchesNotInUse() {
+    watches
+        .entrySet()
+        .removeIf(
+            entry -> {
+              if (watchesInUse.contains(entry.getKey())) {
+                return false;
+              }
+              entry.getValue().close();
+              return true;
+            });
+  }
+
+  @Override
+  protected boolean listNamespacesInSingleCall() {
+    // watches are kept per namespace
+    return !configurationProperties.getCache().isWatchEnabled()
+        && super.listNamespacesInSingleCall();
+  }
+
   @Override
   protected List<KubernetesKind> primaryKinds() {
     return credentials.getGlobalKinds();
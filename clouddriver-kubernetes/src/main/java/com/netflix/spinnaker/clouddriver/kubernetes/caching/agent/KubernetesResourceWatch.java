@@ -0,0 +1,242 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.clouddriver.kubernetes.caching.agent;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesWatchEvent;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifest;
+import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesCredentials;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps an in-memory copy of the resources of one kind in one namespace (or of a cluster-scoped
+ * kind), kept up to date by a long-running {@code kubectl get --watch}.
+ *
+ * <p>The first call to {@link #list()} starts a watch in the background and lists the resources;
+ * later calls return the watched state without invoking kubectl. Once the watch ends (kubectl
+ * exits, e.g. because the API server answered 410 Gone for a resourceVersion that is too old, or
+ * the job timed out), the next call lists again and starts a new watch.
+ *
+ * <p>kubectl lists the resources itself when a watch starts, and streams changes from the
+ * resourceVersion of that listing, which may be later than the listing made by {@link #list()}.
+ * Deletions in between would never be streamed, so the second call of a watch lists once more,
+ * after kubectl has started. The events streamed since are applied on top of that listing, and
+ * converge to the same state whichever of the two came first.
+ */
+class KubernetesResourceWatch {
+  private static final Logger log = LoggerFactory.getLogger(KubernetesResourceWatch.class);
+
+  // a thread per running watch, whose number the caching agents cap per account
+  static final Executor WATCH_EXECUTOR =
+      Executors.newCachedThreadPool(
+          new ThreadFactoryBuilder()
+              .setNameFormat(KubernetesResourceWatch.class.getSimpleName() + "-%d")
+              .setDaemon(true)
+              .build());
+
+  private static final int GONE = 410;
+
+  private final KubernetesCredentials credentials;
+  private final KubernetesKind kind;
+  @Nullable private final String namespace;
+  private final Registry registry;
+  private final Executor executor;
+
+  // all guarded by this
+  private final Map<String, KubernetesManifest> resources = new HashMap<>();
+  private long session = 0;
+  private boolean watching = false;
+  private boolean resynced = false;
+  @Nullable private Thread watchThread;
+  private String relistReason = "initial";
+  @Nullable private String resourceVersion;
+
+  KubernetesResourceWatch(
+      KubernetesCredentials credentials,
+      KubernetesKind kind,
+      @Nullable String namespace,
+      Registry registry,
+      Executor executor) {
+    this.credentials = credentials;
+    this.kind = kind;
+    this.namespace = namespace;
+    this.registry = registry;
+    this.executor = executor;
+  }
+
+  synchronized ImmutableList<KubernetesManifest> list() {
+    if (!watching) {
+      long watchSession = ++session;
+      watching = true;
+      resynced = false;
+      executor.execute(() -> watch(watchSession));
+      relist(relistReason);
+    } else if (!resynced) {
+      relist("resync");
+      resynced = true;
+    }
+    // callers strip sensitive keys from the manifests they are handed
+    return resources.values().stream().map(KubernetesManifest::clone).collect(toImmutableList());
+  }
+
+  /** Stops the watch, if any, and kills its kubectl process. */
+  synchronized void close() {
+    session++;
+    watching = false;
+    relistReason = "initial";
+    resources.clear();
+    if (watchThread != null) {
+      // the job executor kills kubectl when the thread waiting for it is interrupted
+      watchThread.interrupt();
+      watchThread = null;
+    }
+  }
+
+  private void relist(String reason) {
+    registry
+        .counter(
+            "kubernetes.watch.relists",
+            "account",
+            credentials.getAccountName(),
+            "kind",
+            kind.toString(),
+            "reason",
+            reason)
+        .increment();
+    resources.clear();
+    for (KubernetesManifest manifest : credentials.list(kind, namespace)) {
+      resources.put(key(manifest), manifest);
+    }
+  }
+
+  private void watch(long watchSession) {
+    if (!startWatching(watchSession)) {
+      return;
+    }
+    try {
+      credentials.watch(kind, namespace, event -> onEvent(watchSession, event));
+    } catch (RuntimeException e) {
+      if (!isCurrent(watchSession)) {
+        return;
+      }
+      log.warn(
+          "Watch of {} in {} for account {} failed",
+          kind,
+          namespaceName(),
+          credentials.getAccountName(),
+          e);
+    } finally {
+      endSession(watchSession, "closed");
+    }
+  }
+
+  private synchronized boolean startWatching(long watchSession) {
+    if (watchSession != session) {
+      return false;
+    }
+    watchThread = Thread.currentThread();
+    return true;
+  }
+
+  private synchronized boolean isCurrent(long watchSession) {
+    return watchSession == session;
+  }
+
+  private synchronized boolean onEvent(long watchSession, KubernetesWatchEvent event) {
+    if (watchSession != session || event == null || event.getType() == null) {
+      return watchSession == session;
+    }
+    registry
+        .counter(
+            "kubernetes.watch.events",
+            "account",
+            credentials.getAccountName(),
+            "kind",
+            kind.toString(),
+            "type",
+            event.getType().toString())
+        .increment();
+
+    KubernetesManifest object = event.getObject();
+    if (object == null && event.getType() != KubernetesWatchEvent.Type.ERROR) {
+      return true;
+    }
+    switch (event.getType()) {
+      case ADDED:
+      case MODIFIED:
+        resources.put(key(object), object);
+        break;
+      case DELETED:
+        resources.remove(key(object));
+        break;
+      case BOOKMARK:
+        break;
+      case ERROR:
+        Object code = object == null ? null : object.get("code");
+        boolean gone = code instanceof Number && ((Number) code).intValue() == GONE;
+        log.info(
+            "Watch of {} in {} for account {} ended at resourceVersion {}: {}",
+            kind,
+            namespaceName(),
+            credentials.getAccountName(),
+            resourceVersion,
+            object == null ? null : object.get("message"));
+        endSession(watchSession, gone ? "expired" : "error");
+        return false;
+    }
+    resourceVersion = resourceVersion(object);
+    return true;
+  }
+
+  private synchronized void endSession(long watchSession, String reason) {
+    if (watchSession == session && watching) {
+      watching = false;
+      relistReason = reason;
+      watchThread = null;
+    }
+  }
+
+  private String namespaceName() {
+    return Strings.isNullOrEmpty(namespace) ? "cluster scope" : namespace;
+  }
+
+  private static String key(KubernetesManifest manifest) {
+    return manifest.getNamespace() + "/" + manifest.getName();
+  }
+
+  @Nullable
+  @SuppressWarnings("unchecked")
+  private static String resourceVersion(KubernetesManifest manifest) {
+    Object metadata = manifest.get("metadata");
+    if (metadata instanceof Map) {
+      Object version = ((Map<String, Object>) metadata).get("resourceVersion");
+      return version == null ? null : version.toString();
+    }
+    return null;
+  }
+}
@@ -49,6 +49,7 @@ import lombok.Data;
 @Data
 public class KubernetesAccountProperties {
   private static final int DEFAULT_CACHE_THREADS = 1;
+  private static final int DEFAULT_CACHE_NAMESPACE_CONCURRENCY = 1;
 
   @Data
   @JsonTypeName("kubernetes")
@@ -67,6 +68,11 @@ public class KubernetesAccountProperties {
     private List<String> namespaces = new ArrayList<>();
     private List<String> omitNamespaces = new ArrayList<>();
     private int cacheThreads = DEFAULT_CACHE_THREADS;
+    // how many namespaces a caching agent of this account lists at the same time
+    private int cacheNamespaceConcurrency = DEFAULT_CACHE_NAMESPACE_CONCURRENCY;
+    // list namespaced kinds with one `kubectl get --all-namespaces` rather than once per namespace;
+    // requires cluster-wide read access
+    private boolean cacheNamespacesInSingleList = false;
     private List<String> requiredGroupMembership = new ArrayList<>();
     private Permissions.Builder permissions = new Permissions.Builder();
     private String namingStrategy = "kubernetesAnnotations";
@@ -93,6 +99,10 @@ public class KubernetesAccountProperties {
             "At most one of 'namespaces' and 'omitNamespaces' can be specified");
       }
 
+      if (cacheNamespaceConcurrency < 1) {
+        throw new IllegalArgumentException("'cacheNamespaceConcurrency' must be at least 1");
+      }
+
       if (!omitKinds.isEmpty() && !kinds.isEmpty()) {
         throw new IllegalArgumentException(
             "At most one of 'kinds' and 'omitKinds' can be specified");
@@ -130,6 +130,21 @@ public class KubernetesConfigurationProperties {
      * enabled.
      */
     boolean checkApplicationInFront50 = false;
+
+    /**
+     * Whether the core caching agents keep a {@code kubectl get --watch} running per kind and
+     * namespace, and cache the watched state, instead of listing every resource on every caching
+     * cycle. Resources are listed again only when a watch ends (e.g. the API server answers 410
+     * Gone, or the kubectl job times out).
+     */
+    private boolean watchEnabled = false;
+
+    /**
+     * The most watches, each a running kubectl process, that the core caching agents of an account
+     * keep at a time, shared evenly between the agents. Kinds and namespaces beyond the limit are
+     * listed every caching cycle as without watches.
+     */
+    private int maxWatchesPerAccount = 100;
   }
 
   /** kubectl configuration properties */
@@ -23,6 +23,7 @@ import com.google.common.collect.ImmutableSetMultimap;
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.netflix.spinnaker.clouddriver.data.task.Task;
 import com.netflix.spinnaker.clouddriver.jobs.JobExecutor;
 import com.netflix.spinnaker.clouddriver.jobs.JobRequest;
@@ -32,6 +33,7 @@ import com.netflix.spinnaker.clouddriver.kubernetes.config.KubernetesConfigurati
 import com.netflix.spinnaker.clouddriver.kubernetes.description.JsonPatch;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesPatchOptions;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesPodMetric;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesWatchEvent;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifest;
 import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesCredentials;
@@ -51,6 +53,7 @@ import java.io.EOFException;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -527,6 +530,74 @@ public class KubectlJobExecutor {
     return status.getOutput();
   }
 
+  /**
+   * Lists the given kinds across all namespaces with a single {@code kubectl get
+   * --all-namespaces}. Unlike {@link #list}, a permission error is reported as a {@link
+   * KubectlException} so that callers can fall back to listing namespace by namespace.
+   *
+   * @param credentials k8s account credentials
+   * @param kinds the namespaced kinds to list
+   * @param omitNamespaces namespaces excluded from the result by a field selector
+   */
+  @Nonnull
+  public ImmutableList<KubernetesManifest> listAllNamespaces(
+      KubernetesCredentials credentials, List<KubernetesKind> kinds, List<String> omitNamespaces) {
+    log.debug("Getting list of kinds {} in all namespaces", kinds);
+    List<String> command = kubectlNamespacedGet(credentials, kinds, null);
+    command.add("--all-namespaces");
+    if (!omitNamespaces.isEmpty()) {
+      command.add(
+          "--field-selector="
+              + omitNamespaces.stream()
+                  .map(n -> "metadata.namespace!=" + n)
+                  .collect(Collectors.joining(",")));
+    }
+
+    JobResult<ImmutableList<KubernetesManifest>> status =
+        executeKubectlCommand(credentials, command, parseManifestList());
+
+    if (status.getResult() != JobResult.Result.SUCCESS) {
+      throw new KubectlException(
+          "Failed to read " + kinds + " from all namespaces: " + status.getError());
+    }
+
+    if (status.getError().contains("No resources found")) {
+      return ImmutableList.of();
+    }
+
+    return status.getOutput();
+  }
+
+  /**
+   * Runs {@code kubectl get --watch} for a single kind, handing every event to {@code onEvent} as
+   * it is read. kubectl first reports the current resources as ADDED events and then streams
+   * changes from the resourceVersion of that listing. This blocks until kubectl exits, which
+   * happens when the watch expires (e.g. 410 Gone), the connection drops or the job times out.
+   *
+   * @param credentials k8s account credentials
+   * @param kind the kind to watch
+   * @param namespace the namespace to watch, or null for cluster-scoped kinds
+   * @param onEvent receives the events; returning false stops processing the stream
+   */
+  public void watch(
+      KubernetesCredentials credentials,
+      KubernetesKind kind,
+      String namespace,
+      Predicate<KubernetesWatchEvent> onEvent) {
+    log.debug("Watching kind {} in namespace {}", kind, namespace);
+    List<String> command = kubectlNamespacedGet(credentials, ImmutableList.of(kind), namespace);
+    command.add("--watch");
+    command.add("--output-watch-events");
+
+    // not retried: callers re-list and start a new watch once this one ends
+    JobResult<Void> status = jobExecutor.runJob(new JobRequest(command), parseWatchEvents(onEvent));
+
+    if (status.getResult() != JobResult.Result.SUCCESS && !status.isKilled()) {
+      throw new KubectlException(
+          "Failed to watch " + kind + " in " + namespace + ": " + status.getError());
+    }
+  }
+
   /**
    * Invoke kubectl apply with the given manifest and (if present) label selectors.
    *
@@ -927,6 +998,26 @@ public class KubectlJobExecutor {
     };
   }
 
+  private ReaderConsumer<Void> parseWatchEvents(Predicate<KubernetesWatchEvent> onEvent) {
+    return (@WillClose BufferedReader r) -> {
+      try (JsonReader reader = new JsonReader(r)) {
+        // kubectl writes one JSON document per event
+        reader.setLenient(true);
+        while (reader.peek() != JsonToken.END_DOCUMENT) {
+          KubernetesWatchEvent event = gson.fromJson(reader, KubernetesWatchEvent.class);
+          if (!onEvent.test(event)) {
+            break;
+          }
+        }
+        return null;
+      } catch (EOFException e) {
+        return null;
+      } catch (IllegalStateException | JsonSyntaxException e) {
+        throw new KubectlException("Failed to parse kubectl output: " + e.getMessage(), e);
+      }
+    };
+  }
+
   /**
    * This method executes the actual kubectl command and determines if retries are required, on
    * failure.
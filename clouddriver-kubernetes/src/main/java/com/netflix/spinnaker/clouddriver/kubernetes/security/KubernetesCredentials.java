@@ -31,6 +31,7 @@ import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.netflix.spectator.api.Clock;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.clouddriver.data.task.Task;
@@ -48,6 +49,7 @@ import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesPatchO
 import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesPodMetric;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesResourceProperties;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesSpinnakerKindMap;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesWatchEvent;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.ResourcePropertyRegistry;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKindProperties;
@@ -64,8 +66,12 @@ import io.kubernetes.client.openapi.models.V1DeleteOptions;
 import io.kubernetes.client.openapi.models.V1beta1CustomResourceDefinition;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -117,6 +123,10 @@ public class KubernetesCredentials {
 
   @Include @Getter private final boolean cacheAllApplicationRelationships;
 
+  @Include @Getter private final int cacheNamespaceConcurrency;
+
+  @Include @Getter private final boolean cacheNamespacesInSingleList;
+
   @Include @Getter private final RawResourcesEndpointConfig rawResourcesEndpointConfig;
 
   @Include private final boolean checkPermissionsOnStartup;
@@ -141,6 +151,8 @@ public class KubernetesCredentials {
       Memoizer.memoizeWithExpiration(
           this::namespaceSupplier, NAMESPACE_EXPIRY_SECONDS, TimeUnit.SECONDS);
   @Getter private final Namer<KubernetesManifest> namer;
+  private final Supplier<ExecutorService> namespaceExecutor =
+      Suppliers.memoize(this::createNamespaceExecutor);
 
   public KubernetesCredentials(
       Registry registry,
@@ -205,6 +217,8 @@ public class KubernetesCredentials {
     this.debug = managedAccount.isDebug();
     this.namer = manifestNamer;
     this.cacheAllApplicationRelationships = managedAccount.isCacheAllApplicationRelationships();
+    this.cacheNamespaceConcurrency = managedAccount.getCacheNamespaceConcurrency();
+    this.cacheNamespacesInSingleList = managedAccount.isCacheNamespacesInSingleList();
     this.rawResourcesEndpointConfig = managedAccount.getRawResourcesEndpointConfig();
     this.globalResourcePropertyRegistry = globalResourcePropertyRegistry;
   }
@@ -480,6 +494,56 @@ public class KubernetesCredentials {
     }
   }
 
+  /** Lists namespaced kinds across every namespace not omitted by this account, in one call. */
+  @Nonnull
+  public ImmutableList<KubernetesManifest> listAllNamespaces(List<KubernetesKind> kinds) {
+    if (kinds.isEmpty()) {
+      return ImmutableList.of();
+    }
+    return runAndRecordMetrics(
+        "list", kinds, "*", () -> jobExecutor.listAllNamespaces(this, kinds, omitNamespaces));
+  }
+
+  /**
+   * The executor the caching agents of this account use to list namespaces concurrently, bounded
+   * by {@link #getCacheNamespaceConcurrency()}. Its threads exit when idle.
+   */
+  public ExecutorService getNamespaceExecutor() {
+    return namespaceExecutor.get();
+  }
+
+  private ExecutorService createNamespaceExecutor() {
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            cacheNamespaceConcurrency,
+            cacheNamespaceConcurrency,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder()
+                .setNameFormat("kubernetes-" + accountName + "-namespaces-%d")
+                .setDaemon(true)
+                .build());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Watches {@code kind} in {@code namespace}, blocking until the watch ends. See {@link
+   * KubectlJobExecutor#watch}.
+   */
+  public void watch(
+      KubernetesKind kind, String namespace, Predicate<KubernetesWatchEvent> onEvent) {
+    runAndRecordMetrics(
+        "watch",
+        kind,
+        namespace,
+        () -> {
+          jobExecutor.watch(this, kind, namespace, onEvent);
+          return null;
+        });
+  }
+
   /** Deprecated in favor of {@link KubernetesCredentials#eventsFor(KubernetesCoordinates)}. */
   @Deprecated
   @Nonnull
@@ -21,7 +21,10 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.netflix.spinnaker.cats.agent.AgentDataType.Authority.AUTHORITATIVE;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -54,6 +57,7 @@ import com.netflix.spinnaker.clouddriver.kubernetes.description.ResourceProperty
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.*;
 import com.netflix.spinnaker.clouddriver.kubernetes.names.KubernetesManifestNamer;
 import com.netflix.spinnaker.clouddriver.kubernetes.op.handler.*;
+import com.netflix.spinnaker.clouddriver.kubernetes.op.job.KubectlJobExecutor;
 import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesCredentials;
 import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesNamedAccountCredentials;
 import com.netflix.spinnaker.clouddriver.model.Front50Application;
@@ -61,6 +65,8 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.IntStream;
 import lombok.Value;
 import org.junit.jupiter.api.Test;
@@ -328,6 +334,111 @@ final class KubernetesCoreCachingAgentTest {
     validateStorageClassInCacheResult(storageClassKey, loadDataResult.getResults());
   }
 
+  @Test
+  public void loadDataListsNamespacesConcurrently() {
+    KubernetesNamedAccountCredentials namedAccountCredentials = getNamedAccountCredentials();
+    KubernetesCredentials credentials = namedAccountCredentials.getCredentials();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    when(credentials.getCacheNamespaceConcurrency()).thenReturn(2);
+    when(credentials.getNamespaceExecutor()).thenReturn(executor);
+
+    KubernetesConfigurationProperties configurationProperties =
+        new KubernetesConfigurationProperties();
+    configurationProperties.getCache().setCacheAll(true);
+
+    try {
+      LoadDataResult loadDataResult =
+          processLoadData(
+              createCachingAgents(namedAccountCredentials, 1, configurationProperties),
+              ImmutableMap.of());
+
+      assertThat(loadDataResult.getResults().get(DEPLOYMENT_KIND))
+          .extracting(deployment -> deployment.getAttributes().get("name"))
+          .containsExactly(DEPLOYMENT_NAME);
+      verify(credentials).list(any(List.class), eq(NAMESPACE1));
+      verify(credentials).list(any(List.class), eq(NAMESPACE2));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void loadDataListsAllNamespacesInOneCall() {
+    KubernetesNamedAccountCredentials namedAccountCredentials = getNamedAccountCredentials();
+    KubernetesCredentials credentials = namedAccountCredentials.getCredentials();
+    KubernetesManifest otherNamespaceDeployment = deploymentManifest("other-deployment");
+    otherNamespaceDeployment.setNamespace("not-declared");
+    when(credentials.isCacheNamespacesInSingleList()).thenReturn(true);
+    when(credentials.listAllNamespaces(any(List.class)))
+        .thenReturn(
+            ImmutableList.of(deploymentManifest(DEPLOYMENT_NAME), otherNamespaceDeployment));
+
+    KubernetesConfigurationProperties configurationProperties =
+        new KubernetesConfigurationProperties();
+    configurationProperties.getCache().setCacheAll(true);
+
+    LoadDataResult loadDataResult =
+        processLoadData(
+            createCachingAgents(namedAccountCredentials, 1, configurationProperties),
+            ImmutableMap.of());
+
+    // only resources in the agent's namespaces are cached
+    assertThat(loadDataResult.getResults().get(DEPLOYMENT_KIND))
+        .extracting(deployment -> deployment.getAttributes().get("name"))
+        .containsExactly(DEPLOYMENT_NAME);
+    verify(credentials, never()).list(any(List.class), eq(NAMESPACE1));
+    verify(credentials, never()).list(any(List.class), eq(NAMESPACE2));
+  }
+
+  @Test
+  public void loadDataFallsBackToNamespacesWhenAllNamespacesCannotBeListed() {
+    KubernetesNamedAccountCredentials namedAccountCredentials = getNamedAccountCredentials();
+    KubernetesCredentials credentials = namedAccountCredentials.getCredentials();
+    when(credentials.isCacheNamespacesInSingleList()).thenReturn(true);
+    when(credentials.listAllNamespaces(any(List.class)))
+        .thenThrow(new KubectlJobExecutor.KubectlException("forbidden"));
+
+    KubernetesConfigurationProperties configurationProperties =
+        new KubernetesConfigurationProperties();
+    configurationProperties.getCache().setCacheAll(true);
+    ImmutableCollection<KubernetesCoreCachingAgent> cachingAgents =
+        createCachingAgents(namedAccountCredentials, 1, configurationProperties);
+
+    processLoadData(cachingAgents, ImmutableMap.of());
+    LoadDataResult loadDataResult = processLoadData(cachingAgents, ImmutableMap.of());
+
+    assertThat(loadDataResult.getResults().get(DEPLOYMENT_KIND))
+        .extracting(deployment -> deployment.getAttributes().get("name"))
+        .containsExactly(DEPLOYMENT_NAME);
+    // not attempted again for a while once it was forbidden
+    verify(credentials, times(1)).listAllNamespaces(any(List.class));
+  }
+
+  @Test
+  public void loadDataListsAllNamespacesAgainAfterOtherFailures() {
+    KubernetesNamedAccountCredentials namedAccountCredentials = getNamedAccountCredentials();
+    KubernetesCredentials credentials = namedAccountCredentials.getCredentials();
+    when(credentials.isCacheNamespacesInSingleList()).thenReturn(true);
+    when(credentials.listAllNamespaces(any(List.class)))
+        .thenThrow(new KubectlJobExecutor.KubectlException("connection refused"))
+        .thenReturn(ImmutableList.of(deploymentManifest(DEPLOYMENT_NAME)));
+
+    KubernetesConfigurationProperties configurationProperties =
+        new KubernetesConfigurationProperties();
+    configurationProperties.getCache().setCacheAll(true);
+    ImmutableCollection<KubernetesCoreCachingAgent> cachingAgents =
+        createCachingAgents(namedAccountCredentials, 1, configurationProperties);
+
+    processLoadData(cachingAgents, ImmutableMap.of());
+    LoadDataResult loadDataResult = processLoadData(cachingAgents, ImmutableMap.of());
+
+    assertThat(loadDataResult.getResults().get(DEPLOYMENT_KIND))
+        .extracting(deployment -> deployment.getAttributes().get("name"))
+        .containsExactly(DEPLOYMENT_NAME);
+    verify(credentials, times(2)).listAllNamespaces(any(List.class));
+    verify(credentials, times(1)).list(any(List.class), eq(NAMESPACE1));
+  }
+
   @ParameterizedTest
   @ValueSource(booleans = {true, false})
   public void testCheckingOfApplicationsInFront50ForLoadData(boolean checkApplicationInFront50)
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.kubernetes.caching.agent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesWatchEvent;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesWatchEvent.Type;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifest;
+import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesCredentials;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+final class KubernetesResourceWatchTest {
+  private static final String NAMESPACE = "test-namespace";
+
+  private final KubernetesCredentials credentials = mock(KubernetesCredentials.class);
+  private final Registry registry = new DefaultRegistry();
+  private final List<Runnable> watchTasks = new ArrayList<>();
+  private KubernetesResourceWatch watch;
+
+  // events the fake watch stream replays before blocking until released
+  private List<KubernetesWatchEvent> events = new ArrayList<>();
+  private final CountDownLatch eventsDelivered = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final AtomicBoolean interrupted = new AtomicBoolean();
+
+  @BeforeEach
+  void setup() {
+    when(credentials.getAccountName()).thenReturn("account");
+    when(credentials.list(KubernetesKind.POD, NAMESPACE))
+        .thenReturn(ImmutableList.of(pod("a", "1"), pod("b", "1")));
+    doAnswer(
+            invocation -> {
+              Predicate<KubernetesWatchEvent> onEvent = invocation.getArgument(2);
+              for (KubernetesWatchEvent event : events) {
+                if (!onEvent.test(event)) {
+                  break;
+                }
+              }
+              eventsDelivered.countDown();
+              try {
+                release.await(10, TimeUnit.SECONDS);
+              } catch (InterruptedException e) {
+                interrupted.set(true);
+              }
+              return null;
+            })
+        .when(credentials)
+        .watch(eq(KubernetesKind.POD), eq(NAMESPACE), any());
+
+    watch =
+        new KubernetesResourceWatch(
+            credentials, KubernetesKind.POD, NAMESPACE, registry, watchTasks::add);
+  }
+
+  @Test
+  void appliesWatchEventsWithoutListingAgain() throws Exception {
+    assertThat(names(watch.list())).containsExactlyInAnyOrder("a", "b");
+    assertThat(watchTasks).hasSize(1);
+    watch.list();
+    verify(credentials, times(2)).list(KubernetesKind.POD, NAMESPACE);
+
+    events =
+        List.of(
+            new KubernetesWatchEvent(Type.MODIFIED, pod("a", "2")),
+            new KubernetesWatchEvent(Type.DELETED, pod("b", "3")),
+            new KubernetesWatchEvent(Type.ADDED, pod("c", "4")),
+            new KubernetesWatchEvent(Type.BOOKMARK, pod("", "5")));
+    Thread watcher = startWatch();
+
+    List<KubernetesManifest> resources = watch.list();
+    assertThat(names(resources)).containsExactlyInAnyOrder("a", "c");
+    assertThat(resourceVersions(resources)).containsExactlyInAnyOrder("2", "4");
+    verify(credentials, times(2)).list(KubernetesKind.POD, NAMESPACE);
+    assertThat(watchTasks).hasSize(1);
+
+    release.countDown();
+    watcher.join();
+
+    // the watch has ended, so the next read lists again and starts a new watch
+    assertThat(names(watch.list())).containsExactlyInAnyOrder("a", "b");
+    verify(credentials, times(3)).list(KubernetesKind.POD, NAMESPACE);
+    assertThat(watchTasks).hasSize(2);
+    assertThat(relists("closed")).isEqualTo(1);
+  }
+
+  @Test
+  void listsAgainWhenTheWatchExpires() throws Exception {
+    watch.list();
+
+    KubernetesManifest gone = new KubernetesManifest();
+    gone.put("kind", "Status");
+    gone.put("code", 410.0);
+    gone.put("message", "too old resource version: 1 (5)");
+    events =
+        List.of(
+            new KubernetesWatchEvent(Type.ERROR, gone),
+            new KubernetesWatchEvent(Type.ADDED, pod("ignored", "6")));
+    Thread watcher = startWatch();
+
+    // kubectl may still be running, but its stream is no longer trusted
+    assertThat(names(watch.list())).containsExactlyInAnyOrder("a", "b");
+    verify(credentials, times(2)).list(KubernetesKind.POD, NAMESPACE);
+    assertThat(watchTasks).hasSize(2);
+    assertThat(relists("expired")).isEqualTo(1);
+
+    release.countDown();
+    watcher.join();
+  }
+
+  @Test
+  void listsOnceMoreAfterTheWatchStarts() {
+    when(credentials.list(KubernetesKind.POD, NAMESPACE))
+        .thenReturn(ImmutableList.of(pod("a", "1"), pod("b", "1")))
+        .thenReturn(ImmutableList.of(pod("a", "1")));
+
+    assertThat(names(watch.list())).containsExactlyInAnyOrder("a", "b");
+    // b was deleted before kubectl listed, so the watch never reports its deletion
+    assertThat(names(watch.list())).containsExactlyInAnyOrder("a");
+    assertThat(names(watch.list())).containsExactlyInAnyOrder("a");
+
+    verify(credentials, times(2)).list(KubernetesKind.POD, NAMESPACE);
+    assertThat(relists("initial")).isEqualTo(1);
+    assertThat(relists("resync")).isEqualTo(1);
+  }
+
+  @Test
+  void closeStopsTheWatch() throws Exception {
+    watch.list();
+    Thread watcher = startWatch();
+
+    watch.close();
+    watcher.join(TimeUnit.SECONDS.toMillis(10));
+    assertThat(interrupted.get()).isTrue();
+
+    // a closed watch starts over on the next read
+    assertThat(names(watch.list())).containsExactlyInAnyOrder("a", "b");
+    assertThat(watchTasks).hasSize(2);
+    assertThat(relists("initial")).isEqualTo(2);
+  }
+
+  private Thread startWatch() throws InterruptedException {
+    Thread watcher = new Thread(watchTasks.get(watchTasks.size() - 1));
+    watcher.start();
+    assertThat(eventsDelivered.await(10, TimeUnit.SECONDS)).isTrue();
+    return watcher;
+  }
+
+  private long relists(String reason) {
+    return registry
+        .counter(
+            "kubernetes.watch.relists",
+            "account",
+            "account",
+            "kind",
+            KubernetesKind.POD.toString(),
+            "reason",
+            reason)
+        .count();
+  }
+
+  private static List<String> names(List<KubernetesManifest> manifests) {
+    return manifests.stream()
+        .map(KubernetesManifest::getName)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<String> resourceVersions(List<KubernetesManifest> manifests) {
+    return manifests.stream()
+        .map(m -> (String) ((Map<String, Object>) m.get("metadata")).get("resourceVersion"))
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  private static KubernetesManifest pod(String name, String resourceVersion) {
+    KubernetesManifest manifest = new KubernetesManifest();
+    manifest.put("kind", "Pod");
+    manifest.put("apiVersion", "v1");
+    manifest.put(
+        "metadata",
+        new HashMap<>(
+            Map.of("name", name, "namespace", NAMESPACE, "resourceVersion", resourceVersion)));
+    return manifest;
+  }
+}
@@ -44,9 +44,12 @@ import com.netflix.spinnaker.clouddriver.jobs.JobRequest;
 import com.netflix.spinnaker.clouddriver.jobs.JobResult;
 import com.netflix.spinnaker.clouddriver.jobs.JobResult.Result;
 import com.netflix.spinnaker.clouddriver.jobs.local.JobExecutorLocal;
+import com.netflix.spinnaker.clouddriver.jobs.local.ReaderConsumer;
 import com.netflix.spinnaker.clouddriver.kubernetes.config.KubernetesConfigurationProperties;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesPodMetric;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesPodMetric.ContainerMetric;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.KubernetesWatchEvent;
+import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesKind;
 import com.netflix.spinnaker.clouddriver.kubernetes.description.manifest.KubernetesManifest;
 import com.netflix.spinnaker.clouddriver.kubernetes.op.handler.ManifestFetcher;
 import com.netflix.spinnaker.clouddriver.kubernetes.security.KubernetesCredentials;
@@ -57,9 +60,11 @@ import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryRegistry;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -747,6 +752,57 @@ final class KubectlJobExecutorTest {
     assertThat(returnedManifest).isNull();
   }
 
+  @Test
+  void watchHandsEachEventToTheListener() {
+    String stream =
+        "{\"type\": \"ADDED\", \"object\": {\"kind\": \"Pod\", \"apiVersion\": \"v1\","
+            + " \"metadata\": {\"name\": \"a\", \"resourceVersion\": \"1\"}}}\n"
+            + "{\n  \"type\": \"DELETED\",\n  \"object\": {\"kind\": \"Pod\", \"apiVersion\": \"v1\","
+            + " \"metadata\": {\"name\": \"a\", \"resourceVersion\": \"2\"}}\n}\n"
+            + "{\"type\": \"ERROR\", \"object\": {\"kind\": \"Status\", \"code\": 410}}\n";
+    when(jobExecutor.runJob(any(JobRequest.class), any(ReaderConsumer.class)))
+        .thenAnswer(
+            invocation -> {
+              ReaderConsumer<?> consumer = invocation.getArgument(1);
+              Object output = consumer.consume(new BufferedReader(new StringReader(stream)));
+              return JobResult.builder().result(Result.SUCCESS).output(output).error("").build();
+            });
+
+    KubectlJobExecutor kubectlJobExecutor =
+        new KubectlJobExecutor(
+            jobExecutor, kubernetesConfigurationProperties, new SimpleMeterRegistry());
+    List<KubernetesWatchEvent> events = new ArrayList<>();
+    kubectlJobExecutor.watch(
+        mockKubernetesCredentials(), KubernetesKind.POD, NAMESPACE, events::add);
+
+    assertThat(events)
+        .extracting(KubernetesWatchEvent::getType)
+        .containsExactly(
+            KubernetesWatchEvent.Type.ADDED,
+            KubernetesWatchEvent.Type.DELETED,
+            KubernetesWatchEvent.Type.ERROR);
+    assertThat(events.get(0).getObject().getName()).isEqualTo("a");
+    assertThat(events.get(2).getObject().get("code")).isEqualTo(410.0);
+  }
+
+  @Test
+  void watchFailsWhenKubectlFails() {
+    when(jobExecutor.runJob(any(JobRequest.class), any(ReaderConsumer.class)))
+        .thenReturn(
+            JobResult.builder().result(Result.FAILURE).error("forbidden").killed(false).build());
+
+    KubectlJobExecutor kubectlJobExecutor =
+        new KubectlJobExecutor(
+            jobExecutor, kubernetesConfigurationProperties, new SimpleMeterRegistry());
+
+    assertThatThrownBy(
+            () ->
+                kubectlJobExecutor.watch(
+                    mockKubernetesCredentials(), KubernetesKind.POD, NAMESPACE, e -> true))
+        .isInstanceOf(KubectlJobExecutor.KubectlException.class)
+        .hasMessageContaining("forbidden");
+  }
+
   /** Returns a mock KubernetesCredentials object */
   private static KubernetesCredentials mockKubernetesCredentials() {
     return mockKubernetesCredentials("");
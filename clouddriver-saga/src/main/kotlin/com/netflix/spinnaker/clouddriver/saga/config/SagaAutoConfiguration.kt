@@ -37,8 +37,8 @@ open class SagaAutoConfiguration {
 
   @Bean
   @ConditionalOnMissingBean(SagaRepository::class)
-  open fun sagaRepository(eventRepository: EventRepository): SagaRepository {
-    return DefaultSagaRepository(eventRepository)
+  open fun sagaRepository(eventRepository: EventRepository, sagaProperties: SagaProperties): SagaRepository {
+    return DefaultSagaRepository(eventRepository, sagaProperties.snapshotInterval)
   }
 
   @Bean
@@ -58,4 +58,10 @@ open class SagaAutoConfiguration {
 }
 
 @ConfigurationProperties("spinnaker.clouddriver.sagas")
-open class SagaProperties
+open class SagaProperties {
+  /**
+   * The number of events between Saga snapshots. A Saga is loaded from its latest snapshot plus the events saved
+   * after it, so this bounds the number of event rows read per load. Set to 0 to always read the full event log.
+   */
+  var snapshotInterval: Int = 100
+}
@@ -26,9 +26,14 @@ import org.slf4j.LoggerFactory
 /**
  * The default [SagaRepository] implementation. Since Saga persistence is powered entirely by the
  * eventing lib, this class does not need an explicit persistence backend dependency.
+ *
+ * @param snapshotInterval Every time a Saga's event log grows past a multiple of this many events, a compacted
+ *                         snapshot is saved so that loading the Saga reads the snapshot plus a short tail rather
+ *                         than the entire log. Set to 0 to disable snapshotting.
  */
 class DefaultSagaRepository(
-  private val eventRepository: EventRepository
+  private val eventRepository: EventRepository,
+  private val snapshotInterval: Int = 0
 ) : SagaRepository {
 
   private val log by lazy { LoggerFactory.getLogger(javaClass) }
@@ -56,7 +61,7 @@ class DefaultSagaRepository(
   }
 
   override fun get(type: String, id: String): Saga? {
-    val events = eventRepository.list(type, id)
+    val events = eventRepository.listWithSnapshot(type, id)
     if (events.isEmpty()) {
       return null
     }
@@ -83,5 +88,35 @@ class DefaultSagaRepository(
     }
     events.add(SagaSaved(saga.getSequence()))
     eventRepository.save(saga.name, saga.id, saga.getVersion(), events)
+
+    if (snapshotInterval > 0) {
+      maybeSaveSnapshot(saga, events)
+    }
+  }
+
+  /**
+   * Saves a snapshot if [newEvents] pushed the Saga's log past a multiple of [snapshotInterval].
+   *
+   * A save is only accepted against the latest aggregate version, so [saga] holds the complete log at this point
+   * and, together with [newEvents], is everything a snapshot needs. Only the most recent [SagaSaved] is retained,
+   * since that is the only one read back when the Saga is loaded.
+   */
+  private fun maybeSaveSnapshot(saga: Saga, newEvents: List<SagaEvent>) {
+    val previousSequence = saga.getEvents().maxOfOrNull { it.getMetadata().sequence } ?: 0L
+    val sequence = newEvents.maxOfOrNull { it.getMetadata().sequence } ?: return
+    if (sequence / snapshotInterval == previousSequence / snapshotInterval) {
+      return
+    }
+
+    val eventLog = saga.getEvents() + newEvents
+    val lastSaved = eventLog.last { it is SagaSaved }
+    val compacted = eventLog.filter { it !is SagaSaved || it === lastSaved }
+
+    try {
+      eventRepository.saveSnapshot(saga.name, saga.id, sequence, compacted)
+    } catch (e: Exception) {
+      // Snapshots are only an optimization; the event log remains the source of truth.
+      log.warn("Failed to save snapshot of ${saga.name}/${saga.id} at sequence $sequence", e)
+    }
   }
 }
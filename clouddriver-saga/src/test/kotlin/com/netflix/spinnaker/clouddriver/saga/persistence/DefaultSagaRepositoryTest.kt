@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.clouddriver.saga.persistence
+
+import com.netflix.spectator.api.NoopRegistry
+import com.netflix.spinnaker.clouddriver.event.SpinnakerEvent
+import com.netflix.spinnaker.clouddriver.event.config.MemoryEventRepositoryConfigProperties
+import com.netflix.spinnaker.clouddriver.event.persistence.EventRepository
+import com.netflix.spinnaker.clouddriver.event.persistence.InMemoryEventRepository
+import com.netflix.spinnaker.clouddriver.saga.SagaSaved
+import com.netflix.spinnaker.clouddriver.saga.models.Saga
+import dev.minutest.junit.JUnit5Minutests
+import dev.minutest.rootContext
+import io.mockk.mockk
+import strikt.api.expectThat
+import strikt.assertions.filterIsInstance
+import strikt.assertions.hasSize
+import strikt.assertions.isEqualTo
+import strikt.assertions.isLessThan
+import strikt.assertions.isNotNull
+
+class DefaultSagaRepositoryTest : JUnit5Minutests {
+
+  fun tests() = rootContext<Fixture> {
+    fixture {
+      Fixture()
+    }
+
+    test("loading from a snapshot yields the same saga as the full event log") {
+      val messages = saveMessages(30)
+
+      expectThat(eventRepository.snapshots).isEqualTo(6)
+
+      expectThat(subject.get("test", "test"))
+        .isNotNull()
+        .and {
+          get { getLogs() }.isEqualTo(messages)
+          get { getSequence() }.isEqualTo(29L)
+          get { getVersion() }.isEqualTo(30L)
+          get { getEvents() }.filterIsInstance<SagaSaved>().hasSize(1)
+        }
+    }
+
+    test("only the events after the latest snapshot are read from the log") {
+      saveMessages(30)
+
+      expectThat(eventRepository.listWithSnapshot("test", "test").size)
+        .isLessThan(eventRepository.list("test", "test").size)
+    }
+
+    test("snapshotting can be disabled") {
+      subject = DefaultSagaRepository(eventRepository, 0)
+      saveMessages(30)
+
+      expectThat(eventRepository.snapshots).isEqualTo(0)
+    }
+  }
+
+  private inner class Fixture {
+    val eventRepository = CountingEventRepository(
+      InMemoryEventRepository(MemoryEventRepositoryConfigProperties(), mockk(relaxed = true), NoopRegistry())
+    )
+
+    var subject = DefaultSagaRepository(eventRepository, 10)
+
+    /**
+     * Saves a saga once per message, re-reading it before every save like the saga service does. Each save appends
+     * two events: the log message and a [SagaSaved].
+     */
+    fun saveMessages(count: Int): List<String> =
+      (0 until count).map { i ->
+        val saga = subject.get("test", "test") ?: Saga("test", "test")
+        saga.setSequence(i.toLong())
+        "message $i".also {
+          saga.log(it)
+          subject.save(saga)
+        }
+      }
+  }
+
+  private class CountingEventRepository(
+    private val delegate: EventRepository
+  ) : EventRepository by delegate {
+    var snapshots = 0
+
+    override fun saveSnapshot(aggregateType: String, aggregateId: String, sequence: Long, events: List<SpinnakerEvent>) {
+      snapshots++
+      delegate.saveSnapshot(aggregateType, aggregateId, sequence, events)
+    }
+  }
+}
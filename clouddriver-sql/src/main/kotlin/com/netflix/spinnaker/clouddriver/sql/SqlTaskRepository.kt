@@ -24,6 +24,7 @@ import com.netflix.spinnaker.clouddriver.data.task.TaskRepository
 import com.netflix.spinnaker.clouddriver.data.task.TaskState
 import com.netflix.spinnaker.clouddriver.data.task.TaskState.FAILED
 import com.netflix.spinnaker.clouddriver.data.task.TaskState.STARTED
+import com.netflix.spinnaker.config.SqlTaskReadCacheProperties
 import com.netflix.spinnaker.kork.sql.routing.withPool
 import de.huxhorn.sulky.ulid.ULID
 import java.time.Clock
@@ -36,15 +37,25 @@ import org.jooq.impl.DSL.max
 import org.jooq.impl.DSL.sql
 import org.slf4j.LoggerFactory
 
-class SqlTaskRepository(
+class SqlTaskRepository @JvmOverloads constructor(
   private val jooq: DSLContext,
   private val mapper: ObjectMapper,
   private val clock: Clock,
-  private val poolName: String
+  private val poolName: String,
+  private val readCacheProperties: SqlTaskReadCacheProperties = SqlTaskReadCacheProperties()
 ) : TaskRepository {
 
   private val log = LoggerFactory.getLogger(javaClass)
 
+  /**
+   * Recently read tasks, most recently used last. Orca polls running tasks every few seconds, so keeping their
+   * views lets each poll read only the rows added since the previous one.
+   */
+  private val views = object : LinkedHashMap<String, TaskView>(16, 0.75f, true) {
+    override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, TaskView>?): Boolean =
+      size > readCacheProperties.maxTasks
+  }
+
   init {
     log.info("Using ${javaClass.simpleName} with pool $poolName")
   }
@@ -76,6 +87,7 @@ class SqlTaskRepository(
           addToHistory(ctx, historyId, task.id, STARTED, phase, status)
         }
       }
+      invalidateTerminalView(task.id)
       // TODO(rz): So janky and bad.
       task.refresh(true)
     }
@@ -91,6 +103,8 @@ class SqlTaskRepository(
           .where(field("id").eq(task.id))
           .execute()
       }
+    }.also {
+      invalidateTerminalView(task.id)
     }
   }
 
@@ -115,9 +129,7 @@ class SqlTaskRepository(
   override fun list(): MutableList<Task> {
     return withPool(poolName) {
       jooq.read {
-        runningTaskIds(it, false).let { taskIds ->
-          retrieveInternal(field("id").`in`(*taskIds), field("task_id").`in`(*taskIds)).toMutableList()
-        }
+        retrieve(runningTaskIds(it, false).toList()).toMutableList()
       }
     }
   }
@@ -125,9 +137,7 @@ class SqlTaskRepository(
   override fun listByThisInstance(): MutableList<Task> {
     return withPool(poolName) {
       jooq.read {
-        runningTaskIds(it, true).let { taskIds ->
-          retrieveInternal(field("id").`in`(*taskIds), field("task_id").`in`(*taskIds)).toMutableList()
-        }
+        retrieve(runningTaskIds(it, true).toList()).toMutableList()
       }
     }
   }
@@ -148,11 +158,12 @@ class SqlTaskRepository(
           }
 
         resultIdPairs.forEach { result ->
-          ctx.insertInto(taskResultsTable, listOf(field("id"), field("task_id"), field("body")))
+          ctx.insertInto(taskResultsTable, listOf(field("id"), field("task_id"), field("created_at"), field("body")))
             .values(
               listOf(
                 result.key,
                 task.id,
+                clock.millis(),
                 mapper.writeValueAsString(result.value)
               )
             )
@@ -160,6 +171,7 @@ class SqlTaskRepository(
         }
       }
     }
+    invalidateTerminalView(task.id)
   }
 
   internal fun updateCurrentStatus(task: Task, phase: String, status: String) {
@@ -170,6 +182,7 @@ class SqlTaskRepository(
         addToHistory(ctx, historyId, task.id, state?.state ?: STARTED, phase, status.take(MAX_STATUS_LENGTH))
       }
     }
+    invalidateTerminalView(task.id)
   }
 
   private fun addToHistory(ctx: DSLContext, id: String, taskId: String, state: TaskState, phase: String, status: String) {
@@ -191,6 +204,7 @@ class SqlTaskRepository(
         }
       }
     }
+    invalidateTerminalView(task.id)
   }
 
   internal fun updateOutput(taskOutput: TaskOutput, task: Task) {
@@ -200,6 +214,7 @@ class SqlTaskRepository(
         addToOutput(ctx, outputId, task.id, taskOutput.manifest, taskOutput.phase, taskOutput.stdOut, taskOutput.stdError)
       }
     }
+    invalidateTerminalView(task.id)
   }
 
   private fun addToOutput(ctx: DSLContext, id: String, taskId: String, manifestName: String, phase: String, stdOut: String?, stdError: String?) {
@@ -238,15 +253,87 @@ class SqlTaskRepository(
           .where(field("id").eq(task.id))
           .execute()
       }
+    }.also {
+      invalidateTerminalView(task.id)
     }
   }
 
   internal fun retrieveInternal(taskId: String): Task? {
-    return retrieveInternal(field("id").eq(taskId), field("task_id").eq(taskId)).firstOrNull()
+    return retrieve(listOf(taskId)).firstOrNull()
   }
 
-  private fun retrieveInternal(condition: Condition, relationshipCondition: Condition? = null): Collection<Task> {
-    val tasks = mutableSetOf<Task>()
+  /**
+   * Retrieves the given tasks, reusing cached views where possible:
+   *
+   * - Tasks that reached a terminal state within `completedTtlMs` are returned without querying.
+   * - Other cached tasks only read the rows added since they were last refreshed.
+   * - Uncached tasks, and views older than `fullReloadIntervalMs`, are read in full.
+   */
+  private fun retrieve(taskIds: List<String>): List<Task> {
+    val ids = taskIds.distinct()
+    if (ids.isEmpty()) {
+      return listOf()
+    }
+
+    val now = clock.millis()
+    val cached = synchronized(views) {
+      ids.mapNotNull { id -> views[id]?.let { id to it } }.toMap()
+    }
+    val current = cached.filterValues { it.terminal && now - it.refreshedAt < readCacheProperties.completedTtlMs }
+    val incremental = cached.filterValues {
+      !current.containsKey(it.id) && now - it.loadedAt < readCacheProperties.fullReloadIntervalMs
+    }
+    val full = ids.filterNot { current.containsKey(it) || incremental.containsKey(it) }
+
+    val refreshed = mutableMapOf<String, TaskView>()
+    if (full.isNotEmpty() || incremental.isNotEmpty()) {
+      val rows = selectTaskRows(full, incremental.values)
+      (full + incremental.keys).forEach { id ->
+        val taskRows = rows[id]
+        val header = taskRows?.header ?: return@forEach
+        refreshed[id] = incremental[id]?.withRows(header, taskRows.children, readCacheProperties.lookbackMs, now)
+          ?: TaskView.load(id, header, taskRows.children, readCacheProperties.lookbackMs, now)
+      }
+      log.debug(
+        "Retrieved {} tasks ({} cached, {} incremental, {} full)",
+        ids.size,
+        current.size,
+        incremental.size,
+        full.size
+      )
+    }
+
+    if (readCacheProperties.maxTasks > 0) {
+      synchronized(views) {
+        views.putAll(refreshed)
+        // Tasks that have since been cleaned up.
+        (full + incremental.keys).filterNot { refreshed.containsKey(it) }.forEach { views.remove(it) }
+      }
+    }
+
+    return ids.mapNotNull { current[it] ?: refreshed[it] }.map { it.toTask(this) }
+  }
+
+  /**
+   * Drops the cached view of a task if it is terminal: terminal views are served without querying, so they would
+   * otherwise hide a write (e.g. a retry) until they expire. Views of running tasks pick writes up incrementally.
+   */
+  private fun invalidateTerminalView(taskId: String) {
+    synchronized(views) {
+      if (views[taskId]?.terminal == true) {
+        views.remove(taskId)
+      }
+    }
+  }
+
+  /**
+   * Selects the rows of the [full] tasks, and the rows of the [incremental] tasks created inside the lookback
+   * window of the oldest of them. Rows a view has already applied are skipped by [TaskView.withRows].
+   */
+  private fun selectTaskRows(full: List<String>, incremental: Collection<TaskView>): Map<String, TaskRows> {
+    val rows = mutableMapOf<String, TaskRows>()
+    val taskIds = full + incremental.map { it.id }
+    val childCondition = childRowsCondition(full, incremental, false)
 
     // TODO: AWS Aurora enforces REPEATABLE_READ on replicas. Kork's dataSourceConnectionProvider sets READ_COMMITTED
     //  on every connection acquire - need to change this so running on !aurora will behave consistently.
@@ -254,15 +341,15 @@ class SqlTaskRepository(
     withPool(poolName) {
       jooq.transactional { ctx ->
         /**
-         *  (select id as task_id, owner_id, request_id, created_at, saga_ids, null as body, null as state, null as phase, null as status from tasks_copy where id = '01D2H4H50VTF7CGBMP0D6HTGTF')
+         *  (select id as task_id, owner_id, request_id, created_at, saga_ids, null as body, null as state, null as phase, null as status, null as manifest, null as std_out, null as std_error, null as row_id from tasks where id in (...))
          *  UNION ALL
-         *  (select task_id, null as owner_id, null as request_id, null as created_at, null as saga_ids, null as body, state, phase, status from task_states_copy where task_id = '01D2H4H50VTF7CGBMP0D6HTGTF')
+         *  (select task_id, null as owner_id, null as request_id, created_at, null as saga_ids, null as body, state, phase, status, null as manifest, null as std_out, null as std_error, id as row_id from task_states where task_id in (...) [and created_at >= ?])
          *  UNION ALL
-         *  (select task_id, null as owner_id, null as request_id, null as created_at, null as saga_ids, body, null as state, null as phase, null as status from task_results_copy where task_id = '01D2H4H50VTF7CGBMP0D6HTGTF')
+         *  (select task_id, null as owner_id, null as request_id, created_at, null as saga_ids, body, null as state, null as phase, null as status, null as manifest, null as std_out, null as std_error, id as row_id from task_results where task_id in (...) [and (created_at >= ? or created_at is null)])
          *  UNION ALL
-         *  (select task_id, null as owner_id, null as request_id, null as created_at, null as saga_ids, null as body, null as state, manifest, phase, stdOut, stdError, null as status  from task_outputs_copy where task_id = '01D2H4H50VTF7CGBMP0D6HTGTF')
+         *  (select task_id, null as owner_id, null as request_id, created_at, null as saga_ids, null as body, null as state, phase, null as status, manifest, std_out, std_error, id as row_id from task_outputs where task_id in (...) [and created_at >= ?])
          */
-        tasks.addAll(
+        rows.putAll(
           ctx
             .select(
               field("id").`as`("task_id"),
@@ -276,17 +363,18 @@ class SqlTaskRepository(
               field(sql("null")).`as`("status"),
               field(sql("null")).`as`("manifest"),
               field(sql("null")).`as`("std_out"),
-              field(sql("null")).`as`("std_error")
+              field(sql("null")).`as`("std_error"),
+              field(sql("null")).`as`("row_id")
             )
             .from(tasksTable)
-            .where(condition)
+            .where(field("id").`in`(taskIds))
             .unionAll(
               ctx
                 .select(
                   field("task_id"),
                   field(sql("null")).`as`("owner_id"),
                   field(sql("null")).`as`("request_id"),
-                  field(sql("null")).`as`("created_at"),
+                  field("created_at"),
                   field(sql("null")).`as`("saga_ids"),
                   field(sql("null")).`as`("body"),
                   field("state"),
@@ -294,10 +382,11 @@ class SqlTaskRepository(
                   field("status"),
                   field(sql("null")).`as`("manifest"),
                   field(sql("null")).`as`("std_out"),
-                  field(sql("null")).`as`("std_error")
+                  field(sql("null")).`as`("std_error"),
+                  field("id").`as`("row_id")
                 )
                 .from(taskStatesTable)
-                .where(relationshipCondition ?: condition)
+                .where(childCondition)
             )
             .unionAll(
               ctx
@@ -305,7 +394,7 @@ class SqlTaskRepository(
                   field("task_id"),
                   field(sql("null")).`as`("owner_id"),
                   field(sql("null")).`as`("request_id"),
-                  field(sql("null")).`as`("created_at"),
+                  field("created_at"),
                   field(sql("null")).`as`("saga_ids"),
                   field("body"),
                   field(sql("null")).`as`("state"),
@@ -313,10 +402,11 @@ class SqlTaskRepository(
                   field(sql("null")).`as`("status"),
                   field(sql("null")).`as`("manifest"),
                   field(sql("null")).`as`("std_out"),
-                  field(sql("null")).`as`("std_error")
+                  field(sql("null")).`as`("std_error"),
+                  field("id").`as`("row_id")
                 )
                 .from(taskResultsTable)
-                .where(relationshipCondition ?: condition)
+                .where(childRowsCondition(full, incremental, true))
             )
             .unionAll(
               ctx
@@ -324,7 +414,7 @@ class SqlTaskRepository(
                   field("task_id"),
                   field(sql("null")).`as`("owner_id"),
                   field(sql("null")).`as`("request_id"),
-                  field(sql("null")).`as`("created_at"),
+                  field("created_at"),
                   field(sql("null")).`as`("saga_ids"),
                   field(sql("null")).`as`("body"),
                   field(sql("null")).`as`("state"),
@@ -332,17 +422,36 @@ class SqlTaskRepository(
                   field(sql("null")).`as`("status"),
                   field("manifest"),
                   field("std_out"),
-                  field("std_error")
+                  field("std_error"),
+                  field("id").`as`("row_id")
                 )
                 .from(taskOutputsTable)
-                .where(relationshipCondition ?: condition)
+                .where(childCondition)
             )
-            .fetchTasks()
+            .fetchTaskRows()
         )
       }
     }
 
-    return tasks
+    return rows
+  }
+
+  /**
+   * @param legacyRows Whether rows without a `created_at` may exist; they are included in every incremental read
+   */
+  private fun childRowsCondition(full: List<String>, incremental: Collection<TaskView>, legacyRows: Boolean): Condition {
+    val conditions = mutableListOf<Condition>()
+    if (full.isNotEmpty()) {
+      conditions.add(field("task_id").`in`(full))
+    }
+    if (incremental.isNotEmpty()) {
+      val since = field("created_at").ge(incremental.minOf { it.watermark } - readCacheProperties.lookbackMs)
+      conditions.add(
+        field("task_id").`in`(incremental.map { it.id })
+          .and(if (legacyRows) since.or(field("created_at").isNull) else since)
+      )
+    }
+    return conditions.reduce { acc, condition -> acc.or(condition) }
   }
 
   private fun selectLatestState(ctx: DSLContext, taskId: String): DefaultTaskStatus? {
@@ -405,8 +514,8 @@ class SqlTaskRepository(
     }
   }
 
-  private fun Select<out Record>.fetchTasks() =
-    TaskMapper(this@SqlTaskRepository, mapper).map(fetch().intoResultSet())
+  private fun Select<out Record>.fetchTaskRows() =
+    TaskMapper(mapper).map(fetch().intoResultSet())
 
   private fun Select<out Record>.fetchTaskStatuses() =
     TaskStatusMapper().map(fetch().intoResultSet())
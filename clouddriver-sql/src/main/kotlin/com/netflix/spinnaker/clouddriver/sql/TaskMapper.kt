@@ -19,95 +19,86 @@ import com.fasterxml.jackson.core.type.TypeReference
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.clouddriver.data.task.DefaultTaskStatus
 import com.netflix.spinnaker.clouddriver.data.task.SagaId
-import com.netflix.spinnaker.clouddriver.data.task.Status
-import com.netflix.spinnaker.clouddriver.data.task.Task
 import com.netflix.spinnaker.clouddriver.data.task.TaskDisplayOutput
-import com.netflix.spinnaker.clouddriver.data.task.TaskOutput
 import com.netflix.spinnaker.clouddriver.data.task.TaskState
 import java.io.IOException
 import java.lang.String.format
 import java.sql.ResultSet
-import org.slf4j.LoggerFactory
 
+/**
+ * Maps the rows of the task union query into [TaskRows], grouped by task ID.
+ */
 class TaskMapper(
-  private val sqlTaskRepository: SqlTaskRepository,
   private val mapper: ObjectMapper
 ) {
 
   companion object {
-    private val log = LoggerFactory.getLogger(TaskMapper::class.java)
-
     private val SAGA_IDS_TYPE = object : TypeReference<MutableSet<SagaId>>() {}
   }
 
-  fun map(rs: ResultSet): Collection<Task> {
-    val tasks = mutableMapOf<String, SqlTask>()
-    val results = mutableMapOf<String, MutableList<Any>>()
-    val history = mutableMapOf<String, MutableList<Status>>()
-    val taskOutputs = mutableMapOf<String, MutableList<TaskOutput>>()
+  internal fun map(rs: ResultSet): Map<String, TaskRows> {
+    val tasks = mutableMapOf<String, TaskRows>()
 
     while (rs.next()) {
+      val taskId = rs.getString("task_id")
+      val rows = tasks.getOrPut(taskId) { TaskRows(taskId) }
+
+      // Result rows written before task_results gained a created_at column have none; they sort first.
+      val createdAt = rs.getLong("created_at")
+
       when {
         rs.getString("owner_id") != null ->
-          SqlTask(
-            rs.getString("task_id"),
+          rows.header = TaskHeader(
             rs.getString("owner_id"),
             rs.getString("request_id"),
-            rs.getLong("created_at"),
-            sagaIds(rs.getString("saga_ids")),
-            sqlTaskRepository
-          ).let {
-            tasks[it.id] = it
-          }
+            createdAt,
+            sagaIds(rs.getString("saga_ids"))
+          )
         rs.getString("body") != null -> {
           try {
-            if (!results.containsKey(rs.getString("task_id"))) {
-              results[rs.getString("task_id")] = mutableListOf()
-            }
-            results[rs.getString("task_id")]!!.add(mapper.readValue(rs.getString("body"), Map::class.java))
+            rows.children.add(
+              TaskChildRow.Result(
+                rs.getString("row_id"),
+                createdAt,
+                mapper.readValue(rs.getString("body"), Map::class.java)
+              )
+            )
           } catch (e: IOException) {
-            val id = rs.getString("id")
-            val taskId = rs.getString("task_id")
             throw RuntimeException(
-              format("Failed to convert result object body to map (id: %s, taskId: %s)", id, taskId),
+              format("Failed to convert result object body to map (id: %s, taskId: %s)", rs.getString("row_id"), taskId),
               e
             )
           }
         }
-        rs.getString("state") != null -> {
-          if (!history.containsKey(rs.getString("task_id"))) {
-            history[rs.getString("task_id")] = mutableListOf()
-          }
-          history[rs.getString("task_id")]!!.add(
-            DefaultTaskStatus.create(
-              rs.getString("phase"),
-              rs.getString("status"),
-              TaskState.valueOf(rs.getString("state"))
+        rs.getString("state") != null ->
+          rows.children.add(
+            TaskChildRow.State(
+              rs.getString("row_id"),
+              createdAt,
+              DefaultTaskStatus.create(
+                rs.getString("phase"),
+                rs.getString("status"),
+                TaskState.valueOf(rs.getString("state"))
+              )
             )
           )
-        }
-        rs.getString("manifest") != null -> {
-          if (!taskOutputs.containsKey(rs.getString("task_id"))) {
-            taskOutputs[rs.getString("task_id")] = mutableListOf()
-          }
-          taskOutputs[rs.getString("task_id")]!!.add(
-            TaskDisplayOutput(
-              rs.getString("manifest"),
-              rs.getString("phase"),
-              rs.getString("std_out"),
-              rs.getString("std_error")
+        rs.getString("manifest") != null ->
+          rows.children.add(
+            TaskChildRow.Output(
+              rs.getString("row_id"),
+              createdAt,
+              TaskDisplayOutput(
+                rs.getString("manifest"),
+                rs.getString("phase"),
+                rs.getString("std_out"),
+                rs.getString("std_error")
+              )
             )
           )
-        }
       }
     }
 
-    return tasks.values.map { task ->
-      task.hydrateResultObjects(results.getOrDefault(task.id, mutableListOf()))
-      task.hydrateHistory(history.getOrDefault(task.id, mutableListOf()))
-      task.hydrateTaskOutputs(taskOutputs.getOrDefault(task.id, mutableListOf()))
-      task
-    }
+    return tasks
   }
 
   private fun sagaIds(sagaIdsValue: String?): MutableSet<SagaId> {
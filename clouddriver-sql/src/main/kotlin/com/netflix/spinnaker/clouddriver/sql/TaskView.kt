@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.clouddriver.sql
+
+import com.netflix.spinnaker.clouddriver.data.task.SagaId
+import com.netflix.spinnaker.clouddriver.data.task.Status
+import com.netflix.spinnaker.clouddriver.data.task.Task
+import com.netflix.spinnaker.clouddriver.data.task.TaskOutput
+
+/**
+ * The `tasks` row of a task.
+ */
+internal class TaskHeader(
+  val ownerId: String,
+  val requestId: String,
+  val startTimeMs: Long,
+  val sagaIds: Set<SagaId>
+)
+
+/**
+ * A row from one of the append-only task tables: `task_states`, `task_results` or `task_outputs`.
+ */
+internal sealed class TaskChildRow(
+  val id: String,
+  val createdAt: Long
+) {
+  class State(id: String, createdAt: Long, val status: Status) : TaskChildRow(id, createdAt)
+  class Result(id: String, createdAt: Long, val body: Any) : TaskChildRow(id, createdAt)
+  class Output(id: String, createdAt: Long, val output: TaskOutput) : TaskChildRow(id, createdAt)
+}
+
+/**
+ * The rows read for a single task. The [header] is null if the task no longer exists.
+ */
+internal class TaskRows(
+  val taskId: String,
+  var header: TaskHeader? = null,
+  val children: MutableList<TaskChildRow> = mutableListOf()
+)
+
+/**
+ * An immutable read model of a task, cached by [SqlTaskRepository] between reads.
+ *
+ * Task history, results and outputs are insert-only, so a view is brought up to date by reading only the rows
+ * created at or after [watermark] minus a lookback window, then skipping the ones already in [recentRowIds]. The
+ * lookback absorbs rows that commit slightly out of `created_at` order.
+ *
+ * @param watermark The newest `created_at` of any row applied to this view
+ * @param recentRowIds The rows applied to this view that still fall inside the lookback window, keyed by ID
+ * @param loadedAt When this view was last built from a full read of the task
+ * @param refreshedAt When this view was last brought up to date
+ */
+internal class TaskView(
+  val id: String,
+  val header: TaskHeader,
+  val history: List<Status>,
+  val resultObjects: List<Any>,
+  val outputs: List<TaskOutput>,
+  val watermark: Long,
+  val recentRowIds: Map<String, Long>,
+  val loadedAt: Long,
+  val refreshedAt: Long
+) {
+
+  /**
+   * Whether the task has reached a state it will not leave without a write through this repository. Retryable
+   * failures are excluded, since another instance may retry them at any time.
+   */
+  val terminal: Boolean
+    get() = history.lastOrNull()?.let { it.isCompleted && !it.isRetryable } ?: false
+
+  /**
+   * Returns a new view with the unseen [rows] appended in `created_at` order.
+   */
+  fun withRows(header: TaskHeader, rows: List<TaskChildRow>, lookbackMs: Long, now: Long): TaskView {
+    val horizon = watermark - lookbackMs
+    val unseen = rows
+      .filter { (it.createdAt >= horizon || it.createdAt == 0L) && !recentRowIds.containsKey(it.id) }
+      .sortedWith(compareBy({ it.createdAt }, { it.id }))
+
+    val newWatermark = maxOf(watermark, unseen.maxOfOrNull { it.createdAt } ?: watermark)
+    val newHorizon = newWatermark - lookbackMs
+
+    return TaskView(
+      id = id,
+      header = header,
+      history = history + unseen.filterIsInstance<TaskChildRow.State>().map { it.status },
+      resultObjects = resultObjects + unseen.filterIsInstance<TaskChildRow.Result>().map { it.body },
+      outputs = outputs + unseen.filterIsInstance<TaskChildRow.Output>().map { it.output },
+      watermark = newWatermark,
+      // Rows without a created_at are returned by every incremental read, so they are never pruned.
+      recentRowIds = (recentRowIds + unseen.map { it.id to it.createdAt })
+        .filterValues { it >= newHorizon || it == 0L },
+      loadedAt = loadedAt,
+      refreshedAt = now
+    )
+  }
+
+  fun toTask(repository: SqlTaskRepository): Task =
+    SqlTask(id, header.ownerId, header.requestId, header.startTimeMs, header.sagaIds.toMutableSet(), repository)
+      .also {
+        it.hydrateResultObjects(resultObjects.toMutableList())
+        it.hydrateHistory(history.toMutableList())
+        it.hydrateTaskOutputs(outputs.toMutableList())
+      }
+
+  companion object {
+    /**
+     * Builds a view from a full read of a task's rows.
+     */
+    fun load(id: String, header: TaskHeader, rows: List<TaskChildRow>, lookbackMs: Long, now: Long): TaskView =
+      TaskView(id, header, listOf(), listOf(), listOf(), 0L, mapOf(), now, now)
+        .withRows(header, rows, lookbackMs, now)
+  }
+}
@@ -34,6 +34,7 @@ import java.sql.SQLIntegrityConstraintViolationException
 import java.util.UUID
 import org.jooq.Condition
 import org.jooq.DSLContext
+import org.jooq.SQLDialect
 import org.jooq.impl.DSL.currentTimestamp
 import org.jooq.impl.DSL.field
 import org.jooq.impl.DSL.max
@@ -53,6 +54,8 @@ class SqlEventRepository(
 
   private val eventCountId = registry.createId("eventing.events")
   private val eventErrorCountId = registry.createId("eventing.errors")
+  private val snapshotCountId = registry.createId("eventing.snapshots")
+  private val snapshotTailId = registry.createId("eventing.snapshots.tailEvents")
 
   override fun save(
     aggregateType: String,
@@ -231,6 +234,56 @@ class SqlEventRepository(
     }
   }
 
+  override fun saveSnapshot(aggregateType: String, aggregateId: String, sequence: Long, events: List<SpinnakerEvent>) {
+    val data = events.toSnapshotData(objectMapper)
+
+    withPool(POOL_NAME) {
+      // Any snapshot combined with the events after it is the complete log, so racing writers are harmless: the
+      // last one wins and readers simply replay a slightly longer tail if it was the older of the two.
+      jooq.insertInto(SNAPSHOTS_TABLE)
+        .set(field("aggregate_type"), aggregateType)
+        .set(field("aggregate_id"), aggregateId)
+        .set(field("sequence"), sequence)
+        .set(field("timestamp"), currentTimestamp())
+        .set(field("data"), data)
+        .run {
+          if (jooq.dialect() == SQLDialect.POSTGRES) onConflict(field("aggregate_type"), field("aggregate_id")).doUpdate()
+          else onDuplicateKeyUpdate()
+        }
+        .set(field("sequence"), sequence)
+        .set(field("timestamp"), currentTimestamp())
+        .set(field("data"), data)
+        .execute()
+    }
+
+    log.debug("Saved snapshot of $aggregateType/$aggregateId at sequence $sequence (${events.size} events)")
+    registry.counter(snapshotCountId.withTags("aggregateType", aggregateType)).increment()
+  }
+
+  override fun listWithSnapshot(aggregateType: String, aggregateId: String): List<SpinnakerEvent> {
+    val aggregateCondition = field("aggregate_type").eq(aggregateType)
+      .and(field("aggregate_id").eq(aggregateId))
+
+    val snapshot = withPool(POOL_NAME) {
+      jooq.select(field("sequence"), field("data"))
+        .from(SNAPSHOTS_TABLE)
+        .where(aggregateCondition)
+        .fetchOne()
+    } ?: return list(aggregateType, aggregateId)
+
+    val sequence = snapshot.get(field("sequence"), Long::class.java)
+    val tail = withPool(POOL_NAME) {
+      jooq.select().from(EVENTS_TABLE)
+        .where(aggregateCondition.and(field("sequence").gt(sequence)))
+        .orderBy(field("sequence").asc())
+        .fetchEvents(objectMapper)
+    }
+
+    registry.distributionSummary(snapshotTailId.withTags("aggregateType", aggregateType)).record(tail.size.toLong())
+
+    return snapshot.get(field("data"), String::class.java).fromSnapshotData(objectMapper) + tail
+  }
+
   override fun listAggregates(criteria: ListAggregatesCriteria): EventRepository.ListAggregatesResult {
     // TODO(rz): validate criteria
 
@@ -273,6 +326,7 @@ class SqlEventRepository(
     private val POOL_NAME = ConnectionPools.EVENTS.value
     private val AGGREGATES_TABLE = table("event_aggregates")
     private val EVENTS_TABLE = table("events")
+    private val SNAPSHOTS_TABLE = table("event_snapshots")
 
     private val ulid = ULID()
   }
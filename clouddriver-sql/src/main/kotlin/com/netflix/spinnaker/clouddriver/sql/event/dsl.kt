@@ -17,6 +17,7 @@ package com.netflix.spinnaker.clouddriver.sql.event
 
 import com.fasterxml.jackson.core.JsonProcessingException
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.node.ObjectNode
 import com.netflix.spinnaker.clouddriver.event.Aggregate
 import com.netflix.spinnaker.clouddriver.event.CompositeSpinnakerEvent
 import com.netflix.spinnaker.clouddriver.event.EventMetadata
@@ -93,18 +94,54 @@ internal fun Select<out Record>.fetchEvents(objectMapper: ObjectMapper): List<Sp
     mutableListOf<SpinnakerEvent>().apply {
       while (rs.next()) {
         try {
-          val event = objectMapper.readValue(rs.getString("data"), SpinnakerEvent::class.java).apply {
-            setMetadata(objectMapper.readValue(rs.getString("metadata"), EventMetadata::class.java))
-          }
-          if (event is CompositeSpinnakerEvent) {
-            event.getComposedEvents().forEach {
-              it.setMetadata(event.getMetadata().copy(id = "N/A", sequence = -1))
-            }
-          }
-          add(event)
+          add(
+            objectMapper.readValue(rs.getString("data"), SpinnakerEvent::class.java)
+              .withMetadata(objectMapper.readValue(rs.getString("metadata"), EventMetadata::class.java))
+          )
         } catch (e: JsonProcessingException) {
           throw InvalidEventTypeException(e)
         }
       }
     }
   }
+
+/**
+ * Converts a list of [SpinnakerEvent] into a snapshot document. Event metadata is not part of an event's own
+ * serialized form, so each entry carries the two side-by-side, mirroring the `metadata` and `data` event columns.
+ */
+internal fun List<SpinnakerEvent>.toSnapshotData(objectMapper: ObjectMapper): String =
+  objectMapper.writeValueAsString(
+    objectMapper.createArrayNode().also { entries ->
+      forEach { event ->
+        entries.addObject()
+          .set<ObjectNode>("metadata", objectMapper.valueToTree(event.getMetadata()))
+          .set<ObjectNode>("data", objectMapper.valueToTree(event))
+      }
+    }
+  )
+
+/**
+ * Reads a snapshot document written by [toSnapshotData] back into a list of [SpinnakerEvent].
+ */
+internal fun String.fromSnapshotData(objectMapper: ObjectMapper): List<SpinnakerEvent> =
+  try {
+    objectMapper.readTree(this).map { entry ->
+      objectMapper.treeToValue(entry.get("data"), SpinnakerEvent::class.java)
+        .withMetadata(objectMapper.treeToValue(entry.get("metadata"), EventMetadata::class.java))
+    }
+  } catch (e: JsonProcessingException) {
+    throw InvalidEventTypeException(e)
+  }
+
+/**
+ * Sets the [metadata] of a deserialized event, propagating it to any composed events.
+ */
+private fun SpinnakerEvent.withMetadata(metadata: EventMetadata): SpinnakerEvent {
+  setMetadata(metadata)
+  if (this is CompositeSpinnakerEvent) {
+    getComposedEvents().forEach {
+      it.setMetadata(metadata.copy(id = "N/A", sequence = -1))
+    }
+  }
+  return this
+}
@@ -28,7 +28,7 @@ internal val taskOutputsTable = table("task_outputs")
 
 internal val tasksFields = listOf("id", "request_id", "owner_id", "created_at").map { field(it) }
 internal val taskStatesFields = listOf("id", "task_id", "created_at", "state", "phase", "status").map { field(it) }
-internal val taskResultsFields = listOf("id", "task_id", "body").map { field(it) }
+internal val taskResultsFields = listOf("id", "task_id", "created_at", "body").map { field(it) }
 internal val taskOutputsFields = listOf("id", "task_id", "created_at", "manifest", "phase", "std_out", "std_error").map { field(it) }
 
 /**
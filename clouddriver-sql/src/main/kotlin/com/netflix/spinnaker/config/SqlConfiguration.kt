@@ -48,7 +48,11 @@ import java.time.Clock
 @Configuration
 @ConditionalOnProperty("sql.enabled")
 @Import(DefaultSqlConfiguration::class)
-@EnableConfigurationProperties(SqlTaskCleanupAgentProperties::class, SqlEventCleanupAgentConfigProperties::class)
+@EnableConfigurationProperties(
+  SqlTaskCleanupAgentProperties::class,
+  SqlTaskReadCacheProperties::class,
+  SqlEventCleanupAgentConfigProperties::class
+)
 class SqlConfiguration {
 
   @Bean
@@ -56,9 +60,10 @@ class SqlConfiguration {
   fun sqlTaskRepository(
     jooq: DSLContext,
     clock: Clock,
-    objectMapper: ObjectMapper
+    objectMapper: ObjectMapper,
+    readCacheProperties: SqlTaskReadCacheProperties
   ): TaskRepository =
-    SqlTaskRepository(jooq, objectMapper, clock, ConnectionPools.TASKS.value)
+    SqlTaskRepository(jooq, objectMapper, clock, ConnectionPools.TASKS.value, readCacheProperties)
 
   @Bean
   @ConditionalOnProperty("sql.task-repository.enabled", "sql.task-repository.secondary.enabled")
@@ -66,10 +71,10 @@ class SqlConfiguration {
     jooq: DSLContext,
     clock: Clock,
     objectMapper: ObjectMapper,
-    @Value("\${sql.task-repository.secondary.pool-name}") poolName: String
-
+    @Value("\${sql.task-repository.secondary.pool-name}") poolName: String,
+    readCacheProperties: SqlTaskReadCacheProperties
   ): TaskRepository =
-    SqlTaskRepository(jooq, objectMapper, clock, poolName)
+    SqlTaskRepository(jooq, objectMapper, clock, poolName, readCacheProperties)
 
   @Bean
   @ConditionalOnProperty("sql.task-repository.enabled")
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.config
+
+import java.util.concurrent.TimeUnit
+import org.springframework.boot.context.properties.ConfigurationProperties
+
+/**
+ * Controls the in-process cache of task views kept by the SQL task repository.
+ */
+@ConfigurationProperties("sql.task-repository.read-cache")
+class SqlTaskReadCacheProperties {
+  /**
+   * The maximum number of task views to keep. Disabled (0) by default, which reads every task in full.
+   *
+   * Incremental reads select rows by their `created_at`, which is taken from the clock of the instance that wrote
+   * them, so only enable views when the clocks of every instance sharing the task tables agree within [lookbackMs].
+   * Rows written by an instance whose clock runs further behind can otherwise be missed until the view is rebuilt
+   * after [fullReloadIntervalMs].
+   */
+  var maxTasks: Int = 0
+
+  /**
+   * How far behind the newest row already read incremental reads look again, to catch rows that committed out of
+   * `created_at` order.
+   */
+  var lookbackMs: Long = TimeUnit.SECONDS.toMillis(5)
+
+  /**
+   * How long a completed or failed task is served from its view without querying.
+   *
+   * Only writes made through this instance drop a terminal view, so a task that another instance updates (e.g. a
+   * retried operation) can be reported as terminal for up to this long. Set to 0 to re-read terminal tasks
+   * incrementally like running ones.
+   */
+  var completedTtlMs: Long = TimeUnit.SECONDS.toMillis(30)
+
+  /**
+   * How long a view is refreshed incrementally before it is rebuilt from a full read.
+   */
+  var fullReloadIntervalMs: Long = TimeUnit.MINUTES.toMillis(5)
+}
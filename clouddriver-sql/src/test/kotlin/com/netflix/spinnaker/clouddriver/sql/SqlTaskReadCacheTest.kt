@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.clouddriver.sql
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule
+import com.fasterxml.jackson.module.kotlin.KotlinModule
+import com.netflix.spinnaker.config.ConnectionPools
+import com.netflix.spinnaker.config.SqlTaskReadCacheProperties
+import com.netflix.spinnaker.kork.sql.test.SqlTestUtil
+import dev.minutest.junit.JUnit5Minutests
+import dev.minutest.rootContext
+import java.time.Clock
+import org.jooq.impl.DSL.field
+import org.junit.jupiter.api.Assumptions.assumeTrue
+import org.testcontainers.DockerClientFactory
+import strikt.api.expectThat
+import strikt.assertions.containsExactly
+import strikt.assertions.hasSize
+import strikt.assertions.isEqualTo
+import strikt.assertions.isFalse
+import strikt.assertions.isNotNull
+import strikt.assertions.isNull
+
+class SqlTaskReadCacheTest : JUnit5Minutests {
+
+  fun tests() = rootContext<Fixture> {
+    fixture {
+      Fixture()
+    }
+
+    beforeAll {
+      assumeTrue(DockerClientFactory.instance().isDockerAvailable)
+    }
+
+    after {
+      SqlTestUtil.cleanupDb(database.context)
+    }
+
+    test("polling picks up history, results and outputs written by another instance") {
+      val task = subject.create("TEST", "created")
+      expectThat(subject.get(task.id)).isNotNull().get { history }.hasSize(1)
+
+      val remote = otherInstance.get(task.id)!!
+      remote.updateStatus("TEST", "running")
+      remote.addResultObjects(mutableListOf(mapOf("name" to "result")))
+      remote.updateOutput("manifest", "TEST", "out", "")
+
+      // Poll a few times: rows inside the lookback window must not be applied twice.
+      repeat(3) {
+        expectThat(subject.get(task.id)).isNotNull().and {
+          get { history.map { it.status } }.containsExactly("created", "running")
+          get { resultObjects }.hasSize(1)
+          get { outputs }.hasSize(1)
+        }
+      }
+    }
+
+    test("completed tasks are served from the cache until they expire") {
+      val task = subject.create("TEST", "created")
+      task.complete()
+      expectThat(subject.get(task.id)).isNotNull().get { status?.isCompleted }.isEqualTo(true)
+
+      otherInstance.get(task.id)!!.retry()
+
+      expectThat(subject.get(task.id)).isNotNull().get { status?.isCompleted }.isEqualTo(true)
+      expectThat(uncached.get(task.id)).isNotNull().get { status?.isCompleted }.isEqualTo(false)
+    }
+
+    test("local writes to completed tasks are visible immediately") {
+      val task = subject.create("TEST", "created")
+      task.fail(false)
+      expectThat(subject.get(task.id)).isNotNull().get { status?.isFailed }.isEqualTo(true)
+
+      subject.get(task.id)!!.retry()
+
+      expectThat(subject.get(task.id)).isNotNull().and {
+        get { status?.isCompleted }.isEqualTo(false)
+        get { history.last().isCompleted }.isFalse()
+      }
+    }
+
+    test("cached tasks that no longer exist are not returned") {
+      val task = subject.create("TEST", "created")
+      expectThat(subject.get(task.id)).isNotNull()
+
+      database.context.deleteFrom(tasksTable).where(field("id").eq(task.id)).execute()
+
+      expectThat(subject.get(task.id)).isNull()
+    }
+
+    test("running tasks are listed from their views") {
+      val t1 = subject.create("TEST", "created")
+      val t2 = subject.create("TEST", "created")
+      t2.complete()
+
+      expectThat(subject.list().map { it.id }).containsExactly(t1.id)
+      expectThat(subject.get(t2.id)).isNotNull().get { status?.isCompleted }.isEqualTo(true)
+      expectThat(subject.get(t1.id)).isNotNull().get { status?.isCompleted }.isEqualTo(false)
+    }
+  }
+
+  private inner class Fixture {
+    val database = SqlTestUtil.initTcMysqlDatabase()!!
+
+    val mapper = ObjectMapper().apply {
+      registerModules(KotlinModule(), JavaTimeModule())
+    }
+
+    val subject = SqlTaskRepository(
+      database.context,
+      mapper,
+      Clock.systemDefaultZone(),
+      ConnectionPools.TASKS.value,
+      SqlTaskReadCacheProperties().apply { maxTasks = 1000 }
+    )
+
+    val otherInstance = SqlTaskRepository(database.context, mapper, Clock.systemDefaultZone(), ConnectionPools.TASKS.value)
+
+    val uncached = SqlTaskRepository(
+      database.context,
+      mapper,
+      Clock.systemDefaultZone(),
+      ConnectionPools.TASKS.value,
+      SqlTaskReadCacheProperties().apply { maxTasks = 0 }
+    )
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.clouddriver.sql
+
+import com.netflix.spinnaker.clouddriver.data.task.DefaultTaskStatus
+import com.netflix.spinnaker.clouddriver.data.task.TaskDisplayOutput
+import com.netflix.spinnaker.clouddriver.data.task.TaskState
+import dev.minutest.junit.JUnit5Minutests
+import dev.minutest.rootContext
+import strikt.api.expectThat
+import strikt.assertions.containsExactly
+import strikt.assertions.containsKeys
+import strikt.assertions.doesNotContainKey
+import strikt.assertions.hasSize
+import strikt.assertions.isEqualTo
+import strikt.assertions.isFalse
+import strikt.assertions.isTrue
+
+class TaskViewTest : JUnit5Minutests {
+
+  fun tests() = rootContext<Fixture> {
+    fixture {
+      Fixture()
+    }
+
+    test("a full load orders rows by creation time") {
+      val view = TaskView.load(
+        "task",
+        header,
+        listOf(state("b", 20, "second"), state("a", 10, "first"), output("c", 15)),
+        lookbackMs = 5,
+        now = 100
+      )
+
+      expectThat(view) {
+        get { history.map { it.status } }.containsExactly("first", "second")
+        get { outputs }.hasSize(1)
+        get { watermark }.isEqualTo(20L)
+      }
+    }
+
+    test("rows already applied inside the lookback window are skipped") {
+      val view = TaskView.load("task", header, listOf(state("a", 10, "first"), state("b", 20, "second")), 5, 100)
+        .withRows(header, listOf(state("b", 20, "second"), state("c", 21, "third")), 5, 200)
+
+      expectThat(view) {
+        get { history.map { it.status } }.containsExactly("first", "second", "third")
+        get { refreshedAt }.isEqualTo(200L)
+        get { loadedAt }.isEqualTo(100L)
+      }
+    }
+
+    test("late rows inside the lookback window are appended") {
+      val view = TaskView.load("task", header, listOf(state("a", 20, "first")), 5, 100)
+        .withRows(header, listOf(state("b", 17, "late")), 5, 200)
+
+      expectThat(view.history.map { it.status }).containsExactly("first", "late")
+    }
+
+    test("row IDs outside the lookback window are pruned, except legacy rows") {
+      val view = TaskView.load("task", header, listOf(result("legacy", 0), state("a", 10, "first")), 5, 100)
+        .withRows(header, listOf(state("b", 30, "second")), 5, 200)
+
+      expectThat(view.recentRowIds) {
+        containsKeys("legacy", "b")
+        doesNotContainKey("a")
+      }
+    }
+
+    test("terminal views") {
+      val running = TaskView.load("task", header, listOf(state("a", 10, "running")), 5, 100)
+      expectThat(running.terminal).isFalse()
+
+      expectThat(running.withRows(header, listOf(state("b", 20, "done", TaskState.COMPLETED)), 5, 100).terminal)
+        .isTrue()
+      expectThat(running.withRows(header, listOf(state("b", 20, "oops", TaskState.FAILED_RETRYABLE)), 5, 100).terminal)
+        .isFalse()
+    }
+  }
+
+  private inner class Fixture {
+    val header = TaskHeader("owner", "request", 1, setOf())
+
+    fun state(id: String, createdAt: Long, status: String, state: TaskState = TaskState.STARTED) =
+      TaskChildRow.State(id, createdAt, DefaultTaskStatus.create("phase", status, state))
+
+    fun result(id: String, createdAt: Long) =
+      TaskChildRow.Result(id, createdAt, mapOf("id" to id))
+
+    fun output(id: String, createdAt: Long) =
+      TaskChildRow.Output(id, createdAt, TaskDisplayOutput("manifest", "phase", "out", "err"))
+  }
+}
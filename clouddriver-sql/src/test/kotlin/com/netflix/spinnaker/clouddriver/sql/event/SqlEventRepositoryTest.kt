@@ -36,10 +36,12 @@ import org.testcontainers.DockerClientFactory
 import strikt.api.expect
 import strikt.api.expectThat
 import strikt.api.expectThrows
+import strikt.assertions.all
 import strikt.assertions.containsExactly
 import strikt.assertions.hasSize
 import strikt.assertions.isA
 import strikt.assertions.isEqualTo
+import strikt.assertions.isLessThanOrEqualTo
 import strikt.assertions.isNotEmpty
 import strikt.assertions.isNotNull
 import strikt.assertions.isNull
@@ -198,6 +200,73 @@ class SqlEventRepositoryTest : JUnit5Minutests {
         }
       }
     }
+    context("snapshots") {
+      test("listing with a snapshot returns the snapshot followed by newer events") {
+        subject.save("agg", "1", 0, listOf(MyEvent("1"), MyEvent("2")))
+        subject.save("agg", "1", 1, listOf(MyEvent("3")))
+
+        val head = subject.list("agg", "1")
+        subject.saveSnapshot("agg", "1", 3, listOf(head.last()))
+
+        subject.save("agg", "1", 2, listOf(MyEvent("4"), MyEvent("5")))
+
+        expectThat(subject.listWithSnapshot("agg", "1"))
+          .and {
+            get { map { (it as MyEvent).value } }.containsExactly("3", "4", "5")
+            get { map { it.getMetadata().sequence } }.containsExactly(3, 4, 5)
+          }
+      }
+
+      test("listing without a snapshot returns the full log") {
+        subject.save("agg", "1", 0, listOf(MyEvent("1"), MyEvent("2")))
+
+        expectThat(subject.listWithSnapshot("agg", "1"))
+          .get { map { (it as MyEvent).value } }
+          .containsExactly("1", "2")
+      }
+
+      test("a newer snapshot replaces the previous one") {
+        subject.save("agg", "1", 0, listOf(MyEvent("1"), MyEvent("2")))
+        subject.saveSnapshot("agg", "1", 1, listOf(subject.list("agg", "1").first()))
+        subject.saveSnapshot("agg", "1", 2, listOf(subject.list("agg", "1").last()))
+
+        expectThat(subject.listWithSnapshot("agg", "1"))
+          .get { map { (it as MyEvent).value } }
+          .containsExactly("2")
+      }
+
+      test("loading with a snapshot reads as many events however long the log grows") {
+        val snapshotInterval = 100
+        val eventCounts = listOf(100, 1_000, 5_000)
+        val results = eventCounts.map { eventCount ->
+          val id = "bench-$eventCount"
+          var version = 0L
+          var lastSnapshot = 0
+          (1..eventCount).chunked(50).forEach { chunk ->
+            val events = chunk.map { MyEvent("$it") }
+            subject.save("agg", id, version++, events)
+
+            // Each event here replaces the aggregate's state, so the latest one is a complete snapshot.
+            if (chunk.last() - lastSnapshot >= snapshotInterval) {
+              subject.saveSnapshot("agg", id, events.last().getMetadata().sequence, listOf(events.last()))
+              lastSnapshot = chunk.last()
+            }
+          }
+
+          val full = subject.list("agg", id)
+          val snapshot = subject.listWithSnapshot("agg", id)
+
+          expectThat((snapshot.last() as MyEvent).value).isEqualTo((full.last() as MyEvent).value)
+          full.size to snapshot.size
+        }
+
+        expect {
+          that(results.map { it.first }).isEqualTo(eventCounts)
+          that(results.map { it.second }).all { isLessThanOrEqualTo(snapshotInterval) }
+          that(results.map { it.second }.distinct()).hasSize(1)
+        }
+      }
+    }
   }
 
   private inner class Fixture {
@@ -26,7 +26,6 @@ import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.IMA
 import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.INSTANCES;
 import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.SERVER_GROUPS;
 import static java.util.Collections.EMPTY_LIST;
-import static java.util.Collections.EMPTY_SET;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
@@ -86,6 +85,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -98,7 +98,6 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.inject.Provider;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -243,15 +242,13 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
      * applications, clusters, and server groups within a StreamingCacheState object.
      *
      * <p>After the initial snapshot persist, the agent continues to consume observeJobs events,
-     * updating StreamingCacheState, including a list of jobIds we've received events for. Once
-     * either titus.streaming.changeThreshold events have been consumed, or
-     * titus.streaming.timeThresholdMs ms has passed, cacheResults are built for the full resource
-     * graph of applications that have had job/task updates. This is more work than only directly
-     * updating i.e. server groups based on job updates or instance based on task updates, but
-     * avoids pitfalls in properly maintaining relationships to or deleting higher level objects. if
-     * the last server group in a cluster is deleted, the cluster object must also be deleted, and
-     * the application object updated. The later cannot currently be done incrementally in an atomic
-     * operation; safely updating an application object requires rebuilding it with full context.
+     * updating StreamingCacheState, including the jobIds and taskIds we've received events for.
+     * Once either titus.streaming.changeThreshold events have been consumed, or
+     * titus.streaming.timeThresholdMs ms has passed, only the changed server groups and instances
+     * are written, and server groups and instances of finished jobs and tasks are explicitly
+     * evicted. Applications, clusters and images can't be updated partially, as a partial record
+     * would replace their relationships, so they are rebuilt with full context from the keys of
+     * every cached job, and only when a job joining, leaving or moving changes their membership.
      */
     @Override
     public void executeAgent(Agent agent) {
@@ -272,48 +269,7 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
                 while (continueStreaming(startTime)) {
                   try {
                     while (notificationIt.hasNext() && continueStreaming(startTime)) {
-                      JobChangeNotification notification = notificationIt.next();
-                      switch (notification.getNotificationCase()) {
-                        case JOBUPDATE:
-                          updateJob(state, notification.getJobUpdate().getJob());
-                          break;
-                        case TASKUPDATE:
-                          if (notification.getTaskUpdate().getMovedFromAnotherJob()) {
-                            Task task = notification.getTaskUpdate().getTask();
-                            String destinationJobId = task.getJobId();
-                            String sourceJobId =
-                                task.getTaskContextOrDefault("task.movedFromJob", null);
-                            log.info(
-                                "{} task moved from job {} to {}",
-                                task.getId(),
-                                sourceJobId,
-                                destinationJobId);
-                            updateMovedTask(state, task, sourceJobId);
-                          }
-                          updateTask(state, notification.getTaskUpdate().getTask());
-                          break;
-                        case SNAPSHOTEND:
-                          state.lastUpdate.set(0);
-                          log.info(
-                              "{} snapshot finished in {}ms",
-                              getAgentType(),
-                              System.currentTimeMillis() - startTime);
-                          state.tasks.keySet().retainAll(state.jobs.keySet());
-                          if (state.snapshotComplete) {
-                            log.error(
-                                "{} received >1 SNAPSHOTEND events, this is unexpected and may be handled incorrectly",
-                                getAgentType());
-                          }
-                          state.snapshotComplete = true;
-                          break;
-                      }
-
-                      if (state.snapshotComplete) {
-                        writeToCache(state);
-                        if (!state.savedSnapshot) {
-                          state.savedSnapshot = true;
-                        }
-                      }
+                      process(state, notificationIt.next(), startTime);
                     }
                   } catch (io.grpc.StatusRuntimeException e) {
                     Integer backoff =
@@ -353,6 +309,50 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
       executor.shutdown();
     }
 
+    /**
+     * Applies a single observeJobs event to the streaming state, writing to the cache once the
+     * initial snapshot has been received.
+     */
+    void process(StreamingCacheState state, JobChangeNotification notification, long startTime) {
+      switch (notification.getNotificationCase()) {
+        case JOBUPDATE:
+          updateJob(state, notification.getJobUpdate().getJob());
+          break;
+        case TASKUPDATE:
+          if (notification.getTaskUpdate().getMovedFromAnotherJob()) {
+            Task task = notification.getTaskUpdate().getTask();
+            String destinationJobId = task.getJobId();
+            String sourceJobId = task.getTaskContextOrDefault("task.movedFromJob", null);
+            log.info(
+                "{} task moved from job {} to {}", task.getId(), sourceJobId, destinationJobId);
+            updateMovedTask(state, task, sourceJobId);
+          }
+          updateTask(state, notification.getTaskUpdate().getTask());
+          break;
+        case SNAPSHOTEND:
+          state.lastUpdate.set(0);
+          log.info(
+              "{} snapshot finished in {}ms",
+              getAgentType(),
+              System.currentTimeMillis() - startTime);
+          state.tasks.keySet().retainAll(state.jobs.keySet());
+          if (state.snapshotComplete) {
+            log.error(
+                "{} received >1 SNAPSHOTEND events, this is unexpected and may be handled incorrectly",
+                getAgentType());
+          }
+          state.snapshotComplete = true;
+          break;
+      }
+
+      if (state.snapshotComplete) {
+        writeToCache(state);
+        if (!state.savedSnapshot) {
+          state.savedSnapshot = true;
+        }
+      }
+    }
+
     private Iterator<JobChangeNotification> observeJobs() {
       return titusClient.observeJobs(
           ObserveJobsQuery.newBuilder()
@@ -364,9 +364,7 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
 
     private void updateJob(StreamingCacheState state, Job job) {
       String jobId = job.getId();
-      String application = job.getJobDescriptor().getApplicationName();
 
-      state.jobIdToApp.put(jobId, application);
       if (state.snapshotComplete) {
         state.updatedJobs.add(jobId);
       }
@@ -376,10 +374,11 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
           state
               .tasks
               .get(jobId)
+              .keySet()
               .forEach(
-                  t ->
+                  taskId ->
                       state.completedInstanceIds.add(
-                          Keys.getInstanceV2Key(t.getId(), account.getName(), region.getName())));
+                          Keys.getInstanceV2Key(taskId, account.getName(), region.getName())));
         }
         state.tasks.remove(jobId);
         if (state.jobs.containsKey(jobId)) {
@@ -400,15 +399,17 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
     private void updateTask(StreamingCacheState state, Task task) {
       String jobId = task.getJobId();
       if (FILTERED_TASK_STATES.contains(task.getStatus().getState())) {
-        state.tasks.computeIfAbsent(jobId, t -> new HashSet<>()).remove(task);
-        state.tasks.get(jobId).add(task);
+        state.tasks.computeIfAbsent(jobId, t -> new HashMap<>()).put(task.getId(), task);
+        if (state.snapshotComplete) {
+          state.updatedTaskIds.add(task.getId());
+        }
       } else if (FINISHED_TASK_STATES.contains(task.getStatus().getState())) {
         if (state.snapshotComplete) {
           state.completedInstanceIds.add(
               Keys.getInstanceV2Key(task.getId(), account.getName(), region.getName()));
         }
         if (state.tasks.containsKey(jobId)) {
-          state.tasks.get(jobId).remove(task);
+          state.tasks.get(jobId).remove(task.getId());
         } else if (state.snapshotComplete) {
           log.debug(
               "{} updateTask: task: {} jobId: {} has finished, but task not present in current snapshot set",
@@ -428,7 +429,7 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
     private void updateMovedTask(StreamingCacheState state, Task task, String sourceJobId) {
       if (sourceJobId != null) {
         if (state.tasks.containsKey(sourceJobId)) {
-          state.tasks.get(sourceJobId).remove(task);
+          state.tasks.get(sourceJobId).remove(task.getId());
           state.updatedJobs.add(sourceJobId);
         }
       }
@@ -473,7 +474,10 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
         PercentileTimer.get(registry, metricId.withTag("operation", "getLoadBalancers"))
             .record(System.currentTimeMillis() - startLoadBalancerTime, MILLISECONDS);
 
-        CacheResult result = buildCacheResult(state, scalingPolicyResults, allLoadBalancers);
+        CacheResult result =
+            state.savedSnapshot
+                ? buildIncrementalCacheResult(state, scalingPolicyResults, allLoadBalancers)
+                : buildSnapshotCacheResult(state, scalingPolicyResults, allLoadBalancers);
 
         Collection<String> authoritative =
             TYPES.stream()
@@ -488,12 +492,8 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
           cache.putCacheResult(getAgentType(), authoritative, result);
         }
 
-        // prune jobIdToApp
-        Set<String> completedJobs = new HashSet<>(state.jobIdToApp.keySet());
-        completedJobs.removeAll(state.jobs.keySet());
-        completedJobs.forEach(j -> state.jobIdToApp.remove(j));
-
         state.updatedJobs = new HashSet<>();
+        state.updatedTaskIds = new HashSet<>();
         state.lastUpdate.set(System.currentTimeMillis());
         state.changes.set(0);
 
@@ -502,162 +502,187 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
       }
     }
 
-    private CacheResult buildCacheResult(
+    /** Builds cache results for every job and task, to be stored authoritatively. */
+    private CacheResult buildSnapshotCacheResult(
         StreamingCacheState state,
         List<ScalingPolicyResult> scalingPolicyResults,
         Map<String, List<String>> allLoadBalancers) {
-      // INITIALIZE CACHES
       Map<String, CacheData> applicationCache = createCache();
       Map<String, CacheData> clusterCache = createCache();
       Map<String, CacheData> serverGroupCache = createCache();
-      Map<String, CacheData> targetGroupCache = createCache();
       Map<String, CacheData> imageCache = createCache();
       Map<String, CacheData> instancesCache = createCache();
 
-      // These are used to calculate deletes when updating incrementally
-      Set<String> currentApps = new HashSet<>();
-      Set<String> currentClusters = new HashSet<>();
-      Set<String> currentServerGroups = new HashSet<>();
-
       Map<String, List<String>> jobIdsByServerGroupKey = new HashMap<>();
 
-      Map<String, Job> jobs;
+      state.cachedJobs.clear();
+      for (Job job : state.jobs.values()) {
+        ServerGroupData data =
+            buildServerGroupData(state, job, scalingPolicyResults, allLoadBalancers);
+        state.cachedJobs.put(job.getId(), data.keys);
+
+        cacheApplication(data.keys, applicationCache);
+        cacheCluster(data.keys, clusterCache);
+        cacheServerGroup(data, serverGroupCache);
+        cacheImage(data.keys, imageCache);
+        addJobIdsByServerGroupKey(data, jobIdsByServerGroupKey);
+        cacheInstances(state, data, null, instancesCache);
+      }
 
-      if (state.savedSnapshot) {
-        List<String> missingJobMappings =
-            state.updatedJobs.stream()
-                .filter(j -> !state.jobIdToApp.containsKey(j))
-                .collect(Collectors.toList());
+      logDuplicateServerGroups(jobIdsByServerGroupKey, serverGroupCache);
 
-        if (!missingJobMappings.isEmpty()) {
-          log.error(
-              "{} updatedJobs missing from jobIdToApp cache: {}",
-              getAgentType(),
-              missingJobMappings);
+      return toCacheResult(
+          "Snapshot caching",
+          applicationCache,
+          clusterCache,
+          serverGroupCache,
+          imageCache,
+          instancesCache);
+    }
+
+    /**
+     * Builds cache results for the jobs and tasks that changed since the last write, and evicts the
+     * server groups and instances of jobs and tasks that have finished.
+     */
+    private CacheResult buildIncrementalCacheResult(
+        StreamingCacheState state,
+        List<ScalingPolicyResult> scalingPolicyResults,
+        Map<String, List<String>> allLoadBalancers) {
+      Map<String, CacheData> applicationCache = createCache();
+      Map<String, CacheData> clusterCache = createCache();
+      Map<String, CacheData> serverGroupCache = createCache();
+      Map<String, CacheData> imageCache = createCache();
+      Map<String, CacheData> instancesCache = createCache();
+
+      // Applications and images whose set of server groups changed
+      Set<String> changedApplications = new HashSet<>();
+      Set<String> changedImages = new HashSet<>();
+      Set<String> removedServerGroups = new HashSet<>();
+
+      for (String jobId : state.updatedJobs) {
+        Job job = state.jobs.get(jobId);
+        if (job == null) {
+          CachedJob finished = state.cachedJobs.remove(jobId);
+          if (finished != null) {
+            changedApplications.add(finished.appNameKey);
+            changedImages.add(finished.imageKey);
+            removedServerGroups.add(finished.serverGroupKey);
+          }
+          continue;
         }
 
-        Set<String> changedApplications =
-            state.updatedJobs.stream()
-                .map(j -> state.jobIdToApp.get(j))
-                .collect(Collectors.toSet());
-        changedApplications.remove(null);
+        ServerGroupData data =
+            buildServerGroupData(state, job, scalingPolicyResults, allLoadBalancers);
+        CachedJob previous = state.cachedJobs.put(jobId, data.keys);
+        if (!data.keys.equals(previous)) {
+          changedApplications.add(data.keys.appNameKey);
+          changedImages.add(data.keys.imageKey);
+          if (previous != null) {
+            changedApplications.add(previous.appNameKey);
+            changedImages.add(previous.imageKey);
+            removedServerGroups.add(previous.serverGroupKey);
+          }
+        }
 
-        currentApps.addAll(changedApplications);
+        cacheServerGroup(data, serverGroupCache);
+        cacheInstances(state, data, state.updatedTaskIds, instancesCache);
+      }
 
-        Set<String> jobsNeeded =
-            state.jobIdToApp.entrySet().stream()
-                .filter(entry -> changedApplications.contains(entry.getValue()))
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toSet());
+      // A partial application, cluster or image would replace the relationships of the complete
+      // one, so they're rebuilt from every cached job that references them
+      if (!changedApplications.isEmpty() || !changedImages.isEmpty()) {
+        for (CachedJob cachedJob : state.cachedJobs.values()) {
+          if (changedApplications.contains(cachedJob.appNameKey)) {
+            cacheApplication(cachedJob, applicationCache);
+            cacheCluster(cachedJob, clusterCache);
+          }
+          if (changedImages.contains(cachedJob.imageKey)) {
+            cacheImage(cachedJob, imageCache);
+          }
+          removedServerGroups.remove(cachedJob.serverGroupKey);
+        }
+      }
 
-        jobs =
-            state.jobs.entrySet().stream()
-                .filter(e -> jobsNeeded.contains(e.getKey()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-      } else {
-        jobs = state.jobs;
+      if (!removedServerGroups.isEmpty()) {
+        log.info("Evicting {} server groups in {}", removedServerGroups.size(), getAgentType());
+        cache.evictDeletedItems(SERVER_GROUPS.ns, removedServerGroups);
       }
 
-      List<ServerGroupData> serverGroupDatas =
-          jobs.values().stream()
+      if (!state.completedInstanceIds.isEmpty()) {
+        log.info("Evicting {} instances in {}", state.completedInstanceIds.size(), getAgentType());
+        cache.evictDeletedItems(INSTANCES.ns, state.completedInstanceIds);
+        state.completedInstanceIds = new HashSet<>();
+      }
+
+      return toCacheResult(
+          "Incrementally updating",
+          applicationCache,
+          clusterCache,
+          serverGroupCache,
+          imageCache,
+          instancesCache);
+    }
+
+    private ServerGroupData buildServerGroupData(
+        StreamingCacheState state,
+        Job job,
+        List<ScalingPolicyResult> scalingPolicyResults,
+        Map<String, List<String>> allLoadBalancers) {
+      List<ScalingPolicyData> jobScalingPolicies =
+          scalingPolicyResults.stream()
+              .filter(
+                  it ->
+                      it.getJobId().equalsIgnoreCase(job.getId())
+                          && CACHEABLE_POLICY_STATES.contains(it.getPolicyState().getState()))
               .map(
-                  job -> {
-                    List<ScalingPolicyData> jobScalingPolicies =
-                        scalingPolicyResults.stream()
-                            .filter(
-                                it ->
-                                    it.getJobId().equalsIgnoreCase(job.getId())
-                                        && CACHEABLE_POLICY_STATES.contains(
-                                            it.getPolicyState().getState()))
-                            .map(
-                                it ->
-                                    new ScalingPolicyData(
-                                        it.getId().getId(),
-                                        it.getScalingPolicy(),
-                                        it.getPolicyState()))
-                            .collect(Collectors.toList());
-
-                    List<String> jobLoadBalancers =
-                        allLoadBalancers.getOrDefault(job.getId(), emptyList());
-
-                    return new ServerGroupData(
-                        new com.netflix.spinnaker.clouddriver.titus.client.model.Job(
-                            job, EMPTY_LIST),
-                        jobScalingPolicies,
-                        jobLoadBalancers,
-                        state.tasks.getOrDefault(job.getId(), emptySet()).stream()
-                            .map(Task::getId)
-                            .collect(Collectors.toSet()),
-                        account.getName(),
-                        region.getName());
-                  })
+                  it ->
+                      new ScalingPolicyData(
+                          it.getId().getId(), it.getScalingPolicy(), it.getPolicyState()))
               .collect(Collectors.toList());
 
-      serverGroupDatas.forEach(
-          data -> {
-            String app = StringUtils.substringAfterLast(data.appNameKey, ":");
-
-            if (StringUtils.isNotEmpty(app)) {
-              state.appToClusters.computeIfAbsent(app, c -> new HashSet<>()).add(data.clusterKey);
-              state
-                  .appsToServerGroups
-                  .computeIfAbsent(app, c -> new HashSet<>())
-                  .add(data.serverGroupKey);
-              state.clusterKeyToApp.put(data.clusterKey, app);
-              state.sgKeyToApp.put(data.serverGroupKey, app);
-            }
-
-            if (state.savedSnapshot) {
-              currentApps.add(app);
-              currentClusters.add(data.clusterKey);
-              currentServerGroups.add(data.serverGroupKey);
-            }
-
-            cacheApplication(data, applicationCache);
-            cacheCluster(data, clusterCache);
-            cacheServerGroup(data, serverGroupCache);
-            cacheImage(data, imageCache);
-            addJobIdsByServerGroupKey(data, jobIdsByServerGroupKey);
-
-            for (Task task : (Set<Task>) state.tasks.getOrDefault(data.job.getId(), EMPTY_SET)) {
-              InstanceData instanceData =
-                  new InstanceData(
-                      new com.netflix.spinnaker.clouddriver.titus.client.model.Task(task),
-                      data.job.getName(),
-                      account.getName(),
-                      region.getName());
-              cacheInstance(instanceData, instancesCache);
-            }
-          });
-
-      if (state.savedSnapshot) {
-        List<String> missingServerGroups =
-            state.appsToServerGroups.entrySet().stream()
-                .filter(e -> currentApps.contains(e.getKey()))
-                .flatMap(e -> e.getValue().stream())
-                .filter(c -> !currentServerGroups.contains(c))
-                .collect(Collectors.toList());
-
-        if (!missingServerGroups.isEmpty()) {
-          log.info("Evicting {} server groups in {}", missingServerGroups.size(), getAgentType());
-          cache.evictDeletedItems(SERVER_GROUPS.ns, missingServerGroups);
-          missingServerGroups.forEach(
-              sg -> {
-                state
-                    .appsToServerGroups
-                    .getOrDefault(state.sgKeyToApp.get(sg), emptySet())
-                    .remove(sg);
-                state.sgKeyToApp.remove(sg);
-              });
-        }
+      List<String> jobLoadBalancers = allLoadBalancers.getOrDefault(job.getId(), emptyList());
 
-        if (!state.completedInstanceIds.isEmpty()) {
-          log.info(
-              "Evicting {} instances in {}", state.completedInstanceIds.size(), getAgentType());
-          cache.evictDeletedItems(INSTANCES.ns, state.completedInstanceIds);
-          state.completedInstanceIds = new HashSet<>();
+      return new ServerGroupData(
+          new com.netflix.spinnaker.clouddriver.titus.client.model.Job(job, EMPTY_LIST),
+          jobScalingPolicies,
+          jobLoadBalancers,
+          state.tasks.getOrDefault(job.getId(), emptyMap()).keySet(),
+          account.getName(),
+          region.getName());
+    }
+
+    /**
+     * Caches the tasks of a job.
+     *
+     * @param taskIds if not null, only the tasks with these ids are cached
+     */
+    private void cacheInstances(
+        StreamingCacheState state,
+        ServerGroupData data,
+        Set<String> taskIds,
+        Map<String, CacheData> instancesCache) {
+      for (Task task : state.tasks.getOrDefault(data.job.getId(), emptyMap()).values()) {
+        if (taskIds != null && !taskIds.contains(task.getId())) {
+          continue;
         }
+        InstanceData instanceData =
+            new InstanceData(
+                new com.netflix.spinnaker.clouddriver.titus.client.model.Task(task),
+                data.job.getName(),
+                account.getName(),
+                region.getName());
+        cacheInstance(instanceData, instancesCache);
       }
+    }
+
+    private CacheResult toCacheResult(
+        String action,
+        Map<String, CacheData> applicationCache,
+        Map<String, CacheData> clusterCache,
+        Map<String, CacheData> serverGroupCache,
+        Map<String, CacheData> imageCache,
+        Map<String, CacheData> instancesCache) {
+      Map<String, CacheData> targetGroupCache = createCache();
 
       Map<String, Collection<CacheData>> cacheResults = new HashMap<>();
       cacheResults.put(APPLICATIONS.ns, applicationCache.values());
@@ -667,13 +692,6 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
       cacheResults.put(IMAGES.ns, imageCache.values());
       cacheResults.put(INSTANCES.ns, instancesCache.values());
 
-      // No need to log this on incremental updates
-      if (!state.savedSnapshot) {
-        logDuplicateServerGroups(jobIdsByServerGroupKey, serverGroupCache);
-      }
-
-      String action = state.savedSnapshot ? "Incrementally updating" : "Snapshot caching";
-
       log.info("{} {} applications in {}", action, applicationCache.size(), getAgentType());
       log.info("{} {} server groups in {}", action, serverGroupCache.size(), getAgentType());
       log.info("{} {} clusters in {}", action, clusterCache.size(), getAgentType());
@@ -685,10 +703,10 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
     }
 
     /** Build authoritative cache object for applications based on server group data */
-    private void cacheApplication(ServerGroupData data, Map<String, CacheData> applications) {
+    private void cacheApplication(CachedJob data, Map<String, CacheData> applications) {
       CacheData applicationCache =
           applications.getOrDefault(data.appNameKey, new MutableCacheData(data.appNameKey));
-      applicationCache.getAttributes().put("name", data.name.getApp());
+      applicationCache.getAttributes().put("name", data.appName);
       Map<String, Collection<String>> relationships = applicationCache.getRelationships();
       relationships.computeIfAbsent(CLUSTERS.ns, key -> new HashSet<>()).add(data.clusterKey);
       relationships
@@ -701,10 +719,10 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
     }
 
     /** Build informative cache object for clusters based on server group data */
-    private void cacheCluster(ServerGroupData data, Map<String, CacheData> clusters) {
+    private void cacheCluster(CachedJob data, Map<String, CacheData> clusters) {
       CacheData clusterCache =
           clusters.getOrDefault(data.clusterKey, new MutableCacheData(data.clusterKey));
-      clusterCache.getAttributes().put("name", data.name.getCluster());
+      clusterCache.getAttributes().put("name", data.clusterName);
       Map<String, Collection<String>> relationships = clusterCache.getRelationships();
       relationships.computeIfAbsent(APPLICATIONS.ns, key -> new HashSet<>()).add(data.appNameKey);
       relationships
@@ -751,7 +769,7 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
           .add(data.job.getId());
     }
 
-    private void cacheImage(ServerGroupData data, Map<String, CacheData> images) {
+    private void cacheImage(CachedJob data, Map<String, CacheData> images) {
       CacheData imageCache =
           images.getOrDefault(data.imageKey, new MutableCacheData(data.imageKey));
       imageCache
@@ -782,25 +800,80 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
       }
       instances.put(data.instanceId, instanceCache);
     }
+  }
+
+  /** The jobs and tasks seen on the observeJobs stream, and what changed since the last write. */
+  static class StreamingCacheState {
+    AtomicInteger changes = new AtomicInteger(0);
+    AtomicLong lastUpdate = new AtomicLong(0);
 
-    class StreamingCacheState {
-      AtomicInteger changes = new AtomicInteger(0);
-      AtomicLong lastUpdate = new AtomicLong(0);
+    Map<String, Job> jobs = new HashMap<>();
+    /** Tasks by id, by job id. */
+    Map<String, Map<String, Task>> tasks = new HashMap<>();
 
-      Map<String, Job> jobs = new HashMap<>();
-      Map<String, Set<Task>> tasks = new HashMap<>();
+    /** The keys each job was last cached with, by job id. */
+    Map<String, CachedJob> cachedJobs = new HashMap<>();
 
-      Map<String, String> jobIdToApp = new HashMap<>();
-      Map<String, Set<String>> appToClusters = new HashMap<>();
-      Map<String, Set<String>> appsToServerGroups = new HashMap<>();
-      Map<String, String> clusterKeyToApp = new HashMap<>();
-      Map<String, String> sgKeyToApp = new HashMap<>();
+    Set<String> completedInstanceIds = new HashSet<>();
+    Set<String> updatedJobs = new HashSet<>();
+    Set<String> updatedTaskIds = new HashSet<>();
 
-      Set<String> completedInstanceIds = new HashSet<>();
-      Set<String> updatedJobs = new HashSet<>();
+    Boolean snapshotComplete = false;
+    Boolean savedSnapshot = false;
+  }
 
-      Boolean snapshotComplete = false;
-      Boolean savedSnapshot = false;
+  /**
+   * The keys a job was cached with; a change to any of them changes the relationships of its
+   * application, cluster or image.
+   */
+  static class CachedJob {
+    final String appName;
+    final String appNameKey;
+    final String clusterName;
+    final String clusterKey;
+    final String serverGroupKey;
+    final String imageKey;
+    final Set<String> targetGroupKeys;
+
+    CachedJob(
+        String appName,
+        String appNameKey,
+        String clusterName,
+        String clusterKey,
+        String serverGroupKey,
+        String imageKey,
+        Set<String> targetGroupKeys) {
+      this.appName = appName;
+      this.appNameKey = appNameKey;
+      this.clusterName = clusterName;
+      this.clusterKey = clusterKey;
+      this.serverGroupKey = serverGroupKey;
+      this.imageKey = imageKey;
+      this.targetGroupKeys = targetGroupKeys;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      CachedJob that = (CachedJob) o;
+      return Objects.equals(appName, that.appName)
+          && Objects.equals(appNameKey, that.appNameKey)
+          && Objects.equals(clusterName, that.clusterName)
+          && Objects.equals(clusterKey, that.clusterKey)
+          && Objects.equals(serverGroupKey, that.serverGroupKey)
+          && Objects.equals(imageKey, that.imageKey)
+          && Objects.equals(targetGroupKeys, that.targetGroupKeys);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(
+          appName, appNameKey, clusterName, clusterKey, serverGroupKey, imageKey, targetGroupKeys);
     }
   }
 
@@ -956,6 +1029,7 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
     final String imageId;
     final String imageKey;
     final Set<String> taskKeys;
+    final CachedJob keys;
 
     ServerGroupData(
         com.netflix.spinnaker.clouddriver.titus.client.model.Job job,
@@ -1002,6 +1076,16 @@ public class TitusStreamingUpdateAgent implements CustomScheduledAgent, CachingA
                           TargetTypeEnum.Ip.toString(),
                           getAwsVpcId(account, region)))
               .collect(Collectors.toSet());
+
+      keys =
+          new CachedJob(
+              name.getApp(),
+              appNameKey,
+              name.getCluster(),
+              clusterKey,
+              serverGroupKey,
+              imageKey,
+              targetGroupKeys);
     }
   }
 
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.clouddriver.titus.caching.agents
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.google.protobuf.util.JsonFormat
+import com.netflix.spectator.api.NoopRegistry
+import com.netflix.spinnaker.cats.agent.CacheResult
+import com.netflix.spinnaker.cats.mem.InMemoryCache
+import com.netflix.spinnaker.cats.provider.DefaultProviderCache
+import com.netflix.spinnaker.cats.provider.ProviderCache
+import com.netflix.spinnaker.cats.provider.ProviderRegistry
+import com.netflix.spinnaker.clouddriver.titus.TitusClientProvider
+import com.netflix.spinnaker.clouddriver.titus.caching.Keys
+import com.netflix.spinnaker.clouddriver.titus.caching.utils.AwsLookupUtil
+import com.netflix.spinnaker.clouddriver.titus.client.TitusClient
+import com.netflix.spinnaker.clouddriver.titus.client.TitusRegion
+import com.netflix.spinnaker.clouddriver.titus.credentials.NetflixTitusCredentials
+import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService
+import com.netflix.titus.grpc.protogen.JobChangeNotification
+import spock.lang.Specification
+
+import javax.inject.Provider
+
+import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.APPLICATIONS
+import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.CLUSTERS
+import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.IMAGES
+import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.INSTANCES
+import static com.netflix.spinnaker.clouddriver.titus.caching.Keys.Namespace.SERVER_GROUPS
+
+class TitusStreamingUpdateAgentSpec extends Specification {
+  static final String ACCOUNT = 'test'
+  static final String REGION = 'us-east-1'
+
+  NetflixTitusCredentials credentials = Stub() {
+    getName() >> ACCOUNT
+  }
+  TitusRegion region = Stub() {
+    getName() >> REGION
+  }
+  TitusClientProvider titusClientProvider = Mock() {
+    getTitusClient(_, _) >> Mock(TitusClient)
+  }
+  AwsLookupUtil awsLookupUtil = Stub() {
+    awsAccountId(_, _) >> '123456789012'
+    awsAccountName(_, _) >> 'aws-test'
+    awsVpcId(_, _) >> 'vpc-1'
+  }
+  DynamicConfigService dynamicConfigService = Stub() {
+    getConfig(Integer, 'titus.streaming.change-threshold', _) >> 1
+  }
+
+  /** A snapshot of three jobs, followed by task updates, a finished job, a new job and a move. */
+  List<String> recording =
+    getClass().getResourceAsStream('/titus-job-notifications.jsonl').readLines()
+  int snapshotLength = recording.findIndexOf { it.contains('snapshotEnd') } + 1
+
+  void 'incremental writes leave the cache as a snapshot of the final state would'() {
+    given:
+    ProviderCache streamed = newCache()
+    ProviderCache snapshotted = newCache()
+    def state = new TitusStreamingUpdateAgent.StreamingCacheState()
+
+    when:
+    replay(streamed, state, recording)
+    replay(snapshotted, new TitusStreamingUpdateAgent.StreamingCacheState(), snapshotOf(state))
+
+    then:
+    [APPLICATIONS, CLUSTERS, SERVER_GROUPS, IMAGES, INSTANCES].each {
+      assert contents(streamed, it.ns) == contents(snapshotted, it.ns)
+    }
+    contents(streamed, SERVER_GROUPS.ns).keySet() == [
+      serverGroupKey('api-main-v002'), serverGroupKey('api-canary-v000'), serverGroupKey('web-main-v001')
+    ] as Set
+    contents(streamed, INSTANCES.ns).keySet() == ['task-3', 'task-4', 'task-5', 'task-6'].collect {
+      instanceKey(it)
+    } as Set
+  }
+
+  void 'a task update only writes its server group and instance'() {
+    given:
+    ProviderCache cache = Spy(DefaultProviderCache, constructorArgs: [new InMemoryCache()])
+    def state = new TitusStreamingUpdateAgent.StreamingCacheState()
+    replay(cache, state, recording.take(snapshotLength))
+    CacheResult result = null
+
+    when:
+    replay(cache, state, [recording[snapshotLength]])
+
+    then:
+    1 * cache.addCacheResult(_, _, _) >> { args ->
+      result = args[2]
+      callRealMethod()
+    }
+    0 * cache.evictDeletedItems(_, _)
+    ids(result, SERVER_GROUPS.ns) == [serverGroupKey('api-main-v002')]
+    ids(result, INSTANCES.ns) == [instanceKey('task-5')]
+    ids(result, APPLICATIONS.ns).isEmpty()
+    ids(result, CLUSTERS.ns).isEmpty()
+    ids(result, IMAGES.ns).isEmpty()
+  }
+
+  void 'a finished job evicts its server group and instances and rebuilds its application'() {
+    given:
+    ProviderCache cache = Spy(DefaultProviderCache, constructorArgs: [new InMemoryCache()])
+    def state = new TitusStreamingUpdateAgent.StreamingCacheState()
+    int finishedJob = recording.findIndexOf {
+      it.contains('jobUpdate') && it.contains('"state":"Finished"')
+    }
+    replay(cache, state, recording.take(finishedJob))
+    CacheResult result = null
+
+    when:
+    replay(cache, state, [recording[finishedJob]])
+
+    then:
+    1 * cache.evictDeletedItems(INSTANCES.ns, [instanceKey('task-2')] as Set)
+    1 * cache.evictDeletedItems(SERVER_GROUPS.ns, [serverGroupKey('api-main-v001')] as Set)
+    1 * cache.addCacheResult(_, _, _) >> { args ->
+      result = args[2]
+      callRealMethod()
+    }
+    ids(result, SERVER_GROUPS.ns).isEmpty()
+    ids(result, INSTANCES.ns).isEmpty()
+    ids(result, APPLICATIONS.ns) == [Keys.getApplicationKey('api')]
+    result.cacheResults[APPLICATIONS.ns][0].relationships[SERVER_GROUPS.ns] ==
+      [serverGroupKey('api-main-v002')] as Set
+    cache.get(SERVER_GROUPS.ns, serverGroupKey('api-main-v001')) == null
+  }
+
+  private ProviderCache newCache() {
+    return new DefaultProviderCache(new InMemoryCache())
+  }
+
+  private void replay(
+    ProviderCache cache, TitusStreamingUpdateAgent.StreamingCacheState state, List<String> lines) {
+    ProviderRegistry providerRegistry = Stub() {
+      getProviderCache(_) >> cache
+    }
+    def agent = new TitusStreamingUpdateAgent(
+      titusClientProvider,
+      credentials,
+      region,
+      new ObjectMapper(),
+      new NoopRegistry(),
+      { awsLookupUtil } as Provider<AwsLookupUtil>,
+      dynamicConfigService
+    )
+    def execution = agent.getAgentExecution(providerRegistry)
+
+    lines.each { line ->
+      JobChangeNotification.Builder notification = JobChangeNotification.newBuilder()
+      JsonFormat.parser().ignoringUnknownFields().merge(line, notification)
+      execution.process(state, notification.build(), System.currentTimeMillis())
+    }
+  }
+
+  /** Notifications that would snapshot the jobs and tasks of the given state. */
+  private static List<String> snapshotOf(TitusStreamingUpdateAgent.StreamingCacheState state) {
+    JsonFormat.Printer printer = JsonFormat.printer()
+    return state.jobs.values().collect {
+      "{\"jobUpdate\":{\"job\":${printer.print(it)}}}".toString()
+    } +
+      state.tasks.values().collectMany { it.values() }.collect {
+        "{\"taskUpdate\":{\"task\":${printer.print(it)}}}".toString()
+      } +
+      ['{"snapshotEnd":{}}']
+  }
+
+  private static Map<String, Map<String, Set<String>>> contents(ProviderCache cache, String type) {
+    return cache.getAll(type).collectEntries { data ->
+      [(data.id): data.relationships.collectEntries { k, v -> [(k): v as Set] }]
+    }
+  }
+
+  private static List<String> ids(CacheResult result, String type) {
+    return result.cacheResults[type]*.id
+  }
+
+  private static String serverGroupKey(String name) {
+    return Keys.getServerGroupV2Key(name, ACCOUNT, REGION)
+  }
+
+  private static String instanceKey(String taskId) {
+    return Keys.getInstanceV2Key(taskId, ACCOUNT, REGION)
+  }
+}